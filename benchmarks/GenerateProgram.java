@@ -0,0 +1,86 @@
+// Writes a generated program of about the given number of tokens, used as the input of benchmarks/ParserBenchmark.java.
+// Run with: java -cp target/classes benchmarks/GenerateProgram.java 1000000 benchmarks/generated.pk
+
+import indy.pseudokod.lexer.Lexer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates a program made of numbered copies of {@link #BLOCK}, each declaring its own variables and function,
+ * so the program can also be run. Since identifiers are made of letters only, the number of a copy is written
+ * in letters in the names it declares. The number of tokens of a block is counted by the {@link Lexer} once,
+ * and blocks are written until the program has at least the requested number of tokens.
+ */
+public class GenerateProgram {
+    private static final String BLOCK = """
+            data:
+                number a_@ <- #,
+                string s_@ <- "block #";
+            function f_@
+                data:
+                    number x*,
+                    number y*;
+                result: number;
+                return x * y + # mod 7
+            for i_@ = 1, 2, ..., 10
+                if i_@ mod 2 = 0 AND a_@ > 0
+                    a_@ <- a_@ + f_@(i_@, 2)
+                else
+                    a_@ <- a_@ - 1
+            print s_@, " ", a_@, endl;
+            """;
+
+    /**
+     * Writes the program.
+     *
+     * @param args The number of tokens, {@code 1000000} by default, and the path of the file to write, {@code benchmarks/generated.pk} by default.
+     * @throws Exception If the block cannot be lexed or the file cannot be written.
+     */
+    public static void main(String[] args) throws Exception {
+        final long tokens = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        final Path path = Path.of(args.length > 1 ? args[1] : "benchmarks/generated.pk");
+
+        final int block = Lexer.tokenizeCompact(block(0)).size() - 1;
+        final long blocks = (tokens + block - 1) / block;
+        write(path, blocks);
+
+        System.out.println("Wrote " + blocks + " blocks of " + block + " tokens, " + blocks * block + " tokens in total, to " + path + ".");
+    }
+
+    /**
+     * Writes the given number of blocks to a file. The new line ending the last block is left out.
+     *
+     * @param path The path of the file.
+     * @param blocks The number of blocks.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void write(Path path, long blocks) throws IOException {
+        try(Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for(long i = 0; i < blocks; i++) {
+                final String block = block(i);
+                writer.write(i < blocks - 1 ? block : block.substring(0, block.length() - 1));
+            }
+        }
+    }
+
+    /**
+     * Numbers a copy of {@link #BLOCK}.
+     *
+     * @param number The number of the copy.
+     * @return The copy, with the number written in digits in place of {@code #} and in letters in place of {@code @}.
+     */
+    private static String block(long number) {
+        final StringBuilder letters = new StringBuilder();
+        long rest = number;
+        do {
+            letters.append((char) ('a' + rest % 26));
+            rest /= 26;
+        } while(rest > 0);
+
+        return BLOCK.replace("#", Long.toString(number)).replace("@", letters);
+    }
+}
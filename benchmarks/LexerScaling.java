@@ -0,0 +1,109 @@
+// Lexes generated sources from 1 KB to 10 MB and checks that the time per character stays flat, i.e. lexing is linear.
+// Run with: java -Dfile.encoding=UTF-8 -Xms2g -Xmx2g -cp target/classes benchmarks/LexerScaling.java
+// A fixed heap keeps the tokens of the largest source from resizing it while they are timed.
+
+import indy.pseudokod.lexer.Lexer;
+import indy.pseudokod.lexer.Token;
+
+import java.util.List;
+
+/**
+ * Measures the time {@link Lexer#tokenize(String)} needs for sources of growing sizes.<br><br>
+ *
+ * Every source repeats the same block of code, which uses the symbols written with characters outside of ASCII,
+ * comments, string and character literals. The smaller sources are lexed several times, so every size lexes
+ * about as many characters in total. The benchmark fails if the time per character of any size
+ * is more than {@link #TOLERANCE} times the time per character of the fastest one.
+ */
+public class LexerScaling {
+    private static final String BLOCK = """
+            // Sums the numbers of a range which are not divisible by 3.
+            data:
+                number total <- 0,
+                number limit ∈ [0; ∞) <- 100,
+                string name <- "suma ≠ 0",
+                char separator <- ';';
+            function add
+                data:
+                    number a*,
+                    number b*;
+                result: number;
+                return a + b
+            for i = 1, 2, ..., limit
+                if i mod 3 ≠ 0 ∧ ¬(i ≥ 50 ⊕ i ≤ 10)
+                    total <- add(total, i)
+                /* the other numbers
+                   are skipped */
+            print name, separator, total, endl;
+            """;
+    private static final int[] SIZES = {1 << 10, 10 << 10, 100 << 10, 1 << 20, 10 << 20};
+    private static final double TOLERANCE = 3.0;
+
+    /**
+     * Runs the benchmark and exits with status 1 if lexing does not scale linearly.
+     *
+     * @param args Not used.
+     * @throws Exception If a source cannot be lexed.
+     */
+    public static void main(String[] args) throws Exception {
+        final int largest = SIZES[SIZES.length - 1];
+        for(int size : SIZES) measure(source(size), largest);
+
+        double fastest = Double.MAX_VALUE;
+        final int[] lengths = new int[SIZES.length];
+        final double[] costs = new double[SIZES.length];
+        for(int i = 0; i < SIZES.length; i++) {
+            final String source = source(SIZES[i]);
+            lengths[i] = source.length();
+            costs[i] = measure(source, largest);
+            fastest = Math.min(fastest, costs[i]);
+
+            final List<Token> tokens = Lexer.tokenize(source);
+            System.out.printf("%9d chars %8d tokens %8.2f ns/char%n", lengths[i], tokens.size(), costs[i]);
+        }
+
+        for(int i = 0; i < SIZES.length; i++) {
+            if(costs[i] > fastest * TOLERANCE) {
+                System.out.printf("Not linear: %d chars take %.2f ns/char, more than %.1f times the fastest %.2f ns/char.%n", lengths[i], costs[i], TOLERANCE, fastest);
+                System.exit(1);
+            }
+        }
+
+        System.out.println("Linear within " + TOLERANCE + "x from " + SIZES[0] + " to " + largest + " chars.");
+    }
+
+    /**
+     * Builds a source of the given length from copies of {@link #BLOCK}, cut at the end of a line.
+     *
+     * @param size The length of the source.
+     * @return The source.
+     */
+    private static String source(int size) {
+        final StringBuilder source = new StringBuilder(size + BLOCK.length());
+        while(source.length() < size) source.append(BLOCK);
+
+        return source.substring(0, source.lastIndexOf("\n", size) + 1);
+    }
+
+    /**
+     * Lexes a source repeatedly, until about as many characters as the largest source has have been lexed.
+     *
+     * @param source The source.
+     * @param total The number of characters to lex in total.
+     * @return The best time per character of the repetitions, in nanoseconds.
+     * @throws Exception If the source cannot be lexed.
+     */
+    private static double measure(String source, int total) throws Exception {
+        final int repetitions = Math.max(3, total / source.length());
+        long best = Long.MAX_VALUE;
+        System.gc();
+
+        for(int i = 0; i < repetitions; i++) {
+            final long start = System.nanoTime();
+            Lexer.tokenize(source);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        return (double) best / source.length();
+    }
+}
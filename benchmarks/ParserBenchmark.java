@@ -0,0 +1,99 @@
+// Parses a program, by default a generated one of 1M tokens, and reports the time the parser needs per token.
+// Run with: java -cp target/classes benchmarks/GenerateProgram.java 1000000 benchmarks/generated.pk
+//           java -Xms2g -Xmx2g -cp target/classes benchmarks/ParserBenchmark.java benchmarks/generated.pk
+
+import indy.pseudokod.ast.Program;
+import indy.pseudokod.lexer.Lexer;
+import indy.pseudokod.lexer.TokenBuffer;
+import indy.pseudokod.lexer.TokenStream;
+import indy.pseudokod.parser.Parser;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the time {@link Parser#produceAST(String)} needs to parse a program, lexing included,
+ * and the time {@link Parser#produceAST(TokenStream)} needs to parse the tokens of the program lexed up front.
+ * Every parse is repeated {@link #REPETITIONS} times after as many warm-up parses, and the best time is reported.
+ * Finally, {@link #THREADS} parsers parse the program at the same time on a thread pool, and must all produce the same number of statements.
+ */
+public class ParserBenchmark {
+    private static final int REPETITIONS = 5;
+    private static final int THREADS = 4;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The path of the program to parse, {@code benchmarks/generated.pk} by default.
+     * @throws Throwable If the program cannot be read or parsed.
+     */
+    public static void main(String[] args) throws Throwable {
+        final Path path = Path.of(args.length > 0 ? args[0] : "benchmarks/generated.pk");
+        final String source = Files.readString(path, StandardCharsets.UTF_8);
+        final TokenBuffer tokens = Lexer.tokenizeCompact(source);
+        final int count = tokens.size();
+
+        for(int i = 0; i < REPETITIONS; i++) {
+            new Parser().produceAST(source);
+            new Parser().produceAST(new TokenStream(tokens));
+        }
+
+        long source_best = Long.MAX_VALUE;
+        long tokens_best = Long.MAX_VALUE;
+        int statements = 0;
+        for(int i = 0; i < REPETITIONS; i++) {
+            System.gc();
+            long start = System.nanoTime();
+            final Program program = new Parser().produceAST(source);
+            source_best = Math.min(source_best, System.nanoTime() - start);
+            statements = program.body().size();
+
+            System.gc();
+            start = System.nanoTime();
+            new Parser().produceAST(new TokenStream(tokens));
+            tokens_best = Math.min(tokens_best, System.nanoTime() - start);
+        }
+
+        System.out.printf("%s: %d chars, %d tokens, %d top-level statements%n", path, source.length(), count, statements);
+        System.out.printf("Lexing and parsing: %8.1f ms, %6.1f ns/token%n", source_best / 1e6, (double) source_best / count);
+        System.out.printf("Parsing tokens:     %8.1f ms, %6.1f ns/token%n", tokens_best / 1e6, (double) tokens_best / count);
+
+        final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        final List<Future<Program>> parses = new ArrayList<>();
+        final long start = System.nanoTime();
+        for(int i = 0; i < THREADS; i++) parses.add(pool.submit(() -> parse(source)));
+
+        for(Future<Program> parse : parses) {
+            if(parse.get().body().size() != statements) {
+                System.out.println("A parallel parse produced " + parse.get().body().size() + " statements instead of " + statements + ".");
+                System.exit(1);
+            }
+        }
+
+        pool.shutdown();
+        System.out.printf("%d parallel parses: %8.1f ms%n", THREADS, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Parses a program with a new {@link Parser}.
+     *
+     * @param source The source code of the program.
+     * @return The parsed {@link Program}.
+     * @throws Exception If the program cannot be parsed.
+     */
+    private static Program parse(String source) throws Exception {
+        try {
+            return new Parser().produceAST(source);
+        } catch(Exception | Error e) {
+            throw e;
+        } catch(Throwable e) {
+            throw new Exception(e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package indy.pseudokod.aot;
+
+import indy.pseudokod.ast.Program;
+import indy.pseudokod.cache.AstCache;
+import indy.pseudokod.main.Main;
+import indy.pseudokod.runtime.Engine;
+import indy.pseudokod.runtime.ModuleRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.*;
+import java.util.stream.Stream;
+
+/**
+ * The {@link JarCompiler} compiles a Pseudokod program ahead of time into a self-contained, runnable jar.<br><br>
+ *
+ * The jar holds the classes of the interpreter, which provide the runtime values and the native functions,
+ * and a {@link ProgramBundle} with the program and every module it imports, directly or not, parsed into trees.
+ * The jar starts the program right away, so it is never tokenized or parsed again, and it runs on the same engine
+ * and with the same results as when it is run from its source.<br><br>
+ *
+ * Imports are resolved the same way as when the program is run, relative to the working directory or to the directory
+ * of the interpreter. An imported file that does not exist is not bundled, so the import fails only when it is executed.
+ */
+public final class JarCompiler {
+    /**
+     * Constructs a new instance of {@link JarCompiler}.
+     */
+    private JarCompiler() {}
+
+    /**
+     * Compiles a program and the modules it imports into a runnable jar.
+     *
+     * @param source The path to the source file of the program.
+     * @param jar The path to the jar to be written.
+     * @param engine The {@link Engine} the jar executes the program with.
+     * @return The number of bundled modules.
+     * @throws Throwable If any of the modules cannot be read or parsed, or the jar cannot be written.
+     */
+    public static int compile(Path source, Path jar, Engine engine) throws Throwable {
+        final Map<Path, String> resources = new LinkedHashMap<>();
+        final Map<String, String> paths = new LinkedHashMap<>();
+        final Map<String, byte[]> modules = new LinkedHashMap<>();
+        final Deque<String> pending = new ArrayDeque<>(List.of(source.toString()));
+        if(!Files.isRegularFile(Main.resolvePath(source.toString()))) throw new NoSuchFileException(source.toString());
+
+        while(!pending.isEmpty()) {
+            final String path = pending.poll();
+            if(paths.containsKey(path)) continue;
+
+            final Path file = Main.resolvePath(path);
+            if(!Files.isRegularFile(file)) continue;
+
+            final Path canonical = file.toRealPath();
+            String resource = resources.get(canonical);
+
+            if(resource == null) {
+                resource = ProgramBundle.PREFIX + resources.size() + ".pkc";
+                resources.put(canonical, resource);
+
+                final byte[] hash = AstCache.hash(canonical);
+                final Program program = AstCache.load(canonical, hash);
+                modules.put(resource, AstCache.encode(program, hash));
+
+                final List<String> imports = new ArrayList<>();
+                ModuleRegistry.collectImports(program.body(), imports);
+                pending.addAll(imports);
+            }
+
+            paths.put(path, resource);
+        }
+
+        try(JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar), manifest())) {
+            copyRuntime(output);
+
+            output.putNextEntry(new JarEntry(ProgramBundle.INDEX));
+            new ProgramBundle(engine, source.toString(), paths).writeIndex(output);
+            output.closeEntry();
+
+            for(Map.Entry<String, byte[]> module : modules.entrySet()) {
+                output.putNextEntry(new JarEntry(module.getKey()));
+                output.write(module.getValue());
+                output.closeEntry();
+            }
+        }
+
+        return modules.size();
+    }
+
+    /**
+     * @return The {@link Manifest} of the jar, starting the interpreter.
+     */
+    private static Manifest manifest() {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, Main.class.getName());
+
+        return manifest;
+    }
+
+    /**
+     * Copies the classes of the interpreter into the jar, from the directory or the jar they are loaded from.
+     *
+     * @param output The stream of the jar.
+     * @throws Exception If the location of the interpreter cannot be determined, or its classes cannot be read.
+     */
+    private static void copyRuntime(JarOutputStream output) throws Exception {
+        final Path location = Path.of(JarCompiler.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        if(Files.isDirectory(location)) {
+            try(Stream<Path> files = Files.walk(location)) {
+                for(Path file : files.filter(f -> f.toString().endsWith(".class")).sorted().toList())
+                    copy(output, location.relativize(file).toString().replace('\\', '/'), Files.newInputStream(file));
+            }
+        } else {
+            try(JarFile runtime = new JarFile(location.toFile())) {
+                for(JarEntry entry : Collections.list(runtime.entries()))
+                    if(entry.getName().endsWith(".class")) copy(output, entry.getName(), runtime.getInputStream(entry));
+            }
+        }
+    }
+
+    /**
+     * Copies a single class into the jar.
+     *
+     * @param output The stream of the jar.
+     * @param name The name of the entry.
+     * @param input The content of the class, closed once it has been copied.
+     * @throws IOException If an I/O error occurs while copying.
+     */
+    private static void copy(JarOutputStream output, String name, InputStream input) throws IOException {
+        try(input) {
+            output.putNextEntry(new JarEntry(name));
+            input.transferTo(output);
+            output.closeEntry();
+        }
+    }
+}
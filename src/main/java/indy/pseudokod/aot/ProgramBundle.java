@@ -0,0 +1,124 @@
+package indy.pseudokod.aot;
+
+import indy.pseudokod.ast.Program;
+import indy.pseudokod.cache.AstCache;
+import indy.pseudokod.exceptions.CorruptedCacheException;
+import indy.pseudokod.exceptions.UnknownEngineException;
+import indy.pseudokod.runtime.Engine;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The program bundled into a jar by the {@link JarCompiler}: the precompiled trees of the program and of all the modules it imports,
+ * and the {@link Engine} selected when the jar was compiled.<br><br>
+ *
+ * The bundle is stored as resources of the jar. The index lists the engine on its first line, followed by a line for every
+ * import path found in the program, mapping it to the resource holding the tree of the module, in the format of a {@code .pkc} file.
+ * The first module is the program itself. Import paths referring to the same file map to the same resource,
+ * so the module is executed only once, like when it is loaded from the file.
+ */
+public final class ProgramBundle {
+    static final String INDEX = "pseudokod/modules.list";
+    static final String PREFIX = "pseudokod/module";
+
+    private final Engine engine;
+    private final String main;
+    private final Map<String, String> resources;
+
+    /**
+     * Constructs a new instance of {@link ProgramBundle}.
+     *
+     * @param engine The {@link Engine} executing the program.
+     * @param main The path of the program itself.
+     * @param resources The resources holding the modules, by the paths used to import them.
+     */
+    ProgramBundle(Engine engine, String main, Map<String, String> resources) {
+        this.engine = engine;
+        this.main = main;
+        this.resources = resources;
+    }
+
+    /**
+     * Opens the program bundled into the jar the interpreter is running from.
+     *
+     * @return The {@link ProgramBundle}, or {@code null} if the interpreter is not running from a compiled jar.
+     * @throws IOException If the index of the bundle cannot be read.
+     * @throws UnknownEngineException If the engine listed in the index does not exist.
+     */
+    public static ProgramBundle open() throws IOException, UnknownEngineException {
+        final InputStream input = ProgramBundle.class.getClassLoader().getResourceAsStream(INDEX);
+        if(input == null) return null;
+
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            final Engine engine = Engine.of(reader.readLine());
+            final Map<String, String> resources = new LinkedHashMap<>();
+            String main = null;
+
+            for(String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final int tab = line.indexOf('\t');
+                final String path = line.substring(tab + 1);
+
+                if(main == null) main = path;
+                resources.put(path, line.substring(0, tab));
+            }
+
+            return new ProgramBundle(engine, main, resources);
+        }
+    }
+
+    /**
+     * Writes the index of the bundle.
+     *
+     * @param output The stream the index is written to.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    void writeIndex(OutputStream output) throws IOException {
+        final Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        writer.write(this.engine.name() + "\n");
+        for(Map.Entry<String, String> entry : this.resources.entrySet()) writer.write(entry.getValue() + "\t" + entry.getKey() + "\n");
+        writer.flush();
+    }
+
+    /**
+     * @return The {@link Engine} executing the program, selected when the jar was compiled.
+     */
+    public Engine engine() {
+        return this.engine;
+    }
+
+    /**
+     * @return The path of the program itself, under which it is found in the bundle.
+     */
+    public String main() {
+        return this.main;
+    }
+
+    /**
+     * Finds the resource holding a bundled module.
+     *
+     * @param path The path used to import the module.
+     * @return The name of the resource, or {@code null} if the module is not bundled.
+     */
+    public String resource(String path) {
+        return this.resources.get(path);
+    }
+
+    /**
+     * Reads the tree of a bundled module.
+     *
+     * @param resource The name of the resource holding the module, as returned by {@link #resource(String)}.
+     * @return The {@link Program} of the module.
+     * @throws IOException If the resource cannot be read.
+     * @throws CorruptedCacheException If the resource does not hold a valid tree.
+     */
+    public Program load(String resource) throws IOException, CorruptedCacheException {
+        try(InputStream input = ProgramBundle.class.getClassLoader().getResourceAsStream(resource)) {
+            if(input == null) throw new FileNotFoundException(resource);
+            return AstCache.decode(ByteBuffer.wrap(input.readAllBytes()));
+        }
+    }
+}
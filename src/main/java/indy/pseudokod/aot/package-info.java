@@ -0,0 +1,23 @@
+/**
+ * The {@link indy.pseudokod.aot} package provides the ahead-of-time compilation of Pseudokod programs into runnable jars.
+ *
+ * <p>The {@link indy.pseudokod.aot.JarCompiler} parses a program and every module it imports, and writes them into a jar
+ * together with the classes of the interpreter. The jar starts the interpreter, which finds the {@link indy.pseudokod.aot.ProgramBundle}
+ * among its resources and runs the bundled program without reading, tokenizing or parsing any source file.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * // java -jar Pseudokod.jar compile program.pk --engine=jvm
+ * JarCompiler.compile(Path.of("program.pk"), Path.of("program.jar"), Engine.JVM);
+ *
+ * // java -jar program.jar
+ * ProgramBundle bundle = ProgramBundle.open();
+ * Program program = bundle.load(bundle.resource(bundle.main()));
+ * }</pre>
+ *
+ * @see indy.pseudokod.aot.JarCompiler
+ * @see indy.pseudokod.aot.ProgramBundle
+ * @see indy.pseudokod.cache.AstCache
+ * @see indy.pseudokod.runtime.ModuleRegistry
+ */
+package indy.pseudokod.aot;
@@ -3,11 +3,15 @@ package indy.pseudokod.ast;
 /**
  * Represents an assignment expression in the abstract syntax tree (AST).
  * An assignment expression consists of an expression on the left-hand side and a value on the right-hand side.
- * The value is assigned to the expression on the left-hand side.
+ * The value is assigned to the expression on the left-hand side.<br><br>
+ *
+ * The {@link indy.pseudokod.optimizer.Optimizer} may mark an assignment to a variable as checked,
+ * if it proved that the assigned value always has the type of the variable, so the engines skip the check when it is executed.
  */
 public class AssignmentExpression extends Expression {
     private final Expression expression;
     private final Expression value;
+    private boolean checked;
 
     /**
      * Constructs a new instance of {@link AssignmentExpression}.
@@ -34,4 +38,20 @@ public class AssignmentExpression extends Expression {
     public Expression value() {
         return this.value;
     }
+
+    /**
+     * Marks the assignment as checked statically, or not.
+     *
+     * @param checked {@code true} if the assigned value has been proven to have the type of the variable.
+     */
+    public void setChecked(boolean checked) {
+        this.checked = checked;
+    }
+
+    /**
+     * @return {@code true} if the assigned value has been proven to have the type of the variable, so its type is not checked again.
+     */
+    public boolean checked() {
+        return this.checked;
+    }
 }
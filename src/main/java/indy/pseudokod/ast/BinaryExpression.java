@@ -7,16 +7,16 @@ package indy.pseudokod.ast;
 public class BinaryExpression extends Expression {
     private final Expression left;
     private final Expression right;
-    private final String operator;
+    private final Operator operator;
 
     /**
      * Constructs a new instance of {@link BinaryExpression}.
      *
      * @param left The left operand of the binary operation.
      * @param right The right operand of the binary operation.
-     * @param operator The operator of the binary operation (+, -, *, /, %, //).
+     * @param operator The {@link Operator} of the binary operation (+, -, *, /, mod, div).
      */
-    public BinaryExpression(Expression left, Expression right, String operator) {
+    public BinaryExpression(Expression left, Expression right, Operator operator) {
         super(NodeType.BinaryExpression);
         this.left = left;
         this.right = right;
@@ -38,9 +38,9 @@ public class BinaryExpression extends Expression {
     }
 
     /**
-     * @return The operator of the binary operation.
+     * @return The {@link Operator} of the binary operation.
      */
-    public String operator() {
+    public Operator operator() {
         return this.operator;
     }
 }
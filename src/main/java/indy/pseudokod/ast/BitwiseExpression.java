@@ -7,16 +7,16 @@ package indy.pseudokod.ast;
 public class BitwiseExpression extends Expression {
     private final Expression left;
     private final Expression right;
-    private final String operator;
+    private final Operator operator;
 
     /**
      * Constructs a new instance of {@link BitwiseExpression} with two operands.
      *
      * @param left The left operand of the bitwise expression.
      * @param right The right operand of the bitwise expression.
-     * @param operator The bitwise operator (&, |, ^, <<, >>).
+     * @param operator The bitwise {@link Operator} (&, |, ^, <<, >>).
      */
-    public BitwiseExpression(Expression left, Expression right, String operator) {
+    public BitwiseExpression(Expression left, Expression right, Operator operator) {
         super(NodeType.BitwiseExpression);
         this.left = left;
         this.right = right;
@@ -27,9 +27,9 @@ public class BitwiseExpression extends Expression {
      * Constructs a new instance of {@link BitwiseExpression} with a single operand.
      *
      * @param expression The operand of the bitwise expression.
-     * @param operator The bitwise operator (~).
+     * @param operator The bitwise {@link Operator} (~).
      */
-    public BitwiseExpression(Expression expression, String operator) {
+    public BitwiseExpression(Expression expression, Operator operator) {
         super(NodeType.BitwiseExpression);
         this.left = null;
         this.right = expression;
@@ -51,9 +51,9 @@ public class BitwiseExpression extends Expression {
     }
 
     /**
-     * @return The bitwise operator of the {@link BitwiseExpression}.
+     * @return The bitwise {@link Operator} of the {@link BitwiseExpression}.
      */
-    public String operator() {
+    public Operator operator() {
         return this.operator;
     }
 }
@@ -0,0 +1,26 @@
+package indy.pseudokod.ast;
+
+/**
+ * Represents a boolean literal in the abstract syntax tree (AST).
+ * The parser reads {@code true} and {@code false} as identifiers, boolean literals are introduced by the {@link indy.pseudokod.optimizer.Optimizer}.
+ */
+public class BooleanLiteral extends Expression {
+    private final boolean value;
+
+    /**
+     * Constructs a new instance of {@link BooleanLiteral} with the given value.
+     *
+     * @param value The boolean value represented by this literal.
+     */
+    public BooleanLiteral(boolean value) {
+        super(NodeType.BooleanLiteral);
+        this.value = value;
+    }
+
+    /**
+     * @return The boolean value of this {@link BooleanLiteral}.
+     */
+    public boolean value() {
+        return this.value;
+    }
+}
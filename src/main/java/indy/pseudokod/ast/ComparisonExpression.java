@@ -7,16 +7,16 @@ package indy.pseudokod.ast;
 public class ComparisonExpression extends Expression {
     private final Expression left;
     private final Expression right;
-    private final String operator;
+    private final Operator operator;
 
     /**
      * Constructs a new instance of {@link ComparisonExpression}.
      *
      * @param left The left-hand side expression of the comparison.
      * @param right The right-hand side expression of the comparison.
-     * @param operator The comparison operator (==, !=, <, >, <=, >=).
+     * @param operator The comparison {@link Operator} (=, ≠, <, >, ≤, ≥).
      */
-    public ComparisonExpression(Expression left, Expression right, String operator) {
+    public ComparisonExpression(Expression left, Expression right, Operator operator) {
         super(NodeType.ComparisonExpression);
         this.left = left;
         this.right = right;
@@ -38,9 +38,9 @@ public class ComparisonExpression extends Expression {
     }
 
     /**
-     * @return The operator of the {@link ComparisonExpression}.
+     * @return The {@link Operator} of the {@link ComparisonExpression}.
      */
-    public String operator() {
+    public Operator operator() {
         return this.operator;
     }
 }
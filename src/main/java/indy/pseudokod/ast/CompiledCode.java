@@ -0,0 +1,8 @@
+package indy.pseudokod.ast;
+
+/**
+ * Code compiled from a node of the abstract syntax tree (AST) by one of the engines, such as the executable nodes
+ * of the body of a function or its JVM code. The code is stored on the node it was compiled from,
+ * so the engines find it without a lookup, while the {@link indy.pseudokod.ast} package does not depend on the engines.
+ */
+public interface CompiledCode {}
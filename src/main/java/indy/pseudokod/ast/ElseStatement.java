@@ -1,5 +1,7 @@
 package indy.pseudokod.ast;
 
+import indy.pseudokod.environment.FrameLayout;
+
 import java.util.List;
 
 /**
@@ -7,6 +9,7 @@ import java.util.List;
  */
 public class ElseStatement extends Statement {
     private final List<Statement> body;
+    private FrameLayout layout;
 
     /**
      * Constructs a new instance of {@link ElseStatement}.
@@ -24,4 +27,20 @@ public class ElseStatement extends Statement {
     public List<Statement> body() {
         return this.body;
     }
+
+    /**
+     * Sets the layout of the scope in which the body of the else-statement is executed, built by the {@link indy.pseudokod.runtime.Resolver}.
+     *
+     * @param layout The {@link FrameLayout} of the scope.
+     */
+    public void setLayout(FrameLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * @return The {@link FrameLayout} of the scope in which the body of the else-statement is executed, or {@code null} if the statement has not been resolved yet.
+     */
+    public FrameLayout layout() {
+        return this.layout;
+    }
 }
@@ -1,5 +1,7 @@
 package indy.pseudokod.ast;
 
+import indy.pseudokod.runtime.values.ValueType;
+
 /**
  * Represents an expression in the abstract syntax tree (AST).<br><br>
  *
@@ -8,9 +10,15 @@ package indy.pseudokod.ast;
  * Expressions are often used within statements but differ from statements
  * as they always produce a value, whereas statements may not.<br><br>
  *
- * This class serves as the base for all expression nodes.
+ * This class serves as the base for all expression nodes.<br><br>
+ *
+ * The {@link indy.pseudokod.optimizer.Optimizer} may annotate the expression with the type it proved for its values.
+ * An expression of a proven type evaluates either to a value of that type or to null,
+ * since a variable of any type may hold null.
  */
 public class Expression extends Statement {
+    private ValueType static_type;
+
     /**
      * Constructs a new instance of {@link Expression} with the specified {@link NodeType}.
      *
@@ -19,4 +27,20 @@ public class Expression extends Statement {
     public Expression(NodeType kind) {
         super(kind);
     }
+
+    /**
+     * Annotates the expression with the type proven for its values.
+     *
+     * @param type The proven {@link ValueType}, or {@code null} if the type is unknown.
+     */
+    public void setStaticType(ValueType type) {
+        this.static_type = type;
+    }
+
+    /**
+     * @return The {@link ValueType} proven for the values of the expression, or {@code null} if it is unknown.
+     */
+    public ValueType staticType() {
+        return this.static_type;
+    }
 }
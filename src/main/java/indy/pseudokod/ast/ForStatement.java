@@ -1,5 +1,7 @@
 package indy.pseudokod.ast;
 
+import indy.pseudokod.environment.FrameLayout;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,6 +12,7 @@ public class ForStatement extends Statement {
     private final String control_variable;
     private final ArrayList<Expression> values;
     private final List<Statement> body;
+    private FrameLayout layout;
 
     /**
      * Constructs a new instance of {@link ForStatement}.
@@ -45,4 +48,20 @@ public class ForStatement extends Statement {
     public List<Statement> body() {
         return this.body;
     }
+
+    /**
+     * Sets the layout of the scope in which the loop is executed, built by the {@link indy.pseudokod.runtime.Resolver}.
+     *
+     * @param layout The {@link FrameLayout} of the scope.
+     */
+    public void setLayout(FrameLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * @return The {@link FrameLayout} of the scope in which the loop is executed, or {@code null} if the loop has not been resolved yet.
+     */
+    public FrameLayout layout() {
+        return this.layout;
+    }
 }
@@ -1,5 +1,6 @@
 package indy.pseudokod.ast;
 
+import indy.pseudokod.environment.FrameLayout;
 import indy.pseudokod.runtime.values.ValueType;
 import java.util.List;
 
@@ -11,6 +12,9 @@ public class FunctionDeclaration extends Statement {
     private final List<Statement> data;
     private final ValueType result;
     private final List<Statement> body;
+    private volatile FrameLayout layout;
+    private volatile CompiledCode executable;
+    private volatile CompiledCode compiled;
 
     /**
      * Constructs a new instance of {@link FunctionDeclaration} with given identifier,
@@ -57,4 +61,52 @@ public class FunctionDeclaration extends Statement {
     public List<Statement> body() {
         return this.body;
     }
+
+    /**
+     * Sets the layout of the scope in which the body of the function is executed, built by the {@link indy.pseudokod.runtime.Resolver}.
+     *
+     * @param layout The {@link FrameLayout} of the scope.
+     */
+    public void setLayout(FrameLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * @return The {@link FrameLayout} of the scope in which the body of the function is executed, or {@code null} if the body has not been resolved yet.
+     */
+    public FrameLayout layout() {
+        return this.layout;
+    }
+
+    /**
+     * Sets the executable nodes the body of the function is compiled into by the {@link indy.pseudokod.runtime.exec.NodeCompiler}.
+     *
+     * @param executable The compiled body.
+     */
+    public void setExecutable(CompiledCode executable) {
+        this.executable = executable;
+    }
+
+    /**
+     * @return The executable nodes of the body of the function, or {@code null} if the body has not been compiled into executable nodes.
+     */
+    public CompiledCode executable() {
+        return this.executable;
+    }
+
+    /**
+     * Sets the JVM code of the function, compiled by the {@link indy.pseudokod.jit.KernelCompiler}.
+     *
+     * @param compiled The compiled function, or {@code null} if the function is not a kernel.
+     */
+    public void setCompiled(CompiledCode compiled) {
+        this.compiled = compiled;
+    }
+
+    /**
+     * @return The JVM code of the function, or {@code null} if the function has not been compiled to JVM code.
+     */
+    public CompiledCode compiled() {
+        return this.compiled;
+    }
 }
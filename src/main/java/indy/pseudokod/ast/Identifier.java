@@ -1,10 +1,17 @@
 package indy.pseudokod.ast;
 
 /**
- * Represents an identifier of a variable in the abstract syntax tree (AST).
+ * Represents an identifier of a variable in the abstract syntax tree (AST).<br><br>
+ *
+ * The {@link indy.pseudokod.runtime.Resolver} may annotate the identifier with the lexical address of the variable it refers to:
+ * the number of environments between the one the identifier is evaluated in and the one declaring the variable,
+ * and the position of the variable among the variables of that environment. Identifiers that cannot be resolved statically,
+ * such as the ones referring to a variable declared later in the body of a loop, keep a negative depth and are looked up by name.
  */
 public class Identifier extends Expression {
     private final String symbol;
+    private int depth;
+    private int slot;
 
     /**
      * Constructs a new instance of {@link Identifier} with the given symbol.
@@ -14,6 +21,8 @@ public class Identifier extends Expression {
     public Identifier(String symbol) {
         super(NodeType.Identifier);
         this.symbol = symbol;
+        this.depth = -1;
+        this.slot = -1;
     }
 
     /**
@@ -22,4 +31,31 @@ public class Identifier extends Expression {
     public String symbol() {
         return this.symbol;
     }
+
+    /**
+     * Annotates the identifier with the lexical address of the variable it refers to.
+     *
+     * @param depth The number of environments between the one the identifier is evaluated in and the one declaring the variable,
+     *              or {@code -1} if the variable has to be looked up by name.
+     * @param slot The position of the variable among the variables of the environment declaring it.
+     */
+    public void resolve(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    /**
+     * @return The number of environments between the one the identifier is evaluated in and the one declaring the variable,
+     *         or {@code -1} if the variable has to be looked up by name.
+     */
+    public int depth() {
+        return this.depth;
+    }
+
+    /**
+     * @return The position of the variable among the variables of the environment declaring it.
+     */
+    public int slot() {
+        return this.slot;
+    }
 }
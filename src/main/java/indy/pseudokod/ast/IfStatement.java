@@ -1,5 +1,7 @@
 package indy.pseudokod.ast;
 
+import indy.pseudokod.environment.FrameLayout;
+
 import java.util.List;
 
 /**
@@ -9,6 +11,7 @@ public class IfStatement extends Statement {
     private final Expression expression;
     private final List<Statement> body;
     private final Statement else_statement;
+    private FrameLayout layout;
 
     /**
      * Constructs a new instance of {@link IfStatement} with an expression, a body, and an else-statement.
@@ -57,4 +60,20 @@ public class IfStatement extends Statement {
     public Statement elseStatement() {
         return this.else_statement;
     }
+
+    /**
+     * Sets the layout of the scope in which the body of the if-statement is executed, built by the {@link indy.pseudokod.runtime.Resolver}.
+     *
+     * @param layout The {@link FrameLayout} of the scope.
+     */
+    public void setLayout(FrameLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * @return The {@link FrameLayout} of the scope in which the body of the if-statement is executed, or {@code null} if the statement has not been resolved yet.
+     */
+    public FrameLayout layout() {
+        return this.layout;
+    }
 }
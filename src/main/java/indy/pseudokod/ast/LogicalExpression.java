@@ -7,16 +7,16 @@ package indy.pseudokod.ast;
 public class LogicalExpression extends Expression {
     private final Expression left;
     private final Expression right;
-    private final String operator;
+    private final Operator operator;
 
     /**
      * Constructs a new instance of {@link LogicalExpression} with two operands.
      *
      * @param left The left operand of the logical expression.
      * @param right The right operand of the logical expression.
-     * @param operator The logical operator (NOT, OR, AND, XOR).
+     * @param operator The logical {@link Operator} (NOT, OR, AND, XOR).
      */
-    public LogicalExpression(Expression left, Expression right, String operator) {
+    public LogicalExpression(Expression left, Expression right, Operator operator) {
         super(NodeType.LogicalExpression);
         this.left = left;
         this.right = right;
@@ -27,9 +27,9 @@ public class LogicalExpression extends Expression {
      * Constructs a new instance of {@link LogicalExpression} with single operands.
      *
      * @param right The operand of the logical expression.
-     * @param operator The logical operator (NOT, OR, AND, XOR).
+     * @param operator The logical {@link Operator} (NOT, OR, AND, XOR).
      */
-    public LogicalExpression(Expression right, String operator) {
+    public LogicalExpression(Expression right, Operator operator) {
         super(NodeType.LogicalExpression);
         this.left = null;
         this.right = right;
@@ -51,9 +51,9 @@ public class LogicalExpression extends Expression {
     }
 
     /**
-     * @return The logical operator of the {@link LogicalExpression}.
+     * @return The logical {@link Operator} of the {@link LogicalExpression}.
      */
-    public String operator() {
+    public Operator operator() {
         return this.operator;
     }
 }
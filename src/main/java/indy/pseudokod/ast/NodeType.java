@@ -36,5 +36,6 @@ public enum NodeType {
     ForStatement,
     WhileStatement,
     ReturnStatement,
-    ImportStatement
+    ImportStatement,
+    NullLiteral
 }
@@ -0,0 +1,15 @@
+package indy.pseudokod.ast;
+
+/**
+ * Represents the null value as a literal in the abstract syntax tree (AST).
+ * The parser reads {@code null} as an identifier, null literals are introduced by the {@link indy.pseudokod.optimizer.Optimizer}.
+ */
+public class NullLiteral extends Expression {
+
+    /**
+     * Constructs a new instance of {@link NullLiteral}.
+     */
+    public NullLiteral() {
+        super(NodeType.NullLiteral);
+    }
+}
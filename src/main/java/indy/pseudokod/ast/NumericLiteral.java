@@ -16,6 +16,16 @@ public class NumericLiteral extends Expression {
         this.value = Double.parseDouble(value);
     }
 
+    /**
+     * Constructs a new instance of {@link NumericLiteral} with the given value.
+     *
+     * @param value The number value represented by this literal.
+     */
+    public NumericLiteral(double value) {
+        super(NodeType.NumericLiteral);
+        this.value = value;
+    }
+
     /**
      * @return The number value of this {@link NumericLiteral}.
      */
@@ -0,0 +1,71 @@
+package indy.pseudokod.ast;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum representing the operators of binary, comparison, logical and bitwise expressions in the Abstract Syntax Tree (AST).<br><br>
+ *
+ * Every operator can be written with several symbols, such as English and Polish keywords or mathematical signs
+ * ({@code AND}, {@code I} and {@code ∧} all denote {@link #And}). The parser resolves the symbol once,
+ * so the expression nodes store the operator itself and evaluating them does not compare any strings.
+ */
+public enum Operator {
+    Add("+"),
+    Subtract("-"),
+    Multiply("*"),
+    Divide("/"),
+    IntegerDivide("div"),
+    Modulus("mod"),
+    Equal("="),
+    NotEqual("≠", "!="),
+    Less("<"),
+    LessOrEqual("≤", "<="),
+    Greater(">"),
+    GreaterOrEqual("≥", ">="),
+    And("AND", "I", "∧"),
+    Or("OR", "LUB", "∨"),
+    Not("NOT", "NIE", "¬"),
+    Xor("XOR", "⊕"),
+    BitwiseNot("~"),
+    BitwiseAnd("&"),
+    BitwiseOr("|"),
+    BitwiseXor("^"),
+    ShiftLeft("<<"),
+    ShiftRight(">>");
+
+    private static final Map<String, Operator> operators = new HashMap<>();
+
+    static {
+        for(Operator operator : values())
+            for(String symbol : operator.symbols) operators.put(symbol, operator);
+    }
+
+    private final String[] symbols;
+
+    /**
+     * Constructs a new {@link Operator} denoted by the given symbols.
+     *
+     * @param symbols The symbols of the operator, the first of them being its canonical symbol.
+     */
+    Operator(String... symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * @return The canonical symbol of the operator.
+     */
+    public String symbol() {
+        return this.symbols[0];
+    }
+
+    /**
+     * Resolves the operator denoted by the given symbol.
+     *
+     * @param symbol The symbol of the operator, e.g. {@code "+"}, {@code "≤"} or {@code "LUB"}.
+     * @return The {@link Operator} denoted by the symbol, or {@code null} if the symbol does not denote any operator.
+     */
+    public static Operator of(String symbol) {
+        return operators.get(symbol);
+    }
+}
@@ -4,10 +4,14 @@ import java.util.List;
 
 /**
  * Represents a program in the abstract syntax tree (AST).
- * Contains a list of statements that make up the program's body.
+ * Contains a list of statements that make up the program's body.<br><br>
+ *
+ * When the program was parsed from source code kept in memory, it also holds the {@link SourceSpan} of every statement,
+ * which allows the {@link indy.pseudokod.parser.Parser} to re-parse only the statements affected by an edit.
  */
 public class Program extends Statement {
     private final List<Statement> body;
+    private final List<SourceSpan> spans;
 
     /**
      * Constructs a new instance of {@link Program} with the given list of statements.
@@ -15,8 +19,19 @@ public class Program extends Statement {
      * @param statements The list of statements that make up the program's body.
      */
     public Program(List<Statement> statements) {
+        this(statements, null);
+    }
+
+    /**
+     * Constructs a new instance of {@link Program} with the given list of statements and their positions in the source code.
+     *
+     * @param statements The list of statements that make up the program's body.
+     * @param spans The spans of the statements in the source code, in the same order, or {@code null} if they are unknown.
+     */
+    public Program(List<Statement> statements, List<SourceSpan> spans) {
         super(NodeType.Program);
         this.body = statements;
+        this.spans = spans;
     }
 
     /**
@@ -25,4 +40,12 @@ public class Program extends Statement {
     public List<Statement> body() {
         return this.body;
     }
+
+    /**
+     * @return The list of {@link SourceSpan} objects of the statements in the program's body,
+     *         or {@code null} if the positions of the statements in the source code are unknown.
+     */
+    public List<SourceSpan> spans() {
+        return this.spans;
+    }
 }
@@ -0,0 +1,27 @@
+package indy.pseudokod.ast;
+
+/**
+ * Represents the part of the source code a top-level statement of a {@link Program} was parsed from.<br><br>
+ *
+ * Besides the characters of the statement itself, the span records how far the parser looked ahead
+ * to decide where the statement ends, so an edit after that point cannot change how the statement is parsed.
+ *
+ * @param start The offset of the first character of the statement.
+ * @param end The offset after the last character of the statement, including the semicolons following it.
+ * @param reach The offset after the furthest token the parser looked at while parsing the statement.
+ * @param line The line number at the start of the statement.
+ * @param end_line The line number at the end of the statement.
+ */
+public record SourceSpan(int start, int end, int reach, int line, int end_line) {
+    /**
+     * Moves the span by the given number of characters and lines.
+     *
+     * @param offset The number of characters to move the span by.
+     * @param lines The number of lines to move the span by.
+     * @return The moved {@link SourceSpan}.
+     */
+    public SourceSpan shift(int offset, int lines) {
+        if(offset == 0 && lines == 0) return this;
+        return new SourceSpan(this.start + offset, this.end + offset, this.reach + offset, this.line + lines, this.end_line + lines);
+    }
+}
@@ -1,5 +1,7 @@
 package indy.pseudokod.ast;
 
+import indy.pseudokod.environment.FrameLayout;
+
 import java.util.List;
 
 /**
@@ -11,6 +13,7 @@ public class WhileStatement extends Statement {
     private final Expression expression;
     private final List<Statement> body;
     private final boolean do_while;
+    private FrameLayout layout;
 
     /**
      * Constructs a new instance of {@link WhileStatement}.
@@ -46,4 +49,20 @@ public class WhileStatement extends Statement {
     public boolean isDoWhile() {
         return this.do_while;
     }
+
+    /**
+     * Sets the layout of the scope in which the body of the loop is executed, built by the {@link indy.pseudokod.runtime.Resolver}.
+     *
+     * @param layout The {@link FrameLayout} of the scope.
+     */
+    public void setLayout(FrameLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * @return The {@link FrameLayout} of the scope in which the body of the loop is executed, or {@code null} if the loop has not been resolved yet.
+     */
+    public FrameLayout layout() {
+        return this.layout;
+    }
 }
@@ -29,12 +29,14 @@
  * <p>Usage Example:</p>
  * <pre>{@code
  * // Example usage of an AST node
- * BinaryExpression expr = new BinaryExpression(leftOperand, rightOperand, "+");
+ * BinaryExpression expr = new BinaryExpression(leftOperand, rightOperand, Operator.Add);
  * }</pre>
  *
  * <p>For details on individual classes, refer to their specific documentation.</p>
  *
  * @see indy.pseudokod.ast.NodeType
+ * @see indy.pseudokod.ast.Operator
+ * @see indy.pseudokod.ast.SourceSpan
  * @see indy.pseudokod.ast.Program
  * @see indy.pseudokod.ast.Statement
  * @see indy.pseudokod.ast.Expression
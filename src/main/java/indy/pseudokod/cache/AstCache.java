@@ -0,0 +1,220 @@
+package indy.pseudokod.cache;
+
+import indy.pseudokod.ast.Program;
+import indy.pseudokod.ast.Statement;
+import indy.pseudokod.exceptions.ASTNodeNotSetupException;
+import indy.pseudokod.exceptions.CorruptedCacheException;
+import indy.pseudokod.lexer.TokenStream;
+import indy.pseudokod.parser.Parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the abstract syntax trees (AST) of Pseudokod programs in precompiled {@code .pkc} files next to their sources,
+ * so a program that has not changed since it was last run does not have to be tokenized and parsed again.<br><br>
+ *
+ * A cache file starts with a header holding the version of the format and the SHA-256 hash of the source it was produced from.
+ * The cache file is used only if the hash matches the current content of the source, otherwise the source is parsed
+ * and the cache file is replaced. The header is followed by the constant pool and the encoded tree, see {@link AstWriter}.<br><br>
+ *
+ * The cache file is memory-mapped while it is read. The bodies of functions are decoded from the mapping only
+ * when they are first executed, so loading a large library costs little more than reading its top-level statements.
+ */
+public final class AstCache {
+    static final int STRING = 0;
+    static final int NUMBER = 1;
+    private static final byte[] magic = {'P', 'K', 'C', 2};
+    private static final int hash_length = 32;
+    private static final int header_length = magic.length + hash_length;
+
+    private AstCache() {}
+
+    /**
+     * Determines the path of the cache file of the given source file.
+     * The {@code .pk} extension of the source is replaced by {@code .pkc}, any other name is suffixed with {@code .pkc}.
+     *
+     * @param source The path to the source file.
+     * @return The path to the cache file.
+     */
+    public static Path cachePath(Path source) {
+        final String name = source.getFileName().toString();
+        return source.resolveSibling(name.endsWith(".pk") ? name + "c" : name + ".pkc");
+    }
+
+    /**
+     * Loads the AST of the program in the given source file, from its cache file if it is up to date,
+     * or by parsing the source and writing a new cache file otherwise.
+     * Failing to write the cache file, e.g. in a read-only directory, does not prevent the program from being loaded.
+     *
+     * @param source The path to the source file.
+     * @return The {@link Program} parsed from the source file.
+     * @throws Throwable If the source file cannot be read, or if any error occurs during tokenization or parsing.
+     */
+    public static Program load(Path source) throws Throwable {
+        return load(source, null);
+    }
+
+    /**
+     * Loads the AST of the program in the given source file like {@link #load(Path)},
+     * for callers that have already computed the hash of the source with {@link #hash(Path)} and would otherwise hash it twice.
+     *
+     * @param source The path to the source file.
+     * @param hash The hash of the content of the source file, or {@code null} if it is computed here.
+     * @return The {@link Program} parsed from the source file.
+     * @throws Throwable If the source file cannot be read, or if any error occurs during tokenization or parsing.
+     */
+    public static Program load(Path source, byte[] hash) throws Throwable {
+        try(FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(hash == null) hash = hash(buffer.duplicate());
+            final Path cache = cachePath(source);
+
+            final Program cached = read(cache, hash);
+            if(cached != null) return cached;
+
+            final Program program = new Parser().produceAST(new TokenStream(buffer));
+            write(cache, hash, program);
+
+            return program;
+        }
+    }
+
+    /**
+     * Reads the AST from the given cache file if it was produced from a source with the given hash.
+     *
+     * @param cache The path to the cache file.
+     * @param hash The hash of the current content of the source.
+     * @return The {@link Program} read from the cache file, or {@code null} if the file is missing, outdated or corrupted.
+     * @throws IOException If an I/O error occurs while mapping the cache file.
+     */
+    private static Program read(Path cache, byte[] hash) throws IOException {
+        if(!Files.isRegularFile(cache)) return null;
+
+        final ByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            if(channel.size() < header_length || channel.size() > Integer.MAX_VALUE) return null;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        final byte[] header = new byte[header_length];
+        buffer.get(0, header);
+        if(!Arrays.equals(header, 0, magic.length, magic, 0, magic.length)) return null;
+        if(!Arrays.equals(header, magic.length, header_length, hash, 0, hash_length)) return null;
+
+        try {
+            return new Program(AstReader.withConstants(buffer, header_length).readStatements());
+        } catch(CorruptedCacheException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the AST to the given cache file. The file is written under a temporary name and then moved into place,
+     * so other processes never read a partially written file.
+     *
+     * @param cache The path to the cache file.
+     * @param hash The hash of the source the program was parsed from.
+     * @param program The program to be written.
+     */
+    private static void write(Path cache, byte[] hash, Program program) {
+        Path temporary = null;
+
+        try {
+            final ByteBuffer output = ByteBuffer.wrap(encode(program, hash));
+
+            temporary = cache.resolveSibling(cache.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+            try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while(output.hasRemaining()) channel.write(output);
+            }
+
+            Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(IOException | ASTNodeNotSetupException e) {
+            try {
+                if(temporary != null) Files.deleteIfExists(temporary);
+            } catch(IOException ignored) {}
+        }
+    }
+
+    /**
+     * Encodes the AST in the format of a cache file, e.g. to be bundled into a compiled jar.
+     *
+     * @param program The program to be encoded.
+     * @param hash The hash of the source the program was parsed from.
+     * @return The content of the cache file.
+     * @throws ASTNodeNotSetupException If the program contains a node that cannot be encoded.
+     */
+    public static byte[] encode(Program program, byte[] hash) throws ASTNodeNotSetupException {
+        final byte[] tree = new AstWriter().write(program);
+        final ByteBuffer output = ByteBuffer.allocate(header_length + tree.length);
+        output.put(magic).put(hash).put(tree);
+
+        return output.array();
+    }
+
+    /**
+     * Decodes the AST from the content of a cache file, without checking it against its source.
+     *
+     * @param buffer The content of the cache file.
+     * @return The {@link Program} read from the buffer.
+     * @throws CorruptedCacheException If the buffer does not hold a cache file of the current format.
+     */
+    public static Program decode(ByteBuffer buffer) throws CorruptedCacheException {
+        if(buffer.limit() < header_length || !buffer.slice(0, magic.length).equals(ByteBuffer.wrap(magic))) throw new CorruptedCacheException("unknown format");
+
+        try {
+            return new Program(AstReader.withConstants(buffer, header_length).readStatements());
+        } catch(IndexOutOfBoundsException e) {
+            throw new CorruptedCacheException("unexpected end of file");
+        }
+    }
+
+    /**
+     * Checks if a list of statements read from a cache file has been decoded.
+     *
+     * @param statements The statements, e.g. the body of a function.
+     * @return {@code false} if the statements are the body of a function read from a cache file that has not been decoded yet,
+     *         {@code true} otherwise.
+     */
+    public static boolean isDecoded(List<Statement> statements) {
+        return !(statements instanceof LazyStatementList list) || list.isDecoded();
+    }
+
+    /**
+     * Computes the SHA-256 hash of the content of the given file, the same hash that keys its cache file.
+     *
+     * @param source The path to the file.
+     * @return The hash of the content of the file.
+     * @throws IOException If an I/O error occurs while reading the file.
+     * @throws NoSuchAlgorithmException If the SHA-256 algorithm is not available.
+     */
+    public static byte[] hash(Path source) throws IOException, NoSuchAlgorithmException {
+        try(FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            return hash(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hash of the content of the given buffer.
+     *
+     * @param buffer The buffer to be hashed.
+     * @return The hash of the content of the buffer.
+     * @throws NoSuchAlgorithmException If the SHA-256 algorithm is not available.
+     */
+    private static byte[] hash(ByteBuffer buffer) throws NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(buffer);
+
+        return digest.digest();
+    }
+}
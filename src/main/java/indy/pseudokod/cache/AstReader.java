@@ -0,0 +1,287 @@
+package indy.pseudokod.cache;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.exceptions.CorruptedCacheException;
+import indy.pseudokod.exceptions.IllegalDataTypeException;
+import indy.pseudokod.runtime.values.ValueType;
+import indy.pseudokod.utils.SymbolTable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes an abstract syntax tree (AST) from the binary format written by the {@link AstWriter}.<br><br>
+ *
+ * The reader only uses absolute positions in the buffer, so several readers can decode different parts of the same buffer.
+ * The bodies of functions are not decoded along with the rest of the tree. They are represented by a {@link LazyStatementList},
+ * which decodes them with a new reader when they are first accessed.
+ */
+final class AstReader {
+    private static final NodeType[] node_types = NodeType.values();
+    private static final Operator[] operators = Operator.values();
+    private static final ValueType[] value_types = ValueType.values();
+    private final ByteBuffer buffer;
+    private final Object[] constants;
+    private int position;
+
+    /**
+     * Constructs a new instance of {@link AstReader} decoding the buffer from the given position.
+     *
+     * @param buffer The buffer containing the encoded tree.
+     * @param constants The decoded constant pool of the tree.
+     * @param position The position at which decoding starts.
+     */
+    AstReader(ByteBuffer buffer, Object[] constants, int position) {
+        this.buffer = buffer;
+        this.constants = constants;
+        this.position = position;
+    }
+
+    /**
+     * Decodes the constant pool starting at the given position of the buffer.
+     * The strings are decoded as they are. The names of variables and functions are interned in the {@link SymbolTable}
+     * when the nodes using them are decoded, like the ones produced by the lexer, while the string literals are not.
+     *
+     * @param buffer The buffer containing the constant pool.
+     * @param position The position of the constant pool.
+     * @return A reader positioned after the constant pool.
+     */
+    static AstReader withConstants(ByteBuffer buffer, int position) {
+        final AstReader reader = new AstReader(buffer, null, position);
+        final Object[] constants = new Object[reader.readInt()];
+
+        for(int i = 0; i < constants.length; i++) {
+            switch(reader.readByte()) {
+                case AstCache.STRING -> {
+                    final int length = reader.readInt();
+                    final byte[] bytes = new byte[length];
+                    reader.buffer.get(reader.position, bytes);
+                    reader.position += length;
+                    constants[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                case AstCache.NUMBER -> {
+                    constants[i] = Double.longBitsToDouble(reader.buffer.getLong(reader.position));
+                    reader.position += 8;
+                }
+                default -> throw new CorruptedCacheException("unknown constant at " + reader.position);
+            }
+        }
+
+        return new AstReader(buffer, constants, reader.position);
+    }
+
+    /**
+     * Decodes a list of statements prefixed with their count.
+     *
+     * @return The decoded statements.
+     */
+    List<Statement> readStatements() {
+        final int size = this.readInt();
+        final List<Statement> statements = new ArrayList<>(size);
+
+        for(int i = 0; i < size; i++) statements.add(this.readNode());
+        return statements;
+    }
+
+    /**
+     * Decodes a list of expressions prefixed with their count.
+     *
+     * @return The decoded expressions.
+     */
+    private ArrayList<Expression> readExpressions() {
+        final int size = this.readInt();
+        final ArrayList<Expression> expressions = new ArrayList<>(size);
+
+        for(int i = 0; i < size; i++) expressions.add(this.readExpression());
+        return expressions;
+    }
+
+    /**
+     * Decodes a single node that must be an {@link Expression} (or missing).
+     *
+     * @return The decoded expression, or {@code null} if it is missing.
+     */
+    private Expression readExpression() {
+        final Statement node = this.readNode();
+        if(node == null || node instanceof Expression) return (Expression) node;
+
+        throw new CorruptedCacheException("expected an expression, found " + node.kind());
+    }
+
+    /**
+     * Decodes a single node.
+     *
+     * @return The decoded node, or {@code null} if it is missing.
+     */
+    private Statement readNode() {
+        final int tag = this.readInt();
+        if(tag == 0) return null;
+        if(tag > node_types.length) throw new CorruptedCacheException("unknown node type " + tag);
+
+        switch(node_types[tag - 1]) {
+            case BinaryExpression: {
+                final Operator operator = this.readOperator();
+                return new BinaryExpression(this.readExpression(), this.readExpression(), operator);
+            } case ComparisonExpression: {
+                final Operator operator = this.readOperator();
+                return new ComparisonExpression(this.readExpression(), this.readExpression(), operator);
+            } case LogicalExpression: {
+                final Operator operator = this.readOperator();
+                return new LogicalExpression(this.readExpression(), this.readExpression(), operator);
+            } case BitwiseExpression: {
+                final Operator operator = this.readOperator();
+                return new BitwiseExpression(this.readExpression(), this.readExpression(), operator);
+            }
+            case Identifier:
+                return new Identifier(this.readName());
+            case NumericLiteral:
+                return new NumericLiteral(this.readNumber());
+            case CharacterLiteral:
+                return new CharacterLiteral((char) this.readInt());
+            case StringLiteral:
+                return new StringLiteral(this.readString());
+            case ArrayLiteral:
+                return new ArrayLiteral(this.readExpressions());
+            case SetLiteral:
+                return new SetLiteral(this.readExpressions());
+            case RangeLiteral: {
+                final int flags = this.readByte();
+                return new RangeLiteral(this.readExpression(), this.readExpression(), (flags & 1) != 0, (flags & 2) != 0);
+            }
+            case DataDeclaration:
+                return new DataDeclaration(this.readStatements());
+            case FunctionDeclaration: {
+                final String symbol = this.readName();
+                final List<Statement> data = this.readStatements();
+                final int result = this.readInt();
+                final int length = this.readInt();
+                final List<Statement> body = new LazyStatementList(this.buffer, this.constants, this.position);
+                this.position += length;
+
+                return new FunctionDeclaration(symbol, data, result > 0 ? this.readValueType(result - 1) : null, body);
+            } case VariableDeclaration: {
+                final ValueType type = this.readValueType(this.readInt());
+                final String symbol = this.readName();
+                final boolean constant = this.readByte() != 0;
+                final Expression range = this.readExpression();
+                final Expression value = this.readExpression();
+
+                if(range == null) return new VariableDeclaration(type, symbol, constant, value);
+
+                try {
+                    return new VariableDeclaration(type, symbol, constant, range, value);
+                } catch(IllegalDataTypeException e) {
+                    throw new CorruptedCacheException("range constraint on a variable of type " + type);
+                }
+            }
+            case AssignmentExpression:
+                return new AssignmentExpression(this.readExpression(), this.readExpression());
+            case IndexExpression:
+                return new IndexExpression(this.readExpression(), this.readExpression());
+            case CallExpression:
+                return new CallExpression(this.readExpression(), this.readExpressions());
+            case EllipsisStatement:
+                return new EllipsisStatement();
+            case PrintFunction:
+                return new PrintFunction(this.readExpressions());
+            case GetFunction:
+                return new GetFunction(this.readName());
+            case IfStatement:
+                return new IfStatement(this.readExpression(), this.readStatements(), this.readNode());
+            case ElseStatement:
+                return new ElseStatement(this.readStatements());
+            case ForStatement:
+                return new ForStatement(this.readName(), this.readExpressions(), this.readStatements());
+            case WhileStatement:
+                return new WhileStatement(this.readExpression(), this.readStatements(), this.readByte() != 0);
+            case ReturnStatement:
+                return new ReturnStatement(this.readExpression());
+            case ImportStatement:
+                return new ImportStatement(this.readString());
+            default:
+                throw new CorruptedCacheException("unexpected node type " + node_types[tag - 1]);
+        }
+    }
+
+    /**
+     * @return The decoded {@link Operator}.
+     */
+    private Operator readOperator() {
+        final int index = this.readInt();
+        if(index >= operators.length) throw new CorruptedCacheException("unknown operator " + index);
+
+        return operators[index];
+    }
+
+    /**
+     * @param index The encoded index of the type.
+     * @return The {@link ValueType} with the given index.
+     */
+    private ValueType readValueType(int index) {
+        if(index >= value_types.length) throw new CorruptedCacheException("unknown data type " + index);
+        return value_types[index];
+    }
+
+    /**
+     * @return The string constant referred to at the current position.
+     */
+    private String readString() {
+        if(this.readConstant() instanceof String string) return string;
+        throw new CorruptedCacheException("expected a string constant at " + this.position);
+    }
+
+    /**
+     * @return The string constant referred to at the current position, interned in the {@link SymbolTable} as the name of a variable or function.
+     */
+    private String readName() {
+        return SymbolTable.intern(this.readString());
+    }
+
+    /**
+     * @return The number constant referred to at the current position.
+     */
+    private double readNumber() {
+        if(this.readConstant() instanceof Double number) return number;
+        throw new CorruptedCacheException("expected a number constant at " + this.position);
+    }
+
+    /**
+     * @return The constant referred to at the current position.
+     */
+    private Object readConstant() {
+        final int index = this.readInt();
+        if(index >= this.constants.length) throw new CorruptedCacheException("unknown constant " + index);
+
+        return this.constants[index];
+    }
+
+    /**
+     * @return The byte at the current position.
+     */
+    private int readByte() {
+        if(this.position >= this.buffer.limit()) throw new CorruptedCacheException("unexpected end of file");
+        return this.buffer.get(this.position++) & 0xFF;
+    }
+
+    /**
+     * Decodes a non-negative integer written as a variable-length quantity.
+     *
+     * @return The decoded integer.
+     */
+    int readInt() {
+        int value = 0;
+
+        for(int shift = 0; shift < 35; shift += 7) {
+            final int b = this.readByte();
+            value |= (b & 0x7F) << shift;
+            if((b & 0x80) == 0) {
+                if(value < 0) break;
+                return value;
+            }
+        }
+
+        throw new CorruptedCacheException("malformed integer at " + this.position);
+    }
+}
@@ -0,0 +1,271 @@
+package indy.pseudokod.cache;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.exceptions.ASTNodeNotSetupException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes an abstract syntax tree (AST) into the binary format of the {@link AstCache}.<br><br>
+ *
+ * Every node is written as its {@link NodeType} followed by its fields, with integers written as variable-length
+ * quantities. Names, strings and numbers are written once into a constant pool and referred to by their index.
+ * The body of a function is prefixed with its length in bytes, so it can be skipped while reading and decoded only when needed.
+ */
+final class AstWriter {
+    private final Map<Object, Integer> indices;
+    private final ByteArrayOutputStream constants;
+    private ByteArrayOutputStream output;
+
+    /**
+     * Constructs a new instance of {@link AstWriter} with an empty constant pool.
+     */
+    AstWriter() {
+        this.indices = new HashMap<>();
+        this.constants = new ByteArrayOutputStream();
+        this.output = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Encodes the given program.
+     *
+     * @param program The program to be encoded.
+     * @return The constant pool followed by the encoded nodes of the program.
+     * @throws ASTNodeNotSetupException If the program contains a node that cannot be encoded.
+     */
+    byte[] write(Program program) throws ASTNodeNotSetupException {
+        this.writeStatements(program.body());
+
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(this.constants.size() + this.output.size() + 5);
+        writeInt(result, this.indices.size());
+        result.writeBytes(this.constants.toByteArray());
+        result.writeBytes(this.output.toByteArray());
+
+        return result.toByteArray();
+    }
+
+    /**
+     * Encodes a list of statements, prefixed with their count.
+     *
+     * @param statements The statements to be encoded.
+     * @throws ASTNodeNotSetupException If a statement cannot be encoded.
+     */
+    private void writeStatements(List<? extends Statement> statements) throws ASTNodeNotSetupException {
+        writeInt(this.output, statements.size());
+        for(Statement statement : statements) this.writeNode(statement);
+    }
+
+    /**
+     * Encodes a list of statements, prefixed with their count and with the length in bytes of the encoded statements.
+     *
+     * @param statements The statements to be encoded.
+     * @throws ASTNodeNotSetupException If a statement cannot be encoded.
+     */
+    private void writeDeferredStatements(List<Statement> statements) throws ASTNodeNotSetupException {
+        final ByteArrayOutputStream output = this.output;
+        this.output = new ByteArrayOutputStream();
+
+        try {
+            this.writeStatements(statements);
+        } finally {
+            final ByteArrayOutputStream body = this.output;
+            this.output = output;
+
+            writeInt(this.output, body.size());
+            this.output.writeBytes(body.toByteArray());
+        }
+    }
+
+    /**
+     * Encodes a single node, or a marker of a missing node if it is {@code null}.
+     *
+     * @param node The node to be encoded.
+     * @throws ASTNodeNotSetupException If the node cannot be encoded.
+     */
+    private void writeNode(Statement node) throws ASTNodeNotSetupException {
+        if(node == null) {
+            writeInt(this.output, 0);
+            return;
+        }
+
+        writeInt(this.output, node.kind().ordinal() + 1);
+
+        switch(node.kind()) {
+            case BinaryExpression: {
+                final BinaryExpression expression = (BinaryExpression) node;
+                this.writeOperation(expression.operator(), expression.left(), expression.right());
+                break;
+            } case ComparisonExpression: {
+                final ComparisonExpression expression = (ComparisonExpression) node;
+                this.writeOperation(expression.operator(), expression.left(), expression.right());
+                break;
+            } case LogicalExpression: {
+                final LogicalExpression expression = (LogicalExpression) node;
+                this.writeOperation(expression.operator(), expression.left(), expression.right());
+                break;
+            } case BitwiseExpression: {
+                final BitwiseExpression expression = (BitwiseExpression) node;
+                this.writeOperation(expression.operator(), expression.left(), expression.right());
+                break;
+            }
+            case Identifier:
+                this.writeConstant(((Identifier) node).symbol());
+                break;
+            case NumericLiteral:
+                this.writeConstant(((NumericLiteral) node).value());
+                break;
+            case CharacterLiteral:
+                writeInt(this.output, ((CharacterLiteral) node).value());
+                break;
+            case StringLiteral:
+                this.writeConstant(((StringLiteral) node).value());
+                break;
+            case ArrayLiteral:
+                this.writeStatements(((ArrayLiteral) node).values());
+                break;
+            case SetLiteral:
+                this.writeStatements(((SetLiteral) node).values());
+                break;
+            case RangeLiteral: {
+                final RangeLiteral range = (RangeLiteral) node;
+                this.output.write((range.leftIncluded() ? 1 : 0) | (range.rightIncluded() ? 2 : 0));
+                this.writeNode(range.leftBound());
+                this.writeNode(range.rightBound());
+                break;
+            }
+            case DataDeclaration:
+                this.writeStatements(((DataDeclaration) node).body());
+                break;
+            case FunctionDeclaration: {
+                final FunctionDeclaration function = (FunctionDeclaration) node;
+                this.writeConstant(function.symbol());
+                this.writeStatements(function.data());
+                writeInt(this.output, function.result() != null ? function.result().ordinal() + 1 : 0);
+                this.writeDeferredStatements(function.body());
+                break;
+            } case VariableDeclaration: {
+                final VariableDeclaration declaration = (VariableDeclaration) node;
+                writeInt(this.output, declaration.type().ordinal());
+                this.writeConstant(declaration.symbol());
+                this.output.write(declaration.constant() ? 1 : 0);
+                this.writeNode(declaration.range());
+                this.writeNode(declaration.value());
+                break;
+            } case AssignmentExpression: {
+                final AssignmentExpression assignment = (AssignmentExpression) node;
+                this.writeNode(assignment.expression());
+                this.writeNode(assignment.value());
+                break;
+            } case IndexExpression: {
+                final IndexExpression index = (IndexExpression) node;
+                this.writeNode(index.array());
+                this.writeNode(index.index());
+                break;
+            } case CallExpression: {
+                final CallExpression call = (CallExpression) node;
+                this.writeNode(call.expression());
+                this.writeStatements(call.args());
+                break;
+            }
+            case EllipsisStatement:
+                break;
+            case PrintFunction:
+                this.writeStatements(((PrintFunction) node).args());
+                break;
+            case GetFunction:
+                this.writeConstant(((GetFunction) node).identifier());
+                break;
+            case IfStatement: {
+                final IfStatement statement = (IfStatement) node;
+                this.writeNode(statement.expression());
+                this.writeStatements(statement.body());
+                this.writeNode(statement.elseStatement());
+                break;
+            }
+            case ElseStatement:
+                this.writeStatements(((ElseStatement) node).body());
+                break;
+            case ForStatement: {
+                final ForStatement statement = (ForStatement) node;
+                this.writeConstant(statement.control_variable());
+                this.writeStatements(statement.values());
+                this.writeStatements(statement.body());
+                break;
+            } case WhileStatement: {
+                final WhileStatement statement = (WhileStatement) node;
+                this.writeNode(statement.expression());
+                this.writeStatements(statement.body());
+                this.output.write(statement.isDoWhile() ? 1 : 0);
+                break;
+            }
+            case ReturnStatement:
+                this.writeNode(((ReturnStatement) node).value());
+                break;
+            case ImportStatement:
+                this.writeConstant(((ImportStatement) node).path());
+                break;
+            default:
+                throw new ASTNodeNotSetupException(node.kind());
+        }
+    }
+
+    /**
+     * Encodes the operator and the operands of a binary, comparison, logical or bitwise expression.
+     *
+     * @param operator The operator of the expression.
+     * @param left The left operand, or {@code null} for unary expressions.
+     * @param right The right operand.
+     * @throws ASTNodeNotSetupException If an operand cannot be encoded.
+     */
+    private void writeOperation(Operator operator, Expression left, Expression right) throws ASTNodeNotSetupException {
+        writeInt(this.output, operator.ordinal());
+        this.writeNode(left);
+        this.writeNode(right);
+    }
+
+    /**
+     * Encodes a reference to a constant, adding the constant to the pool the first time it is referred to.
+     *
+     * @param constant The constant, either a {@link String} or a {@link Double}.
+     */
+    private void writeConstant(Object constant) {
+        Integer index = this.indices.get(constant);
+
+        if(index == null) {
+            index = this.indices.size();
+            this.indices.put(constant, index);
+
+            if(constant instanceof String string) {
+                final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                this.constants.write(AstCache.STRING);
+                writeInt(this.constants, bytes.length);
+                this.constants.writeBytes(bytes);
+            } else {
+                final long bits = Double.doubleToRawLongBits((Double) constant);
+                this.constants.write(AstCache.NUMBER);
+                for(int shift = 56; shift >= 0; shift -= 8) this.constants.write((int) (bits >>> shift));
+            }
+        }
+
+        writeInt(this.output, index);
+    }
+
+    /**
+     * Writes a non-negative integer as a variable-length quantity, seven bits per byte,
+     * with the highest bit of a byte set if more bytes follow.
+     *
+     * @param output The stream to write to.
+     * @param value The integer to be written.
+     */
+    static void writeInt(ByteArrayOutputStream output, int value) {
+        while((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+}
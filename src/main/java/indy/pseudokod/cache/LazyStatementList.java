@@ -0,0 +1,68 @@
+package indy.pseudokod.cache;
+
+import indy.pseudokod.ast.Statement;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable list of statements that are decoded from a cache file only when the list is first accessed.
+ * It holds the bodies of functions, so a function that is never called is never decoded.
+ */
+final class LazyStatementList extends AbstractList<Statement> {
+    private final ByteBuffer buffer;
+    private final Object[] constants;
+    private final int position;
+    private volatile List<Statement> statements;
+
+    /**
+     * Constructs a new instance of {@link LazyStatementList} for the statements encoded at the given position.
+     *
+     * @param buffer The buffer containing the encoded statements.
+     * @param constants The decoded constant pool of the buffer.
+     * @param position The position of the encoded statements.
+     */
+    LazyStatementList(ByteBuffer buffer, Object[] constants, int position) {
+        this.buffer = buffer;
+        this.constants = constants;
+        this.position = position;
+    }
+
+    /**
+     * @return The decoded statements, decoding them on the first call.
+     */
+    private List<Statement> statements() {
+        List<Statement> statements = this.statements;
+
+        if(statements == null) {
+            synchronized(this) {
+                statements = this.statements;
+                if(statements == null) {
+                    statements = Collections.unmodifiableList(new AstReader(this.buffer, this.constants, this.position).readStatements());
+                    this.statements = statements;
+                }
+            }
+        }
+
+        return statements;
+    }
+
+    /**
+     * @return {@code true} if the statements have already been decoded.
+     */
+    boolean isDecoded() {
+        return this.statements != null;
+    }
+
+    @Override
+    public Statement get(int index) {
+        return this.statements().get(index);
+    }
+
+    @Override
+    public int size() {
+        return this.statements().size();
+    }
+}
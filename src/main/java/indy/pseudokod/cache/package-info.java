@@ -0,0 +1,27 @@
+/**
+ * The {@link indy.pseudokod.cache} package provides the precompiled abstract syntax tree (AST) cache
+ * of the Pseudokod interpreter.
+ *
+ * <p>Programs are usually run many times without changing in between. Instead of tokenizing and parsing
+ * the source code on every run, the AST is written into a compact binary {@code .pkc} file next to the source,
+ * and later runs read the tree from that file as long as the source has not changed.</p>
+ *
+ * <p>Main Responsibilities:</p>
+ * <ul>
+ *   <li>Encoding the AST with a constant pool for names, strings and numbers, and variable-length integers for everything else.</li>
+ *   <li>Validating cache files against the content hash of their sources.</li>
+ *   <li>Decoding the bodies of functions lazily, when they are first executed.</li>
+ * </ul>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * // Load a program, parsing it only if its cache file is missing or outdated
+ * Program program = AstCache.load(Path.of("program.pk"));
+ * Interpreter.evaluate(program, env);
+ * }</pre>
+ *
+ * @see indy.pseudokod.cache.AstCache
+ * @see indy.pseudokod.ast.Program
+ * @see indy.pseudokod.parser.Parser
+ */
+package indy.pseudokod.cache;
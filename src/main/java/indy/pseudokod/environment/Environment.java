@@ -1,14 +1,15 @@
 package indy.pseudokod.environment;
 
-import indy.pseudokod.exceptions.ConstantAssignmentException;
-import indy.pseudokod.exceptions.DataTypeMismatchException;
-import indy.pseudokod.exceptions.VariableDeclaredException;
-import indy.pseudokod.exceptions.VariableNotDeclaredException;
-import indy.pseudokod.runtime.values.RuntimeValue;
-import indy.pseudokod.runtime.values.ValueType;
+import indy.pseudokod.exceptions.*;
+import indy.pseudokod.runtime.values.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import indy.pseudokod.utils.Debug;
+import indy.pseudokod.utils.SymbolTable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * Represents an environment in which variables are declared, assigned values, and resolved.
@@ -16,11 +17,38 @@ import java.util.Map;
  * to resolve variables from outer scopes.<br><br>
  *
  * The environment manages variable declarations and assignments, checking for conflicts such as
- * re-declaration of variables, type mismatches, and attempts to assign to constants.
+ * re-declaration of variables, type mismatches, and attempts to assign to constants.<br><br>
+ *
+ * The values, types and constness flags of the variables are kept in arrays, indexed by the slots of a {@link FrameLayout}.
+ * A number variable declared in a range or a set keeps it as its domain, and every value assigned to it has to belong to the domain, see {@link #declareVariable(String, ValueType, boolean, RuntimeValue, RuntimeValue)}.
+ * The array of the domains is allocated only when the first variable with a domain is declared in the environment.
+ * An environment created with {@link #Environment(Environment)} owns its layout, which grows as variables are declared.
+ * A {@link Frame} shares the layout built for its block by the {@link indy.pseudokod.runtime.Resolver} with the other frames of that block,
+ * and copies it only if a variable the layout does not know of is declared in it.<br><br>
+ *
+ * An environment remembers the last {@link Frame} entered from it with {@link #enter(FrameLayout)}. If the layout of that frame is reusable,
+ * the frame is cleared and entered again the next time the same block is executed in this environment,
+ * so e.g. the body of a nested loop does not allocate a new scope in every iteration of the outer loop.<br><br>
+ *
+ * With the {@code -debug} flag, see {@link Debug}, the environments count how many of them have been created and how many environments
+ * the lookups of variables have visited, which is reported by {@link #statistics()}. The counters are updated only by the thread executing the program.<br><br>
+ *
+ * Variables are keyed by the canonical names from the {@link SymbolTable}, so lookups compare names by identity.
+ * Names produced by the {@link indy.pseudokod.parser.Parser} and names written as string literals are already canonical;
+ * any other name is interned before it is declared, or when a lookup by identity fails.
  */
 public class Environment {
+    private static long created = 0;
+    private static long lookups = 0;
+    private static long visited = 0;
     private final Environment parent;
-    private final Map<String, Variable> variables;
+    private FrameLayout layout;
+    private boolean shared;
+    private RuntimeValue[] values;
+    private ValueType[] types;
+    private boolean[] constants;
+    private RuntimeValue[] domains;
+    private Environment child;
 
     /**
      * Constructs a new instance of {@link Environment} with the specified parent environment.
@@ -28,16 +56,82 @@ public class Environment {
      * @param parent The parent environment.
      */
     public Environment(Environment parent) {
-        this.parent = parent;
-        this.variables = new HashMap<>();
+        this(parent, new FrameLayout(), false);
     }
 
     /**
      * Constructs a new instance of top-level {@link Environment} with no parent.
      */
     public Environment() {
-        this.parent = null;
-        this.variables = new HashMap<>();
+        this(null, new FrameLayout(), false);
+    }
+
+    /**
+     * Constructs a new instance of {@link Environment} with the specified parent environment and layout.
+     *
+     * @param parent The parent environment.
+     * @param layout The {@link FrameLayout} of the environment.
+     * @param shared {@code true} if the layout is shared with other environments and has to be copied before it is extended.
+     */
+    Environment(Environment parent, FrameLayout layout, boolean shared) {
+        this.parent = parent;
+        this.layout = layout;
+        this.shared = shared;
+        this.values = new RuntimeValue[layout.size()];
+        this.types = new ValueType[layout.size()];
+        this.constants = new boolean[layout.size()];
+        if(Debug.ENABLED) created++;
+    }
+
+    /**
+     * Enters a block, returning the environment in which the block is executed.<br><br>
+     *
+     * A block that has not been resolved gets a new {@link Environment}, extended as its variables are declared.
+     * A block with an empty layout, flattened by the {@link indy.pseudokod.runtime.Resolver} because it declares no variables,
+     * is executed directly in this environment. Any other block gets a {@link Frame} of its layout;
+     * if the last frame entered from this environment was created for the same reusable layout, it is cleared and returned again.
+     *
+     * @param layout The {@link FrameLayout} of the block, or {@code null} if the block has not been resolved.
+     * @return The environment in which the block is executed.
+     */
+    public Environment enter(FrameLayout layout) {
+        if(layout == null) return new Environment(this);
+        if(layout.size() == 0) return this;
+
+        final Environment child = this.child;
+        if(child != null && child.layout == layout) {
+            child.clear();
+            return child;
+        }
+
+        final Frame frame = new Frame(layout, this);
+        if(layout.isReusable()) this.child = frame;
+        return frame;
+    }
+
+    /**
+     * Creates the environment in which a function declared in this environment is called.
+     *
+     * @param layout The {@link FrameLayout} of the function, or {@code null} if the function has not been resolved.
+     * @return A new {@link Frame} of the layout, or a new {@link Environment} extended as variables are declared if there is no layout.
+     */
+    public Environment call(FrameLayout layout) {
+        return layout != null ? new Frame(layout, this) : new Environment(this);
+    }
+
+    /**
+     * @return The {@link FrameLayout} of the variables declared in this environment. The layout of the global environment is extended
+     *         by the {@link indy.pseudokod.runtime.Resolver} with the slots of the global variables a program declares or refers to.
+     */
+    public FrameLayout layout() {
+        return this.layout;
+    }
+
+    /**
+     * @return A summary of the number of environments created and of the environments visited by the lookups of variables so far.
+     */
+    public static String statistics() {
+        return String.format("Created %d scopes, looked up %d variables visiting %.2f scopes on average.", created, lookups, lookups > 0 ? (double) visited / lookups : 0);
     }
 
     /**
@@ -51,12 +145,87 @@ public class Environment {
      * @throws DataTypeMismatchException If there is a data type mismatch.
      */
     public void declareVariable(String name, ValueType type, boolean constant, RuntimeValue value) throws VariableDeclaredException, DataTypeMismatchException {
-        if(this.variables.containsKey(name)) throw new VariableDeclaredException(name);
+        name = SymbolTable.intern(name);
+        int slot = this.layout.slot(name);
+
+        if(slot >= 0 && slot < this.types.length && this.types[slot] != null) throw new VariableDeclaredException(name);
+        if(type != value.type() && value.type() != ValueType.NULL) throw new DataTypeMismatchException(type, value.type());
 
-        Variable variable = new Variable(type, name, constant, value);
-        if(variable.type() != value.type() && value.type() != ValueType.NULL) throw new DataTypeMismatchException(variable.type(), value.type());
+        if(slot < 0) {
+            if(this.shared) {
+                this.layout = new FrameLayout(this.layout);
+                this.shared = false;
+            }
+            slot = this.layout.add(name);
+        }
 
-        this.variables.put(name, variable);
+        if(slot >= this.types.length) {
+            final int capacity = Math.max(Math.max(4, slot + 1), this.types.length * 2);
+            this.values = Arrays.copyOf(this.values, capacity);
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.constants = Arrays.copyOf(this.constants, capacity);
+        }
+
+        this.values[slot] = value;
+        this.types[slot] = type;
+        this.constants[slot] = constant;
+        if(this.domains != null && slot < this.domains.length) this.domains[slot] = null;
+    }
+
+    /**
+     * Declares a new number variable constrained to a domain in the environment.
+     * The initial value and every value assigned to the variable later, other than null, have to belong to the domain.
+     * A value of a variable whose domain is a range of integers, like {@code Z} or {@code N}, is kept as an {@link IntegerValue}.
+     *
+     * @param name The name of the variable.
+     * @param type The type of the variable.
+     * @param constant {@code true} if the variable is constant, {@code false} if it is mutable.
+     * @param value The initial value of the variable.
+     * @param domain The {@link RangeValue} or the {@link SetValue} the values of the variable have to belong to, or {@code null} if the variable has no domain.
+     * @throws VariableDeclaredException If the variable has already been declared.
+     * @throws DataTypeMismatchException If there is a data type mismatch.
+     * @throws NumberOutOfRangeException If the initial value does not belong to the domain.
+     * @throws ConversionDataTypeException If the elements of the set cannot be described in the error.
+     */
+    public void declareVariable(String name, ValueType type, boolean constant, RuntimeValue value, RuntimeValue domain) throws VariableDeclaredException, DataTypeMismatchException, NumberOutOfRangeException, ConversionDataTypeException {
+        if(domain == null) {
+            this.declareVariable(name, type, constant, value);
+            return;
+        }
+
+        this.declareVariable(name, type, constant, constrain(domain, value));
+
+        final int slot = this.indexOf(SymbolTable.intern(name));
+        if(this.domains == null) this.domains = new RuntimeValue[this.types.length];
+        else if(this.domains.length < this.types.length) this.domains = Arrays.copyOf(this.domains, this.types.length);
+        this.domains[slot] = domain;
+    }
+
+    /**
+     * Removes a variable declared in this environment, so it can be declared again.
+     * Variables declared in the parent environments are not affected. The slot of the variable is kept for it,
+     * so the lexical addresses of the other variables stay valid.
+     *
+     * @param name The name of the variable.
+     */
+    public void removeVariable(String name) {
+        final int slot = this.indexOf(SymbolTable.intern(name));
+        if(slot < 0) return;
+
+        this.values[slot] = null;
+        this.types[slot] = null;
+        this.constants[slot] = false;
+        if(this.domains != null && slot < this.domains.length) this.domains[slot] = null;
+    }
+
+    /**
+     * @return The canonical names of the variables declared directly in this environment.
+     */
+    public Set<String> variableNames() {
+        final Set<String> names = Collections.newSetFromMap(new IdentityHashMap<>());
+        for(int slot = 0; slot < this.types.length; slot++) if(this.types[slot] != null) names.add(this.layout.name(slot));
+
+        return Collections.unmodifiableSet(names);
     }
 
     /**
@@ -68,17 +237,20 @@ public class Environment {
      * @throws VariableNotDeclaredException If the variable is not declared in the current scope or any of its parent environments.
      * @throws ConstantAssignmentException If the variable is constant.
      * @throws DataTypeMismatchException If there is a data type mismatch.
+     * @throws NumberOutOfRangeException If the value does not belong to the domain of the variable.
+     * @throws ConversionDataTypeException If the elements of the set the variable is constrained to cannot be described in the error.
      */
-    public RuntimeValue assignVariable(String name, RuntimeValue value) throws VariableNotDeclaredException, ConstantAssignmentException, DataTypeMismatchException {
-        final Environment env = this.resolveVariable(name);
-        Variable variable = env.variables.get(name);
+    public RuntimeValue assignVariable(String name, RuntimeValue value) throws VariableNotDeclaredException, ConstantAssignmentException, DataTypeMismatchException, NumberOutOfRangeException, ConversionDataTypeException {
+        if(Debug.ENABLED) lookups++;
+        for(Environment env = this; env != null; env = env.parent) {
+            if(Debug.ENABLED) visited++;
+            final int slot = env.indexOf(name);
+            if(slot >= 0) return env.assign(slot, value);
+        }
 
-        if(variable.constant()) throw new ConstantAssignmentException(name);
-        if(variable.type() != value.type() && value.type() != ValueType.NULL) throw new DataTypeMismatchException(variable.type(), value.type());
-        variable.setValue(value);
-
-        env.variables.put(name, variable);
-        return value;
+        final String symbol = SymbolTable.intern(name);
+        if(symbol != name) return this.assignVariable(symbol, value);
+        throw new VariableNotDeclaredException(name);
     }
 
     /**
@@ -89,8 +261,97 @@ public class Environment {
      * @throws VariableNotDeclaredException If the variable is not declared in the current scope or any of its parent environments.
      */
     public RuntimeValue getVariable(String name) throws VariableNotDeclaredException {
-        final Environment env = this.resolveVariable(name);
-        return env.variables.get(name).value();
+        if(Debug.ENABLED) lookups++;
+        for(Environment env = this; env != null; env = env.parent) {
+            if(Debug.ENABLED) visited++;
+            final int slot = env.indexOf(name);
+            if(slot >= 0) return env.values[slot];
+        }
+
+        final String symbol = SymbolTable.intern(name);
+        if(symbol != name) return this.getVariable(symbol);
+        throw new VariableNotDeclaredException(name);
+    }
+
+    /**
+     * Retrieves the value of a variable from the environment by its lexical address, as annotated by the {@link indy.pseudokod.runtime.Resolver}.
+     * If the depth is negative, or the slot does not hold a variable with the given name, the variable is looked up by name.
+     *
+     * @param name The name of the variable.
+     * @param depth The number of parent environments to skip, or {@code -1} if the variable has to be looked up by name.
+     * @param slot The position of the variable among the variables of the environment declaring it.
+     * @return The value of the variable.
+     * @throws VariableNotDeclaredException If the variable is not declared in the current scope or any of its parent environments.
+     */
+    public RuntimeValue getVariable(String name, int depth, int slot) throws VariableNotDeclaredException {
+        final Environment env = this.ancestor(depth);
+        if(env != null && env.holds(slot, name)) {
+            if(Debug.ENABLED) {
+                lookups++;
+                visited += depth + 1;
+            }
+            return env.values[slot];
+        }
+
+        return this.getVariable(name);
+    }
+
+    /**
+     * Assigns a new value to an existing variable found by its lexical address, as annotated by the {@link indy.pseudokod.runtime.Resolver}.
+     * If the depth is negative, or the slot does not hold a variable with the given name, the variable is looked up by name.
+     *
+     * @param name The name of the variable.
+     * @param depth The number of parent environments to skip, or {@code -1} if the variable has to be looked up by name.
+     * @param slot The position of the variable among the variables of the environment declaring it.
+     * @param value The new value to assign to the variable.
+     * @return The value assigned to the variable.
+     * @throws VariableNotDeclaredException If the variable is not declared in the current scope or any of its parent environments.
+     * @throws ConstantAssignmentException If the variable is constant.
+     * @throws DataTypeMismatchException If there is a data type mismatch.
+     * @throws NumberOutOfRangeException If the value does not belong to the domain of the variable.
+     * @throws ConversionDataTypeException If the elements of the set the variable is constrained to cannot be described in the error.
+     */
+    public RuntimeValue assignVariable(String name, int depth, int slot, RuntimeValue value) throws VariableNotDeclaredException, ConstantAssignmentException, DataTypeMismatchException, NumberOutOfRangeException, ConversionDataTypeException {
+        final Environment env = this.ancestor(depth);
+        if(env != null && env.holds(slot, name)) {
+            if(Debug.ENABLED) {
+                lookups++;
+                visited += depth + 1;
+            }
+            return env.assign(slot, value);
+        }
+
+        return this.assignVariable(name, value);
+    }
+
+    /**
+     * Assigns a value whose type has been checked statically to a variable found by its lexical address, as annotated by the {@link indy.pseudokod.runtime.Resolver}.
+     * The variable is not checked to be constant nor to have the type of the value, nor the value to belong to the domain of the variable,
+     * which has to be proven statically as well, unless the variable has to be looked up by name.
+     *
+     * @param name The name of the variable.
+     * @param depth The number of parent environments to skip, or {@code -1} if the variable has to be looked up by name.
+     * @param slot The position of the variable among the variables of the environment declaring it.
+     * @param value The new value to assign to the variable, of the type of the variable or null.
+     * @return The value assigned to the variable.
+     * @throws VariableNotDeclaredException If the variable is not declared in the current scope or any of its parent environments.
+     * @throws ConstantAssignmentException If the variable is looked up by name and is constant.
+     * @throws DataTypeMismatchException If the variable is looked up by name and there is a data type mismatch.
+     * @throws NumberOutOfRangeException If the variable is looked up by name and the value does not belong to its domain.
+     * @throws ConversionDataTypeException If the elements of the set the variable is constrained to cannot be described in the error.
+     */
+    public RuntimeValue storeVariable(String name, int depth, int slot, RuntimeValue value) throws VariableNotDeclaredException, ConstantAssignmentException, DataTypeMismatchException, NumberOutOfRangeException, ConversionDataTypeException {
+        final Environment env = this.ancestor(depth);
+        if(env != null && env.holds(slot, name)) {
+            if(Debug.ENABLED) {
+                lookups++;
+                visited += depth + 1;
+            }
+            env.values[slot] = value;
+            return value;
+        }
+
+        return this.assignVariable(name, value);
     }
 
     /**
@@ -102,7 +363,20 @@ public class Environment {
      */
     public ValueType getVariableType(String name) throws VariableNotDeclaredException {
         final Environment env = this.resolveVariable(name);
-        return env.variables.get(name).type();
+        return env.types[env.indexOf(SymbolTable.intern(name))];
+    }
+
+    /**
+     * Retrieves the domain of a variable from the environment.
+     *
+     * @param name The name of the variable.
+     * @return The {@link RangeValue} or the {@link SetValue} the values of the variable have to belong to, or {@code null} if the variable has no domain.
+     * @throws VariableNotDeclaredException If the variable is not declared in the current scope or any of its parent environments.
+     */
+    public RuntimeValue getVariableDomain(String name) throws VariableNotDeclaredException {
+        final Environment env = this.resolveVariable(name);
+        final int slot = env.indexOf(SymbolTable.intern(name));
+        return env.domains != null && slot < env.domains.length ? env.domains[slot] : null;
     }
 
     /**
@@ -114,8 +388,98 @@ public class Environment {
      * @throws VariableNotDeclaredException If the variable is not declared in the current environment or any of its parent environments.
      */
     public Environment resolveVariable(String name) throws VariableNotDeclaredException {
-        if(this.variables.containsKey(name)) return this;
-        if(this.parent == null) throw new VariableNotDeclaredException(name);
-        return this.parent.resolveVariable(name);
+        for(Environment env = this; env != null; env = env.parent)
+            if(env.indexOf(name) >= 0) return env;
+
+        final String symbol = SymbolTable.intern(name);
+        if(symbol != name) return this.resolveVariable(symbol);
+        throw new VariableNotDeclaredException(name);
+    }
+
+    /**
+     * Removes all the variables declared in this environment, so it can be entered again.
+     */
+    private void clear() {
+        Arrays.fill(this.values, null);
+        Arrays.fill(this.types, null);
+        Arrays.fill(this.constants, false);
+        if(this.domains != null) Arrays.fill(this.domains, null);
+    }
+
+    /**
+     * Finds the slot of a variable declared directly in this environment.
+     *
+     * @param name The canonical name of the variable.
+     * @return The slot of the variable, or {@code -1} if the variable is not declared in this environment.
+     */
+    private int indexOf(String name) {
+        final int slot = this.layout.slot(name);
+        return slot >= 0 && slot < this.types.length && this.types[slot] != null ? slot : -1;
+    }
+
+    /**
+     * Checks if the given slot of this environment holds a declared variable with the given name.
+     *
+     * @param slot The slot of the variable.
+     * @param name The name of the variable.
+     * @return {@code true} if the slot holds the variable, {@code false} otherwise.
+     */
+    private boolean holds(int slot, String name) {
+        return slot < this.types.length && this.types[slot] != null && this.layout.name(slot) == name;
+    }
+
+    /**
+     * Finds the environment the given number of levels above this one.
+     *
+     * @param depth The number of parent environments to skip.
+     * @return The environment, or {@code null} if the depth is negative or there are not as many parent environments.
+     */
+    private Environment ancestor(int depth) {
+        if(depth < 0) return null;
+
+        Environment env = this;
+        for(int i = 0; i < depth && env != null; i++) env = env.parent;
+        return env;
+    }
+
+    /**
+     * Assigns a new value to the variable in the given slot of this environment.
+     *
+     * @param slot The slot of the variable.
+     * @param value The new value to assign to the variable.
+     * @return The value assigned to the variable.
+     * @throws ConstantAssignmentException If the variable is constant.
+     * @throws DataTypeMismatchException If there is a data type mismatch.
+     * @throws NumberOutOfRangeException If the value does not belong to the domain of the variable.
+     * @throws ConversionDataTypeException If the elements of the set the variable is constrained to cannot be described in the error.
+     */
+    private RuntimeValue assign(int slot, RuntimeValue value) throws ConstantAssignmentException, DataTypeMismatchException, NumberOutOfRangeException, ConversionDataTypeException {
+        if(this.constants[slot]) throw new ConstantAssignmentException(this.layout.name(slot));
+        if(this.types[slot] != value.type() && value.type() != ValueType.NULL) throw new DataTypeMismatchException(this.types[slot], value.type());
+        if(this.domains != null && slot < this.domains.length && this.domains[slot] != null) value = constrain(this.domains[slot], value);
+
+        this.values[slot] = value;
+        return value;
+    }
+
+    /**
+     * Checks that a value belongs to the domain of a variable. A null belongs to every domain.
+     *
+     * @param domain The {@link RangeValue} or the {@link SetValue} of the variable.
+     * @param value The value of the variable.
+     * @return The value, kept as an {@link IntegerValue} if the domain is a range of integers.
+     * @throws NumberOutOfRangeException If the value does not belong to the domain.
+     * @throws ConversionDataTypeException If the elements of the set cannot be described in the error.
+     */
+    private static RuntimeValue constrain(RuntimeValue domain, RuntimeValue value) throws NumberOutOfRangeException, ConversionDataTypeException {
+        if(!(value instanceof NumberValue number)) return value;
+
+        if(domain instanceof RangeValue range) {
+            if(!range.include(number.value())) throw new NumberOutOfRangeException(number, range);
+            return range.integral() ? NumberValue.of(number.value()) : value;
+        }
+
+        if(!((SetValue) domain).includes(value)) throw new NumberOutOfRangeException(number, (SetValue) domain);
+        return value;
     }
 }
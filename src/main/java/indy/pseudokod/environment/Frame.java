@@ -0,0 +1,21 @@
+package indy.pseudokod.environment;
+
+/**
+ * Represents the environment of a single execution of a block whose variables are known before it is executed,
+ * such as a function call or the body of a loop.<br><br>
+ *
+ * The {@link FrameLayout} of the block is built once by the {@link indy.pseudokod.runtime.Resolver} and shared by all of its frames,
+ * so creating a frame only allocates the arrays of values, types and constness flags, already sized to hold every variable of the block.
+ */
+public class Frame extends Environment {
+
+    /**
+     * Constructs a new instance of {@link Frame} with the specified layout and parent environment.
+     *
+     * @param layout The {@link FrameLayout} of the block executed in the frame.
+     * @param parent The parent environment.
+     */
+    public Frame(FrameLayout layout, Environment parent) {
+        super(parent, layout, true);
+    }
+}
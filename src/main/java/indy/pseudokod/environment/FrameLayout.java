@@ -0,0 +1,105 @@
+package indy.pseudokod.environment;
+
+import indy.pseudokod.utils.SymbolTable;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Describes the shape of a scope: the names of the variables declared in it and the slots they occupy.<br><br>
+ *
+ * The {@link indy.pseudokod.runtime.Resolver} builds one layout for every block of the program that creates a scope,
+ * such as the body of a function or a loop, and every {@link Frame} created for that block shares it.
+ * The top-level {@link Environment} owns a layout of its own, which grows as variables are declared.<br><br>
+ *
+ * A layout can be marked as reusable if nothing can refer to a frame of its block once the block has been executed,
+ * i.e. if no function is declared in the block. The frame of such a block can be cleared and used again the next time
+ * the block is executed in the same environment, e.g. in the next iteration of a loop.
+ */
+public final class FrameLayout {
+    private String[] names;
+    private final Map<String, Integer> slots;
+    private boolean reusable;
+
+    /**
+     * Constructs a new, empty instance of {@link FrameLayout}.
+     */
+    public FrameLayout() {
+        this.names = new String[4];
+        this.slots = new IdentityHashMap<>();
+    }
+
+    /**
+     * Constructs a new instance of {@link FrameLayout} with the same slots as the given layout.
+     *
+     * @param layout The layout to copy.
+     */
+    public FrameLayout(FrameLayout layout) {
+        this.names = layout.names.clone();
+        this.slots = new IdentityHashMap<>(layout.slots);
+        this.reusable = layout.reusable;
+    }
+
+    /**
+     * Adds a variable to the layout, unless it already has a slot.
+     *
+     * @param name The name of the variable.
+     * @return The slot of the variable.
+     */
+    public int add(String name) {
+        name = SymbolTable.intern(name);
+
+        final Integer slot = this.slots.get(name);
+        if(slot != null) return slot;
+
+        final int size = this.slots.size();
+        if(size == this.names.length) this.names = Arrays.copyOf(this.names, size * 2);
+
+        this.names[size] = name;
+        this.slots.put(name, size);
+        return size;
+    }
+
+    /**
+     * Finds the slot of a variable. The name has to be canonical, as returned by the {@link SymbolTable}.
+     *
+     * @param name The canonical name of the variable.
+     * @return The slot of the variable, or {@code -1} if the layout has no slot for it.
+     */
+    public int slot(String name) {
+        final Integer slot = this.slots.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * @param slot The slot of a variable.
+     * @return The canonical name of the variable occupying the slot, or {@code null} if the slot is out of the layout.
+     */
+    public String name(int slot) {
+        return slot < this.names.length ? this.names[slot] : null;
+    }
+
+    /**
+     * @return The number of slots in the layout.
+     */
+    public int size() {
+        return this.slots.size();
+    }
+
+    /**
+     * Marks the frames of the layout as reusable, or not.
+     *
+     * @param reusable {@code true} if a frame of the layout can be cleared and used again once its block has been executed.
+     */
+    public void setReusable(boolean reusable) {
+        this.reusable = reusable;
+    }
+
+    /**
+     * @return {@code true} if a frame of the layout can be cleared and used again once its block has been executed.
+     */
+    public boolean isReusable() {
+        return this.reusable;
+    }
+}
@@ -32,11 +32,15 @@
  * RuntimeValue value = environment.getVariable("x");
  * }</pre>
  *
+ * <p>The scopes of functions, conditional statements and loops are {@link indy.pseudokod.environment.Frame}s,
+ * which share a {@link indy.pseudokod.environment.FrameLayout} built for their block before the program is executed.</p>
+ *
  * <p>For more details on implementing and extending the runtime environment, refer
  * to the individual classes in this package.</p>
  *
  * @see indy.pseudokod.environment.Environment
- * @see indy.pseudokod.environment.Variable
+ * @see indy.pseudokod.environment.Frame
+ * @see indy.pseudokod.environment.FrameLayout
  * @see indy.pseudokod.runtime
  */
 package indy.pseudokod.environment;
\ No newline at end of file
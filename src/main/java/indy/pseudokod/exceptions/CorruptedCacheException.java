@@ -0,0 +1,18 @@
+package indy.pseudokod.exceptions;
+
+/**
+ * Thrown when a precompiled abstract syntax tree (AST) cache file cannot be decoded.
+ * It is unchecked, since the bodies of functions are decoded lazily, when they are first executed.
+ */
+public class CorruptedCacheException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new instance of {@link CorruptedCacheException}.
+     *
+     * @param reason The description of the problem found in the cache file.
+     */
+    public CorruptedCacheException(String reason) {
+        super("The precompiled AST cache file is corrupted: " + reason + ".");
+    }
+}
@@ -0,0 +1,35 @@
+package indy.pseudokod.exceptions;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Thrown when several modules of a program, i.e. the program and the files it imports, cannot be parsed.
+ * The message lists the errors of all the modules, and the errors themselves are attached as suppressed exceptions.
+ */
+public class ModuleParseException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new instance of {@link ModuleParseException}.
+     *
+     * @param errors The errors thrown while parsing the modules, keyed by the paths of the modules.
+     */
+    public ModuleParseException(Map<Path, Throwable> errors) {
+        super(describe(errors));
+        errors.values().forEach(this::addSuppressed);
+    }
+
+    /**
+     * Builds the message listing the errors of all the modules.
+     *
+     * @param errors The errors thrown while parsing the modules, keyed by the paths of the modules.
+     * @return The message of the exception.
+     */
+    private static String describe(Map<Path, Throwable> errors) {
+        final StringBuilder message = new StringBuilder("Found errors in " + errors.size() + " modules:");
+        errors.forEach((path, error) -> message.append("\n  ").append(path).append(": ").append(error.getMessage()));
+
+        return message.toString();
+    }
+}
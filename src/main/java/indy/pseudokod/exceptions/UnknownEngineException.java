@@ -0,0 +1,17 @@
+package indy.pseudokod.exceptions;
+
+/**
+ * Thrown when the engine selected on the command line does not exist.
+ */
+public class UnknownEngineException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new instance of {@link UnknownEngineException}.
+     *
+     * @param name The name of the engine that was selected.
+     */
+    public UnknownEngineException(String name) {
+        super("Unknown engine '" + name + "'.");
+    }
+}
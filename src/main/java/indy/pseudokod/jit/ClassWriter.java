@@ -0,0 +1,318 @@
+package indy.pseudokod.jit;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a class file, as defined by the Java Virtual Machine Specification: its constant pool and its static methods.<br><br>
+ *
+ * The classes are written in the version 49 format, which the JVM verifies by type inference,
+ * so the methods need no stack map frames. The written classes have no fields and no constructor,
+ * they are only loaded as hidden classes to call their static methods.
+ */
+final class ClassWriter {
+    private static final int VERSION = 49;
+    private static final int ACC_FINAL_SUPER = 0x0030;
+
+    private final Buffer pool;
+    private final Map<String, Integer> entries;
+    private final Buffer methods;
+    private final String name;
+    private int count;
+    private int method_count;
+
+    /**
+     * Constructs a new instance of {@link ClassWriter}.
+     *
+     * @param name The internal name of the class, e.g. {@code indy/pseudokod/jit/Kernel}.
+     */
+    ClassWriter(String name) {
+        this.pool = new Buffer();
+        this.entries = new HashMap<>();
+        this.methods = new Buffer();
+        this.name = name;
+        this.count = 1;
+    }
+
+    /**
+     * @return The internal name of the class.
+     */
+    String name() {
+        return this.name;
+    }
+
+    /**
+     * Adds a string to the constant pool, unless it is already there.
+     *
+     * @param value The string.
+     * @return The index of the {@code CONSTANT_Utf8} entry.
+     */
+    int utf8(String value) {
+        final String key = "U" + value;
+        final Integer index = this.entries.get(key);
+        if(index != null) return index;
+
+        final Buffer bytes = new Buffer();
+        for(int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            if(c >= 0x01 && c <= 0x7f) bytes.u1(c);
+            else if(c <= 0x7ff) {
+                bytes.u1(0xc0 | (c >> 6));
+                bytes.u1(0x80 | (c & 0x3f));
+            } else {
+                bytes.u1(0xe0 | (c >> 12));
+                bytes.u1(0x80 | ((c >> 6) & 0x3f));
+                bytes.u1(0x80 | (c & 0x3f));
+            }
+        }
+
+        this.pool.u1(1);
+        this.pool.u2(bytes.size);
+        this.pool.bytes(bytes.data, bytes.size);
+        return this.add(key, 1);
+    }
+
+    /**
+     * Adds a reference to a class to the constant pool, unless it is already there.
+     *
+     * @param name The internal name of the class.
+     * @return The index of the {@code CONSTANT_Class} entry.
+     */
+    int classReference(String name) {
+        final String key = "C" + name;
+        final Integer index = this.entries.get(key);
+        if(index != null) return index;
+
+        final int utf8 = this.utf8(name);
+        this.pool.u1(7);
+        this.pool.u2(utf8);
+        return this.add(key, 1);
+    }
+
+    /**
+     * Adds a reference to a method to the constant pool, unless it is already there.
+     *
+     * @param owner The internal name of the class declaring the method.
+     * @param name The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @return The index of the {@code CONSTANT_Methodref} entry.
+     */
+    int methodReference(String owner, String name, String descriptor) {
+        final String key = "M" + owner + "." + name + descriptor;
+        final Integer index = this.entries.get(key);
+        if(index != null) return index;
+
+        final int owner_index = this.classReference(owner);
+        final int name_index = this.utf8(name);
+        final int descriptor_index = this.utf8(descriptor);
+
+        final String name_and_type_key = "N" + name + descriptor;
+        Integer name_and_type = this.entries.get(name_and_type_key);
+        if(name_and_type == null) {
+            this.pool.u1(12);
+            this.pool.u2(name_index);
+            this.pool.u2(descriptor_index);
+            name_and_type = this.add(name_and_type_key, 1);
+        }
+
+        this.pool.u1(10);
+        this.pool.u2(owner_index);
+        this.pool.u2(name_and_type);
+        return this.add(key, 1);
+    }
+
+    /**
+     * Adds a double constant to the constant pool, unless it is already there.
+     *
+     * @param value The value of the constant.
+     * @return The index of the {@code CONSTANT_Double} entry, which takes two entries of the pool.
+     */
+    int doubleConstant(double value) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final String key = "D" + bits;
+        final Integer index = this.entries.get(key);
+        if(index != null) return index;
+
+        this.pool.u1(6);
+        this.pool.u4((int) (bits >>> 32));
+        this.pool.u4((int) bits);
+        return this.add(key, 2);
+    }
+
+    /**
+     * Adds an integer constant to the constant pool, unless it is already there.
+     *
+     * @param value The value of the constant.
+     * @return The index of the {@code CONSTANT_Integer} entry.
+     */
+    int integerConstant(int value) {
+        final String key = "I" + value;
+        final Integer index = this.entries.get(key);
+        if(index != null) return index;
+
+        this.pool.u1(3);
+        this.pool.u4(value);
+        return this.add(key, 1);
+    }
+
+    /**
+     * Adds a public static method to the class.
+     *
+     * @param name The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @param code The {@link CodeWriter} holding the code of the method, which has to be finished.
+     */
+    void method(String name, String descriptor, CodeWriter code) {
+        final int code_attribute = this.utf8("Code");
+
+        this.methods.u2(0x0009);
+        this.methods.u2(this.utf8(name));
+        this.methods.u2(this.utf8(descriptor));
+        this.methods.u2(1);
+
+        this.methods.u2(code_attribute);
+        this.methods.u4(12 + code.size() + 8 * code.handlers().size());
+        this.methods.u2(code.maxStack());
+        this.methods.u2(code.maxLocals());
+        this.methods.u4(code.size());
+        this.methods.bytes(code.code(), code.size());
+        this.methods.u2(code.handlers().size());
+        for(int[] handler : code.handlers()) for(int value : handler) this.methods.u2(value);
+        this.methods.u2(0);
+
+        this.method_count++;
+    }
+
+    /**
+     * @return The bytes of the class file.
+     */
+    byte[] toByteArray() {
+        final int this_class = this.classReference(this.name);
+        final int super_class = this.classReference("java/lang/Object");
+
+        final Buffer file = new Buffer();
+        file.u4(0xcafebabe);
+        file.u2(0);
+        file.u2(VERSION);
+        file.u2(this.count);
+        file.bytes(this.pool.data, this.pool.size);
+        file.u2(ACC_FINAL_SUPER);
+        file.u2(this_class);
+        file.u2(super_class);
+        file.u2(0);
+        file.u2(0);
+        file.u2(this.method_count);
+        file.bytes(this.methods.data, this.methods.size);
+        file.u2(0);
+
+        return Arrays.copyOf(file.data, file.size);
+    }
+
+    /**
+     * Records a new entry of the constant pool.
+     *
+     * @param key The key identifying the entry.
+     * @param size The number of entries it takes.
+     * @return The index of the entry.
+     */
+    private int add(String key, int size) {
+        final int index = this.count;
+        this.entries.put(key, index);
+        this.count += size;
+        return index;
+    }
+
+    /**
+     * A growable array of bytes, written in the big-endian order of class files.
+     */
+    static final class Buffer {
+        private byte[] data;
+        private int size;
+
+        /**
+         * Constructs a new, empty instance of {@link Buffer}.
+         */
+        Buffer() {
+            this.data = new byte[64];
+        }
+
+        /**
+         * Writes a single byte.
+         *
+         * @param value The byte, in its lowest 8 bits.
+         */
+        void u1(int value) {
+            this.ensure(1);
+            this.data[this.size++] = (byte) value;
+        }
+
+        /**
+         * Writes two bytes.
+         *
+         * @param value The value, in its lowest 16 bits.
+         */
+        void u2(int value) {
+            this.ensure(2);
+            this.data[this.size++] = (byte) (value >>> 8);
+            this.data[this.size++] = (byte) value;
+        }
+
+        /**
+         * Writes four bytes.
+         *
+         * @param value The value.
+         */
+        void u4(int value) {
+            this.u2(value >>> 16);
+            this.u2(value);
+        }
+
+        /**
+         * Writes the given bytes.
+         *
+         * @param bytes The bytes.
+         * @param length The number of bytes to write.
+         */
+        void bytes(byte[] bytes, int length) {
+            this.ensure(length);
+            System.arraycopy(bytes, 0, this.data, this.size, length);
+            this.size += length;
+        }
+
+        /**
+         * Overwrites two bytes already written.
+         *
+         * @param position The position of the first byte.
+         * @param value The value, in its lowest 16 bits.
+         */
+        void put2(int position, int value) {
+            this.data[position] = (byte) (value >>> 8);
+            this.data[position + 1] = (byte) value;
+        }
+
+        /**
+         * @return The number of bytes written.
+         */
+        int size() {
+            return this.size;
+        }
+
+        /**
+         * @return The array holding the bytes written, which may be longer than their number.
+         */
+        byte[] data() {
+            return this.data;
+        }
+
+        /**
+         * Grows the array, if needed, so it can hold more bytes.
+         *
+         * @param length The number of bytes to be written.
+         */
+        private void ensure(int length) {
+            if(this.size + length > this.data.length) this.data = Arrays.copyOf(this.data, Math.max(this.data.length * 2, this.size + length));
+        }
+    }
+}
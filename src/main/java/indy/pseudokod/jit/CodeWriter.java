@@ -0,0 +1,282 @@
+package indy.pseudokod.jit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the code of a single method: its instructions, the labels its jumps refer to and its exception handlers.<br><br>
+ *
+ * The writer keeps track of the depth of the operand stack, given the effect of every instruction on it,
+ * and of the local variables allocated, so it can compute the maximum stack depth and number of locals of the method.
+ */
+final class CodeWriter {
+    private final ClassWriter owner;
+    private final ClassWriter.Buffer code;
+    private final List<int[]> handlers;
+    private final List<Label> labels;
+    private int depth;
+    private int max_stack;
+    private int locals;
+
+    /**
+     * Constructs a new instance of {@link CodeWriter}.
+     *
+     * @param owner The {@link ClassWriter} of the class the method belongs to, holding its constant pool.
+     * @param parameters The number of local variable slots taken by the parameters of the method.
+     */
+    CodeWriter(ClassWriter owner, int parameters) {
+        this.owner = owner;
+        this.code = new ClassWriter.Buffer();
+        this.handlers = new ArrayList<>();
+        this.labels = new ArrayList<>();
+        this.locals = parameters;
+    }
+
+    /**
+     * Writes an instruction without operands.
+     *
+     * @param opcode The {@link Bytecode} of the instruction.
+     * @param effect The change of the depth of the operand stack.
+     */
+    void op(int opcode, int effect) {
+        this.code.u1(opcode);
+        this.adjust(effect);
+
+        if(opcode == Bytecode.ATHROW || opcode == Bytecode.RETURN || opcode == Bytecode.DRETURN) this.depth = -1;
+    }
+
+    /**
+     * Writes an instruction with an operand referring to the constant pool.
+     *
+     * @param opcode The {@link Bytecode} of the instruction.
+     * @param index The index of the constant.
+     * @param effect The change of the depth of the operand stack.
+     */
+    void constant(int opcode, int index, int effect) {
+        this.code.u1(opcode);
+        this.code.u2(index);
+        this.adjust(effect);
+    }
+
+    /**
+     * Pushes a double constant.
+     *
+     * @param value The value of the constant.
+     */
+    void pushDouble(double value) {
+        if(Double.doubleToRawLongBits(value) == 0L) this.op(Bytecode.DCONST_0, 2);
+        else if(value == 1.0) this.op(Bytecode.DCONST_1, 2);
+        else this.constant(Bytecode.LDC2_W, this.owner.doubleConstant(value), 2);
+    }
+
+    /**
+     * Pushes an integer constant.
+     *
+     * @param value The value of the constant.
+     */
+    void pushInt(int value) {
+        if(value >= -1 && value <= 1) this.op(Bytecode.ICONST_0 + value, 1);
+        else if(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            this.code.u1(Bytecode.BIPUSH);
+            this.code.u1(value);
+            this.adjust(1);
+        } else if(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            this.code.u1(Bytecode.SIPUSH);
+            this.code.u2(value);
+            this.adjust(1);
+        } else this.constant(Bytecode.LDC_W, this.owner.integerConstant(value), 1);
+    }
+
+    /**
+     * Writes an instruction loading or storing a local variable.
+     *
+     * @param opcode The {@link Bytecode} of the instruction, e.g. {@link Bytecode#DLOAD}.
+     * @param index The index of the local variable.
+     * @param effect The change of the depth of the operand stack.
+     */
+    void local(int opcode, int index, int effect) {
+        if(index > 0xff) {
+            this.code.u1(Bytecode.WIDE);
+            this.code.u1(opcode);
+            this.code.u2(index);
+        } else {
+            this.code.u1(opcode);
+            this.code.u1(index);
+        }
+
+        this.adjust(effect);
+    }
+
+    /**
+     * Writes a call of a static method.
+     *
+     * @param owner The internal name of the class declaring the method.
+     * @param name The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @param effect The change of the depth of the operand stack.
+     */
+    void invokeStatic(String owner, String name, String descriptor, int effect) {
+        this.constant(Bytecode.INVOKESTATIC, this.owner.methodReference(owner, name, descriptor), effect);
+    }
+
+    /**
+     * Writes the instructions creating and throwing a new exception.
+     *
+     * @param type The internal name of the class of the exception, which has to have a public constructor without parameters.
+     */
+    void throwNew(String type) {
+        this.constant(Bytecode.NEW, this.owner.classReference(type), 1);
+        this.op(Bytecode.DUP, 1);
+        this.constant(Bytecode.INVOKESPECIAL, this.owner.methodReference(type, "<init>", "()V"), -1);
+        this.op(Bytecode.ATHROW, -1);
+    }
+
+    /**
+     * Writes the instructions wrapping the exception on the top of the stack in a {@link RuntimeException} and throwing it.
+     */
+    void throwWrapped() {
+        this.constant(Bytecode.NEW, this.owner.classReference("java/lang/RuntimeException"), 1);
+        this.op(Bytecode.DUP_X1, 1);
+        this.op(Bytecode.SWAP, 0);
+        this.constant(Bytecode.INVOKESPECIAL, this.owner.methodReference("java/lang/RuntimeException", "<init>", "(Ljava/lang/Throwable;)V"), -2);
+        this.op(Bytecode.ATHROW, -1);
+    }
+
+    /**
+     * Writes a jump to a label.
+     *
+     * @param opcode The {@link Bytecode} of the jump, e.g. {@link Bytecode#IFEQ}.
+     * @param target The {@link Label} to jump to.
+     * @param effect The change of the depth of the operand stack.
+     */
+    void jump(int opcode, Label target, int effect) {
+        final int position = this.code.size();
+
+        this.code.u1(opcode);
+        this.code.u2(0);
+        this.adjust(effect);
+
+        target.depth = this.depth;
+        target.fixups.add(position);
+        this.labels.add(target);
+
+        if(opcode == Bytecode.GOTO) this.depth = -1;
+    }
+
+    /**
+     * Marks the current position with a label. If the current position can only be reached by jumping to it,
+     * the depth of the operand stack is the one at the jumps.
+     *
+     * @param label The {@link Label} to place.
+     */
+    void mark(Label label) {
+        label.position = this.code.size();
+        if(this.depth < 0) this.depth = label.depth;
+        this.labels.add(label);
+    }
+
+    /**
+     * Places a handler catching any exception thrown by the code between two labels.
+     * The handler is placed at the current position, which can only be reached by an exception.
+     * Handlers have to be placed from the innermost to the outermost one.
+     *
+     * @param start The {@link Label} of the first instruction covered.
+     * @param end The {@link Label} following the last instruction covered.
+     */
+    void handler(Label start, Label end) {
+        if(start.position == end.position) return;
+
+        this.handlers.add(new int[] { start.position, end.position, this.code.size(), 0 });
+        this.depth = 1;
+        this.max_stack = Math.max(this.max_stack, 1);
+    }
+
+    /**
+     * Allocates new local variables.
+     *
+     * @param slots The number of slots, {@code 2} for a double and {@code 1} for an integer.
+     * @return The index of the first slot.
+     */
+    int allocate(int slots) {
+        final int index = this.locals;
+        this.locals += slots;
+        return index;
+    }
+
+    /**
+     * Resolves the offsets of all the jumps, once the code is complete.
+     *
+     * @throws KernelCompiler.Unsupported If the code is too long for the offsets of the jumps.
+     */
+    void finish() throws KernelCompiler.Unsupported {
+        if(this.code.size() > Short.MAX_VALUE) throw new KernelCompiler.Unsupported("method too long");
+
+        for(Label label : this.labels) {
+            for(int fixup : label.fixups) this.code.put2(fixup + 1, label.position - fixup);
+            label.fixups.clear();
+        }
+    }
+
+    /**
+     * @return The array holding the code, which may be longer than the code.
+     */
+    byte[] code() {
+        return this.code.data();
+    }
+
+    /**
+     * @return The length of the code.
+     */
+    int size() {
+        return this.code.size();
+    }
+
+    /**
+     * @return The exception handlers, each given by the start, end and handler position and the catch type.
+     */
+    List<int[]> handlers() {
+        return this.handlers;
+    }
+
+    /**
+     * @return The maximum depth of the operand stack.
+     */
+    int maxStack() {
+        return this.max_stack;
+    }
+
+    /**
+     * @return The number of local variable slots.
+     */
+    int maxLocals() {
+        return this.locals;
+    }
+
+    /**
+     * Changes the depth of the operand stack.
+     *
+     * @param effect The change of the depth.
+     */
+    private void adjust(int effect) {
+        this.depth += effect;
+        this.max_stack = Math.max(this.max_stack, this.depth);
+    }
+
+    /**
+     * A position in the code, which jumps refer to before it is known.
+     */
+    static final class Label {
+        private final List<Integer> fixups;
+        private int position;
+        private int depth;
+
+        /**
+         * Constructs a new, unplaced instance of {@link Label}.
+         */
+        Label() {
+            this.fixups = new ArrayList<>();
+            this.position = -1;
+            this.depth = -1;
+        }
+    }
+}
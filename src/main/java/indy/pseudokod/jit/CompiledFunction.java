@@ -0,0 +1,107 @@
+package indy.pseudokod.jit;
+
+import indy.pseudokod.ast.CompiledCode;
+import indy.pseudokod.ast.FunctionDeclaration;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.VariableNotDeclaredException;
+import indy.pseudokod.runtime.values.Function;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.NumberValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A function compiled by the {@link KernelCompiler} into a method of a hidden class, taking and returning primitive doubles.<br><br>
+ *
+ * The method is called by the {@link indy.pseudokod.runtime.Interpreter} instead of evaluating the body of the function,
+ * as long as the assumptions made while compiling it still hold: every argument is a number, and every function it calls
+ * is still the global function it was compiled against. Otherwise the call is left to the interpreter.
+ * A compiled function is stored on its {@link FunctionDeclaration}, see {@link #of(FunctionDeclaration)}.
+ */
+public final class CompiledFunction implements CompiledCode {
+    private final MethodHandle handle;
+    private final int arity;
+    private final boolean number;
+    private final Map<String, FunctionDeclaration> dependencies;
+
+    /**
+     * Constructs a new instance of {@link CompiledFunction}.
+     *
+     * @param handle The {@link MethodHandle} of the bridge method, taking the arguments in an array of doubles.
+     * @param arity The number of parameters of the function.
+     * @param number {@code true} if the value of the function is a number, {@code false} if it is null.
+     * @param dependencies The functions called by the compiled code, by their names in the global scope.
+     */
+    CompiledFunction(MethodHandle handle, int arity, boolean number, Map<String, FunctionDeclaration> dependencies) {
+        this.handle = handle;
+        this.arity = arity;
+        this.number = number;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * @param declaration The {@link FunctionDeclaration} of a function.
+     * @return The {@link CompiledFunction} of the function, or {@code null} if the function has not been compiled to JVM code.
+     */
+    public static CompiledFunction of(FunctionDeclaration declaration) {
+        return (CompiledFunction) declaration.compiled();
+    }
+
+    /**
+     * Sets the JVM code of a function, compiled by the {@link KernelCompiler}.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     * @param compiled The {@link CompiledFunction}, or {@code null} if the function is not a kernel.
+     */
+    static void register(FunctionDeclaration declaration, CompiledFunction compiled) {
+        declaration.setCompiled(compiled);
+    }
+
+    /**
+     * Calls the compiled function.
+     *
+     * @param fn The called {@link Function}, whose environment holds the functions the compiled code depends on.
+     * @param args The evaluated arguments of the call.
+     * @return The value of the function, or {@code null} if the call has to be evaluated by the interpreter.
+     * @throws Throwable If any error occurs in the body of the function.
+     */
+    public RuntimeValue invoke(Function fn, List<RuntimeValue> args) throws Throwable {
+        if(args.size() != this.arity || !holds(fn.env(), this.dependencies)) return null;
+
+        final double[] values = new double[this.arity];
+        for(int i = 0; i < this.arity; i++) {
+            if(!(args.get(i) instanceof NumberValue value)) return null;
+            values[i] = value.value();
+        }
+
+        final double result = (double) this.handle.invokeExact(values);
+        return this.number ? new NumberValue(result) : new NullValue();
+    }
+
+    /**
+     * Checks that the functions a compiled unit depends on are still the ones visible from an environment.
+     * The environment of a function does not matter, since a kernel does not use any variable declared outside of it.
+     *
+     * @param env The {@link Environment} the functions are looked up from.
+     * @param dependencies The functions called by the compiled code, by their names.
+     * @return {@code true} if every name still refers to a function with the same declaration.
+     */
+    static boolean holds(Environment env, Map<String, FunctionDeclaration> dependencies) {
+        for(Map.Entry<String, FunctionDeclaration> dependency : dependencies.entrySet()) {
+            final RuntimeValue value;
+
+            try {
+                value = env.getVariable(dependency.getKey());
+            } catch(VariableNotDeclaredException e) {
+                return false;
+            }
+
+            if(!(value instanceof Function function) || function.declaration() != dependency.getValue()) return false;
+        }
+
+        return true;
+    }
+}
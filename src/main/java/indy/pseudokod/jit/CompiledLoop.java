@@ -0,0 +1,86 @@
+package indy.pseudokod.jit;
+
+import indy.pseudokod.ast.FunctionDeclaration;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.ConstantAssignmentException;
+import indy.pseudokod.exceptions.ConversionDataTypeException;
+import indy.pseudokod.exceptions.DataTypeMismatchException;
+import indy.pseudokod.exceptions.NumberOutOfRangeException;
+import indy.pseudokod.exceptions.VariableNotDeclaredException;
+import indy.pseudokod.runtime.values.NumberValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Map;
+
+/**
+ * A loop compiled by the {@link KernelCompiler} into a method of a hidden class.<br><br>
+ *
+ * The variables the loop uses from the enclosing scopes, e.g. global variables, are looked up by name and copied into an array
+ * of doubles before the loop runs, and the ones it assigns are copied back once it finishes, even if it fails.
+ * The loop runs only if every such variable holds a number, every one it assigns can be assigned and has no range or set
+ * the compiled code would have to check its values against, and every function it calls is still the global function it was compiled against.<br><br>
+ *
+ * A for-loop with an ellipsis can be resumed after any iteration, i.e. replace the interpreter in the middle of the loop,
+ * with the value of its control variable for the next iteration, its step and its upper bound.
+ */
+final class CompiledLoop {
+    private final MethodHandle handle;
+    private final String[] globals;
+    private final boolean[] written;
+    private final Map<String, FunctionDeclaration> dependencies;
+
+    /**
+     * Constructs a new instance of {@link CompiledLoop}.
+     *
+     * @param handle The {@link MethodHandle} of the method, taking the variables of the enclosing scopes in an array of doubles
+     *               and the state of a resumed for-loop in another one.
+     * @param globals The names of the variables of the enclosing scopes, in the order of the array.
+     * @param written Whether the loop assigns each of the variables.
+     * @param dependencies The functions called by the compiled code, by their names in the global scope.
+     */
+    CompiledLoop(MethodHandle handle, String[] globals, boolean[] written, Map<String, FunctionDeclaration> dependencies) {
+        this.handle = handle;
+        this.globals = globals;
+        this.written = written;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Runs the compiled loop.
+     *
+     * @param env The {@link Environment} in which the loop is executed.
+     * @param state The value of the control variable, the step and the upper bound a for-loop is resumed with,
+     *              or {@code null} if the loop is run from the start.
+     * @return {@code true} if the loop has run, {@code false} if it has to be evaluated by the interpreter.
+     * @throws Throwable If any error occurs in the body of the loop.
+     */
+    boolean execute(Environment env, double[] state) throws Throwable {
+        if(!CompiledFunction.holds(env, this.dependencies)) return false;
+
+        final double[] values = new double[this.globals.length];
+        try {
+            for(int i = 0; i < this.globals.length; i++) {
+                final RuntimeValue value = env.getVariable(this.globals[i]);
+                if(!(value instanceof NumberValue number)) return false;
+
+                if(this.written[i]) {
+                    if(env.getVariableDomain(this.globals[i]) != null) return false;
+                    env.assignVariable(this.globals[i], value);
+                }
+                values[i] = number.value();
+            }
+        } catch(VariableNotDeclaredException | ConstantAssignmentException | DataTypeMismatchException | NumberOutOfRangeException | ConversionDataTypeException e) {
+            return false;
+        }
+
+        try {
+            this.handle.invokeExact(values, state);
+        } finally {
+            for(int i = 0; i < this.globals.length; i++)
+                if(this.written[i]) env.assignVariable(this.globals[i], new NumberValue(values[i]));
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package indy.pseudokod.jit;
+
+import indy.pseudokod.ast.FunctionDeclaration;
+import indy.pseudokod.ast.NodeType;
+import indy.pseudokod.ast.Program;
+import indy.pseudokod.ast.Statement;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.Interpreter;
+import indy.pseudokod.utils.Debug;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link JitCompiler} executes a program with the {@link Interpreter}, compiling its numeric kernels into JVM classes first.<br><br>
+ *
+ * Every function declared in the global scope of the program is compiled by the {@link KernelCompiler} if it is a kernel,
+ * and the interpreter calls the {@link CompiledFunction} instead of evaluating its body. Every for or while loop in the global scope
+ * is compiled the same way and runs as a {@link CompiledLoop} when it is reached. Everything else, and every kernel whose
+ * assumptions do not hold at run time, is evaluated by the interpreter.<br><br>
+ *
+ * With the {@code -debug} flag, see {@link Debug}, the compiler counts how many functions and loops it has compiled
+ * and how many it has left to the interpreter, which is reported by {@link #statistics()}.
+ */
+public final class JitCompiler {
+    private static long functions = 0;
+    private static long loops = 0;
+    private static long interpreted = 0;
+
+    /**
+     * Constructs a new instance of {@link JitCompiler}.
+     */
+    private JitCompiler() {}
+
+    /**
+     * Compiles the kernels of a program resolved by the {@link indy.pseudokod.runtime.Resolver} and executes it.
+     *
+     * @param program The {@link Program} to execute.
+     * @param env The {@link Environment} in which the program is executed.
+     * @throws Throwable If any error occurs during the execution.
+     */
+    public static void execute(Program program, Environment env) throws Throwable {
+        final Map<String, FunctionDeclaration> declarations = new HashMap<>();
+        for(Statement statement : program.body())
+            if(statement.kind() == NodeType.FunctionDeclaration) declarations.put(((FunctionDeclaration) statement).symbol(), (FunctionDeclaration) statement);
+
+        for(FunctionDeclaration declaration : declarations.values()) {
+            final CompiledFunction compiled = KernelCompiler.compileFunction(declaration, declarations);
+            CompiledFunction.register(declaration, compiled);
+
+            if(Debug.ENABLED) {
+                if(compiled != null) functions++;
+                else interpreted++;
+            }
+        }
+
+        for(Statement statement : program.body()) {
+            if(statement.kind() == NodeType.ForStatement || statement.kind() == NodeType.WhileStatement) {
+                final CompiledLoop loop = KernelCompiler.compileLoop(statement, declarations);
+
+                if(loop != null && loop.execute(env, null)) {
+                    if(Debug.ENABLED) loops++;
+                    continue;
+                }
+
+                if(Debug.ENABLED) interpreted++;
+            }
+
+            Interpreter.evaluate(statement, env);
+        }
+    }
+
+    /**
+     * @return A summary of the number of functions and loops compiled so far, and of the ones left to the interpreter.
+     */
+    public static String statistics() {
+        return String.format("Compiled %d functions and %d loops, interpreted %d.", functions, loops, interpreted);
+    }
+}
@@ -0,0 +1,868 @@
+package indy.pseudokod.jit;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.runtime.values.ValueType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.*;
+
+/**
+ * The {@link KernelCompiler} compiles numeric kernels, i.e. functions and loops working only with numbers, into JVM classes.<br><br>
+ *
+ * A kernel may use numeric literals, variables of type {@code number}, arithmetic, bitwise, comparison and logical expressions,
+ * assignments, declarations of initialized numbers, if-statements, for-loops with an ellipsis, while and do-while loops,
+ * and calls of functions declared in the global scope of the same program which are kernels themselves.
+ * Its variables are mapped to local variables of a static method and kept as primitive doubles, so the JIT compiler
+ * of the JVM optimizes the code of the kernel like any other Java code. A kernel reading a variable which may still be null
+ * (e.g. a variable of a function which is not assigned on every path) is not compiled.<br><br>
+ *
+ * Every compiled unit is a hidden class holding the method of its root, a function declared in the global scope or a loop,
+ * and the methods of all the functions it calls. The errors thrown by the kernels are the same as the ones thrown by the
+ * {@link indy.pseudokod.runtime.Interpreter}, and the arguments of calls are wrapped in a {@link RuntimeException} like it does.
+ */
+final class KernelCompiler {
+    private static final String NAME = "indy/pseudokod/jit/Kernel";
+    private static final String DIVISION_BY_ZERO = "indy/pseudokod/exceptions/DivisionByZeroException";
+
+    private final Map<String, FunctionDeclaration> functions;
+    private final ClassWriter writer;
+    private final Map<FunctionDeclaration, String> methods;
+    private final Map<FunctionDeclaration, Kind> kinds;
+    private final Deque<FunctionDeclaration> pending;
+    private final Map<String, FunctionDeclaration> dependencies;
+    private final Map<String, Integer> globals;
+    private final Set<String> written;
+
+    private Statement root;
+    private CodeWriter code;
+    private List<Map<String, Integer>> scopes;
+    private BitSet assigned;
+
+    /**
+     * Constructs a new instance of {@link KernelCompiler} for a single unit.
+     *
+     * @param functions The functions declared in the global scope of the program, by their names.
+     * @param loop {@code true} if the root of the unit is a loop, which may use the variables of the enclosing scopes.
+     */
+    private KernelCompiler(Map<String, FunctionDeclaration> functions, boolean loop) {
+        this.functions = functions;
+        this.writer = new ClassWriter(NAME);
+        this.methods = new HashMap<>();
+        this.kinds = new HashMap<>();
+        this.pending = new ArrayDeque<>();
+        this.dependencies = new LinkedHashMap<>();
+        this.globals = loop ? new LinkedHashMap<>() : null;
+        this.written = new HashSet<>();
+    }
+
+    /**
+     * Compiles a function declared in the global scope.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     * @param functions The functions declared in the global scope of the program, by their names.
+     * @return The {@link CompiledFunction}, or {@code null} if the function is not a kernel.
+     */
+    static CompiledFunction compileFunction(FunctionDeclaration declaration, Map<String, FunctionDeclaration> functions) {
+        final KernelCompiler compiler = new KernelCompiler(functions, false);
+
+        try {
+            final String method = compiler.method(declaration);
+            final Kind kind = compiler.kind(declaration);
+            final int arity = parameters(declaration).size();
+            compiler.drain();
+
+            final String descriptor = descriptor(arity, kind);
+            compiler.code = new CodeWriter(compiler.writer, 1);
+            for(int i = 0; i < arity; i++) {
+                compiler.code.local(Bytecode.ALOAD, 0, 1);
+                compiler.code.pushInt(i);
+                compiler.code.op(Bytecode.DALOAD, 0);
+            }
+            compiler.code.invokeStatic(NAME, method, descriptor, kind == Kind.Number ? 2 - 2 * arity : -2 * arity);
+            if(kind == Kind.Null) compiler.code.op(Bytecode.DCONST_0, 2);
+            compiler.code.op(Bytecode.DRETURN, -2);
+            compiler.code.finish();
+            compiler.writer.method("invoke", "([D)D", compiler.code);
+
+            final MethodHandle handle = compiler.define("invoke", MethodType.methodType(double.class, double[].class));
+            return new CompiledFunction(handle, arity, kind == Kind.Number, compiler.dependencies);
+        } catch(Unsupported | ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Compiles a for or while loop. The variables it uses from the enclosing scopes are passed in an array.
+     * A for-loop can also be entered in the middle, with the state of its control variable passed in a second array, see {@link CompiledLoop}.
+     *
+     * @param statement The {@link ForStatement} or {@link WhileStatement} of the loop.
+     * @param functions The functions declared in the global scope of the program, by their names.
+     * @return The {@link CompiledLoop}, or {@code null} if the loop is not a kernel.
+     */
+    static CompiledLoop compileLoop(Statement statement, Map<String, FunctionDeclaration> functions) {
+        final KernelCompiler compiler = new KernelCompiler(functions, true);
+
+        try {
+            compiler.root = statement;
+            compiler.code = new CodeWriter(compiler.writer, 2);
+            compiler.scopes = new ArrayList<>();
+            compiler.assigned = new BitSet();
+
+            switch(statement.kind()) {
+                case ForStatement -> compiler.compileForStatement((ForStatement) statement);
+                case WhileStatement -> compiler.compileWhileStatement((WhileStatement) statement);
+                default -> throw new Unsupported("not a loop");
+            }
+
+            compiler.code.op(Bytecode.RETURN, 0);
+            compiler.code.finish();
+            compiler.writer.method("run", "([D[D)V", compiler.code);
+            compiler.drain();
+
+            for(String name : compiler.globals.keySet()) if(compiler.dependencies.containsKey(name)) throw new Unsupported("function used as a value");
+
+            final MethodHandle handle = compiler.define("run", MethodType.methodType(void.class, double[].class, double[].class));
+            final String[] names = compiler.globals.keySet().toArray(new String[0]);
+            final boolean[] written = new boolean[names.length];
+            for(int i = 0; i < names.length; i++) written[i] = compiler.written.contains(names[i]);
+
+            return new CompiledLoop(handle, names, written, compiler.dependencies);
+        } catch(Unsupported | ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads the compiled unit as a hidden class.
+     *
+     * @param method The name of the entry method.
+     * @param type The {@link MethodType} of the entry method.
+     * @return The {@link MethodHandle} of the entry method.
+     * @throws IllegalAccessException If the class cannot be defined.
+     * @throws NoSuchMethodException If the entry method is missing.
+     */
+    private MethodHandle define(String method, MethodType type) throws IllegalAccessException, NoSuchMethodException {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(this.writer.toByteArray(), true);
+        return lookup.findStatic(lookup.lookupClass(), method, type);
+    }
+
+    /**
+     * Compiles the methods of all the functions called so far, and of the functions they call.
+     *
+     * @throws Unsupported If any of the functions is not a kernel.
+     */
+    private void drain() throws Unsupported {
+        while(!this.pending.isEmpty()) this.compileFunction(this.pending.poll());
+    }
+
+    /**
+     * Finds the name of the method of a function, scheduling its compilation if it has not been compiled yet.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     * @return The name of the method.
+     */
+    private String method(FunctionDeclaration declaration) {
+        String name = this.methods.get(declaration);
+        if(name == null) {
+            name = "f" + this.methods.size();
+            this.methods.put(declaration, name);
+            this.pending.add(declaration);
+        }
+
+        return name;
+    }
+
+    /**
+     * Compiles the method of a function: its parameters are the first locals, its variables are allocated next and start unassigned.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     * @throws Unsupported If the function is not a kernel.
+     */
+    private void compileFunction(FunctionDeclaration declaration) throws Unsupported {
+        final List<String> parameters = parameters(declaration);
+        final Kind kind = this.kind(declaration);
+        final Map<String, Integer> scope = new HashMap<>();
+
+        this.code = new CodeWriter(this.writer, 2 * parameters.size());
+        this.scopes = new ArrayList<>(List.of(scope));
+        this.assigned = new BitSet();
+
+        for(int i = 0; i < parameters.size(); i++) {
+            scope.put(parameters.get(i), 2 * i);
+            this.assigned.set(2 * i);
+        }
+
+        for(Statement statement : declaration.data()) {
+            final VariableDeclaration variable = (VariableDeclaration) statement;
+            if(variable.type() != ValueType.Number) throw new Unsupported("variable not a number");
+            if(variable.symbol().endsWith("*")) continue;
+
+            if(scope.containsKey(variable.symbol())) throw new Unsupported("variable declared twice");
+            scope.put(variable.symbol(), this.code.allocate(2));
+        }
+
+        this.compileStatements(declaration.body(), kind == Kind.Number, false);
+        this.code.op(kind == Kind.Number ? Bytecode.DRETURN : Bytecode.RETURN, kind == Kind.Number ? -2 : 0);
+        this.code.finish();
+        this.writer.method(this.methods.get(declaration), descriptor(parameters.size(), kind), this.code);
+    }
+
+    /**
+     * Compiles the statements of a block in the current scope.
+     *
+     * @param statements The statements.
+     * @param value {@code true} if the last statement has to leave its value, a number, on the stack.
+     * @param loop {@code true} if the statements are the body of a loop, which cannot declare variables.
+     * @throws Unsupported If any of the statements is not supported.
+     */
+    private void compileStatements(List<Statement> statements, boolean value, boolean loop) throws Unsupported {
+        if(value && statements.isEmpty()) throw new Unsupported("empty block");
+
+        for(int i = 0; i < statements.size(); i++) {
+            final Statement statement = statements.get(i);
+            if(loop && statement.kind() == NodeType.DataDeclaration) throw new Unsupported("declaration in a loop");
+
+            this.compileStatement(statement, value && i == statements.size() - 1);
+        }
+    }
+
+    /**
+     * Compiles the statements of a block in a new scope.
+     *
+     * @param statements The statements.
+     * @param value {@code true} if the last statement has to leave its value, a number, on the stack.
+     * @throws Unsupported If any of the statements is not supported.
+     */
+    private void compileBlock(List<Statement> statements, boolean value) throws Unsupported {
+        this.scopes.add(new HashMap<>());
+        this.compileStatements(statements, value, false);
+        this.scopes.remove(this.scopes.size() - 1);
+    }
+
+    /**
+     * Compiles a single statement.
+     *
+     * @param node The statement.
+     * @param value {@code true} if the statement has to leave its value, a number, on the stack.
+     * @throws Unsupported If the statement is not supported, or has no numeric value and its value is needed.
+     */
+    private void compileStatement(Statement node, boolean value) throws Unsupported {
+        switch(node.kind()) {
+            case DataDeclaration -> {
+                if(value) throw new Unsupported("value of a declaration");
+                this.compileDataDeclaration((DataDeclaration) node);
+            }
+            case IfStatement -> this.compileIfStatement((IfStatement) node, value);
+            case ForStatement -> {
+                if(value) throw new Unsupported("value of a loop");
+                this.compileForStatement((ForStatement) node);
+            }
+            case WhileStatement -> {
+                if(value) throw new Unsupported("value of a loop");
+                this.compileWhileStatement((WhileStatement) node);
+            }
+            case ComparisonExpression, LogicalExpression -> {
+                if(value) throw new Unsupported("value of a condition");
+                this.compileCondition((Expression) node);
+                this.code.op(Bytecode.POP, -1);
+            }
+            case CallExpression -> {
+                final Kind kind = this.compileCall((CallExpression) node);
+                if(kind == Kind.Null && value) throw new Unsupported("value of a call");
+                if(kind == Kind.Number && !value) this.code.op(Bytecode.POP2, -2);
+            }
+            case ReturnStatement -> {
+                final Expression result = ((ReturnStatement) node).value();
+                if(result == null) throw new Unsupported("return without a value");
+
+                this.compileStatement(result, value);
+            }
+            case AssignmentExpression -> this.compileAssignment((AssignmentExpression) node, value);
+            default -> {
+                if(!(node instanceof Expression expression)) throw new Unsupported(node.kind().toString());
+
+                this.compileNumber(expression);
+                if(!value) this.code.op(Bytecode.POP2, -2);
+            }
+        }
+    }
+
+    /**
+     * Compiles a data declaration of numbers with initial values, each stored in a new local.
+     *
+     * @param node The {@link DataDeclaration}.
+     * @throws Unsupported If a variable is not a number, has no initial value or has a range, or is already declared in the scope.
+     */
+    private void compileDataDeclaration(DataDeclaration node) throws Unsupported {
+        final Map<String, Integer> scope = this.scopes.get(this.scopes.size() - 1);
+
+        for(Statement statement : node.body()) {
+            final VariableDeclaration variable = (VariableDeclaration) statement;
+            if(variable.type() != ValueType.Number || variable.value() == null || variable.range() != null) throw new Unsupported("declaration");
+            if(scope.containsKey(variable.symbol())) throw new Unsupported("variable declared twice");
+
+            this.compileNumber(variable.value());
+
+            final int local = this.code.allocate(2);
+            this.code.local(Bytecode.DSTORE, local, -2);
+            scope.put(variable.symbol(), local);
+            this.assigned.set(local);
+        }
+    }
+
+    /**
+     * Compiles an if-statement with its else or else-if statement. A variable is assigned after the statement
+     * only if it is assigned on every branch.
+     *
+     * @param node The {@link IfStatement}.
+     * @param value {@code true} if the statement has to leave its value, a number, on the stack.
+     * @throws Unsupported If any part of the statement is not supported, or a branch has no numeric value and the value is needed.
+     */
+    private void compileIfStatement(IfStatement node, boolean value) throws Unsupported {
+        final CodeWriter.Label otherwise = new CodeWriter.Label();
+        final CodeWriter.Label end = new CodeWriter.Label();
+
+        this.compileCondition(node.expression());
+        this.code.jump(Bytecode.IFEQ, otherwise, -1);
+
+        final BitSet before = (BitSet) this.assigned.clone();
+        this.compileBlock(node.body(), value);
+        final BitSet then = this.assigned;
+        this.code.jump(Bytecode.GOTO, end, 0);
+
+        this.code.mark(otherwise);
+        this.assigned = (BitSet) before.clone();
+
+        final Statement else_statement = node.elseStatement();
+        if(else_statement == null) {
+            if(value) throw new Unsupported("value of an if-statement without else");
+        } else if(else_statement instanceof IfStatement statement) this.compileIfStatement(statement, value);
+        else if(else_statement instanceof ElseStatement statement) this.compileBlock(statement.body(), value);
+        else throw new Unsupported("else statement");
+
+        this.assigned.and(then);
+        this.code.mark(end);
+    }
+
+    /**
+     * Compiles a for-loop with an ellipsis. The values are evaluated in the enclosing scope, the control variable is declared
+     * in the scope of the loop, and the loop steps and compares the control variable as an integer like the interpreter does.
+     * The loop at the root of the unit skips the evaluation of the values if it is resumed with the value of the control variable,
+     * the step and the upper bound, and goes on with the test of the next iteration.
+     *
+     * @param node The {@link ForStatement}.
+     * @throws Unsupported If the loop has no ellipsis, or any part of it is not supported.
+     */
+    private void compileForStatement(ForStatement node) throws Unsupported {
+        final List<Expression> values = node.values();
+        if(values.size() != 4 || values.get(2).kind() != NodeType.EllipsisStatement) throw new Unsupported("for-loop without an ellipsis");
+
+        final int control = this.code.allocate(2);
+        final int second = this.code.allocate(2);
+        final int limit = this.code.allocate(1);
+        final int step = this.code.allocate(1);
+
+        final CodeWriter.Label test = new CodeWriter.Label();
+        final CodeWriter.Label end = new CodeWriter.Label();
+
+        if(node == this.root) {
+            final CodeWriter.Label start = new CodeWriter.Label();
+
+            this.code.local(Bytecode.ALOAD, 1, 1);
+            this.code.jump(Bytecode.IFNULL, start, -1);
+            this.loadState(0);
+            this.code.local(Bytecode.DSTORE, control, -2);
+            this.loadState(1);
+            this.code.op(Bytecode.D2I, -1);
+            this.code.local(Bytecode.ISTORE, step, -1);
+            this.loadState(2);
+            this.code.op(Bytecode.D2I, -1);
+            this.code.local(Bytecode.ISTORE, limit, -1);
+            this.code.jump(Bytecode.GOTO, test, 0);
+            this.code.mark(start);
+        }
+
+        this.compileNumber(values.get(0));
+        this.code.local(Bytecode.DSTORE, control, -2);
+        this.compileNumber(values.get(1));
+        this.code.local(Bytecode.DSTORE, second, -2);
+        this.compileNumber(values.get(3));
+        this.code.op(Bytecode.D2I, -1);
+        this.code.local(Bytecode.ISTORE, limit, -1);
+
+        this.code.local(Bytecode.DLOAD, second, 2);
+        this.code.local(Bytecode.DLOAD, control, 2);
+        this.code.op(Bytecode.DSUB, -2);
+        this.code.op(Bytecode.D2I, -1);
+        this.code.local(Bytecode.ISTORE, step, -1);
+
+        final BitSet before = (BitSet) this.assigned.clone();
+        this.scopes.add(new HashMap<>(Map.of(node.control_variable(), control)));
+        this.assigned.set(control);
+
+        this.code.mark(test);
+        this.code.local(Bytecode.DLOAD, control, 2);
+        this.code.op(Bytecode.D2I, -1);
+        this.code.local(Bytecode.ILOAD, limit, 1);
+        this.code.jump(Bytecode.IF_ICMPGT, end, -2);
+
+        this.compileStatements(node.body(), false, true);
+
+        this.code.local(Bytecode.DLOAD, control, 2);
+        this.code.op(Bytecode.D2I, -1);
+        this.code.local(Bytecode.ILOAD, step, 1);
+        this.code.op(Bytecode.IADD, -1);
+        this.code.op(Bytecode.I2D, 1);
+        this.code.local(Bytecode.DSTORE, control, -2);
+        this.code.jump(Bytecode.GOTO, test, 0);
+        this.code.mark(end);
+
+        this.scopes.remove(this.scopes.size() - 1);
+        this.assigned = before;
+    }
+
+    /**
+     * Loads an element of the state a for-loop is resumed with, passed in the second parameter of the method.
+     *
+     * @param index The index of the element.
+     */
+    private void loadState(int index) {
+        this.code.local(Bytecode.ALOAD, 1, 1);
+        this.code.pushInt(index);
+        this.code.op(Bytecode.DALOAD, 0);
+    }
+
+    /**
+     * Compiles a while or do-while loop. The condition is evaluated in the enclosing scope, the body in the scope of the loop.
+     * Like in the interpreter, the condition of a do-while loop is also evaluated once before the body is executed for the first time.
+     *
+     * @param node The {@link WhileStatement}.
+     * @throws Unsupported If any part of the loop is not supported.
+     */
+    private void compileWhileStatement(WhileStatement node) throws Unsupported {
+        final CodeWriter.Label top = new CodeWriter.Label();
+        final CodeWriter.Label end = new CodeWriter.Label();
+        final BitSet before = (BitSet) this.assigned.clone();
+
+        if(node.isDoWhile()) {
+            this.compileCondition(node.expression());
+            this.code.op(Bytecode.POP, -1);
+
+            this.code.mark(top);
+            this.scopes.add(new HashMap<>());
+            this.compileStatements(node.body(), false, true);
+            this.scopes.remove(this.scopes.size() - 1);
+
+            this.compileCondition(node.expression());
+            this.code.jump(Bytecode.IFNE, top, -1);
+        } else {
+            this.code.mark(top);
+            this.compileCondition(node.expression());
+            this.code.jump(Bytecode.IFEQ, end, -1);
+
+            this.scopes.add(new HashMap<>());
+            this.compileStatements(node.body(), false, true);
+            this.scopes.remove(this.scopes.size() - 1);
+
+            this.code.jump(Bytecode.GOTO, top, 0);
+            this.code.mark(end);
+            this.assigned = before;
+        }
+    }
+
+    /**
+     * Compiles an assignment to a local variable or a variable of the scopes enclosing a loop.
+     *
+     * @param node The {@link AssignmentExpression}.
+     * @param value {@code true} if the assigned value has to be left on the stack.
+     * @throws Unsupported If the target is not a variable, or the value is not supported.
+     */
+    private void compileAssignment(AssignmentExpression node, boolean value) throws Unsupported {
+        if(!(node.expression() instanceof Identifier identifier)) throw new Unsupported("assignment to an element");
+
+        final int local = this.local(identifier.symbol());
+        if(local >= 0) {
+            this.compileNumber(node.value());
+            if(value) this.code.op(Bytecode.DUP2, 2);
+            this.code.local(Bytecode.DSTORE, local, -2);
+            this.assigned.set(local);
+            return;
+        }
+
+        final int global = this.global(identifier.symbol());
+        this.code.local(Bytecode.ALOAD, 0, 1);
+        this.code.pushInt(global);
+        this.compileNumber(node.value());
+        if(value) this.code.op(Bytecode.DUP2_X2, 2);
+        this.code.op(Bytecode.DASTORE, -4);
+        this.written.add(identifier.symbol());
+    }
+
+    /**
+     * Compiles an expression whose value is a number, leaving it on the stack as a double.
+     *
+     * @param node The {@link Expression}.
+     * @throws Unsupported If the expression is not supported or its value is not a number.
+     */
+    private void compileNumber(Expression node) throws Unsupported {
+        switch(node.kind()) {
+            case NumericLiteral -> this.code.pushDouble(((NumericLiteral) node).value());
+            case Identifier -> {
+                final String name = ((Identifier) node).symbol();
+                final int local = this.local(name);
+
+                if(local >= 0) {
+                    if(!this.assigned.get(local)) throw new Unsupported("variable may be null");
+                    this.code.local(Bytecode.DLOAD, local, 2);
+                } else {
+                    final int global = this.global(name);
+                    this.code.local(Bytecode.ALOAD, 0, 1);
+                    this.code.pushInt(global);
+                    this.code.op(Bytecode.DALOAD, 0);
+                }
+            }
+            case BinaryExpression -> this.compileBinaryExpression((BinaryExpression) node);
+            case BitwiseExpression -> this.compileBitwiseExpression((BitwiseExpression) node);
+            case AssignmentExpression -> this.compileAssignment((AssignmentExpression) node, true);
+            case CallExpression -> {
+                if(this.compileCall((CallExpression) node) != Kind.Number) throw new Unsupported("value of a call");
+            }
+            default -> throw new Unsupported(node.kind().toString());
+        }
+    }
+
+    /**
+     * Compiles an arithmetic expression. A division by zero throws a {@link indy.pseudokod.exceptions.DivisionByZeroException}.
+     *
+     * @param node The {@link BinaryExpression}.
+     * @throws Unsupported If an operand is not supported.
+     */
+    private void compileBinaryExpression(BinaryExpression node) throws Unsupported {
+        this.compileNumber(node.left());
+        this.compileNumber(node.right());
+
+        switch(node.operator()) {
+            case Add -> this.code.op(Bytecode.DADD, -2);
+            case Subtract -> this.code.op(Bytecode.DSUB, -2);
+            case Multiply -> this.code.op(Bytecode.DMUL, -2);
+            case Modulus -> this.code.op(Bytecode.DREM, -2);
+            case Divide -> {
+                this.compileZeroCheck();
+                this.code.op(Bytecode.DDIV, -2);
+            }
+            case IntegerDivide -> {
+                this.compileZeroCheck();
+                this.code.op(Bytecode.DDIV, -2);
+                this.code.invokeStatic("java/lang/Math", "floor", "(D)D", 0);
+            }
+            default -> throw new Unsupported(node.operator().toString());
+        }
+    }
+
+    /**
+     * Compiles the check that the divisor on the top of the stack is not zero.
+     */
+    private void compileZeroCheck() {
+        final CodeWriter.Label valid = new CodeWriter.Label();
+
+        this.code.op(Bytecode.DUP2, 2);
+        this.code.op(Bytecode.DCONST_0, 2);
+        this.code.op(Bytecode.DCMPL, -3);
+        this.code.jump(Bytecode.IFNE, valid, -1);
+        this.code.throwNew(DIVISION_BY_ZERO);
+        this.code.mark(valid);
+    }
+
+    /**
+     * Compiles a bitwise expression on the integer parts of its operands. The right operand is evaluated first, like in the interpreter.
+     *
+     * @param node The {@link BitwiseExpression}.
+     * @throws Unsupported If an operand is not supported.
+     */
+    private void compileBitwiseExpression(BitwiseExpression node) throws Unsupported {
+        final boolean unary = node.operator() == Operator.BitwiseNot;
+        if(unary != (node.left() == null)) throw new Unsupported("bitwise operands");
+
+        this.compileNumber(node.right());
+        this.code.op(Bytecode.D2I, -1);
+        if(!unary) {
+            this.compileNumber(node.left());
+            this.code.op(Bytecode.D2I, -1);
+        }
+
+        switch(node.operator()) {
+            case BitwiseNot -> {
+                this.code.op(Bytecode.ICONST_M1, 1);
+                this.code.op(Bytecode.IXOR, -1);
+            }
+            case BitwiseAnd -> this.code.op(Bytecode.IAND, -1);
+            case BitwiseOr -> this.code.op(Bytecode.IOR, -1);
+            case BitwiseXor -> this.code.op(Bytecode.IXOR, -1);
+            case ShiftLeft -> {
+                this.code.op(Bytecode.SWAP, 0);
+                this.code.op(Bytecode.ISHL, -1);
+            }
+            case ShiftRight -> {
+                this.code.op(Bytecode.SWAP, 0);
+                this.code.op(Bytecode.ISHR, -1);
+            }
+            default -> throw new Unsupported(node.operator().toString());
+        }
+
+        this.code.op(Bytecode.I2D, 1);
+    }
+
+    /**
+     * Compiles a comparison, a logical expression or a boolean literal, leaving {@code 1} or {@code 0} on the stack.
+     * The right operand of a logical expression is evaluated first, and both operands are always evaluated, like in the interpreter.
+     *
+     * @param node The {@link Expression}.
+     * @throws Unsupported If the expression is neither a comparison of numbers, a boolean literal nor a logical expression on such conditions.
+     */
+    private void compileCondition(Expression node) throws Unsupported {
+        if(node instanceof ComparisonExpression comparison) {
+            this.compileNumber(comparison.left());
+            this.compileNumber(comparison.right());
+
+            final CodeWriter.Label otherwise = new CodeWriter.Label();
+            final CodeWriter.Label end = new CodeWriter.Label();
+
+            switch(comparison.operator()) {
+                case Equal -> this.compileComparison(Bytecode.DCMPL, Bytecode.IFNE, otherwise);
+                case NotEqual -> this.compileComparison(Bytecode.DCMPL, Bytecode.IFEQ, otherwise);
+                case Less -> this.compileComparison(Bytecode.DCMPG, Bytecode.IFGE, otherwise);
+                case LessOrEqual -> this.compileComparison(Bytecode.DCMPG, Bytecode.IFGT, otherwise);
+                case Greater -> this.compileComparison(Bytecode.DCMPL, Bytecode.IFLE, otherwise);
+                case GreaterOrEqual -> this.compileComparison(Bytecode.DCMPL, Bytecode.IFLT, otherwise);
+                default -> throw new Unsupported(comparison.operator().toString());
+            }
+
+            this.code.op(Bytecode.ICONST_1, 1);
+            this.code.jump(Bytecode.GOTO, end, 0);
+            this.code.mark(otherwise);
+            this.code.op(Bytecode.ICONST_0, 1);
+            this.code.mark(end);
+        } else if(node instanceof LogicalExpression logical) {
+            final boolean unary = logical.operator() == Operator.Not;
+            if(unary != (logical.left() == null)) throw new Unsupported("logical operands");
+
+            this.compileCondition(logical.right());
+            if(!unary) this.compileCondition(logical.left());
+
+            switch(logical.operator()) {
+                case Not -> {
+                    this.code.op(Bytecode.ICONST_1, 1);
+                    this.code.op(Bytecode.IXOR, -1);
+                }
+                case And -> this.code.op(Bytecode.IAND, -1);
+                case Or -> this.code.op(Bytecode.IOR, -1);
+                case Xor -> this.code.op(Bytecode.IXOR, -1);
+                default -> throw new Unsupported(logical.operator().toString());
+            }
+        } else if(node instanceof BooleanLiteral literal) this.code.op(literal.value() ? Bytecode.ICONST_1 : Bytecode.ICONST_0, 1);
+        else throw new Unsupported("condition");
+    }
+
+    /**
+     * Compiles the comparison of the two doubles on the top of the stack, jumping if the comparison is false.
+     *
+     * @param comparison The {@link Bytecode} comparing the doubles.
+     * @param jump The {@link Bytecode} jumping if the comparison is false.
+     * @param otherwise The {@link CodeWriter.Label} to jump to.
+     */
+    private void compileComparison(int comparison, int jump, CodeWriter.Label otherwise) {
+        this.code.op(comparison, -3);
+        this.code.jump(jump, otherwise, -1);
+    }
+
+    /**
+     * Compiles a call of a function declared in the global scope. The arguments are evaluated first, and any error thrown
+     * by an argument is wrapped in a {@link RuntimeException}, like in the interpreter.
+     *
+     * @param node The {@link CallExpression}.
+     * @return The {@link Kind} of the value of the function, which is left on the stack if it is a number.
+     * @throws Unsupported If the called function is not a kernel, or is called with a wrong number of arguments.
+     */
+    private Kind compileCall(CallExpression node) throws Unsupported {
+        if(!(node.expression() instanceof Identifier identifier)) throw new Unsupported("callee");
+
+        final String name = identifier.symbol();
+        final FunctionDeclaration function = this.functions.get(name);
+        if(function == null || this.local(name) >= 0) throw new Unsupported("callee");
+        if(parameters(function).size() != node.args().size()) throw new Unsupported("arguments");
+
+        final Kind kind = this.kind(function);
+        for(Expression arg : node.args()) {
+            final CodeWriter.Label start = new CodeWriter.Label();
+            final CodeWriter.Label end = new CodeWriter.Label();
+            final CodeWriter.Label next = new CodeWriter.Label();
+
+            this.code.mark(start);
+            this.compileNumber(arg);
+            this.code.mark(end);
+            this.code.jump(Bytecode.GOTO, next, 0);
+            this.code.handler(start, end);
+            this.code.throwWrapped();
+            this.code.mark(next);
+        }
+
+        final int arity = node.args().size();
+        this.code.invokeStatic(NAME, this.method(function), descriptor(arity, kind), kind == Kind.Number ? 2 - 2 * arity : -2 * arity);
+        this.dependencies.put(name, function);
+
+        return kind;
+    }
+
+    /**
+     * Finds the local holding a variable, in the innermost scope declaring it.
+     *
+     * @param name The name of the variable.
+     * @return The index of the local, or {@code -1} if the variable is not declared in the kernel.
+     */
+    private int local(String name) {
+        for(int i = this.scopes.size() - 1; i >= 0; i--) {
+            final Integer local = this.scopes.get(i).get(name);
+            if(local != null) return local;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Finds the element of the array of globals holding a variable of the scopes enclosing a loop.
+     *
+     * @param name The name of the variable.
+     * @return The index of the element.
+     * @throws Unsupported If the kernel is a function, which cannot use variables declared outside of it.
+     */
+    private int global(String name) throws Unsupported {
+        if(this.globals == null) throw new Unsupported("global variable");
+
+        return this.globals.computeIfAbsent(name, k -> this.globals.size());
+    }
+
+    /**
+     * Determines the kind of the value of a function, i.e. of its last statement.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     * @return The {@link Kind} of the value.
+     * @throws Unsupported If the value may be of different kinds, is a boolean, or depends on itself.
+     */
+    private Kind kind(FunctionDeclaration declaration) throws Unsupported {
+        final Kind known = this.kinds.get(declaration);
+        if(known == Kind.Pending) throw new Unsupported("recursive value");
+        if(known != null) return known;
+
+        this.kinds.put(declaration, Kind.Pending);
+        final Kind kind = this.kind(declaration.body());
+        this.kinds.put(declaration, kind);
+
+        return kind;
+    }
+
+    /**
+     * Determines the kind of the value of a block, i.e. of its last statement.
+     *
+     * @param statements The statements of the block.
+     * @return The {@link Kind} of the value.
+     * @throws Unsupported If the value may be of different kinds or is a boolean.
+     */
+    private Kind kind(List<Statement> statements) throws Unsupported {
+        return statements.isEmpty() ? Kind.Null : this.kind(statements.get(statements.size() - 1));
+    }
+
+    /**
+     * Determines the kind of the value of a statement.
+     *
+     * @param node The statement.
+     * @return The {@link Kind} of the value.
+     * @throws Unsupported If the value may be of different kinds or is a boolean.
+     */
+    private Kind kind(Statement node) throws Unsupported {
+        return switch(node.kind()) {
+            case NumericLiteral, Identifier, BinaryExpression, BitwiseExpression, AssignmentExpression -> Kind.Number;
+            case DataDeclaration, ForStatement, WhileStatement -> Kind.Null;
+            case ReturnStatement -> {
+                if(((ReturnStatement) node).value() == null) throw new Unsupported("return without a value");
+                yield this.kind(((ReturnStatement) node).value());
+            }
+            case CallExpression -> {
+                if(!(((CallExpression) node).expression() instanceof Identifier identifier)) throw new Unsupported("callee");
+
+                final FunctionDeclaration function = this.functions.get(identifier.symbol());
+                if(function == null) throw new Unsupported("callee");
+                yield this.kind(function);
+            }
+            case IfStatement -> {
+                final IfStatement statement = (IfStatement) node;
+                final Kind then = this.kind(statement.body());
+                final Statement else_statement = statement.elseStatement();
+                final Kind otherwise;
+
+                if(else_statement == null) otherwise = Kind.Null;
+                else if(else_statement instanceof IfStatement else_if) otherwise = this.kind(else_if);
+                else if(else_statement instanceof ElseStatement other) otherwise = this.kind(other.body());
+                else throw new Unsupported("else statement");
+
+                if(then != otherwise) throw new Unsupported("value of different kinds");
+                yield then;
+            }
+            default -> throw new Unsupported("value of a " + node.kind());
+        };
+    }
+
+    /**
+     * Lists the names of the parameters of a function, in order.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     * @return The names of the parameters, without the trailing asterisk.
+     */
+    private static List<String> parameters(FunctionDeclaration declaration) {
+        final List<String> parameters = new ArrayList<>();
+
+        for(Statement statement : declaration.data()) {
+            final String symbol = ((VariableDeclaration) statement).symbol();
+            if(symbol.endsWith("*")) parameters.add(symbol.replace("*", ""));
+        }
+
+        return parameters;
+    }
+
+    /**
+     * Builds the descriptor of the method of a function.
+     *
+     * @param arity The number of parameters of the function.
+     * @param kind The {@link Kind} of the value of the function.
+     * @return The descriptor, taking a double for every parameter and returning a double or nothing.
+     */
+    private static String descriptor(int arity, Kind kind) {
+        return "(" + "D".repeat(arity) + ")" + (kind == Kind.Number ? "D" : "V");
+    }
+
+    /**
+     * The kind of the value of a function, which determines the return type of its method.
+     */
+    private enum Kind {
+        Number,
+        Null,
+        Pending
+    }
+
+    /**
+     * Thrown when a part of a kernel cannot be compiled, so the whole unit is left to the interpreter.
+     */
+    static final class Unsupported extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructs a new instance of {@link Unsupported}.
+         *
+         * @param reason The construct which cannot be compiled.
+         */
+        Unsupported(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+}
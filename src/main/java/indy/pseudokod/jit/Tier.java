@@ -0,0 +1,23 @@
+package indy.pseudokod.jit;
+
+/**
+ * Enum representing the tiers a function can be executed in by the {@link TieredCompiler}.
+ */
+public enum Tier {
+    /**
+     * The body of the function is evaluated by the {@link indy.pseudokod.runtime.Interpreter}.
+     */
+    Interpreted,
+    /**
+     * The function is hot and waits to be compiled on the compiler thread, it is still interpreted meanwhile.
+     */
+    Queued,
+    /**
+     * The body of the function is executed as a tree of specializing nodes, see {@link indy.pseudokod.runtime.exec.NodeCompiler}.
+     */
+    Specialized,
+    /**
+     * The function is a numeric kernel compiled into a JVM class, see {@link KernelCompiler}.
+     */
+    Compiled
+}
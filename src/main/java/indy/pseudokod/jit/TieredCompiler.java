@@ -0,0 +1,322 @@
+package indy.pseudokod.jit;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.Interpreter;
+import indy.pseudokod.runtime.exec.NodeCompiler;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@link TieredCompiler} executes a program with the {@link Interpreter} and promotes the code that turns out to be hot
+ * to a faster {@link Tier}.<br><br>
+ *
+ * The interpreter counts the calls of every function and the iterations (back-edges) of every loop. The iterations of a loop
+ * in the body of a function also count towards the function. Once a function has been called {@link #setCallThreshold(int) often enough},
+ * or its loops have iterated often enough, it is queued for compilation on a background compiler thread, so cold code never pays
+ * for any compilation. A numeric kernel is compiled into a JVM class by the {@link KernelCompiler}, any other function into a tree of
+ * specializing nodes by the {@link NodeCompiler}. The interpreter switches to the compiled code on the next call of the function.<br><br>
+ *
+ * A hot loop is compiled by the {@link KernelCompiler} if it is a kernel, the variables it uses from the enclosing scopes
+ * are looked up by name when it is entered. A while loop or a for-loop with an ellipsis switches to the compiled code on its next iteration,
+ * so even a function called once leaves its hot loop early, a do-while loop the next time it is executed.<br><br>
+ *
+ * The profiles belong to a single execution of a program, together with the modules it imports, and are dropped when the next program
+ * is executed, e.g. in the REPL. The loops in the body of a global function are profiled from the first call of the function on,
+ * so the bodies of functions that are never called are not decoded from a {@code .pkc} file.
+ * The tier of every function profiled in the last execution is reported by {@link #statistics()}.
+ */
+public final class TieredCompiler {
+    private static ExecutorService compiler;
+    private static TieredCompiler current;
+    private static int call_threshold = 1000;
+    private static int loop_threshold = 10000;
+    private static boolean report = false;
+    private final Map<Object, Profile> profiles;
+    private final List<Profile> reported;
+    private boolean running;
+    private volatile long functions;
+    private volatile long loops;
+
+    /**
+     * Constructs a new instance of {@link TieredCompiler}, holding the profiles of one execution.
+     */
+    private TieredCompiler() {
+        this.profiles = new IdentityHashMap<>();
+        this.reported = new ArrayList<>();
+        this.running = false;
+        this.functions = 0;
+        this.loops = 0;
+    }
+
+    /**
+     * Sets the number of calls after which a function is compiled.
+     *
+     * @param threshold The number of calls, at least 1.
+     */
+    public static void setCallThreshold(int threshold) {
+        call_threshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Sets the number of iterations after which a loop, or the function containing it, is compiled.
+     *
+     * @param threshold The number of iterations, at least 1.
+     */
+    public static void setLoopThreshold(int threshold) {
+        loop_threshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Sets whether the failures of the compiler are reported on the standard error stream.
+     *
+     * @param report {@code true} to report the failures.
+     */
+    public static void setReport(boolean report) {
+        TieredCompiler.report = report;
+    }
+
+    /**
+     * Executes a program resolved by the {@link indy.pseudokod.runtime.Resolver}, profiling its functions and loops.
+     * A program imported while another one is executed is profiled along with it, any other program starts with new profiles.
+     *
+     * @param program The {@link Program} to execute.
+     * @param env The {@link Environment} in which the program is executed.
+     * @throws Throwable If any error occurs during the execution.
+     */
+    public static void execute(Program program, Environment env) throws Throwable {
+        final Map<String, FunctionDeclaration> declarations = new LinkedHashMap<>();
+        for(Statement statement : program.body())
+            if(statement.kind() == NodeType.FunctionDeclaration) declarations.put(((FunctionDeclaration) statement).symbol(), (FunctionDeclaration) statement);
+
+        if(compiler == null) compiler = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "pseudokod-compiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final TieredCompiler outer = current != null && current.running ? current : null;
+        final TieredCompiler tiers = outer != null ? outer : new TieredCompiler();
+        for(FunctionDeclaration declaration : declarations.values()) tiers.profile(declaration, declarations);
+        tiers.register(program.body(), null, declarations);
+
+        if(outer != null) {
+            Interpreter.evaluate(program, env);
+            return;
+        }
+
+        current = tiers;
+        tiers.running = true;
+        try {
+            Interpreter.evaluate(program, env);
+        } finally {
+            tiers.running = false;
+        }
+    }
+
+    /**
+     * Creates the profile of a function. The loops in its body are registered when it is called for the first time.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     * @param declarations The functions declared in the global scope of the program, by their names, or an empty map if the function is not global.
+     * @return The {@link Profile} of the function.
+     */
+    private Profile profile(FunctionDeclaration declaration, Map<String, FunctionDeclaration> declarations) {
+        final Profile profile = new Profile(declaration, declarations, null);
+        this.profiles.put(declaration, profile);
+        this.reported.add(profile);
+
+        return profile;
+    }
+
+    /**
+     * Profiles the loops among the given statements and in the blocks nested in them, without descending into functions.
+     * Every loop gets a profile of its own, the loops in the body of a function are linked to the profile of the function.
+     *
+     * @param statements The statements to be scanned.
+     * @param function The {@link Profile} of the function containing the statements, or {@code null} if they are not in a function.
+     * @param declarations The functions declared in the global scope of the program, by their names.
+     */
+    private void register(List<Statement> statements, Profile function, Map<String, FunctionDeclaration> declarations) {
+        for(Statement statement : statements) {
+            switch(statement.kind()) {
+                case ForStatement -> {
+                    this.profiles.put(statement, new Profile(statement, declarations, function));
+                    this.register(((ForStatement) statement).body(), function, declarations);
+                }
+                case WhileStatement -> {
+                    this.profiles.put(statement, new Profile(statement, declarations, function));
+                    this.register(((WhileStatement) statement).body(), function, declarations);
+                }
+                case IfStatement -> {
+                    this.register(((IfStatement) statement).body(), function, declarations);
+                    if(((IfStatement) statement).elseStatement() != null) this.register(List.of(((IfStatement) statement).elseStatement()), function, declarations);
+                }
+                case ElseStatement -> this.register(((ElseStatement) statement).body(), function, declarations);
+                default -> {}
+            }
+        }
+    }
+
+    /**
+     * Counts an interpreted call of a function, queuing the function for compilation once it is hot.
+     * The first call of a global function registers the loops in its body, functions declared outside of the global scope
+     * are profiled from their first call on.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the called function.
+     */
+    public static void countCall(FunctionDeclaration declaration) {
+        final TieredCompiler tiers = current;
+        if(tiers == null) return;
+
+        Profile profile = tiers.profiles.get(declaration);
+        if(profile == null) profile = tiers.profile(declaration, Map.of());
+
+        if(profile.calls++ == 0 && !profile.declarations.isEmpty()) tiers.register(declaration.body(), profile, profile.declarations);
+        if(profile.calls == call_threshold) tiers.promote(profile);
+    }
+
+    /**
+     * Runs a loop as compiled code, if it has been compiled.
+     *
+     * @param loop The {@link ForStatement} or {@link WhileStatement} of the loop.
+     * @param env The {@link Environment} in which the loop is executed.
+     * @return {@code true} if the loop has been executed, {@code false} if it has to be interpreted.
+     * @throws Throwable If any error occurs in the body of the loop.
+     */
+    public static boolean enter(Statement loop, Environment env) throws Throwable {
+        final TieredCompiler tiers = current;
+        if(tiers == null) return false;
+
+        final Profile profile = tiers.profiles.get(loop);
+        return profile != null && profile.loop != null && profile.loop.execute(env, null);
+    }
+
+    /**
+     * Counts an interpreted iteration of a loop, queuing the loop or the function containing it for compilation once it is hot.
+     *
+     * @param loop The {@link ForStatement} or {@link WhileStatement} of the loop.
+     * @return {@code true} if the compiled code of the loop is ready, so the remaining iterations can be {@link #resume resumed} in it.
+     */
+    public static boolean backedge(Statement loop) {
+        final TieredCompiler tiers = current;
+        if(tiers == null) return false;
+
+        final Profile profile = tiers.profiles.get(loop);
+        if(profile == null) return false;
+
+        if(++profile.backedges == loop_threshold) tiers.promote(profile);
+        if(profile.function != null && ++profile.function.backedges == loop_threshold) tiers.promote(profile.function);
+        return profile.loop != null;
+    }
+
+    /**
+     * Runs the remaining iterations of an interpreted loop as compiled code. A while loop is resumed before its condition is evaluated,
+     * a for-loop with an ellipsis before its control variable is compared with the upper bound.
+     *
+     * @param loop The {@link ForStatement} or {@link WhileStatement} of the loop.
+     * @param env The {@link Environment} in which the loop is executed.
+     * @param state The value of the control variable, the step and the upper bound of a for-loop, or {@code null} for a while loop.
+     * @return {@code true} if the remaining iterations have been executed, {@code false} if the loop has to go on.
+     * @throws Throwable If any error occurs in the body of the loop.
+     */
+    public static boolean resume(Statement loop, Environment env, double[] state) throws Throwable {
+        return current.profiles.get(loop).loop.execute(env, state);
+    }
+
+    /**
+     * Queues a hot function or loop for compilation on the compiler thread.
+     * Code the {@link KernelCompiler} does not support is left to the {@link NodeCompiler} or stays interpreted.
+     * Code the compilers fail on for any other reason stays interpreted as well, the failure is reported if {@link #setReport(boolean) enabled},
+     * while errors of the virtual machine are not caught.
+     *
+     * @param profile The {@link Profile} of the function or loop.
+     */
+    private void promote(Profile profile) {
+        if(profile.queued) return;
+        profile.queued = true;
+
+        compiler.execute(() -> {
+            try {
+                if(profile.code instanceof FunctionDeclaration declaration) {
+                    final CompiledFunction compiled = KernelCompiler.compileFunction(declaration, profile.declarations);
+
+                    if(compiled != null) CompiledFunction.register(declaration, compiled);
+                    else NodeCompiler.compileFunction(declaration);
+                    this.functions++;
+                } else {
+                    profile.loop = KernelCompiler.compileLoop((Statement) profile.code, profile.declarations);
+                    if(profile.loop != null) this.loops++;
+                }
+            } catch(RuntimeException e) {
+                if(report) System.err.println("Could not compile " + profile.describe() + ": " + e);
+            } finally {
+                profile.done = true;
+            }
+        });
+    }
+
+    /**
+     * @return A summary of the number of functions and loops promoted in the last execution, followed by the tier of every profiled function,
+     *         in the order of the declarations of the global functions and of the first calls of the other ones.
+     */
+    public static String statistics() {
+        final TieredCompiler tiers = current;
+        if(tiers == null) return "Promoted 0 functions and 0 loops.";
+
+        final StringBuilder builder = new StringBuilder(String.format("Promoted %d functions and %d loops.", tiers.functions, tiers.loops));
+
+        for(Profile profile : tiers.reported)
+            builder.append(String.format("%n  %s: %s after %d calls and %d loop iterations.", ((FunctionDeclaration) profile.code).symbol(), profile.tier(), profile.calls, profile.backedges));
+
+        return builder.toString();
+    }
+
+    /**
+     * The execution counts and the compilation state of a function or a loop.
+     */
+    private static final class Profile {
+        private final Object code;
+        private final Map<String, FunctionDeclaration> declarations;
+        private final Profile function;
+        private int calls;
+        private int backedges;
+        private boolean queued;
+        private volatile boolean done;
+        private volatile CompiledLoop loop;
+
+        /**
+         * Constructs a new instance of {@link Profile}.
+         *
+         * @param code The {@link FunctionDeclaration} of the function, or the statement of the loop.
+         * @param declarations The functions declared in the global scope of the program, by their names.
+         * @param function The {@link Profile} of the function containing the loop, or {@code null}.
+         */
+        private Profile(Object code, Map<String, FunctionDeclaration> declarations, Profile function) {
+            this.code = code;
+            this.declarations = declarations;
+            this.function = function;
+        }
+
+        /**
+         * @return The name of the function, or a description of the loop.
+         */
+        private String describe() {
+            if(this.code instanceof FunctionDeclaration declaration) return "function " + declaration.symbol();
+            return this.function != null ? "a loop in function " + ((FunctionDeclaration) this.function.code).symbol() : "a loop";
+        }
+
+        /**
+         * @return The {@link Tier} the function is executed in.
+         */
+        private Tier tier() {
+            final FunctionDeclaration declaration = (FunctionDeclaration) this.code;
+
+            if(CompiledFunction.of(declaration) != null) return Tier.Compiled;
+            if(NodeCompiler.compiled(declaration) != null) return Tier.Specialized;
+            return this.queued && !this.done ? Tier.Queued : Tier.Interpreted;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * The {@link indy.pseudokod.jit} package provides the JVM engine: a compiler of numeric kernels into JVM classes,
+ * loaded at run time as hidden classes, with the rest of the program evaluated by the {@link indy.pseudokod.runtime.Interpreter}.
+ *
+ * <p>The {@link indy.pseudokod.jit.KernelCompiler} compiles functions and loops of the global scope that work only with numbers.
+ * Their variables become local variables of static methods holding primitive doubles, their calls become static calls,
+ * and the class files are written by the {@link indy.pseudokod.jit.ClassWriter} and {@link indy.pseudokod.jit.CodeWriter}
+ * without any library. Anything the compiler cannot handle is left to the interpreter.</p>
+ *
+ * <p>A {@link indy.pseudokod.jit.CompiledFunction} runs only as long as the assumptions it was compiled under still hold,
+ * i.e. its arguments are numbers and the functions it calls have not been replaced, so the program behaves and fails
+ * exactly like under the interpreter.</p>
+ *
+ * <p>The {@link indy.pseudokod.jit.TieredCompiler} provides the tiered engine: it profiles the calls of the functions and the iterations
+ * of the loops while the program is interpreted, and promotes the hot ones on a background thread, to a compiled kernel if possible,
+ * otherwise to specializing nodes. The {@link indy.pseudokod.jit.Tier} of every function is reported with {@code -debug}.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * Resolver.resolve(program);
+ * JitCompiler.execute(program, env);
+ * }</pre>
+ *
+ * @see indy.pseudokod.jit.JitCompiler
+ * @see indy.pseudokod.jit.KernelCompiler
+ * @see indy.pseudokod.jit.CompiledFunction
+ * @see indy.pseudokod.jit.TieredCompiler
+ * @see indy.pseudokod.jit.Tier
+ * @see indy.pseudokod.runtime.Engine
+ */
+package indy.pseudokod.jit;
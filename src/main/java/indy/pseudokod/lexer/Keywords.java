@@ -0,0 +1,151 @@
+package indy.pseudokod.lexer;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recognizes the English and Polish keywords of the language directly in a character array.<br><br>
+ *
+ * The keywords are compiled into a trie when the class is loaded. Each node of the trie is a row of a flat
+ * {@code short[]} transition table, with one column per character that appears in any keyword,
+ * so matching a lexeme walks the table character by character without allocating anything.
+ */
+final class Keywords {
+    private static final byte[] columns = new byte[128];
+    private static final int width;
+    private static short[] transitions;
+    private static TokenType[] accepts;
+    private static int nodes;
+
+    static {
+        final Map<String, TokenType> keywords = new LinkedHashMap<>();
+
+        keywords.put("data", TokenType.DataToken);
+        keywords.put("dane", TokenType.DataToken);
+        keywords.put("number", TokenType.DataType);
+        keywords.put("liczba", TokenType.DataType);
+        keywords.put("char", TokenType.DataType);
+        keywords.put("znak", TokenType.DataType);
+        keywords.put("string", TokenType.DataType);
+        keywords.put("tekst", TokenType.DataType);
+        keywords.put("boolean", TokenType.DataType);
+        keywords.put("logiczny", TokenType.DataType);
+        keywords.put("list", TokenType.DataType);
+        keywords.put("tablica", TokenType.DataType);
+        keywords.put("set", TokenType.DataType);
+        keywords.put("zbior", TokenType.DataType);
+        keywords.put("range", TokenType.DataType);
+        keywords.put("przedzial", TokenType.DataType);
+        keywords.put("plate", TokenType.DataType);
+        keywords.put("talerz", TokenType.DataType);
+        keywords.put("queue", TokenType.DataType);
+        keywords.put("kolejka", TokenType.DataType);
+        keywords.put("belongs", TokenType.InRange);
+        keywords.put("in", TokenType.InRange);
+        keywords.put("nalezy", TokenType.InRange);
+        keywords.put("w", TokenType.InRange);
+        keywords.put("OR", TokenType.LogicalOperator);
+        keywords.put("LUB", TokenType.LogicalOperator);
+        keywords.put("AND", TokenType.LogicalOperator);
+        keywords.put("I", TokenType.LogicalOperator);
+        keywords.put("NOT", TokenType.LogicalOperator);
+        keywords.put("NIE", TokenType.LogicalOperator);
+        keywords.put("XOR", TokenType.LogicalOperator);
+        keywords.put("mod", TokenType.ModulusOperator);
+        keywords.put("div", TokenType.DivOperator);
+        keywords.put("print", TokenType.PrintFunction);
+        keywords.put("write", TokenType.PrintFunction);
+        keywords.put("wypisz", TokenType.PrintFunction);
+        keywords.put("drukuj", TokenType.PrintFunction);
+        keywords.put("wyprintuj", TokenType.PrintFunction);
+        keywords.put("get", TokenType.GetFunction);
+        keywords.put("input", TokenType.GetFunction);
+        keywords.put("wczytaj", TokenType.GetFunction);
+        keywords.put("wprowadz", TokenType.GetFunction);
+        keywords.put("if", TokenType.IfStatement);
+        keywords.put("jezeli", TokenType.IfStatement);
+        keywords.put("jesli", TokenType.IfStatement);
+        keywords.put("else", TokenType.ElseStatement);
+        keywords.put("przeciwnie", TokenType.ElseStatement);
+        keywords.put("for", TokenType.ForStatement);
+        keywords.put("dla", TokenType.ForStatement);
+        keywords.put("while", TokenType.WhileStatement);
+        keywords.put("dopoki", TokenType.WhileStatement);
+        keywords.put("do", TokenType.DoStatement);
+        keywords.put("rob", TokenType.DoStatement);
+        keywords.put("function", TokenType.Function);
+        keywords.put("funkcja", TokenType.Function);
+        keywords.put("result", TokenType.ResultToken);
+        keywords.put("wynik", TokenType.ResultToken);
+        keywords.put("return", TokenType.ReturnToken);
+        keywords.put("zwroc", TokenType.ReturnToken);
+        keywords.put("import", TokenType.ImportToken);
+        keywords.put("zaimportuj", TokenType.ImportToken);
+
+        int alphabet = 0;
+        for(String word : keywords.keySet())
+            for(int i = 0; i < word.length(); i++)
+                if(columns[word.charAt(i)] == 0) columns[word.charAt(i)] = (byte) ++alphabet;
+        width = alphabet;
+
+        transitions = new short[64 * width];
+        accepts = new TokenType[64];
+        nodes = 1;
+
+        keywords.forEach(Keywords::insert);
+
+        transitions = Arrays.copyOf(transitions, nodes * width);
+        accepts = Arrays.copyOf(accepts, nodes);
+    }
+
+    private Keywords() {}
+
+    /**
+     * Adds a keyword to the trie, creating the missing nodes along its path.
+     *
+     * @param word The keyword.
+     * @param type The type of the token the keyword is recognized as.
+     */
+    private static void insert(String word, TokenType type) {
+        int node = 0;
+
+        for(int i = 0; i < word.length(); i++) {
+            final int index = node * width + columns[word.charAt(i)] - 1;
+
+            if(transitions[index] == 0) {
+                if(nodes == accepts.length) {
+                    transitions = Arrays.copyOf(transitions, nodes * 2 * width);
+                    accepts = Arrays.copyOf(accepts, nodes * 2);
+                }
+                transitions[index] = (short) nodes++;
+            }
+
+            node = transitions[index];
+        }
+
+        accepts[node] = type;
+    }
+
+    /**
+     * Looks up the characters in the given range among the keywords.
+     *
+     * @param characters The characters containing the lexeme.
+     * @param start The offset of the first character of the lexeme.
+     * @param end The offset after the last character of the lexeme.
+     * @return The {@link TokenType} of the keyword, or {@code null} if the lexeme is not a keyword.
+     */
+    static TokenType match(char[] characters, int start, int end) {
+        int node = 0;
+
+        for(int i = start; i < end; i++) {
+            final char character = characters[i];
+            if(character >= 128 || columns[character] == 0) return null;
+
+            node = transitions[node * width + columns[character] - 1];
+            if(node == 0) return null;
+        }
+
+        return accepts[node];
+    }
+}
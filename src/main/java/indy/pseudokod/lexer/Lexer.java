@@ -3,81 +3,401 @@ package indy.pseudokod.lexer;
 import indy.pseudokod.exceptions.StringTerminationException;
 import indy.pseudokod.exceptions.UnrecognizedCharacterException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
 import java.util.*;
 
 /**
  * The {@link Lexer} provides functionality to tokenize a source string into meaningful tokens.
- * This is a fundamental step in the interpretation or compilation of source code.
+ * This is a fundamental step in the interpretation or compilation of source code.<br><br>
+ *
+ * The source is scanned with a cursor over a window of characters. When the source is read from
+ * a {@link Readable}, the window is refilled on demand, so only the lexeme being scanned has to be kept in memory.
  */
 public class Lexer {
-    private static final Map<String, TokenType> keywords = new HashMap<>();
-
-    static {
-        keywords.put("data", TokenType.DataToken);
-        keywords.put("dane", TokenType.DataToken);
-        keywords.put("number", TokenType.DataType);
-        keywords.put("liczba", TokenType.DataType);
-        keywords.put("char", TokenType.DataType);
-        keywords.put("znak", TokenType.DataType);
-        keywords.put("string", TokenType.DataType);
-        keywords.put("tekst", TokenType.DataType);
-        keywords.put("boolean", TokenType.DataType);
-        keywords.put("logiczny", TokenType.DataType);
-        keywords.put("list", TokenType.DataType);
-        keywords.put("tablica", TokenType.DataType);
-        keywords.put("set", TokenType.DataType);
-        keywords.put("zbior", TokenType.DataType);
-        keywords.put("range", TokenType.DataType);
-        keywords.put("przedzial", TokenType.DataType);
-        keywords.put("plate", TokenType.DataType);
-        keywords.put("talerz", TokenType.DataType);
-        keywords.put("queue", TokenType.DataType);
-        keywords.put("kolejka", TokenType.DataType);
-        keywords.put("belongs", TokenType.InRange);
-        keywords.put("in", TokenType.InRange);
-        keywords.put("nalezy", TokenType.InRange);
-        keywords.put("w", TokenType.InRange);
-        keywords.put("OR", TokenType.LogicalOperator);
-        keywords.put("LUB", TokenType.LogicalOperator);
-        keywords.put("AND", TokenType.LogicalOperator);
-        keywords.put("I", TokenType.LogicalOperator);
-        keywords.put("NOT", TokenType.LogicalOperator);
-        keywords.put("NIE", TokenType.LogicalOperator);
-        keywords.put("XOR", TokenType.LogicalOperator);
-        keywords.put("mod", TokenType.ModulusOperator);
-        keywords.put("div", TokenType.DivOperator);
-        keywords.put("print", TokenType.PrintFunction);
-        keywords.put("write", TokenType.PrintFunction);
-        keywords.put("wypisz", TokenType.PrintFunction);
-        keywords.put("drukuj", TokenType.PrintFunction);
-        keywords.put("wyprintuj", TokenType.PrintFunction);
-        keywords.put("get", TokenType.GetFunction);
-        keywords.put("input", TokenType.GetFunction);
-        keywords.put("wczytaj", TokenType.GetFunction);
-        keywords.put("wprowadz", TokenType.GetFunction);
-        keywords.put("if", TokenType.IfStatement);
-        keywords.put("jezeli", TokenType.IfStatement);
-        keywords.put("jesli", TokenType.IfStatement);
-        keywords.put("else", TokenType.ElseStatement);
-        keywords.put("przeciwnie", TokenType.ElseStatement);
-        keywords.put("for", TokenType.ForStatement);
-        keywords.put("dla", TokenType.ForStatement);
-        keywords.put("while", TokenType.WhileStatement);
-        keywords.put("dopoki", TokenType.WhileStatement);
-        keywords.put("do", TokenType.DoStatement);
-        keywords.put("rob", TokenType.DoStatement);
-        keywords.put("function", TokenType.Function);
-        keywords.put("funkcja", TokenType.Function);
-        keywords.put("result", TokenType.ResultToken);
-        keywords.put("wynik", TokenType.ResultToken);
-        keywords.put("return", TokenType.ReturnToken);
-        keywords.put("zwroc", TokenType.ReturnToken);
-        keywords.put("import", TokenType.ImportToken);
-        keywords.put("zaimportuj", TokenType.ImportToken);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Readable input;
+    private final ArrayDeque<Token> tokens;
+    private final TokenBuffer output;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private int mark;
+    private int line;
+    private boolean ended;
+
+    /**
+     * Constructs a new instance of {@link Lexer} over the given source characters.
+     *
+     * @param source The characters of the source code to be tokenized.
+     */
+    Lexer(char[] source) {
+        this.input = null;
+        this.tokens = new ArrayDeque<>();
+        this.output = null;
+        this.buffer = source;
+        this.position = 0;
+        this.limit = source.length;
+        this.mark = 0;
+        this.line = 1;
+        this.ended = false;
+    }
+
+    /**
+     * Constructs a new instance of {@link Lexer} appending the tokens of the source to the given {@link TokenBuffer}
+     * instead of creating {@link Token} objects.
+     *
+     * @param output The buffer to which the tokens are appended, holding the characters of the source code.
+     */
+    Lexer(TokenBuffer output) {
+        this(output, 0, 1);
+    }
+
+    /**
+     * Constructs a new instance of {@link Lexer} appending the tokens of the source to the given {@link TokenBuffer},
+     * starting the scan at the given position instead of the beginning of the source.
+     * The position must not be inside a string literal, a character literal or a comment.
+     *
+     * @param output The buffer to which the tokens are appended, holding the characters of the source code.
+     * @param position The offset in the source at which scanning starts.
+     * @param line The line number at the given offset.
+     */
+    Lexer(TokenBuffer output, int position, int line) {
+        this.input = null;
+        this.tokens = null;
+        this.output = output;
+        this.buffer = output.source();
+        this.position = position;
+        this.limit = output.length();
+        this.mark = position;
+        this.line = line;
+        this.ended = false;
+    }
+
+    /**
+     * Constructs a new instance of {@link Lexer} reading the source code lazily from the given input.
+     *
+     * @param input The input from which the characters of the source code are read.
+     */
+    Lexer(Readable input) {
+        this.input = input;
+        this.tokens = new ArrayDeque<>();
+        this.output = null;
+        this.buffer = new char[BUFFER_SIZE];
+        this.position = 0;
+        this.limit = 0;
+        this.mark = 0;
+        this.line = 1;
+        this.ended = false;
+    }
+
+    /**
+     * Reads more characters from the input into the window. Characters before the start of the lexeme
+     * being scanned are discarded first, and the window grows only if the lexeme itself does not fit in it.
+     * At least two free characters are always left, so a surrogate pair can always be read.
+     *
+     * @return {@code true} if any characters were read, {@code false} if the input is exhausted.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private boolean fill() throws IOException {
+        if(this.input == null) return false;
+
+        if(this.mark > 0) {
+            System.arraycopy(this.buffer, this.mark, this.buffer, 0, this.limit - this.mark);
+            this.position -= this.mark;
+            this.limit -= this.mark;
+            this.mark = 0;
+        }
+        if(this.buffer.length - this.limit < 2) this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+
+        final int read = this.input.read(CharBuffer.wrap(this.buffer, this.limit, this.buffer.length - this.limit));
+        if(read <= 0) return false;
+
+        this.limit += read;
+        return true;
+    }
+
+    /**
+     * Checks if the character at the given offset from the cursor is available, reading more input if needed.
+     *
+     * @param offset The offset from the current cursor position.
+     * @return {@code true} if the character exists, otherwise {@code false}.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private boolean available(int offset) throws IOException {
+        while(this.position + offset >= this.limit) if(!this.fill()) return false;
+        return true;
+    }
+
+    /**
+     * Checks if the cursor has not yet reached the end of the source.
+     *
+     * @return {@code true} if there are characters left to scan, otherwise {@code false}.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private boolean isNotEOF() throws IOException {
+        return this.available(0);
+    }
+
+    /**
+     * Checks if the character at the given offset from the cursor is equal to the specified character.
+     *
+     * @param offset The offset from the current cursor position.
+     * @param character The character to compare with.
+     * @return {@code true} if the character exists and matches, otherwise {@code false}.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private boolean at(int offset, char character) throws IOException {
+        return this.available(offset) && this.buffer[this.position + offset] == character;
+    }
+
+    /**
+     * Emits a new token spanning the given characters of the window, either to the output {@link TokenBuffer}
+     * or as a {@link Token} object added to the queue.
+     *
+     * @param type The type of the token.
+     * @param start The position of the first character of the token.
+     * @param end The position after the last character of the token.
+     */
+    private void emit(TokenType type, int start, int end) {
+        if(this.output != null) this.output.add(type, start, end, this.line);
+        else this.tokens.add(new Token(TokenBuffer.text(type, this.buffer, start, end), type, this.line));
+    }
+
+    /**
+     * Emits a new token starting at the cursor and moves the cursor by the given length.
+     *
+     * @param type The type of the token.
+     * @param length The amount of characters of the token.
+     */
+    private void push(TokenType type, int length) {
+        this.emit(type, this.position, this.position + length);
+        this.position += length;
+    }
+
+    /**
+     * Skips a comment starting at the cursor. A line comment ends before the next newline character,
+     * a block comment ends at the first {@code *} character, optionally followed by {@code /}.
+     *
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private void skipComment() throws IOException {
+        if(this.buffer[this.position + 1] == '/') {
+            while(this.isNotEOF() && this.buffer[this.position] != '\n') this.mark = ++this.position;
+        } else {
+            this.position += 2;
+            while(this.isNotEOF() && this.buffer[this.position] != '*') this.mark = ++this.position;
+
+            if(this.at(0, '*')) this.position++;
+            if(this.at(0, '/')) this.position++;
+        }
+    }
+
+    /**
+     * Scans a string literal enclosed in quote characters, producing {@link TokenType#Quote},
+     * {@link TokenType#Text} and {@link TokenType#Quote} tokens. Escape sequences are kept untouched.
+     *
+     * @throws StringTerminationException Thrown if the string literal is not terminated.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private void scanString() throws StringTerminationException, IOException {
+        this.push(TokenType.Quote, 1);
+        this.mark = this.position;
+
+        while(this.isNotEOF() && this.buffer[this.position] != '"') {
+            if(this.buffer[this.position] == '\\' && !this.available(1)) throw new StringTerminationException('"');
+            if(this.buffer[this.position] == '\\') this.position++;
+            this.position++;
+        }
+        this.emit(TokenType.Text, this.mark, this.position);
+
+        if(this.at(0, '"')) this.push(TokenType.Quote, 1);
+        else throw new StringTerminationException('"');
+    }
+
+    /**
+     * Scans a character literal enclosed in apostrophes, producing {@link TokenType#Apostrophe},
+     * {@link TokenType#Character} and {@link TokenType#Apostrophe} tokens. Backslashes are removed from the value.
+     *
+     * @throws StringTerminationException Thrown if the character literal is not terminated.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private void scanCharacter() throws StringTerminationException, IOException {
+        this.push(TokenType.Apostrophe, 1);
+        this.mark = this.position;
+
+        while(this.isNotEOF() && this.buffer[this.position] != '\'') {
+            if(this.buffer[this.position] == '\\') this.position++;
+            if(!this.isNotEOF()) throw new StringTerminationException('"');
+            this.position++;
+        }
+        this.emit(TokenType.Character, this.mark, this.position);
+
+        if(this.isNotEOF()) this.push(TokenType.Apostrophe, 1);
+        else throw new StringTerminationException('"');
+    }
+
+    /**
+     * Scans a number literal made of digits and dots.
+     *
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private void scanNumber() throws IOException {
+        while(this.isNotEOF() && (Character.isDigit(this.buffer[this.position]) || this.buffer[this.position] == '.')) this.position++;
+
+        this.emit(TokenType.Number, this.mark, this.position);
+    }
+
+    /**
+     * Scans an identifier or a keyword. Identifiers consist of letters, underscores and asterisks.
+     *
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private void scanIdentifier() throws IOException {
+        while(this.isNotEOF() && (Character.isAlphabetic(this.buffer[this.position]) || this.buffer[this.position] == '_' || this.buffer[this.position] == '*')) this.position++;
+
+        final TokenType keyword = Keywords.match(this.buffer, this.mark, this.position);
+        this.emit(keyword != null ? keyword : TokenType.Identifier, this.mark, this.position);
+    }
+
+    /**
+     * Scans a sequence of spaces. A single space is skipped, while two to four spaces produce an {@link TokenType#Indent} token.
+     *
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private void scanSpaces() throws IOException {
+        this.position++;
+        if(!this.at(0, ' ')) return;
+
+        int length = 1;
+        while(this.at(0, ' ') && length < 4) {
+            this.position++;
+            length++;
+        }
+        this.emit(TokenType.Indent, this.mark, this.position);
+    }
+
+    /**
+     * Scans the next lexeme at the cursor and emits the resulting tokens (if any).
+     *
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    private void scan() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        this.mark = this.position;
+        final char character = this.buffer[this.position];
+
+        switch(character) {
+            case '(' -> this.push(TokenType.OpenParenthesis, 1);
+            case ')' -> this.push(TokenType.CloseParenthesis, 1);
+            case '[' -> this.push(TokenType.OpenBracket, 1);
+            case ']' -> this.push(TokenType.CloseBracket, 1);
+            case '{' -> this.push(TokenType.OpenBrace, 1);
+            case '}' -> this.push(TokenType.CloseBrace, 1);
+            case '+' -> this.push(TokenType.BinaryOperator, 1);
+            case '-' -> this.push(TokenType.BinaryOperator, 1);
+            case '*' -> this.push(TokenType.BinaryOperator, 1);
+            case '/' -> {
+                if(this.at(1, '/') || this.at(1, '*')) this.skipComment();
+                else this.push(TokenType.BinaryOperator, 1);
+            }
+            case '=' -> this.push(TokenType.Equals, 1);
+            case '≠' -> this.push(TokenType.ComparisonOperator, 1);
+            case '≤' -> this.push(TokenType.ComparisonOperator, 1);
+            case '≥' -> this.push(TokenType.ComparisonOperator, 1);
+            case '!' -> {
+                if(this.at(1, '=')) this.push(TokenType.ComparisonOperator, 2);
+                else throw new UnrecognizedCharacterException(String.valueOf(this.available(1) ? this.buffer[this.position + 1] : character));
+            }
+            case '<' -> {
+                if(this.at(1, '-')) this.push(TokenType.Assignment, 2);
+                else if(this.at(1, '<')) this.push(TokenType.ShiftOperator, 2);
+                else if(this.at(1, '=')) this.push(TokenType.ComparisonOperator, 2);
+                else this.push(TokenType.ComparisonOperator, 1);
+            }
+            case '>' -> {
+                if(this.at(1, '>')) this.push(TokenType.ShiftOperator, 2);
+                else if(this.at(1, '=')) this.push(TokenType.ComparisonOperator, 2);
+                else this.push(TokenType.ComparisonOperator, 1);
+            }
+            case ':' -> {
+                if(this.at(1, '=')) this.push(TokenType.Assignment, 2);
+                else this.push(TokenType.Colon, 1);
+            }
+            case '∨' -> this.push(TokenType.LogicalOperator, 1);
+            case '∧' -> this.push(TokenType.LogicalOperator, 1);
+            case '¬' -> this.push(TokenType.LogicalOperator, 1);
+            case '⊕' -> this.push(TokenType.LogicalOperator, 1);
+            case '~' -> this.push(TokenType.BitwiseOperator, 1);
+            case '&' -> this.push(TokenType.BitwiseOperator, 1);
+            case '|' -> this.push(TokenType.BitwiseOperator, 1);
+            case '^' -> this.push(TokenType.BitwiseOperator, 1);
+            case ';' -> this.push(TokenType.Semicolon, 1);
+            case ',' -> this.push(TokenType.Comma, 1);
+            case '.' -> this.push(TokenType.Dot, 1);
+            case '"' -> this.scanString();
+            case '\'' -> this.scanCharacter();
+            case '∈' -> this.push(TokenType.InRange, 1);
+            case '∞' -> this.push(TokenType.Identifier, 1);
+            case '\t' -> this.push(TokenType.Indent, 1);
+            case '\n' -> {
+                this.push(TokenType.NewLine, 1);
+                this.line++;
+            }
+            case '\r' -> this.position++;
+            case ' ' -> this.scanSpaces();
+            default -> {
+                if(Character.isDigit(character)) this.scanNumber();
+                else if(Character.isAlphabetic(character)) this.scanIdentifier();
+                else throw new UnrecognizedCharacterException(String.valueOf(character));
+            }
+        }
+    }
+
+    /**
+     * Scans the next lexeme of the source and emits the resulting tokens (if any).
+     * When the end of the source is reached, the {@link TokenType#EndOfFile} token is emitted once.
+     *
+     * @return {@code true} if the source was advanced, {@code false} if the end of the source was already emitted.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    boolean advance() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        if(this.ended) return false;
+
+        if(this.isNotEOF()) this.scan();
+        else {
+            this.emit(TokenType.EndOfFile, this.position, this.position);
+            this.ended = true;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the next token of the source, scanning further lexemes if needed.
+     * Once the end of the source is reached, the {@link TokenType#EndOfFile} token is returned on every call.
+     *
+     * @return The next {@link Token} of the source.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the input.
+     */
+    Token next() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        while(this.tokens.isEmpty()) this.advance();
+
+        final Token token = this.tokens.peek();
+        if(token.type() != TokenType.EndOfFile) this.tokens.poll();
+
+        return token;
     }
 
     /**
      * Converts the input source string into a list of tokens by analyzing its content.
+     * The source is scanned once with a cursor, so the time needed is proportional to its length.
      *
      * @param source The source string to be tokenized.
      * @return A list of {@link Token} objects representing the tokens in the source.
@@ -85,165 +405,104 @@ public class Lexer {
      * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
      */
     public static List<Token> tokenize(String source) throws UnrecognizedCharacterException, StringTerminationException {
-        final ArrayList<Token> tokens = new ArrayList<>();
-        final ArrayList<String> src = new ArrayList<>(List.of(source.split("")));
-        final ArrayList<String> operators = new ArrayList<>(List.of(new String[]{"+", "-", "*"}));
-        int line = 1;
-
-        while(!src.isEmpty()) {
-            if(src.get(0).equals("(")) tokens.add(new Token(src.remove(0), TokenType.OpenParenthesis, line));
-            else if(src.get(0).equals(")")) tokens.add(new Token(src.remove(0), TokenType.CloseParenthesis, line));
-            else if(src.get(0).equals("[")) tokens.add(new Token(src.remove(0), TokenType.OpenBracket, line));
-            else if(src.get(0).equals("]")) tokens.add(new Token(src.remove(0), TokenType.CloseBracket, line));
-            else if(src.get(0).equals("{")) tokens.add(new Token(src.remove(0), TokenType.OpenBrace, line));
-            else if(src.get(0).equals("}")) tokens.add(new Token(src.remove(0), TokenType.CloseBrace, line));
-            else if(operators.contains(src.get(0))) tokens.add(new Token(src.remove(0), TokenType.BinaryOperator, line));
-            else if(src.get(0).equals("/")) {
-                String value = src.remove(0);
-                if(src.get(0).equals("/")) {
-                    while(!src.get(0).equals("\n")) {
-                        src.remove(0);
-                    }
-                } else if(src.get(0).equals("*")) {
-                    do src.remove(0);
-                    while (!src.isEmpty() && !src.get(0).equals("*"));
-
-                    if(!src.isEmpty() && src.get(0).equals("*")) src.remove(0);
-                    if(!src.isEmpty() && src.get(0).equals("/")) src.remove(0);
-                } else tokens.add(new Token(value, TokenType.BinaryOperator, line));
-            }
-//            else if(ranges.contains(src.get(0))) tokens.add(new Token(src.remove(0), TokenType.Range));
-            else if(src.get(0).equals("=")) tokens.add(new Token(src.remove(0), TokenType.Equals, line));
-            else if(src.get(0).equals("≠")) tokens.add(new Token(src.remove(0), TokenType.ComparisonOperator, line));
-            else if(src.get(0).equals("≤")) tokens.add(new Token(src.remove(0), TokenType.ComparisonOperator, line));
-            else if(src.get(0).equals("≥")) tokens.add(new Token(src.remove(0), TokenType.ComparisonOperator, line));
-            else if(src.get(0).equals("!")) {
-                String value = src.remove(0);
-
-                if(!src.isEmpty() && src.get(0).equals("=")) {
-                    value += src.remove(0);
-                    tokens.add(new Token(value, TokenType.ComparisonOperator, line));
-                } else throw new UnrecognizedCharacterException(src.get(0));
-            } else if(src.get(0).equals("<")) {
-                String value = src.remove(0);
-
-                if(!src.isEmpty() && src.get(0).equals("-")) {
-                    value += src.remove(0);
-                    tokens.add(new Token(value, TokenType.Assignment, line));
-                } else if(!src.isEmpty() && src.get(0).equals("<")) {
-                    value += src.remove(0);
-                    tokens.add(new Token(value, TokenType.ShiftOperator, line));
-                } else if(!src.isEmpty() && src.get(0).equals("=")) {
-                    value += src.remove(0);
-                    tokens.add(new Token(value, TokenType.ComparisonOperator, line));
-                } else tokens.add(new Token(value, TokenType.ComparisonOperator, line));
-            } else if(src.get(0).equals(">")) {
-                String value = src.remove(0);
-
-                if(!src.isEmpty() && src.get(0).equals(">")) {
-                    value += src.remove(0);
-                    tokens.add(new Token(value, TokenType.ShiftOperator, line));
-                } else if(!src.isEmpty() && src.get(0).equals("=")) {
-                    value += src.remove(0);
-                    tokens.add(new Token(value, TokenType.ComparisonOperator, line));
-                } else tokens.add(new Token(value, TokenType.ComparisonOperator, line));
-            } else if(src.get(0).equals(":")) {
-                String value = src.remove(0);
-
-                if(!src.isEmpty() && src.get(0).equals("=")) {
-                    value += src.remove(0);
-                    tokens.add(new Token(value, TokenType.Assignment, line));
-                } else tokens.add(new Token(value, TokenType.Colon, line));
-            }
-            else if(src.get(0).equals("∨")) tokens.add(new Token(src.remove(0), TokenType.LogicalOperator, line));
-            else if(src.get(0).equals("∧")) tokens.add(new Token(src.remove(0), TokenType.LogicalOperator, line));
-            else if(src.get(0).equals("¬")) tokens.add(new Token(src.remove(0), TokenType.LogicalOperator, line));
-            else if(src.get(0).equals("⊕")) tokens.add(new Token(src.remove(0), TokenType.LogicalOperator, line));
-            else if(src.get(0).equals("~")) tokens.add(new Token(src.remove(0), TokenType.BitwiseOperator, line));
-            else if(src.get(0).equals("&")) tokens.add(new Token(src.remove(0), TokenType.BitwiseOperator, line));
-            else if(src.get(0).equals("|")) tokens.add(new Token(src.remove(0), TokenType.BitwiseOperator, line));
-            else if(src.get(0).equals("^")) tokens.add(new Token(src.remove(0), TokenType.BitwiseOperator, line));
-            else if(src.get(0).equals(";")) tokens.add(new Token(src.remove(0), TokenType.Semicolon, line));
-            else if(src.get(0).equals(",")) tokens.add(new Token(src.remove(0), TokenType.Comma, line));
-            else if(src.get(0).equals(".")) tokens.add(new Token(src.remove(0), TokenType.Dot, line));
-            else if(src.get(0).equals("\"")) {
-                tokens.add(new Token(src.remove(0), TokenType.Quote, line));
-                StringBuilder value = new StringBuilder();
-                if(!src.isEmpty() && !src.get(0).equals("\"")) {
-                    while(!src.isEmpty() && !src.get(0).equals("\"")) {
-                        if(src.get(0).equals("\\")) value.append(src.remove(0));
-                        value.append(src.remove(0));
-                    }
-                }
-                tokens.add(new Token(value.toString(), TokenType.Text, line));
+        final Lexer lexer = new Lexer(source.toCharArray());
+        final List<Token> tokens = new ArrayList<>();
+        Token token;
 
-                try {
-                    if (src.get(0).equals("\"")) tokens.add(new Token(src.remove(0), TokenType.Quote, line));
-                    else throw new StringTerminationException('\"');
-                } catch(IndexOutOfBoundsException e) {
-                    throw new StringTerminationException('\"');
-                }
+        try {
+            do tokens.add(token = lexer.next());
+            while(token.type() != TokenType.EndOfFile);
+        } catch(IOException e) {
+            // An in-memory source is never read from an input, so this cannot happen.
+            throw new UncheckedIOException(e);
+        }
 
-            } else if(src.get(0).equals("'")) {
-                tokens.add(new Token(src.remove(0), TokenType.Apostrophe, line));
-                if(!src.isEmpty() && !src.get(0).equals("''")) {
-                    StringBuilder value = new StringBuilder();
-                    while(!src.isEmpty() && !src.get(0).equals("'")) {
-                        if(src.get(0).equals("\\")) src.remove(0);
-                        value.append(src.remove(0));
-                    }
-                    tokens.add(new Token(value.toString(), TokenType.Character, line));
-                }
+        return tokens;
+    }
 
-                try {
-                    if (src.get(0).equals("'")) tokens.add(new Token(src.remove(0), TokenType.Apostrophe, line));
-                    else throw new StringTerminationException('\'');
-                } catch(IndexOutOfBoundsException e) {
-                    throw new StringTerminationException('\"');
-                }
+    /**
+     * Converts the input source string into a compact {@link TokenBuffer} by analyzing its content.
+     * Unlike {@link #tokenize(String)}, no {@link Token} objects are created.
+     *
+     * @param source The source string to be tokenized.
+     * @return A {@link TokenBuffer} holding the tokens of the source.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     */
+    public static TokenBuffer tokenizeCompact(String source) throws UnrecognizedCharacterException, StringTerminationException {
+        final TokenBuffer buffer = new TokenBuffer(source.toCharArray());
+        final Lexer lexer = new Lexer(buffer);
+
+        try {
+            while(lexer.advance());
+        } catch(IOException e) {
+            // An in-memory source is never read from an input, so this cannot happen.
+            throw new UncheckedIOException(e);
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Updates the tokens of a source after an edit, re-scanning only the part of the source affected by it.<br><br>
+     *
+     * Scanning restarts at the start of the line containing the edit, which is always outside string literals and comments,
+     * since new line tokens are never produced inside them. Once the scan passes the edited text and reaches a token
+     * which starts a lexeme exactly where a lexeme of the previous tokens started, the rest of the tokens is known to be
+     * the same, and it is only shifted by the length difference of the edit and the number of new lines it added or removed.
+     * The buffer is updated in place, so the cost of an edit does not depend on the length of the source.
+     *
+     * @param tokens The tokens of the source before the edit, updated in place. The buffer must be fully tokenized,
+     *               i.e. end with the {@link TokenType#EndOfFile} token.
+     * @param offset The offset in the source at which the edit starts.
+     * @param removed The number of characters removed from the source at the given offset.
+     * @param inserted The text inserted at the given offset.
+     * @return A {@link TokenDelta} describing the range of tokens that changed.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     *                                    The buffer is left in an unspecified state and has to be tokenized again.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     *                                        The buffer is left in an unspecified state and has to be tokenized again.
+     */
+    public static TokenDelta relex(TokenBuffer tokens, int offset, int removed, String inserted) throws UnrecognizedCharacterException, StringTerminationException {
+        int first = tokens.count(offset);
+        while(first > 0 && tokens.type(first - 1) != TokenType.NewLine) first--;
 
-            } else if(src.get(0).equals("∈")) tokens.add(new Token(src.remove(0), TokenType.InRange, line));
-            else if(src.get(0).equals("∞")) tokens.add(new Token(src.remove(0), TokenType.Identifier, line));
-            else if(src.get(0).charAt(0) == 9) {
-                tokens.add(new Token("\\t", TokenType.Indent, line));
-                src.remove(0);
-            } else if(src.get(0).equals("\n")) {
-                tokens.add(new Token("\\n", TokenType.NewLine, line));
-                line++;
-                src.remove(0);
-            } else if(src.get(0).equals("\r")) {
-                src.remove(0);
-            } else {
-                if(Character.isDigit(src.get(0).codePointAt(0))) {
-                    StringBuilder value = new StringBuilder();
-                    while(!src.isEmpty() && (Character.isDigit(src.get(0).codePointAt(0)) || src.get(0).equals("."))) {
-                        value.append(src.remove(0));
-                    }
-                    tokens.add(new Token(value.toString(), TokenType.Number, line));
-                } else if(Character.isAlphabetic(src.get(0).charAt(0))) {
-                    StringBuilder value = new StringBuilder();
-                    while(!src.isEmpty() && (Character.isAlphabetic(src.get(0).codePointAt(0)) || src.get(0).equals("_") || src.get(0).equals("*"))) {
-                        value.append(src.remove(0));
-                    }
-                    tokens.add(new Token(value.toString(), keywords.getOrDefault(value.toString(), TokenType.Identifier), line));
-                } else if(src.get(0).equals(" ")) {
-                    src.remove(0);
-                    if(!src.isEmpty() && src.get(0).equals(" ")) {
-                        int length = 1;
-                        while(!src.isEmpty() && src.get(0).equals(" ") && length < 4) {
-                            src.remove(0);
-                            length++;
-                        }
-                        tokens.add(new Token("\\t", TokenType.Indent, line));
-                    }
+        final int restart = first > 0 ? tokens.end(first - 1) : 0;
+        final int line = first > 0 ? tokens.line(first - 1) + 1 : 1;
+        tokens.edit(first, offset, removed, inserted);
+
+        final TokenBuffer scanned = new TokenBuffer(tokens.source(), tokens.length());
+        final Lexer lexer = new Lexer(scanned, restart, line);
+        final int edited = offset + inserted.length();
+        int next = first;
+        int line_shift = 0;
+
+        try {
+            while(true) {
+                final int emitted = scanned.size();
+                if(!lexer.advance()) {
+                    next = tokens.size();
+                    break;
                 }
-                else {
-                    throw new UnrecognizedCharacterException(src.get(0));
+                if(scanned.size() == emitted || scanned.start(emitted) < edited) continue;
+
+                // The tokens between the line start and the end of the edit are shifted as well,
+                // but they all end up before the edited text, so they are skipped here.
+                final int start = scanned.start(emitted);
+                while(next < tokens.size() && (tokens.start(next) < start || tokens.start(next) == start && !tokens.isLexemeStart(next))) next++;
+
+                if(next < tokens.size() && tokens.start(next) == start) {
+                    line_shift = scanned.line(emitted) - tokens.line(next);
+                    scanned.truncate(emitted);
+                    break;
                 }
             }
+        } catch(IOException e) {
+            // An in-memory source is never read from an input, so this cannot happen.
+            throw new UncheckedIOException(e);
         }
-        tokens.add(new Token("EndOfFile", TokenType.EndOfFile, line));
 
-        return tokens;
+        tokens.replace(first, next - first, scanned, line_shift);
+        return new TokenDelta(tokens, first, next - first, scanned.size());
     }
 }
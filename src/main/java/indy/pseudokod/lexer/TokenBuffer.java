@@ -0,0 +1,392 @@
+package indy.pseudokod.lexer;
+
+import indy.pseudokod.utils.SymbolTable;
+
+import java.util.Arrays;
+
+/**
+ * Represents a compact, struct-of-arrays storage of the tokens of an in-memory source.<br><br>
+ *
+ * Instead of keeping a {@link Token} object with its own {@link String} value for every token,
+ * the buffer stores the type ordinals in a {@code byte[]} and the start offsets, end offsets and lines in {@code int[]} arrays.
+ * Values are sliced from the source only when they are requested, and the values of tokens whose text
+ * is implied by their {@link TokenType} (such as parentheses or commas) are never sliced at all.
+ * {@link Token} objects are materialized only on demand, e.g. for error messages.<br><br>
+ *
+ * To support {@link Lexer#relex(TokenBuffer, int, int, String) incremental re-scanning}, the arrays are gap buffers.
+ * The tokens before the gap store their offsets and lines as they are, while the tokens after the gap store them
+ * relative to a shared shift, so an edit moves all the following tokens by updating the shift alone,
+ * and the cost of an edit depends only on its distance from the previous one.
+ */
+public class TokenBuffer {
+    private static final TokenType[] token_types = TokenType.values();
+
+    private char[] source;
+    private int length;
+    private byte[] types;
+    private int[] starts;
+    private int[] ends;
+    private int[] lines;
+    private int size;
+    private int gap;
+    private int shift;
+    private int line_shift;
+
+    /**
+     * Constructs a new, empty instance of {@link TokenBuffer} for the given source characters.
+     *
+     * @param source The characters of the source code the tokens are sliced from.
+     */
+    public TokenBuffer(char[] source) {
+        this(source, source.length);
+    }
+
+    /**
+     * Constructs a new, empty instance of {@link TokenBuffer} for the given number of leading source characters.
+     *
+     * @param source The array holding the characters of the source code the tokens are sliced from.
+     * @param length The number of characters of the source code in the array.
+     */
+    TokenBuffer(char[] source, int length) {
+        this.source = source;
+        this.length = length;
+        this.types = new byte[64];
+        this.starts = new int[64];
+        this.ends = new int[64];
+        this.lines = new int[64];
+        this.size = 0;
+        this.gap = 0;
+        this.shift = 0;
+        this.line_shift = 0;
+    }
+
+    /**
+     * Appends a new token to the buffer.
+     *
+     * @param type The type of the token.
+     * @param start The offset of the first character of the token in the source.
+     * @param end The offset after the last character of the token in the source.
+     * @param line The line number where the token appears in the source code.
+     */
+    public void add(TokenType type, int start, int end, int line) {
+        this.moveGap(this.size);
+        if(this.size == this.types.length) this.grow(this.size + 1);
+
+        this.types[this.gap] = (byte) type.ordinal();
+        this.starts[this.gap] = start;
+        this.ends[this.gap] = end;
+        this.lines[this.gap] = line;
+        this.gap++;
+        this.size++;
+    }
+
+    /**
+     * @return The array holding the characters of the source code the tokens are sliced from.
+     *         Only the first {@link #length()} characters of the array belong to the source.
+     */
+    public char[] source() {
+        return this.source;
+    }
+
+    /**
+     * @return The number of characters of the source code.
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * @return The amount of tokens in the buffer.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param index The index of the token.
+     * @return The {@link TokenType} of the token at the given index.
+     */
+    public TokenType type(int index) {
+        return token_types[this.types[this.physical(index)]];
+    }
+
+    /**
+     * @param index The index of the token.
+     * @return The offset of the first character of the token at the given index.
+     */
+    public int start(int index) {
+        return index < this.gap ? this.starts[index] : this.starts[this.physical(index)] + this.shift;
+    }
+
+    /**
+     * @param index The index of the token.
+     * @return The offset after the last character of the token at the given index.
+     */
+    public int end(int index) {
+        return index < this.gap ? this.ends[index] : this.ends[this.physical(index)] + this.shift;
+    }
+
+    /**
+     * @param index The index of the token.
+     * @return The line number where the token at the given index appears.
+     */
+    public int line(int index) {
+        return index < this.gap ? this.lines[index] : this.lines[this.physical(index)] + this.line_shift;
+    }
+
+    /**
+     * @param index The index of the token.
+     * @return The textual value of the token at the given index.
+     */
+    public String value(int index) {
+        return text(this.type(index), this.source, this.start(index), this.end(index));
+    }
+
+    /**
+     * Counts the tokens that end at or before the given offset in the source.
+     *
+     * @param offset The offset in the source.
+     * @return The number of tokens whose end offset is not greater than the given offset.
+     */
+    public int count(int offset) {
+        int low = 0, high = this.size;
+
+        while(low < high) {
+            final int middle = (low + high) >>> 1;
+            if(this.end(middle) <= offset) low = middle + 1;
+            else high = middle;
+        }
+
+        return low;
+    }
+
+    /**
+     * Checks if the token at the given index is the first token scanned from its lexeme, i.e. the scan of the source
+     * started at the beginning of the token. This is not the case for the contents and closing marks of string and character literals.
+     *
+     * @param index The index of the token.
+     * @return {@code true} if the token starts a lexeme, {@code false} otherwise.
+     */
+    boolean isLexemeStart(int index) {
+        return switch(this.type(index)) {
+            case Text, Character -> false;
+            case Quote -> index == 0 || this.type(index - 1) != TokenType.Text;
+            case Apostrophe -> index == 0 || this.type(index - 1) != TokenType.Character;
+            default -> true;
+        };
+    }
+
+    /**
+     * Applies an edit to the source in place. The tokens from the given index onwards are moved after the gap,
+     * so they are shifted by the length difference of the edit. Their offsets are correct only past the edit,
+     * and they are expected to be replaced up to that point with {@link #replace(int, int, TokenBuffer, int)}.
+     *
+     * @param index The index of the first token affected by the edit.
+     * @param offset The offset in the source at which the edit starts.
+     * @param removed The number of characters removed from the source at the given offset.
+     * @param inserted The text inserted at the given offset.
+     */
+    void edit(int index, int offset, int removed, String inserted) {
+        final int length = this.length - removed + inserted.length();
+        if(length > this.source.length) this.source = Arrays.copyOf(this.source, Math.max(length, this.source.length + (this.source.length >> 1)));
+
+        System.arraycopy(this.source, offset + removed, this.source, offset + inserted.length(), this.length - offset - removed);
+        inserted.getChars(0, inserted.length(), this.source, offset);
+
+        this.moveGap(index);
+        this.shift += length - this.length;
+        this.length = length;
+    }
+
+    /**
+     * Replaces the tokens starting at the given index, which must be the index of the gap, with the tokens of another buffer.
+     * The tokens following the replaced ones are moved by the given number of lines.
+     *
+     * @param index The index of the first replaced token.
+     * @param removed The number of replaced tokens.
+     * @param inserted The buffer holding the tokens inserted in place of the replaced ones.
+     * @param line_shift The number of lines by which the following tokens are moved.
+     */
+    void replace(int index, int removed, TokenBuffer inserted, int line_shift) {
+        this.moveGap(index);
+        this.size -= removed;
+        if(this.size + inserted.size > this.types.length) this.grow(this.size + inserted.size);
+
+        for(int i = 0; i < inserted.size; i++) {
+            this.types[this.gap] = inserted.types[inserted.physical(i)];
+            this.starts[this.gap] = inserted.start(i);
+            this.ends[this.gap] = inserted.end(i);
+            this.lines[this.gap] = inserted.line(i);
+            this.gap++;
+        }
+
+        this.size += inserted.size;
+        this.line_shift += line_shift;
+    }
+
+    /**
+     * Removes the tokens from the given index onwards.
+     *
+     * @param size The new amount of tokens in the buffer.
+     */
+    void truncate(int size) {
+        this.moveGap(size);
+        this.size = size;
+    }
+
+    /**
+     * Maps the index of a token to its index in the arrays, skipping the gap.
+     *
+     * @param index The index of the token.
+     * @return The index of the token in the arrays.
+     */
+    private int physical(int index) {
+        return index < this.gap ? index : index + this.types.length - this.size;
+    }
+
+    /**
+     * Moves the gap to the given index, converting the offsets and lines of the tokens that cross it.
+     *
+     * @param index The index of the first token after the gap.
+     */
+    private void moveGap(int index) {
+        final int width = this.types.length - this.size;
+
+        if(index < this.gap) {
+            final int count = this.gap - index;
+            this.move(index, index + width, count);
+            for(int i = index + width; i < index + width + count; i++) {
+                this.starts[i] -= this.shift;
+                this.ends[i] -= this.shift;
+                this.lines[i] -= this.line_shift;
+            }
+        } else if(index > this.gap) {
+            final int count = index - this.gap;
+            this.move(this.gap + width, this.gap, count);
+            for(int i = this.gap; i < index; i++) {
+                this.starts[i] += this.shift;
+                this.ends[i] += this.shift;
+                this.lines[i] += this.line_shift;
+            }
+        }
+
+        this.gap = index;
+    }
+
+    /**
+     * Copies a range of tokens within the arrays.
+     *
+     * @param from The index in the arrays of the first copied token.
+     * @param to The index in the arrays the first token is copied to.
+     * @param count The number of copied tokens.
+     */
+    private void move(int from, int to, int count) {
+        System.arraycopy(this.types, from, this.types, to, count);
+        System.arraycopy(this.starts, from, this.starts, to, count);
+        System.arraycopy(this.ends, from, this.ends, to, count);
+        System.arraycopy(this.lines, from, this.lines, to, count);
+    }
+
+    /**
+     * Grows the arrays to hold at least the given number of tokens, keeping the tokens after the gap at their end.
+     *
+     * @param capacity The minimum number of tokens the arrays have to hold.
+     */
+    private void grow(int capacity) {
+        final int length = Math.max(capacity, this.types.length * 2);
+        final int tail = this.size - this.gap;
+        final int from = this.types.length - tail;
+
+        final byte[] types = Arrays.copyOf(this.types, length);
+        final int[] starts = Arrays.copyOf(this.starts, length);
+        final int[] ends = Arrays.copyOf(this.ends, length);
+        final int[] lines = Arrays.copyOf(this.lines, length);
+
+        System.arraycopy(this.types, from, types, length - tail, tail);
+        System.arraycopy(this.starts, from, starts, length - tail, tail);
+        System.arraycopy(this.ends, from, ends, length - tail, tail);
+        System.arraycopy(this.lines, from, lines, length - tail, tail);
+
+        this.types = types;
+        this.starts = starts;
+        this.ends = ends;
+        this.lines = lines;
+    }
+
+    /**
+     * Checks if the textual value of the token at the given index equals the given text, without slicing it from the source.
+     *
+     * @param index The index of the token.
+     * @param text The text to compare the value with.
+     * @return {@code true} if the value of the token equals the text, {@code false} otherwise.
+     */
+    public boolean matches(int index, String text) {
+        switch(this.type(index)) {
+            case Character, Indent, NewLine, EndOfFile:
+                return this.value(index).equals(text);
+        }
+
+        final int start = this.start(index);
+        final int length = this.end(index) - start;
+        if(length != text.length()) return false;
+
+        for(int i = 0; i < length; i++) if(this.source[start + i] != text.charAt(i)) return false;
+        return true;
+    }
+
+    /**
+     * Materializes the token at the given index as a {@link Token} object.
+     *
+     * @param index The index of the token.
+     * @return The {@link Token} at the given index.
+     */
+    public Token token(int index) {
+        return new Token(this.value(index), this.type(index), this.line(index));
+    }
+
+    /**
+     * Computes the textual value of a token from its type and the characters it spans.
+     * Tokens whose text is implied by their type get a shared constant value, character literals have
+     * their backslashes removed, identifiers, keywords and operators are interned in the {@link SymbolTable},
+     * and all other tokens are sliced from the characters as they are.
+     *
+     * @param type The type of the token.
+     * @param characters The characters the token is sliced from.
+     * @param start The offset of the first character of the token.
+     * @param end The offset after the last character of the token.
+     * @return The textual value of the token.
+     */
+    static String text(TokenType type, char[] characters, int start, int end) {
+        return switch(type) {
+            case OpenParenthesis -> "(";
+            case CloseParenthesis -> ")";
+            case OpenBracket -> "[";
+            case CloseBracket -> "]";
+            case OpenBrace -> "{";
+            case CloseBrace -> "}";
+            case Equals -> "=";
+            case Colon -> ":";
+            case Semicolon -> ";";
+            case Comma -> ",";
+            case Dot -> ".";
+            case Quote -> "\"";
+            case Apostrophe -> "'";
+            case Indent -> "\\t";
+            case NewLine -> "\\n";
+            case EndOfFile -> "EndOfFile";
+            case Character -> {
+                final StringBuilder value = new StringBuilder(end - start);
+                for(int i = start; i < end; i++) {
+                    if(characters[i] == '\\') i++;
+                    value.append(characters[i]);
+                }
+                yield value.toString();
+            }
+            case Identifier, DataToken, DataType, InRange, LogicalOperator, ModulusOperator, DivOperator, PrintFunction, GetFunction,
+                 IfStatement, ElseStatement, ForStatement, WhileStatement, DoStatement, Function, ResultToken, ReturnToken, ImportToken,
+                 BinaryOperator, ComparisonOperator, BitwiseOperator, ShiftOperator ->
+                    SymbolTable.intern(characters, start, end);
+            default -> new String(characters, start, end - start);
+        };
+    }
+}
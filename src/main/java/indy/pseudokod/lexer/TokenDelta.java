@@ -0,0 +1,15 @@
+package indy.pseudokod.lexer;
+
+/**
+ * Represents the result of re-scanning a source after an edit with {@link Lexer#relex(TokenBuffer, int, int, String)}.<br><br>
+ *
+ * The tokens in the range {@code [start, start + inserted)} of the updated buffer replace the tokens in the range
+ * {@code [start, start + removed)} of the buffer before the edit. The tokens before the range are unchanged, and the tokens
+ * after it are the same tokens, moved by the length difference of the edit and by the number of lines it added or removed.
+ *
+ * @param tokens The updated tokens of the edited source.
+ * @param start The index of the first changed token.
+ * @param removed The number of tokens of the previous buffer that were replaced.
+ * @param inserted The number of re-scanned tokens in the new buffer.
+ */
+public record TokenDelta(TokenBuffer tokens, int start, int removed, int inserted) {}
@@ -0,0 +1,328 @@
+package indy.pseudokod.lexer;
+
+import indy.pseudokod.exceptions.StringTerminationException;
+import indy.pseudokod.exceptions.UnrecognizedCharacterException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents a lazy stream of tokens produced by the {@link Lexer} on demand.<br><br>
+ *
+ * Unlike {@link Lexer#tokenize(String)}, the stream does not materialize the whole list of tokens.
+ * Tokens are scanned only when they are requested. When the stream reads from a {@link Reader} or a {@link MappedByteBuffer},
+ * only the tokens looked ahead with {@link #peek(int)} are kept in memory, so the source code does not have to be kept in memory either.
+ * When the source is already in memory, the tokens are stored in a compact {@link TokenBuffer}, and {@link Token}
+ * objects are created only when {@link #peek(int)} or {@link #next()} is called, e.g. for error messages.
+ */
+public class TokenStream {
+    private final Lexer lexer;
+    private final TokenBuffer buffer;
+    private int index;
+    private int furthest;
+    private Token[] lookahead;
+    private int head;
+    private int size;
+
+    /**
+     * Constructs a new instance of {@link TokenStream} over the given source string.
+     * The tokens are stored in a {@link TokenBuffer} as they are scanned.
+     *
+     * @param source The source string to be tokenized.
+     */
+    public TokenStream(String source) {
+        this(new TokenBuffer(source.toCharArray()));
+    }
+
+    /**
+     * Constructs a new instance of {@link TokenStream} over the given {@link TokenBuffer}.
+     * If the buffer does not end with the {@link TokenType#EndOfFile} token yet, the rest of its source is scanned on demand.
+     *
+     * @param buffer The buffer holding the tokens and the characters of the source code.
+     */
+    public TokenStream(TokenBuffer buffer) {
+        this.buffer = buffer;
+        this.lexer = buffer.size() > 0 && buffer.type(buffer.size() - 1) == TokenType.EndOfFile ? null : new Lexer(buffer);
+        this.index = 0;
+        this.furthest = 0;
+    }
+
+    /**
+     * Constructs a new instance of {@link TokenStream} over the part of the given source string starting at the given offset.
+     * The offsets of the tokens are still counted from the start of the whole source.
+     *
+     * @param source The source string to be tokenized.
+     * @param offset The offset at which scanning starts. It must not be inside a string literal, a comment or a lexeme.
+     * @param line The line number at the given offset.
+     */
+    public TokenStream(String source, int offset, int line) {
+        this.buffer = new TokenBuffer(source.toCharArray());
+        this.lexer = new Lexer(this.buffer, offset, line);
+        this.index = 0;
+        this.furthest = 0;
+    }
+
+    /**
+     * Constructs a new instance of {@link TokenStream} reading the source code from the given {@link Reader}.
+     *
+     * @param reader The reader from which the source code is read.
+     */
+    public TokenStream(Reader reader) {
+        this(new Lexer(reader));
+    }
+
+    /**
+     * Constructs a new instance of {@link TokenStream} decoding the UTF-8 source code from the given {@link MappedByteBuffer}.
+     *
+     * @param buffer The memory-mapped file containing the source code.
+     */
+    public TokenStream(MappedByteBuffer buffer) {
+        this(new Lexer(new DecodingReadable(buffer)));
+    }
+
+    /**
+     * Constructs a new instance of {@link TokenStream} reading tokens from the given {@link Lexer}.
+     *
+     * @param lexer The lexer producing the tokens.
+     */
+    private TokenStream(Lexer lexer) {
+        this.lexer = lexer;
+        this.buffer = null;
+        this.lookahead = new Token[8];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Retrieves the token at the given distance from the current position without consuming it.
+     *
+     * @param k The distance from the current position, {@code 0} being the current token.
+     * @return The {@link Token} at the given distance, or the {@link TokenType#EndOfFile} token if the source ends before it.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    public Token peek(int k) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        if(this.buffer != null) return this.buffer.token(this.locate(k));
+
+        while(this.size <= k) {
+            if(this.size == this.lookahead.length) this.grow();
+            this.lookahead[(this.head + this.size) & (this.lookahead.length - 1)] = this.lexer.next();
+            this.size++;
+        }
+
+        return this.lookahead[(this.head + k) & (this.lookahead.length - 1)];
+    }
+
+    /**
+     * Consumes and returns the current token. Once the end of the source is reached,
+     * the {@link TokenType#EndOfFile} token is returned on every call.
+     *
+     * @return The current {@link Token}.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    public Token next() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        final Token token = this.peek(0);
+        this.advance();
+
+        return token;
+    }
+
+    /**
+     * Retrieves the type of the token at the given distance from the current position without consuming it.
+     *
+     * @param k The distance from the current position, {@code 0} being the current token.
+     * @return The {@link TokenType} of the token at the given distance.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    public TokenType type(int k) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        if(this.buffer != null) return this.buffer.type(this.locate(k));
+        return this.peek(k).type();
+    }
+
+    /**
+     * Retrieves the textual value of the token at the given distance from the current position without consuming it.
+     *
+     * @param k The distance from the current position, {@code 0} being the current token.
+     * @return The textual value of the token at the given distance.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    public String value(int k) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        if(this.buffer != null) return this.buffer.value(this.locate(k));
+        return this.peek(k).value();
+    }
+
+    /**
+     * Checks if the textual value of the token at the given distance from the current position equals the given text.
+     *
+     * @param k The distance from the current position, {@code 0} being the current token.
+     * @param text The text to compare the value with.
+     * @return {@code true} if the value of the token equals the text, {@code false} otherwise.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    public boolean matches(int k, String text) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        if(this.buffer != null) return this.buffer.matches(this.locate(k), text);
+        return this.peek(k).value().equals(text);
+    }
+
+    /**
+     * Retrieves the line number of the token at the given distance from the current position without consuming it.
+     *
+     * @param k The distance from the current position, {@code 0} being the current token.
+     * @return The line number of the token at the given distance.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    public int line(int k) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        if(this.buffer != null) return this.buffer.line(this.locate(k));
+        return this.peek(k).line();
+    }
+
+    /**
+     * Checks if the stream keeps the source code and its tokens in memory,
+     * in which case the offsets of the tokens in the source are known.
+     *
+     * @return {@code true} if the tokens are stored in a {@link TokenBuffer}, {@code false} if they are streamed.
+     */
+    public boolean isBuffered() {
+        return this.buffer != null;
+    }
+
+    /**
+     * Retrieves the offset in the source of the first character of the token at the given distance from the current position.
+     *
+     * @param k The distance from the current position, {@code 0} being the current token and {@code -1} the last consumed one.
+     * @return The offset of the token, or {@code -1} if the stream is not buffered.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    public int start(int k) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        return this.buffer != null ? this.buffer.start(this.locate(k)) : -1;
+    }
+
+    /**
+     * Retrieves the offset in the source after the last character of the token at the given distance from the current position.
+     *
+     * @param k The distance from the current position, {@code 0} being the current token and {@code -1} the last consumed one.
+     * @return The offset after the token, or {@code -1} if the stream is not buffered.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    public int end(int k) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        return this.buffer != null ? this.buffer.end(this.locate(k)) : -1;
+    }
+
+    /**
+     * Retrieves the offset in the source after the furthest token that has been looked at so far.
+     * The characters up to and including the one at this offset are all that the consumer of the stream
+     * has depended on, since the lexer decides where a token ends by looking at the character following it.
+     *
+     * @return The offset after the furthest token looked at, or {@code -1} if the stream is not buffered.
+     */
+    public int reach() {
+        return this.buffer != null ? this.buffer.end(this.furthest) : -1;
+    }
+
+    /**
+     * Consumes the current token without materializing it. Once the end of the source is reached, this method does nothing.
+     *
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    public void advance() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        if(this.type(0) == TokenType.EndOfFile) return;
+
+        if(this.buffer != null) {
+            this.index++;
+            return;
+        }
+
+        this.lookahead[this.head] = null;
+        this.head = (this.head + 1) & (this.lookahead.length - 1);
+        this.size--;
+    }
+
+    /**
+     * Finds the index in the {@link TokenBuffer} of the token at the given distance from the current position,
+     * scanning the source further if needed.
+     *
+     * @param k The distance from the current position.
+     * @return The index of the token, or the index of the {@link TokenType#EndOfFile} token if the source ends before it.
+     * @throws StringTerminationException Thrown if a string literal is not properly terminated with a quote character.
+     * @throws UnrecognizedCharacterException Thrown if an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    private int locate(int k) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        while(this.index + k >= this.buffer.size() && this.lexer != null && this.lexer.advance());
+
+        final int index = Math.min(this.index + k, this.buffer.size() - 1);
+        if(index > this.furthest) this.furthest = index;
+        return index;
+    }
+
+    /**
+     * Doubles the capacity of the lookahead buffer, keeping the tokens in order.
+     */
+    private void grow() {
+        final Token[] lookahead = new Token[this.lookahead.length * 2];
+
+        for(int i = 0; i < this.size; i++)
+            lookahead[i] = this.lookahead[(this.head + i) & (this.lookahead.length - 1)];
+
+        this.lookahead = lookahead;
+        this.head = 0;
+    }
+
+    /**
+     * A {@link Readable} decoding UTF-8 characters from a {@link ByteBuffer} chunk by chunk,
+     * so the decoded source never has to be kept in memory as a whole.
+     */
+    private static class DecodingReadable implements Readable {
+        private final ByteBuffer buffer;
+        private final CharsetDecoder decoder;
+        private boolean flushed;
+
+        /**
+         * Constructs a new instance of {@link DecodingReadable} over the given buffer.
+         *
+         * @param buffer The buffer containing UTF-8 encoded characters.
+         */
+        private DecodingReadable(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.decoder = StandardCharsets.UTF_8.newDecoder();
+            this.flushed = false;
+        }
+
+        @Override
+        public int read(CharBuffer target) throws IOException {
+            if(this.flushed) return -1;
+            final int start = target.position();
+
+            final CoderResult result = this.decoder.decode(this.buffer, target, true);
+            if(result.isError()) result.throwException();
+
+            if(!this.buffer.hasRemaining() && this.decoder.flush(target).isUnderflow()) this.flushed = true;
+
+            final int read = target.position() - start;
+            return read == 0 && this.flushed ? -1 : read;
+        }
+    }
+}
@@ -19,6 +19,12 @@
  * <p>Key Components:</p>
  * <ul>
  *   <li>Lexer Engine: Handles the core logic of breaking source code into tokens.</li>
+ *   <li>Token Stream: Produces tokens lazily, on demand of the parser, from a string,
+ *       a reader or a memory-mapped file.</li>
+ *   <li>Token Buffer: Stores the tokens of an in-memory source compactly, as parallel arrays
+ *       of types, offsets and lines.</li>
+ *   <li>Incremental Re-scanning: Updates a token buffer after an edit of the source, re-scanning only
+ *       the affected lines, and reports the changed range of tokens as a {@link indy.pseudokod.lexer.TokenDelta}.</li>
  *   <li>Token Definitions: Contains representations for various token types,
  *       such as {@link indy.pseudokod.lexer.TokenType#Identifier}, {@link indy.pseudokod.lexer.TokenType#Number},
  *       or {@link indy.pseudokod.lexer.TokenType#BinaryOperator}.</li>
@@ -32,6 +38,9 @@
  *
  * @see indy.pseudokod.lexer.Lexer
  * @see indy.pseudokod.lexer.Token
+ * @see indy.pseudokod.lexer.TokenBuffer
+ * @see indy.pseudokod.lexer.TokenDelta
+ * @see indy.pseudokod.lexer.TokenStream
  * @see indy.pseudokod.lexer.TokenType
  */
 package indy.pseudokod.lexer;
\ No newline at end of file
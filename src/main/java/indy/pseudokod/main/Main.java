@@ -1,23 +1,38 @@
 package indy.pseudokod.main;
 
+import indy.pseudokod.aot.JarCompiler;
+import indy.pseudokod.aot.ProgramBundle;
 import indy.pseudokod.ast.Program;
 import indy.pseudokod.environment.Environment;
 import indy.pseudokod.exceptions.DataTypeMismatchException;
+import indy.pseudokod.exceptions.UnknownEngineException;
 import indy.pseudokod.exceptions.VariableDeclaredException;
 import indy.pseudokod.functions.Functions;
+import indy.pseudokod.jit.JitCompiler;
+import indy.pseudokod.jit.TieredCompiler;
+import indy.pseudokod.optimizer.Optimizer;
 import indy.pseudokod.parser.Parser;
-import indy.pseudokod.runtime.Interpreter;
+import indy.pseudokod.runtime.Engine;
+import indy.pseudokod.runtime.ModuleRegistry;
+import indy.pseudokod.runtime.Resolver;
+import indy.pseudokod.runtime.exec.SpecializingNode;
 import indy.pseudokod.runtime.values.*;
+import indy.pseudokod.utils.Debug;
 
 import java.io.*;
+import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 public class Main {
     private static Environment env;
+    private static ModuleRegistry modules;
+    private static Engine engine = Engine.Tree;
 
     /**
      * This function sets up the environment for the interpreter,
@@ -29,6 +44,7 @@ public class Main {
      */
     public static void setupEnvironment() throws VariableDeclaredException, DataTypeMismatchException {
         env = new Environment();
+        modules = new ModuleRegistry(env, engine);
         env.declareVariable("true", ValueType.Boolean, true, new BooleanValue(true));
         env.declareVariable("false", ValueType.Boolean, true, new BooleanValue(false));
         env.declareVariable("prawda", ValueType.Boolean, true, new BooleanValue(true));
@@ -41,11 +57,11 @@ public class Main {
         env.declareVariable("π", ValueType.Number, true, new NumberValue(Math.PI));
         env.declareVariable("endl", ValueType.String, true, new StringValue("\n"));
         env.declareVariable("Q", ValueType.Range, true, new RangeValue(-Double.MAX_VALUE, Double.MAX_VALUE, false, false));
-        env.declareVariable("Z", ValueType.Range, true, new RangeValue(-Double.MAX_VALUE, Double.MAX_VALUE, false, false, (n) -> n == n.intValue()));
-        env.declareVariable("Z+", ValueType.Range, true, new RangeValue(0, Double.MAX_VALUE, false, false, (n) -> n == n.intValue()));
-        env.declareVariable("Z-", ValueType.Range, true, new RangeValue(-Double.MAX_VALUE, 0, false, false, (n) -> n == n.intValue()));
-        env.declareVariable("N", ValueType.Range, true, new RangeValue(0, Double.MAX_VALUE, true, false, (n) -> n == n.intValue()));
-        env.declareVariable("N+", ValueType.Range, true, new RangeValue(0, Double.MAX_VALUE, true, false, (n) -> n == n.intValue()));
+        env.declareVariable("Z", ValueType.Range, true, RangeValue.integers(-Double.MAX_VALUE, Double.MAX_VALUE, false, false));
+        env.declareVariable("Z+", ValueType.Range, true, RangeValue.integers(0, Double.MAX_VALUE, false, false));
+        env.declareVariable("Z-", ValueType.Range, true, RangeValue.integers(-Double.MAX_VALUE, 0, false, false));
+        env.declareVariable("N", ValueType.Range, true, RangeValue.integers(0, Double.MAX_VALUE, true, false));
+        env.declareVariable("N+", ValueType.Range, true, RangeValue.integers(0, Double.MAX_VALUE, false, false));
 
         env.declareVariable("date", ValueType.NativeFunction, true, new NativeFunction(Functions::date));
         env.declareVariable("time", ValueType.NativeFunction, true, new NativeFunction(Functions::time));
@@ -98,11 +114,12 @@ public class Main {
             input = scanner.nextLine();
 
             final Parser parser = new Parser();
-            final Program program = parser.produceAST(input);
+            final Program program = Optimizer.optimize(parser.produceAST(input));
 
             if(input.equals("exit")) return;
 
-            Interpreter.evaluate(program, env);
+            Resolver.resolve(program, env);
+            engine.execute(program, env);
             System.out.print("\n");
         }
     }
@@ -110,11 +127,28 @@ public class Main {
     /**
      * This function runs the Pseudokod program located at the specified file path.
      * If the file does not exist in the given path, the function attempts to locate it in the directory of the interpreter.
+     * The program is loaded from its precompiled {@code .pkc} file if the source has not changed since the file was written.
+     * Programs are loaded through a {@link ModuleRegistry}, so a program that has already been run (e.g. imported)
+     * and has not changed since is not run again. If the interpreter is running from a compiled jar,
+     * the programs bundled into it are run instead of the files.
      *
      * @param path The path to the Pseudokod file to be interpreted.
      * @throws Throwable If an error occurs during the execution of the Pseudokod program.
      */
     public static void run(String path) throws Throwable {
+        if(modules.isBundled(path)) modules.loadBundled(path);
+        else modules.load(resolvePath(path));
+    }
+
+    /**
+     * Resolves the path of a Pseudokod file, as given on the command line or in an import statement.
+     * If the file does not exist in the given path, it is looked up in the directory of the interpreter.
+     *
+     * @param path The path to the Pseudokod file.
+     * @return The resolved {@link Path} of the file.
+     * @throws URISyntaxException If the location of the interpreter cannot be determined.
+     */
+    public static Path resolvePath(String path) throws URISyntaxException {
         if(!(new File(path)).exists()) {
             CodeSource source = Main.class.getProtectionDomain().getCodeSource();
             File file = new File(source.getLocation().toURI().getPath());
@@ -122,11 +156,52 @@ public class Main {
             path = dir + "\\" + path;
         }
 
-        final Parser parser = new Parser();
-        final String code = readFile(path);
-        final Program program = parser.produceAST(code);
+        return Paths.get(path);
+    }
+
+    /**
+     * Reads the options of the interpreter from the command-line arguments.
+     * The {@code --engine=<name>} option selects the {@link Engine} executing the programs:
+     * {@code tree} (the default) walks the syntax tree, {@code exec} compiles it into executable nodes first,
+     * {@code jvm} compiles its numeric kernels into JVM classes
+     * and {@code tiered} interprets the syntax tree, compiling the functions and loops that turn out to be hot in the background.
+     * The {@code --hot-calls=<n>} and {@code --hot-loops=<n>} options set the number of calls and loop iterations after which
+     * the {@code tiered} engine compiles a function or a loop, see {@link TieredCompiler}.
+     *
+     * @param args Command-line arguments.
+     * @return The remaining arguments, without the options, in the same order.
+     * @throws UnknownEngineException If the selected engine does not exist.
+     */
+    public static String[] parseOptions(String[] args) throws UnknownEngineException {
+        final List<String> rest = new ArrayList<>();
+
+        for(String arg : args) {
+            if(arg.startsWith("--engine=")) engine = Engine.of(arg.substring("--engine=".length()));
+            else if(arg.startsWith("--hot-calls=")) TieredCompiler.setCallThreshold(Integer.parseInt(arg.substring("--hot-calls=".length())));
+            else if(arg.startsWith("--hot-loops=")) TieredCompiler.setLoopThreshold(Integer.parseInt(arg.substring("--hot-loops=".length())));
+            else rest.add(arg);
+        }
+
+        return rest.toArray(new String[0]);
+    }
+
+    /**
+     * Compiles the program given on the command line into a runnable jar, see {@link JarCompiler}.
+     * The jar runs the program on the engine selected with the {@code --engine=<name>} option.
+     *
+     * @param args Command-line arguments: {@code compile}, the path to the Pseudokod file, and optionally the path to the jar,
+     *             which defaults to the path of the file with the {@code .jar} extension.
+     * @throws Throwable If the program or any of its imports cannot be parsed, or the jar cannot be written.
+     */
+    public static void compile(String[] args) throws Throwable {
+        if(args.length < 2) throw new IllegalArgumentException("Usage: compile <program.pk> [<program.jar>]");
+
+        final Path source = Paths.get(args[1]);
+        final String name = source.getFileName().toString();
+        final Path jar = args.length > 2 ? Paths.get(args[2]) : source.resolveSibling((name.endsWith(".pk") ? name.substring(0, name.length() - 3) : name) + ".jar");
 
-        Interpreter.evaluate(program, env);
+        final int count = JarCompiler.compile(source, jar, engine);
+        System.out.println("Compiled " + count + (count == 1 ? " module" : " modules") + " into " + jar + ".");
     }
 
     /**
@@ -135,17 +210,52 @@ public class Main {
      *
      * @param args Command-line arguments. The first argument can be the path to a Pseudokod file to be executed.
      *             If no argument is provided, the interpreter starts a REPL.
-     *             The second argument, if present, should be "-debug" to display the execution time.
+     *             The second argument, if present, should be "-debug" to display the execution time
+     *             and the statistics of the scopes created, the variables looked up and the optimizations applied,
+     *             and to report the type errors found before the program is executed,
+     *             as well as of the specialized nodes if the program is executed by the {@link Engine#Exec} engine,
+     *             of the compiled kernels if it is executed by the {@link Engine#JVM} engine,
+     *             or of the tier of every function if it is executed by the {@link Engine#Tiered} engine.
+     *             The {@code --engine=<name>} option may be given anywhere, see {@link #parseOptions(String[])}.
+     *             If the first argument is {@code compile}, the program is compiled into a jar instead, see {@link #compile(String[])}.
+     *             A compiled jar runs its bundled program on the engine it was compiled with, and takes only the options and "-debug".
      * @throws Throwable If an error occurs during the execution of the Pseudokod program or the REPL.
      */
     public static void main(String[] args) throws Throwable {
         double start = System.currentTimeMillis();
+        final ProgramBundle bundle = ProgramBundle.open();
+        if(bundle != null) engine = bundle.engine();
+        args = parseOptions(args);
+
+        if(bundle == null && args.length > 0 && args[0].equalsIgnoreCase("compile")) {
+            compile(args);
+            return;
+        }
+
+        final int debug = bundle != null ? 0 : 1;
+        final boolean debugging = args.length > debug && args[debug].equalsIgnoreCase("-debug");
+        if(debugging) System.setProperty(Debug.PROPERTY, "true");
+
         setupEnvironment();
+        Optimizer.setReport(debugging);
+        TieredCompiler.setReport(debugging);
 
-        if(args.length > 0) run(args[0]);
-        else repl();
+        if(bundle != null) {
+            modules.setBundle(bundle);
+            run(bundle.main());
+        } else if(args.length > 0) {
+            modules.setClosed(true);
+            run(args[0]);
+        } else repl();
 
         double end = System.currentTimeMillis();
-        if(args.length > 1 && args[1].equalsIgnoreCase("-debug")) System.out.println("\nCode execution completed with no errors in " + (end - start) / 1000 + " seconds.");
+        if(debugging) {
+            System.out.println("\nCode execution completed with no errors in " + (end - start) / 1000 + " seconds.");
+            System.out.println(Environment.statistics());
+            System.out.println(Optimizer.statistics());
+            if(engine == Engine.Exec) System.out.println(SpecializingNode.statistics());
+            if(engine == Engine.JVM) System.out.println(JitCompiler.statistics());
+            if(engine == Engine.Tiered) System.out.println(TieredCompiler.statistics());
+        }
     }
 }
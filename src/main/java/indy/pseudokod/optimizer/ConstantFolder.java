@@ -0,0 +1,542 @@
+package indy.pseudokod.optimizer;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.exceptions.IllegalDataTypeException;
+import indy.pseudokod.runtime.Interpreter;
+import indy.pseudokod.runtime.values.*;
+
+import java.util.*;
+
+/**
+ * The {@link ConstantFolder} replaces the expressions whose values are known before the program runs with literals.<br><br>
+ *
+ * An arithmetic, comparison, bitwise or logical expression whose operands are all literals is evaluated once by the {@link Interpreter}
+ * and replaced with the literal of its value. If its evaluation fails, the expression is kept, so the error is still thrown when it is executed.
+ * Expressions with other operands are never simplified, e.g. {@code x AND false} keeps evaluating {@code x}, like the interpreter does.<br><br>
+ *
+ * An identifier is replaced with a literal if it refers to
+ * <ul>
+ *   <li>an immutable built-in constant declared by {@link indy.pseudokod.main.Main#setupEnvironment()}, e.g. {@code true}, {@code pi} or {@code ∞},
+ *       unless the program declares a variable of the same name, or</li>
+ *   <li>a variable declared in a block with a literal of its own type, whose name is declared only once in the program
+ *       and is never assigned, neither directly, through an index nor by reading the input.</li>
+ * </ul>
+ * Global variables are never inlined, since the modules importing the program or imported by it share the global scope and may assign them.
+ * A variable is inlined only in the statements following its declaration in the same block and in the blocks nested in them,
+ * so reading a variable before it is declared keeps failing. The condition of a while loop written as {@code true} or {@code prawda} is kept,
+ * since the loop is rejected as infinite.<br><br>
+ *
+ * The folded tree shares no expression with the given one, even where nothing has been folded, since the later passes
+ * and the {@link indy.pseudokod.runtime.Resolver} annotate its nodes. The body of a function deferred by the {@link Optimizer} is left alone,
+ * and is folded when it is first accessed, see {@link DeferredBody}.
+ */
+final class ConstantFolder {
+    private static final Map<String, Expression> constants = Map.ofEntries(
+            Map.entry("true", new BooleanLiteral(true)),
+            Map.entry("false", new BooleanLiteral(false)),
+            Map.entry("prawda", new BooleanLiteral(true)),
+            Map.entry("falsz", new BooleanLiteral(false)),
+            Map.entry("null", new NullLiteral()),
+            Map.entry("infinity", new NumericLiteral(Double.MAX_VALUE)),
+            Map.entry("nieskonczonosc", new NumericLiteral(Double.MAX_VALUE)),
+            Map.entry("∞", new NumericLiteral(Double.MAX_VALUE)),
+            Map.entry("pi", new NumericLiteral(Math.PI)),
+            Map.entry("π", new NumericLiteral(Math.PI)),
+            Map.entry("endl", new StringLiteral("\n"))
+    );
+
+    private final Map<String, Integer> declarations;
+    private final Set<String> assigned;
+    private final List<Map<String, Expression>> scopes;
+    private int folded;
+    private int inlined;
+
+    /**
+     * Constructs a new instance of {@link ConstantFolder} for a program, finding the names it declares and assigns.
+     *
+     * @param program The {@link Program} to be folded.
+     */
+    ConstantFolder(Program program) {
+        this.declarations = new HashMap<>();
+        this.assigned = new HashSet<>();
+        this.scopes = new ArrayList<>();
+
+        for(Statement statement : program.body()) this.scan(statement);
+    }
+
+    /**
+     * Constructs a new instance of {@link ConstantFolder} for the body of a function deferred by the folder of the program declaring it,
+     * taking the names declared and assigned by the rest of the program into account.
+     *
+     * @param program The {@link Program} declaring only the function.
+     * @param outer The {@link ConstantFolder} of the program declaring the function.
+     */
+    ConstantFolder(Program program, ConstantFolder outer) {
+        this.declarations = new HashMap<>(outer.declarations);
+        this.assigned = new HashSet<>(outer.assigned);
+        this.scopes = new ArrayList<>();
+
+        for(Statement statement : program.body()) this.scan(statement);
+    }
+
+    /**
+     * @return The number of expressions folded into literals.
+     */
+    int folded() {
+        return this.folded;
+    }
+
+    /**
+     * @return The number of identifiers replaced with literals.
+     */
+    int inlined() {
+        return this.inlined;
+    }
+
+    /**
+     * Folds the constant expressions of a program.
+     *
+     * @param program The {@link Program} to fold.
+     * @return The folded {@link Program}, with a top-level statement for every statement of the given program.
+     */
+    Program fold(Program program) {
+        return new Program(this.foldBlock(program.body(), true), program.spans());
+    }
+
+    /**
+     * Records the names declared and assigned by a statement and the statements nested in it.
+     *
+     * @param node The statement to scan, may be {@code null}.
+     */
+    private void scan(Statement node) {
+        if(node == null) return;
+
+        switch(node.kind()) {
+            case BinaryExpression -> {
+                this.scan(((BinaryExpression) node).left());
+                this.scan(((BinaryExpression) node).right());
+            }
+            case ComparisonExpression -> {
+                this.scan(((ComparisonExpression) node).left());
+                this.scan(((ComparisonExpression) node).right());
+            }
+            case LogicalExpression -> {
+                this.scan(((LogicalExpression) node).left());
+                this.scan(((LogicalExpression) node).right());
+            }
+            case BitwiseExpression -> {
+                this.scan(((BitwiseExpression) node).left());
+                this.scan(((BitwiseExpression) node).right());
+            }
+            case IndexExpression -> {
+                this.scan(((IndexExpression) node).array());
+                this.scan(((IndexExpression) node).index());
+            }
+            case AssignmentExpression -> {
+                Expression target = ((AssignmentExpression) node).expression();
+                while(target instanceof IndexExpression index) target = index.array();
+                if(target instanceof Identifier identifier) this.assigned.add(identifier.symbol());
+
+                this.scan(((AssignmentExpression) node).expression());
+                this.scan(((AssignmentExpression) node).value());
+            }
+            case CallExpression -> {
+                this.scan(((CallExpression) node).expression());
+                for(Expression arg : ((CallExpression) node).args()) this.scan(arg);
+            }
+            case ArrayLiteral -> ((ArrayLiteral) node).values().forEach(this::scan);
+            case SetLiteral -> ((SetLiteral) node).values().forEach(this::scan);
+            case RangeLiteral -> {
+                this.scan(((RangeLiteral) node).leftBound());
+                this.scan(((RangeLiteral) node).rightBound());
+            }
+            case PrintFunction -> ((PrintFunction) node).args().forEach(this::scan);
+            case GetFunction -> this.assigned.add(((GetFunction) node).identifier());
+            case ReturnStatement -> this.scan(((ReturnStatement) node).value());
+            case DataDeclaration -> {
+                for(Statement statement : ((DataDeclaration) node).body()) {
+                    final VariableDeclaration variable = (VariableDeclaration) statement;
+
+                    this.declare(variable.symbol());
+                    this.scan(variable.value());
+                    this.scan(variable.range());
+                }
+            }
+            case FunctionDeclaration -> {
+                final FunctionDeclaration function = (FunctionDeclaration) node;
+
+                this.declare(function.symbol());
+                for(Statement statement : function.data()) this.declare(((VariableDeclaration) statement).symbol().replace("*", ""));
+                if(!(function.body() instanceof DeferredBody)) function.body().forEach(this::scan);
+            }
+            case IfStatement -> {
+                this.scan(((IfStatement) node).expression());
+                ((IfStatement) node).body().forEach(this::scan);
+                this.scan(((IfStatement) node).elseStatement());
+            }
+            case ElseStatement -> ((ElseStatement) node).body().forEach(this::scan);
+            case ForStatement -> {
+                this.declare(((ForStatement) node).control_variable());
+                ((ForStatement) node).values().forEach(this::scan);
+                ((ForStatement) node).body().forEach(this::scan);
+            }
+            case WhileStatement -> {
+                this.scan(((WhileStatement) node).expression());
+                ((WhileStatement) node).body().forEach(this::scan);
+            }
+            default -> {}
+        }
+    }
+
+    /**
+     * Counts a declaration of a name.
+     *
+     * @param name The declared name.
+     */
+    private void declare(String name) {
+        this.declarations.merge(name, 1, Integer::sum);
+    }
+
+    /**
+     * Folds the statements of a block, in a new scope of inlined variables.
+     *
+     * @param statements The statements of the block.
+     * @param global {@code true} if the block is the body of the program, executed in the global scope.
+     * @return The folded statements, in a new list.
+     */
+    private List<Statement> foldBlock(List<Statement> statements, boolean global) {
+        final List<Statement> result = new ArrayList<>(statements.size());
+        this.scopes.add(new HashMap<>());
+
+        for(Statement statement : statements)
+            result.add(statement.kind() == NodeType.DataDeclaration ? this.foldDataDeclaration((DataDeclaration) statement, global) : this.foldStatement(statement));
+
+        this.scopes.remove(this.scopes.size() - 1);
+        return result;
+    }
+
+    /**
+     * Folds the values of a data declaration, and records the declared variables that can be inlined in the current scope.
+     * The values and the ranges of variables with a range are copied as they are.
+     *
+     * @param node The {@link DataDeclaration}.
+     * @param global {@code true} if the variables are declared in the global scope.
+     * @return The folded {@link DataDeclaration}.
+     */
+    private Statement foldDataDeclaration(DataDeclaration node, boolean global) {
+        final List<Statement> variables = new ArrayList<>(node.body().size());
+
+        for(Statement statement : node.body()) {
+            VariableDeclaration variable = (VariableDeclaration) statement;
+
+            if(variable.range() == null) variable = new VariableDeclaration(variable.type(), variable.symbol(), variable.constant(), this.fold(variable.value()));
+            else {
+                try {
+                    variable = new VariableDeclaration(variable.type(), variable.symbol(), variable.constant(), copy(variable.range()), copy(variable.value()));
+                } catch(IllegalDataTypeException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+
+            if(!global && this.isInlinable(variable)) this.scopes.get(this.scopes.size() - 1).put(variable.symbol(), variable.value());
+            variables.add(variable);
+        }
+
+        return new DataDeclaration(variables);
+    }
+
+    /**
+     * Checks if the reads of a declared variable can be replaced with its value.
+     *
+     * @param variable The {@link VariableDeclaration} of the variable.
+     * @return {@code true} if the variable is declared once with a literal of its own type and never assigned.
+     */
+    private boolean isInlinable(VariableDeclaration variable) {
+        final String symbol = variable.symbol();
+        if(this.declarations.getOrDefault(symbol, 0) != 1 || this.assigned.contains(symbol) || constants.containsKey(symbol)) return false;
+
+        final Expression value = variable.value();
+        if(value == null) return false;
+
+        return switch(value.kind()) {
+            case NumericLiteral -> variable.type() == ValueType.Number;
+            case StringLiteral -> variable.type() == ValueType.String;
+            case CharacterLiteral -> variable.type() == ValueType.Char;
+            case BooleanLiteral -> variable.type() == ValueType.Boolean;
+            default -> false;
+        };
+    }
+
+    /**
+     * Folds the expressions of a statement and the blocks nested in it.
+     *
+     * @param node The statement to fold.
+     * @return The folded statement, a copy of the given one if nothing has been folded in it.
+     */
+    private Statement foldStatement(Statement node) {
+        switch(node.kind()) {
+            case FunctionDeclaration -> {
+                final FunctionDeclaration function = (FunctionDeclaration) node;
+                if(function.body() instanceof DeferredBody) return new FunctionDeclaration(function.symbol(), function.data(), function.result(), function.body());
+
+                return new FunctionDeclaration(function.symbol(), function.data(), function.result(), this.foldBlock(function.body(), false));
+            }
+            case IfStatement -> {
+                return this.foldIfStatement((IfStatement) node);
+            }
+            case ElseStatement -> {
+                return new ElseStatement(this.foldBlock(((ElseStatement) node).body(), false));
+            }
+            case ForStatement -> {
+                final ForStatement loop = (ForStatement) node;
+                return new ForStatement(loop.control_variable(), this.foldAll(loop.values()), this.foldBlock(loop.body(), false));
+            }
+            case WhileStatement -> {
+                final WhileStatement loop = (WhileStatement) node;
+                final boolean infinite = loop.expression() instanceof Identifier identifier && (identifier.symbol().equals("true") || identifier.symbol().equals("prawda"));
+
+                return new WhileStatement(infinite ? copy(loop.expression()) : this.fold(loop.expression()), this.foldBlock(loop.body(), false), loop.isDoWhile());
+            }
+            case ReturnStatement -> {
+                return new ReturnStatement(this.fold(((ReturnStatement) node).value()));
+            }
+            case PrintFunction -> {
+                return new PrintFunction(this.foldAll(((PrintFunction) node).args()));
+            }
+            default -> {
+                return node instanceof Expression expression ? this.fold(expression) : node;
+            }
+        }
+    }
+
+    /**
+     * Folds an if-statement, its body and the else-if or else statement following it.
+     * The condition is replaced only if it is folded into a boolean literal or an expression of a kind allowed in a condition,
+     * so a condition that is not valid still fails when it is executed.
+     *
+     * @param node The {@link IfStatement}.
+     * @return The folded {@link IfStatement}.
+     */
+    private IfStatement foldIfStatement(IfStatement node) {
+        Expression condition = this.fold(node.expression());
+        switch(condition.kind()) {
+            case BooleanLiteral, LogicalExpression, ComparisonExpression, Identifier, CallExpression -> {}
+            default -> condition = copy(node.expression());
+        }
+        final List<Statement> body = this.foldBlock(node.body(), false);
+        final Statement else_statement = node.elseStatement() != null ? this.foldStatement(node.elseStatement()) : null;
+
+        return new IfStatement(condition, body, else_statement);
+    }
+
+    /**
+     * Folds a list of expressions.
+     *
+     * @param expressions The expressions to fold.
+     * @return The folded expressions, in a new list.
+     */
+    private ArrayList<Expression> foldAll(List<Expression> expressions) {
+        final ArrayList<Expression> result = new ArrayList<>(expressions.size());
+        for(Expression expression : expressions) result.add(this.fold(expression));
+
+        return result;
+    }
+
+    /**
+     * Folds an expression. The targets of assignments, the indexed arrays and the called functions are copied,
+     * only the expressions computing their indexes and arguments are folded.
+     *
+     * @param node The expression to fold, may be {@code null}.
+     * @return The folded expression, a copy of the given one if nothing has been folded in it.
+     */
+    private Expression fold(Expression node) {
+        if(node == null) return null;
+
+        switch(node.kind()) {
+            case Identifier -> {
+                return this.inline((Identifier) node);
+            }
+            case BinaryExpression -> {
+                final BinaryExpression expression = (BinaryExpression) node;
+                final Expression left = this.fold(expression.left());
+                final Expression right = this.fold(expression.right());
+
+                return this.evaluate(new BinaryExpression(left, right, expression.operator()), left, right);
+            }
+            case ComparisonExpression -> {
+                final ComparisonExpression expression = (ComparisonExpression) node;
+                final Expression left = this.fold(expression.left());
+                final Expression right = this.fold(expression.right());
+
+                return this.evaluate(new ComparisonExpression(left, right, expression.operator()), left, right);
+            }
+            case LogicalExpression -> {
+                final LogicalExpression expression = (LogicalExpression) node;
+                final Expression left = this.fold(expression.left());
+                final Expression right = this.fold(expression.right());
+
+                return this.evaluate(new LogicalExpression(left, right, expression.operator()), left, right);
+            }
+            case BitwiseExpression -> {
+                final BitwiseExpression expression = (BitwiseExpression) node;
+                final Expression left = this.fold(expression.left());
+                final Expression right = this.fold(expression.right());
+
+                return this.evaluate(new BitwiseExpression(left, right, expression.operator()), left, right);
+            }
+            case IndexExpression -> {
+                final IndexExpression expression = (IndexExpression) node;
+                final Expression array = expression.array().kind() == NodeType.Identifier ? copy(expression.array()) : this.fold(expression.array());
+                return new IndexExpression(array, this.fold(expression.index()));
+            }
+            case AssignmentExpression -> {
+                final AssignmentExpression expression = (AssignmentExpression) node;
+                final Expression target = expression.expression().kind() == NodeType.IndexExpression ? this.fold(expression.expression()) : copy(expression.expression());
+                return new AssignmentExpression(target, this.fold(expression.value()));
+            }
+            case CallExpression -> {
+                final CallExpression expression = (CallExpression) node;
+                final Expression callee = expression.expression().kind() == NodeType.Identifier ? copy(expression.expression()) : this.fold(expression.expression());
+                return new CallExpression(callee, this.foldAll(expression.args()));
+            }
+            case ArrayLiteral -> {
+                return new ArrayLiteral(this.foldAll(((ArrayLiteral) node).values()));
+            }
+            case SetLiteral -> {
+                return new SetLiteral(this.foldAll(((SetLiteral) node).values()));
+            }
+            case RangeLiteral -> {
+                final RangeLiteral range = (RangeLiteral) node;
+                return new RangeLiteral(this.fold(range.leftBound()), this.fold(range.rightBound()), range.leftIncluded(), range.rightIncluded());
+            }
+            default -> {
+                return copy(node);
+            }
+        }
+    }
+
+    /**
+     * Copies an expression and the expressions nested in it, without folding them.
+     *
+     * @param node The expression to copy, may be {@code null}.
+     * @return The copy of the expression, or {@code null} if the given expression is {@code null}.
+     */
+    private static Expression copy(Expression node) {
+        if(node == null) return null;
+
+        return switch(node.kind()) {
+            case Identifier -> new Identifier(((Identifier) node).symbol());
+            case NumericLiteral -> new NumericLiteral(((NumericLiteral) node).value());
+            case CharacterLiteral -> new CharacterLiteral(((CharacterLiteral) node).value());
+            case StringLiteral -> new StringLiteral(((StringLiteral) node).value());
+            case BooleanLiteral -> new BooleanLiteral(((BooleanLiteral) node).value());
+            case NullLiteral -> new NullLiteral();
+            case GetFunction -> new GetFunction(((GetFunction) node).identifier());
+            case EllipsisStatement -> new EllipsisStatement();
+            case BinaryExpression -> {
+                final BinaryExpression expression = (BinaryExpression) node;
+                yield new BinaryExpression(copy(expression.left()), copy(expression.right()), expression.operator());
+            }
+            case ComparisonExpression -> {
+                final ComparisonExpression expression = (ComparisonExpression) node;
+                yield new ComparisonExpression(copy(expression.left()), copy(expression.right()), expression.operator());
+            }
+            case LogicalExpression -> {
+                final LogicalExpression expression = (LogicalExpression) node;
+                yield new LogicalExpression(copy(expression.left()), copy(expression.right()), expression.operator());
+            }
+            case BitwiseExpression -> {
+                final BitwiseExpression expression = (BitwiseExpression) node;
+                yield new BitwiseExpression(copy(expression.left()), copy(expression.right()), expression.operator());
+            }
+            case IndexExpression -> new IndexExpression(copy(((IndexExpression) node).array()), copy(((IndexExpression) node).index()));
+            case AssignmentExpression -> new AssignmentExpression(copy(((AssignmentExpression) node).expression()), copy(((AssignmentExpression) node).value()));
+            case CallExpression -> new CallExpression(copy(((CallExpression) node).expression()), copyAll(((CallExpression) node).args()));
+            case ArrayLiteral -> new ArrayLiteral(copyAll(((ArrayLiteral) node).values()));
+            case SetLiteral -> new SetLiteral(copyAll(((SetLiteral) node).values()));
+            case RangeLiteral -> {
+                final RangeLiteral range = (RangeLiteral) node;
+                yield new RangeLiteral(copy(range.leftBound()), copy(range.rightBound()), range.leftIncluded(), range.rightIncluded());
+            }
+            default -> node;
+        };
+    }
+
+    /**
+     * Copies a list of expressions, without folding them.
+     *
+     * @param expressions The expressions to copy.
+     * @return The copies of the expressions, in a new list.
+     */
+    private static ArrayList<Expression> copyAll(List<Expression> expressions) {
+        final ArrayList<Expression> result = new ArrayList<>(expressions.size());
+        for(Expression expression : expressions) result.add(copy(expression));
+
+        return result;
+    }
+
+    /**
+     * Replaces an identifier with the literal value of the variable or built-in constant it refers to, if it is known.
+     *
+     * @param identifier The {@link Identifier}.
+     * @return A copy of the literal, or a copy of the given identifier.
+     */
+    private Expression inline(Identifier identifier) {
+        final String symbol = identifier.symbol();
+
+        for(int i = this.scopes.size() - 1; i >= 0; i--) {
+            final Expression value = this.scopes.get(i).get(symbol);
+            if(value != null) {
+                this.inlined++;
+                return copy(value);
+            }
+        }
+
+        final Expression constant = constants.get(symbol);
+        if(constant == null || this.declarations.containsKey(symbol)) return new Identifier(symbol);
+
+        this.inlined++;
+        return copy(constant);
+    }
+
+    /**
+     * Evaluates an operation whose operands are all literals and returns the literal of its value.
+     *
+     * @param node The operation.
+     * @param left The left operand, or {@code null} if the operation is unary.
+     * @param right The right operand.
+     * @return The literal of the value, or the given operation if any operand is not a literal,
+     *         its evaluation fails or its value cannot be written as a literal.
+     */
+    private Expression evaluate(Expression node, Expression left, Expression right) {
+        if(!isLiteral(right) || (left != null && !isLiteral(left))) return node;
+
+        final RuntimeValue value;
+        try {
+            value = Interpreter.evaluate(node, null);
+        } catch(Throwable e) {
+            return node;
+        }
+
+        final Expression literal;
+        if(value instanceof NumberValue number) literal = new NumericLiteral(number.value());
+        else if(value instanceof BooleanValue bool) literal = new BooleanLiteral(bool.value());
+        else if(value instanceof StringValue string) literal = new StringLiteral(string.value());
+        else if(value instanceof CharValue character) literal = new CharacterLiteral(character.value());
+        else return node;
+
+        this.folded++;
+        return literal;
+    }
+
+    /**
+     * @param node An expression.
+     * @return {@code true} if the expression is a literal of a number, a boolean, a string, a character or {@code null}.
+     */
+    private static boolean isLiteral(Expression node) {
+        return switch(node.kind()) {
+            case NumericLiteral, BooleanLiteral, StringLiteral, CharacterLiteral, NullLiteral -> true;
+            default -> false;
+        };
+    }
+}
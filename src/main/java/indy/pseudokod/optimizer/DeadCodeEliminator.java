@@ -0,0 +1,448 @@
+package indy.pseudokod.optimizer;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.runtime.values.ValueType;
+
+import java.util.*;
+
+/**
+ * The {@link DeadCodeEliminator} removes the statements of a program that can never run or whose effect can never be observed.<br><br>
+ *
+ * <ul>
+ *   <li>An if-statement whose condition has been folded into a boolean literal is replaced with the statements of the branch it always takes.
+ *       The statements are moved into the enclosing block if the branch declares nothing, otherwise they are kept in a block of their own.</li>
+ *   <li>A literal, or a return statement of a literal, followed by other statements of the same block is removed,
+ *       since a return statement does not leave the function and its value is discarded.</li>
+ *   <li>An else statement that does not follow an if-statement is removed, since it is never executed.</li>
+ *   <li>A function declared in a block, or a variable declared in a block with no range and a literal of its own type,
+ *       is removed if its name is declared only once in the program and is never read, assigned nor called by any code that can run.
+ *       The body of a function counts only if the function itself is referenced.</li>
+ *   <li>A global function or variable is removed only if it is given as unused, see {@link #unusedGlobals(Collection, Set)},
+ *       since the modules importing the program or imported by it share the global scope.</li>
+ * </ul>
+ * Declarations in the body of a loop are kept, since declaring a variable twice in the same scope fails.
+ * The body of a function deferred by the {@link Optimizer} is left alone and is not scanned for names,
+ * so no global function or variable is unused if such a function may be called.
+ * A statement removed from the end of a block is replaced with a {@link NullLiteral}, so the value of the block,
+ * and of the function it may be the body of, stays the same.
+ */
+final class DeadCodeEliminator {
+    private final Set<String> unused;
+    private final Map<String, Integer> declarations;
+    private final Set<String> referenced;
+    private int branches;
+    private int statements;
+    private int declarations_removed;
+
+    /**
+     * Constructs a new instance of {@link DeadCodeEliminator} for a program, finding the names it declares and references.
+     *
+     * @param program The {@link Program} to be eliminated.
+     * @param unused The names of the global functions and variables that are never used by any module.
+     */
+    DeadCodeEliminator(Program program, Set<String> unused) {
+        this.unused = unused;
+        this.declarations = declarations(List.of(program), false);
+        this.referenced = referenced(List.of(program), unused);
+    }
+
+    /**
+     * Finds the global functions and variables that can be removed from a whole program, made up of the given modules.
+     * A global name is unused if it is declared only once in all the modules, is not declared before they are executed
+     * and is never referenced by any code that can run. None is unused if the code that can run references a function
+     * whose body has not been decoded from a {@code .pkc} file yet, since the body may use any of them.
+     *
+     * @param programs The modules of the program.
+     * @param predeclared The names declared in the global scope before the program is executed, e.g. the built-in constants.
+     * @return The names of the unused global functions and variables.
+     */
+    static Set<String> unusedGlobals(Collection<Program> programs, Set<String> predeclared) {
+        final Map<String, Integer> declarations = declarations(programs, false);
+        final Set<String> candidates = new HashSet<>();
+
+        for(Map.Entry<String, Integer> global : declarations(programs, true).entrySet()) {
+            if(global.getValue() == 1 && declarations.get(global.getKey()) == 1 && !predeclared.contains(global.getKey()))
+                candidates.add(global.getKey());
+        }
+
+        final Set<String> referenced = referenced(programs, candidates);
+        for(FunctionDeclaration function : Optimizer.deferred(programs))
+            if(!candidates.contains(function.symbol()) || referenced.contains(function.symbol())) return Set.of();
+
+        candidates.removeAll(referenced);
+        return candidates;
+    }
+
+    /**
+     * @return The number of if-statements replaced with the branch they always take.
+     */
+    int branches() {
+        return this.branches;
+    }
+
+    /**
+     * @return The number of statements removed because they are never executed or their values are discarded.
+     */
+    int statements() {
+        return this.statements;
+    }
+
+    /**
+     * @return The number of function and variable declarations removed.
+     */
+    int declarations() {
+        return this.declarations_removed;
+    }
+
+    /**
+     * Removes the dead code of a program.
+     *
+     * @param program The {@link Program} to eliminate.
+     * @return The {@link Program} without its dead code, which keeps the spans of the statements only if none of them has been removed.
+     */
+    Program eliminate(Program program) {
+        final List<Statement> body = this.eliminateBlock(program.body(), true, false);
+        return new Program(body, body.size() == program.body().size() ? program.spans() : null);
+    }
+
+    /**
+     * Removes the dead code of a block.
+     *
+     * @param statements The statements of the block.
+     * @param global {@code true} if the block is the body of the program, executed in the global scope.
+     * @param loop {@code true} if the block is the body of a loop.
+     * @return The remaining statements, in a new list.
+     */
+    private List<Statement> eliminateBlock(List<Statement> statements, boolean global, boolean loop) {
+        final List<Statement> result = new ArrayList<>(statements.size());
+
+        for(int i = 0; i < statements.size(); i++)
+            this.eliminateStatement(statements.get(i), result, global, loop, i == statements.size() - 1);
+
+        return result;
+    }
+
+    /**
+     * Removes the dead code of a statement and adds what remains of it to a block.
+     *
+     * @param node The statement.
+     * @param result The statements of the block the remaining statements are added to.
+     * @param global {@code true} if the statement is executed in the global scope.
+     * @param loop {@code true} if the statement is in the body of a loop.
+     * @param last {@code true} if the statement is the last one of its block, whose value is the value of the block.
+     */
+    private void eliminateStatement(Statement node, List<Statement> result, boolean global, boolean loop, boolean last) {
+        switch(node.kind()) {
+            case IfStatement -> this.eliminateIfStatement((IfStatement) node, result, last);
+            case FunctionDeclaration -> {
+                final FunctionDeclaration function = (FunctionDeclaration) node;
+
+                if(!loop && this.isUnused(function.symbol(), global)) {
+                    this.declarations_removed++;
+                    if(last) result.add(new NullLiteral());
+                } else if(function.body() instanceof DeferredBody) result.add(function);
+                else result.add(new FunctionDeclaration(function.symbol(), function.data(), function.result(), this.eliminateBlock(function.body(), false, false)));
+            }
+            case DataDeclaration -> {
+                final List<Statement> variables = new ArrayList<>();
+
+                for(Statement statement : ((DataDeclaration) node).body()) {
+                    final VariableDeclaration variable = (VariableDeclaration) statement;
+
+                    if(!loop && isRemovable(variable) && this.isUnused(variable.symbol(), global)) this.declarations_removed++;
+                    else variables.add(variable);
+                }
+
+                if(variables.size() == ((DataDeclaration) node).body().size()) result.add(node);
+                else if(!variables.isEmpty()) result.add(new DataDeclaration(variables));
+                else if(last) result.add(new NullLiteral());
+            }
+            case ForStatement -> {
+                final ForStatement statement = (ForStatement) node;
+                result.add(new ForStatement(statement.control_variable(), statement.values(), this.eliminateBlock(statement.body(), false, true)));
+            }
+            case WhileStatement -> {
+                final WhileStatement statement = (WhileStatement) node;
+                result.add(new WhileStatement(statement.expression(), this.eliminateBlock(statement.body(), false, true), statement.isDoWhile()));
+            }
+            case ElseStatement -> {
+                this.statements++;
+                if(last) result.add(new NullLiteral());
+            }
+            case ReturnStatement -> {
+                if(!last && isLiteral(((ReturnStatement) node).value())) this.statements++;
+                else result.add(node);
+            }
+            default -> {
+                if(!last && node instanceof Expression expression && isLiteral(expression)) this.statements++;
+                else result.add(node);
+            }
+        }
+    }
+
+    /**
+     * Removes the branches of an if-statement that can never run, and adds what remains of it to a block.
+     *
+     * @param node The {@link IfStatement}.
+     * @param result The statements of the block the remaining statements are added to.
+     * @param last {@code true} if the statement is the last one of its block.
+     */
+    private void eliminateIfStatement(IfStatement node, List<Statement> result, boolean last) {
+        if(!(node.expression() instanceof BooleanLiteral condition)) {
+            result.add(new IfStatement(node.expression(), this.eliminateBlock(node.body(), false, false), this.eliminateElse(node.elseStatement())));
+            return;
+        }
+
+        this.branches++;
+        if(condition.value()) this.inline(node.body(), result, last);
+        else if(node.elseStatement() instanceof IfStatement statement) this.eliminateIfStatement(statement, result, last);
+        else if(node.elseStatement() instanceof ElseStatement statement) this.inline(statement.body(), result, last);
+        else if(last) result.add(new NullLiteral());
+    }
+
+    /**
+     * Removes the branches that can never run from the else-if or else statement following an if-statement.
+     *
+     * @param node The else-if or else statement, may be {@code null}.
+     * @return The remaining else-if or else statement, or {@code null} if there is none.
+     */
+    private Statement eliminateElse(Statement node) {
+        if(node instanceof ElseStatement statement) return new ElseStatement(this.eliminateBlock(statement.body(), false, false));
+        if(!(node instanceof IfStatement statement)) return null;
+
+        if(!(statement.expression() instanceof BooleanLiteral condition))
+            return new IfStatement(statement.expression(), this.eliminateBlock(statement.body(), false, false), this.eliminateElse(statement.elseStatement()));
+
+        this.branches++;
+        return condition.value() ? new ElseStatement(this.eliminateBlock(statement.body(), false, false)) : this.eliminateElse(statement.elseStatement());
+    }
+
+    /**
+     * Adds the statements of the branch an if-statement always takes to the enclosing block.
+     * If the branch declares a variable or a function, it is kept in a block of its own, so the declaration stays in its scope.
+     *
+     * @param body The statements of the branch.
+     * @param result The statements of the enclosing block.
+     * @param last {@code true} if the if-statement is the last one of the enclosing block.
+     */
+    private void inline(List<Statement> body, List<Statement> result, boolean last) {
+        final List<Statement> statements = this.eliminateBlock(body, false, false);
+
+        if(statements.stream().anyMatch(s -> s.kind() == NodeType.DataDeclaration || s.kind() == NodeType.FunctionDeclaration))
+            result.add(new IfStatement(new BooleanLiteral(true), statements, null));
+        else if(!statements.isEmpty()) result.addAll(statements);
+        else if(last) result.add(new NullLiteral());
+    }
+
+    /**
+     * Checks if a declared name is never used.
+     *
+     * @param name The declared name.
+     * @param global {@code true} if the name is declared in the global scope.
+     * @return {@code true} if the declaration can be removed.
+     */
+    private boolean isUnused(String name, boolean global) {
+        if(global) return this.unused.contains(name);
+        return this.declarations.getOrDefault(name, 0) == 1 && !this.referenced.contains(name);
+    }
+
+    /**
+     * Checks if declaring a variable can never fail, so its declaration can be removed if the variable is never used.
+     *
+     * @param variable The {@link VariableDeclaration}.
+     * @return {@code true} if the variable has no range and is not initialized, or is initialized with a literal of its own type.
+     */
+    private static boolean isRemovable(VariableDeclaration variable) {
+        if(variable.range() != null) return false;
+        if(variable.value() == null) return true;
+
+        return switch(variable.value().kind()) {
+            case NumericLiteral -> variable.type() == ValueType.Number;
+            case StringLiteral -> variable.type() == ValueType.String;
+            case CharacterLiteral -> variable.type() == ValueType.Char;
+            case BooleanLiteral -> variable.type() == ValueType.Boolean;
+            default -> false;
+        };
+    }
+
+    /**
+     * Checks if an expression is a literal, whose evaluation has no effect.
+     *
+     * @param node The expression.
+     * @return {@code true} if the expression is a number, character, string, boolean or null literal.
+     */
+    private static boolean isLiteral(Expression node) {
+        return switch(node.kind()) {
+            case NumericLiteral, CharacterLiteral, StringLiteral, BooleanLiteral, NullLiteral -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Counts the declarations of every name in the given programs: variables, functions, parameters and control variables.
+     * The parameters and the body of a deferred function are skipped.
+     *
+     * @param programs The programs.
+     * @param global {@code true} to count only the functions and variables declared in the global scope.
+     * @return The number of declarations of every name.
+     */
+    private static Map<String, Integer> declarations(Collection<Program> programs, boolean global) {
+        final Map<String, Integer> declarations = new HashMap<>();
+        final Set<FunctionDeclaration> deferred = Optimizer.deferred(programs);
+        final List<Statement> pending = new ArrayList<>();
+        for(Program program : programs) pending.addAll(program.body());
+
+        while(!pending.isEmpty()) {
+            final Statement node = pending.remove(pending.size() - 1);
+
+            switch(node.kind()) {
+                case DataDeclaration -> {
+                    for(Statement variable : ((DataDeclaration) node).body()) declarations.merge(((VariableDeclaration) variable).symbol(), 1, Integer::sum);
+                }
+                case FunctionDeclaration -> {
+                    final FunctionDeclaration function = (FunctionDeclaration) node;
+
+                    declarations.merge(function.symbol(), 1, Integer::sum);
+                    if(global || deferred.contains(function)) continue;
+
+                    for(Statement variable : function.data()) declarations.merge(((VariableDeclaration) variable).symbol().replace("*", ""), 1, Integer::sum);
+                    pending.addAll(function.body());
+                }
+                case IfStatement -> {
+                    if(global) continue;
+
+                    pending.addAll(((IfStatement) node).body());
+                    if(((IfStatement) node).elseStatement() != null) pending.add(((IfStatement) node).elseStatement());
+                }
+                case ElseStatement -> pending.addAll(((ElseStatement) node).body());
+                case ForStatement -> {
+                    if(global) continue;
+
+                    declarations.merge(((ForStatement) node).control_variable(), 1, Integer::sum);
+                    pending.addAll(((ForStatement) node).body());
+                }
+                case WhileStatement -> {
+                    if(!global) pending.addAll(((WhileStatement) node).body());
+                }
+                default -> {}
+            }
+        }
+
+        return declarations;
+    }
+
+    /**
+     * Finds the names referenced by the code of the given programs that can run. The body of a function declared in a block,
+     * or of a global function whose name is given, is scanned only once the name of the function is referenced.
+     * The body of a function deferred by the {@link Optimizer} is never scanned.
+     *
+     * @param programs The programs.
+     * @param deferred The names of the global functions whose bodies are scanned only if they are referenced.
+     * @return The referenced names.
+     */
+    private static Set<String> referenced(Collection<Program> programs, Set<String> deferred) {
+        final Set<String> referenced = new HashSet<>();
+        final Set<FunctionDeclaration> skipped = Optimizer.deferred(programs);
+        final Map<String, List<FunctionDeclaration>> functions = new HashMap<>();
+        final List<Statement> pending = new ArrayList<>();
+
+        for(Program program : programs) {
+            for(Statement statement : program.body()) {
+                if(skipped.contains(statement)) continue;
+
+                if(statement instanceof FunctionDeclaration function && !deferred.contains(function.symbol())) reference(function, pending);
+                else pending.add(statement);
+            }
+        }
+
+        while(!pending.isEmpty()) {
+            final Statement node = pending.remove(pending.size() - 1);
+            if(node == null) continue;
+
+            switch(node.kind()) {
+                case Identifier -> {
+                    final String symbol = ((Identifier) node).symbol();
+                    if(referenced.add(symbol)) for(FunctionDeclaration function : functions.getOrDefault(symbol, List.of())) reference(function, pending);
+                }
+                case GetFunction -> pending.add(new Identifier(((GetFunction) node).identifier()));
+                case FunctionDeclaration -> {
+                    final FunctionDeclaration function = (FunctionDeclaration) node;
+
+                    if(referenced.contains(function.symbol())) reference(function, pending);
+                    else functions.computeIfAbsent(function.symbol(), k -> new ArrayList<>()).add(function);
+                }
+                case BinaryExpression -> {
+                    pending.add(((BinaryExpression) node).left());
+                    pending.add(((BinaryExpression) node).right());
+                }
+                case ComparisonExpression -> {
+                    pending.add(((ComparisonExpression) node).left());
+                    pending.add(((ComparisonExpression) node).right());
+                }
+                case LogicalExpression -> {
+                    pending.add(((LogicalExpression) node).left());
+                    pending.add(((LogicalExpression) node).right());
+                }
+                case BitwiseExpression -> {
+                    pending.add(((BitwiseExpression) node).left());
+                    pending.add(((BitwiseExpression) node).right());
+                }
+                case IndexExpression -> {
+                    pending.add(((IndexExpression) node).array());
+                    pending.add(((IndexExpression) node).index());
+                }
+                case AssignmentExpression -> {
+                    pending.add(((AssignmentExpression) node).expression());
+                    pending.add(((AssignmentExpression) node).value());
+                }
+                case CallExpression -> {
+                    pending.add(((CallExpression) node).expression());
+                    pending.addAll(((CallExpression) node).args());
+                }
+                case ArrayLiteral -> pending.addAll(((ArrayLiteral) node).values());
+                case SetLiteral -> pending.addAll(((SetLiteral) node).values());
+                case RangeLiteral -> {
+                    pending.add(((RangeLiteral) node).leftBound());
+                    pending.add(((RangeLiteral) node).rightBound());
+                }
+                case PrintFunction -> pending.addAll(((PrintFunction) node).args());
+                case ReturnStatement -> pending.add(((ReturnStatement) node).value());
+                case DataDeclaration -> {
+                    for(Statement variable : ((DataDeclaration) node).body()) {
+                        pending.add(((VariableDeclaration) variable).value());
+                        pending.add(((VariableDeclaration) variable).range());
+                    }
+                }
+                case IfStatement -> {
+                    pending.add(((IfStatement) node).expression());
+                    pending.addAll(((IfStatement) node).body());
+                    pending.add(((IfStatement) node).elseStatement());
+                }
+                case ElseStatement -> pending.addAll(((ElseStatement) node).body());
+                case ForStatement -> {
+                    pending.add(new Identifier(((ForStatement) node).control_variable()));
+                    pending.addAll(((ForStatement) node).values());
+                    pending.addAll(((ForStatement) node).body());
+                }
+                case WhileStatement -> {
+                    pending.add(((WhileStatement) node).expression());
+                    pending.addAll(((WhileStatement) node).body());
+                }
+                default -> {}
+            }
+        }
+
+        return referenced;
+    }
+
+    /**
+     * Schedules the scan of the parameters, the local variables and the body of a referenced function.
+     *
+     * @param function The {@link FunctionDeclaration}.
+     * @param pending The statements to be scanned.
+     */
+    private static void reference(FunctionDeclaration function, List<Statement> pending) {
+        pending.add(new DataDeclaration(function.data()));
+        pending.addAll(function.body());
+    }
+}
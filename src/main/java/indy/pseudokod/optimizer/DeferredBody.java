@@ -0,0 +1,71 @@
+package indy.pseudokod.optimizer;
+
+import indy.pseudokod.ast.FunctionDeclaration;
+import indy.pseudokod.ast.Program;
+import indy.pseudokod.ast.Statement;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable list holding the body of a global function read from a cache file, which is decoded and optimized only when it is first accessed,
+ * i.e. when the function is first called. The passes optimizing the rest of the program leave the body alone, see {@link Optimizer#deferred(java.util.Collection)}.
+ */
+final class DeferredBody extends AbstractList<Statement> {
+    private final FunctionDeclaration function;
+    private ConstantFolder folder;
+    private volatile List<Statement> statements;
+
+    /**
+     * Constructs a new instance of {@link DeferredBody} for a function whose body has not been decoded yet.
+     *
+     * @param function The {@link FunctionDeclaration} of the function, as read from the cache file.
+     */
+    DeferredBody(FunctionDeclaration function) {
+        this.function = function;
+    }
+
+    /**
+     * Sets the folder of the program declaring the function, whose names are taken into account when the body is folded.
+     *
+     * @param folder The {@link ConstantFolder} of the program.
+     */
+    void setFolder(ConstantFolder folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * @return The optimized statements, decoding and optimizing them on the first call.
+     */
+    private List<Statement> statements() {
+        List<Statement> statements = this.statements;
+
+        if(statements == null) {
+            synchronized(this) {
+                statements = this.statements;
+                if(statements == null) {
+                    final FunctionDeclaration function = this.function;
+                    final Program program = new Program(List.of(new FunctionDeclaration(function.symbol(), function.data(), function.result(), List.copyOf(function.body()))), null);
+                    final Program result = Optimizer.optimize(new ConstantFolder(program, this.folder), program, Set.of());
+
+                    statements = Collections.unmodifiableList(((FunctionDeclaration) result.body().get(0)).body());
+                    this.statements = statements;
+                }
+            }
+        }
+
+        return statements;
+    }
+
+    @Override
+    public Statement get(int index) {
+        return this.statements().get(index);
+    }
+
+    @Override
+    public int size() {
+        return this.statements().size();
+    }
+}
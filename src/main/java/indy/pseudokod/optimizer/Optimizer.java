@@ -0,0 +1,184 @@
+package indy.pseudokod.optimizer;
+
+import indy.pseudokod.ast.FunctionDeclaration;
+import indy.pseudokod.ast.Program;
+import indy.pseudokod.ast.Statement;
+import indy.pseudokod.cache.AstCache;
+import indy.pseudokod.utils.Debug;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@link Optimizer} rewrites the abstract syntax tree (AST) of a program before it is resolved and executed,
+ * so every engine, and every compiler behind it, works with a smaller and simpler tree.<br><br>
+ *
+ * The optimizations never change the behavior of the program: its output and its errors stay the same. They are applied to
+ * every program and module as it is loaded, after it has been parsed or read from its {@code .pkc} file, and the cached tree
+ * is left unoptimized. The body of a global function read from a {@code .pkc} file that has not been decoded yet is left alone
+ * while the program is optimized, and is decoded and optimized on its own when the function is first called, see {@link DeferredBody}.
+ * <ul>
+ *   <li>The {@link ConstantFolder} folds the operations on literals and inlines the constants.</li>
+ *   <li>The {@link DeadCodeEliminator} removes the branches that are never taken and the declarations that are never used.</li>
+ *   <li>The {@link TypeChecker} proves the types of the expressions, so the engines skip the checks and the boxing of the values proven to be of the right type.</li>
+ *   <li>The {@link RangeChecker} proves the assignments to the variables declared with a range to stay in it, so the engines skip the check of the range as well.</li>
+ * </ul>
+ * Global functions and variables are removed only when the modules making up the whole program are known, see {@link #unusedGlobals(Collection, Set)}.
+ * The type errors the {@link TypeChecker} finds are not thrown, since the code may never run, but they can be reported, see {@link #setReport(boolean)}.
+ */
+public final class Optimizer {
+    private static long folded = 0;
+    private static long inlined = 0;
+    private static long branches = 0;
+    private static long statements = 0;
+    private static long declarations = 0;
+    private static long assignments = 0;
+    private static long checked = 0;
+    private static long errors = 0;
+    private static long constrained = 0;
+    private static long proven = 0;
+    private static boolean report = false;
+
+    /**
+     * The {@link Optimizer} is not meant to be instantiated.
+     */
+    private Optimizer() {}
+
+    /**
+     * Optimizes a parsed program.
+     *
+     * @param program The {@link Program} to optimize.
+     * @return The optimized {@link Program}, which has to be resolved before it is executed.
+     */
+    public static Program optimize(Program program) {
+        return optimize(program, Set.of());
+    }
+
+    /**
+     * Optimizes a parsed module of a program, removing the given global functions and variables.
+     *
+     * @param program The {@link Program} of the module to optimize.
+     * @param unused The names of the global functions and variables never used by any module of the program.
+     * @return The optimized {@link Program}, which has to be resolved before it is executed.
+     */
+    public static Program optimize(Program program, Set<String> unused) {
+        final List<Statement> body = new ArrayList<>(program.body().size());
+        final List<DeferredBody> deferred = new ArrayList<>();
+
+        for(Statement statement : program.body()) {
+            if(statement instanceof FunctionDeclaration function && !AstCache.isDecoded(function.body())) {
+                final DeferredBody statements = new DeferredBody(function);
+                deferred.add(statements);
+                body.add(new FunctionDeclaration(function.symbol(), function.data(), function.result(), statements));
+            } else body.add(statement);
+        }
+
+        final Program tree = new Program(body, program.spans());
+        final ConstantFolder folder = new ConstantFolder(tree);
+        for(DeferredBody statements : deferred) statements.setFolder(folder);
+
+        return optimize(folder, tree, unused);
+    }
+
+    /**
+     * Runs the passes on a program.
+     *
+     * @param folder The {@link ConstantFolder} of the program.
+     * @param program The {@link Program} to optimize.
+     * @param unused The names of the global functions and variables never used by any module of the program.
+     * @return The optimized {@link Program}.
+     */
+    static Program optimize(ConstantFolder folder, Program program, Set<String> unused) {
+        final Program tree = folder.fold(program);
+        final DeadCodeEliminator eliminator = new DeadCodeEliminator(tree, unused);
+        final Program result = eliminator.eliminate(tree);
+        final TypeChecker checker = new TypeChecker();
+        checker.check(result);
+        final RangeChecker ranges = new RangeChecker();
+        ranges.check(result);
+
+        if(Debug.ENABLED) count(folder, eliminator, checker, ranges);
+
+        if(report) for(String error : checker.errors()) System.err.println("Type error: " + error);
+        return result;
+    }
+
+    /**
+     * Adds the work done by the passes on a program to the counters reported by {@link #statistics()}.
+     * The bodies of functions read from a {@code .pkc} file may be optimized on the compiler thread of the tiered engine, hence the lock.
+     *
+     * @param folder The {@link ConstantFolder} of the program.
+     * @param eliminator The {@link DeadCodeEliminator} of the program.
+     * @param checker The {@link TypeChecker} of the program.
+     * @param ranges The {@link RangeChecker} of the program.
+     */
+    private static synchronized void count(ConstantFolder folder, DeadCodeEliminator eliminator, TypeChecker checker, RangeChecker ranges) {
+        folded += folder.folded();
+        inlined += folder.inlined();
+        branches += eliminator.branches();
+        statements += eliminator.statements();
+        declarations += eliminator.declarations();
+        assignments += checker.assignments();
+        checked += checker.checked();
+        errors += checker.errors().size();
+        constrained += ranges.constrained();
+        proven += ranges.proven();
+    }
+
+    /**
+     * Finds the functions declared in the global scope of the given programs whose bodies are left alone by the passes:
+     * the bodies read from a {@code .pkc} file that have not been decoded yet. A function declared anywhere else is decoded
+     * as soon as the code declaring it is resolved, so its body is optimized along with that code.
+     *
+     * @param programs The programs.
+     * @return The {@link FunctionDeclaration}s of the functions, compared by identity.
+     */
+    static Set<FunctionDeclaration> deferred(Collection<Program> programs) {
+        final Set<FunctionDeclaration> deferred = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for(Program program : programs) {
+            for(Statement statement : program.body()) {
+                if(statement instanceof FunctionDeclaration function && (function.body() instanceof DeferredBody || !AstCache.isDecoded(function.body())))
+                    deferred.add(function);
+            }
+        }
+
+        return deferred;
+    }
+
+    /**
+     * Sets whether the type errors found in the programs optimized are reported on the standard error stream, before the programs are executed.
+     *
+     * @param report {@code true} to report the type errors.
+     */
+    public static void setReport(boolean report) {
+        Optimizer.report = report;
+    }
+
+    /**
+     * Finds the global functions and variables never used by a whole program, which can be removed from the modules declaring them.
+     * No other code may run in the global scope of the program, e.g. the code entered in the REPL.
+     *
+     * @param programs The parsed modules making up the program.
+     * @param predeclared The names declared in the global scope before the program is executed.
+     * @return The names of the unused global functions and variables.
+     */
+    public static Set<String> unusedGlobals(Collection<Program> programs, Set<String> predeclared) {
+        return DeadCodeEliminator.unusedGlobals(programs, predeclared);
+    }
+
+    /**
+     * @return A summary of the expressions folded, the constants inlined, the dead code removed and the types and ranges checked so far,
+     *         counted only with the {@code -debug} flag, see {@link Debug}.
+     */
+    public static synchronized String statistics() {
+        return String.format("Folded %d expressions and inlined %d constants.%n", folded, inlined) +
+               String.format("Removed %d constant branches, %d dead statements and %d unused declarations.%n", branches, statements, declarations) +
+               String.format("Proved %d of %d assignments type-safe and found %d type errors.%n", checked, assignments, errors) +
+               String.format("Proved %d of %d range checks redundant.", proven, constrained);
+    }
+}
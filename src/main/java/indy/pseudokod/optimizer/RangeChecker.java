@@ -0,0 +1,731 @@
+package indy.pseudokod.optimizer;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.runtime.values.ValueType;
+
+import java.util.*;
+
+/**
+ * The {@link RangeChecker} proves that assignments to variables declared with a range, like {@code number i ∈ N},
+ * assign values belonging to it, so the engines can skip the check, see {@link AssignmentExpression#checked()}.<br><br>
+ *
+ * Every expression of a number is bounded by an interval: a literal by itself, a variable by what is known about it at that point
+ * of the program or else by its range, and an arithmetic operation by the interval arithmetic on the bounds of its operands.
+ * A variable is known to lie in the interval of the last value assigned to it, narrowed by the conditions of the if-statements
+ * and while-loops whose bodies it is used in, e.g. {@code i < n} bounds {@code i} by {@code n - 1} if both of them are integers.
+ * A call or an import may assign any variable, so nothing is known about any variable after it, and nothing is known in a function body
+ * about the variables of the enclosing scopes. A loop forgets what is known about the variables it assigns before its body is checked.<br><br>
+ *
+ * A null belongs to every range, and an operation with a null operand is null, so the intervals bound only the values that are numbers.
+ * A range given by a set or by a variable holding a range, other than the built-in ones, is unknown, and the assignments to it are never proven.
+ * The checker runs after the {@link TypeChecker}, and only clears the marks of the checked assignments it cannot prove.
+ */
+final class RangeChecker {
+    private static final double EXACT = 9007199254740992.0;
+    private static final double LIMIT = 9223372036854775808.0;
+    private static final Interval TOP = new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, false);
+    private static final Interval BITS = new Interval(Integer.MIN_VALUE, Integer.MAX_VALUE, true);
+    private static final Map<String, Domain> builtins = Map.of(
+            "Q", new Domain(-Double.MAX_VALUE, Double.MAX_VALUE, false, false, false),
+            "Z", new Domain(-Double.MAX_VALUE, Double.MAX_VALUE, false, false, true),
+            "Z+", new Domain(0, Double.MAX_VALUE, false, false, true),
+            "Z-", new Domain(-Double.MAX_VALUE, 0, false, false, true),
+            "N", new Domain(0, Double.MAX_VALUE, true, false, true),
+            "N+", new Domain(0, Double.MAX_VALUE, false, false, true)
+    );
+
+    private final List<Scope> scopes;
+    private Map<String, Interval> facts;
+    private int constrained;
+    private int proven;
+
+    /**
+     * Constructs a new instance of {@link RangeChecker}.
+     */
+    RangeChecker() {
+        this.scopes = new ArrayList<>();
+        this.facts = new HashMap<>();
+    }
+
+    /**
+     * @return The number of assignments to variables declared with a range.
+     */
+    int constrained() {
+        return this.constrained;
+    }
+
+    /**
+     * @return The number of assignments to variables declared with a range proven to assign values belonging to it.
+     */
+    int proven() {
+        return this.proven;
+    }
+
+    /**
+     * Checks the assignments of a program to the variables declared with a range.
+     *
+     * @param program The {@link Program} to check, already checked by the {@link TypeChecker}.
+     */
+    void check(Program program) {
+        this.checkBlock(program.body());
+    }
+
+    /**
+     * Checks the statements of a block, in a new scope. Whatever is known about the variables declared in the block is forgotten after it.
+     *
+     * @param statements The statements of the block.
+     */
+    private void checkBlock(List<Statement> statements) {
+        final Scope scope = new Scope();
+        for(Statement statement : statements) {
+            if(statement instanceof DataDeclaration declaration) {
+                for(Statement variable : declaration.body()) scope.pending.add(((VariableDeclaration) variable).symbol());
+            } else if(statement instanceof FunctionDeclaration function) scope.pending.add(function.symbol());
+        }
+
+        this.scopes.add(scope);
+        for(Statement statement : statements) this.checkStatement(statement);
+        this.scopes.remove(this.scopes.size() - 1);
+
+        this.facts.keySet().removeAll(scope.variables.keySet());
+    }
+
+    /**
+     * Checks a statement and the blocks nested in it.
+     *
+     * @param node The statement.
+     */
+    private void checkStatement(Statement node) {
+        switch(node.kind()) {
+            case DataDeclaration -> {
+                for(Statement statement : ((DataDeclaration) node).body()) {
+                    final VariableDeclaration variable = (VariableDeclaration) statement;
+                    final Interval value = variable.value() != null ? this.interval(variable.value()) : null;
+                    if(variable.range() != null) this.interval(variable.range());
+
+                    final Domain domain = variable.type() == ValueType.Number ? this.domain(variable.range()) : Domain.NONE;
+                    this.declare(variable.symbol(), new Variable(variable.type() == ValueType.Number, domain));
+                    if(value != null && variable.type() == ValueType.Number) this.facts.put(variable.symbol(), domain.narrow(value));
+                }
+            }
+            case FunctionDeclaration -> {
+                final FunctionDeclaration function = (FunctionDeclaration) node;
+                this.declare(function.symbol(), new Variable(false, Domain.NONE));
+                if(function.body() instanceof DeferredBody) return;
+
+                final Scope scope = new Scope();
+                for(Statement statement : function.data()) {
+                    final VariableDeclaration variable = (VariableDeclaration) statement;
+                    scope.variables.put(variable.symbol().replace("*", ""), new Variable(variable.type() == ValueType.Number, Domain.NONE));
+                }
+
+                final Map<String, Interval> outer = this.facts;
+                this.facts = new HashMap<>();
+                this.scopes.add(scope);
+                this.checkBlock(function.body());
+                this.scopes.remove(this.scopes.size() - 1);
+                this.facts = outer;
+            }
+            case IfStatement -> this.checkIfStatement((IfStatement) node);
+            case ElseStatement -> this.checkBlock(((ElseStatement) node).body());
+            case ForStatement -> this.checkForStatement((ForStatement) node);
+            case WhileStatement -> this.checkWhileStatement((WhileStatement) node);
+            case ReturnStatement -> {
+                if(((ReturnStatement) node).value() != null) this.interval(((ReturnStatement) node).value());
+            }
+            case PrintFunction -> {
+                for(Expression arg : ((PrintFunction) node).args()) this.interval(arg);
+            }
+            case ImportStatement -> this.facts.clear();
+            default -> {
+                if(node instanceof Expression expression) this.interval(expression);
+            }
+        }
+    }
+
+    /**
+     * Checks an if-statement, its body under its condition, and the else-if or else statement following it.
+     * Only what is known after both of the branches is known after the statement.
+     *
+     * @param node The {@link IfStatement}.
+     */
+    private void checkIfStatement(IfStatement node) {
+        this.interval(node.expression());
+
+        final Map<String, Interval> before = new HashMap<>(this.facts);
+        if(pure(node.expression())) this.guard(node.expression());
+        this.checkBlock(node.body());
+
+        final Map<String, Interval> body = this.facts;
+        this.facts = before;
+        if(node.elseStatement() != null) this.checkStatement(node.elseStatement());
+
+        this.facts.keySet().retainAll(body.keySet());
+        this.facts.replaceAll((name, interval) -> interval.hull(body.get(name)));
+    }
+
+    /**
+     * Checks a for-loop. The control variable lies between the first value and the bound of a loop counting up over integer literals,
+     * or between the listed values, unless the body assigns it.
+     *
+     * @param node The {@link ForStatement}.
+     */
+    private void checkForStatement(ForStatement node) {
+        final List<Expression> values = node.values();
+        final boolean ellipsis = values.size() == 4 && values.get(2).kind() == NodeType.EllipsisStatement;
+
+        Interval control = null;
+        for(Expression value : values) {
+            if(value.kind() == NodeType.EllipsisStatement) continue;
+
+            final Interval interval = this.interval(value);
+            if(!ellipsis) control = control == null ? interval : control.hull(interval);
+        }
+
+        if(ellipsis) control = counted(values.get(0), values.get(1), values.get(3));
+
+        final Set<String> assigned = new HashSet<>();
+        final boolean effects = this.forget(node.body(), null, assigned);
+        final Map<String, Interval> head = new HashMap<>(this.facts);
+
+        final Scope scope = new Scope();
+        scope.variables.put(node.control_variable(), new Variable(true, Domain.NONE));
+        this.scopes.add(scope);
+        this.facts.remove(node.control_variable());
+        if(control != null && !effects && !assigned.contains(node.control_variable())) this.facts.put(node.control_variable(), control);
+        this.checkBlock(node.body());
+        this.scopes.remove(this.scopes.size() - 1);
+
+        this.facts = head;
+    }
+
+    /**
+     * Checks a while or do-while loop. The body of a while-loop is checked under its condition.
+     *
+     * @param node The {@link WhileStatement}.
+     */
+    private void checkWhileStatement(WhileStatement node) {
+        this.forget(node.body(), node.expression(), new HashSet<>());
+        final Map<String, Interval> head = new HashMap<>(this.facts);
+
+        if(!node.isDoWhile()) {
+            this.interval(node.expression());
+            if(pure(node.expression())) this.guard(node.expression());
+        }
+
+        this.checkBlock(node.body());
+        if(node.isDoWhile()) this.interval(node.expression());
+
+        this.facts = head;
+    }
+
+    /**
+     * Forgets what is known about the variables a loop assigns, or about every variable if the loop contains a call or an import.
+     *
+     * @param body The body of the loop.
+     * @param condition The condition of the loop, or {@code null} if it has none.
+     * @param assigned The set the names of the variables the loop assigns are added to.
+     * @return {@code true} if the loop contains a call or an import.
+     */
+    private boolean forget(List<Statement> body, Expression condition, Set<String> assigned) {
+        boolean effects = condition != null && scan(condition, assigned);
+        for(Statement statement : body) effects |= scan(statement, assigned);
+
+        if(effects) this.facts.clear();
+        else this.facts.keySet().removeAll(assigned);
+
+        return effects;
+    }
+
+    /**
+     * Bounds the values of an expression, applying the effects of the assignments and the calls nested in it in the order they are evaluated.
+     *
+     * @param node The expression.
+     * @return The {@link Interval} the value of the expression lies in, if it is a number.
+     */
+    private Interval interval(Expression node) {
+        switch(node.kind()) {
+            case NumericLiteral -> {
+                final double value = ((NumericLiteral) node).value();
+                return Interval.of(value, value, value == Math.rint(value));
+            }
+            case Identifier -> {
+                return this.lookup(((Identifier) node).symbol());
+            }
+            case BinaryExpression -> {
+                final BinaryExpression expression = (BinaryExpression) node;
+                final Interval left = this.interval(expression.left());
+                final Interval right = this.interval(expression.right());
+                return left.apply(expression.operator(), right);
+            }
+            case ComparisonExpression -> {
+                this.interval(((ComparisonExpression) node).left());
+                this.interval(((ComparisonExpression) node).right());
+                return TOP;
+            }
+            case LogicalExpression -> {
+                this.interval(((LogicalExpression) node).right());
+                if(((LogicalExpression) node).left() != null) this.interval(((LogicalExpression) node).left());
+                return TOP;
+            }
+            case BitwiseExpression -> {
+                this.interval(((BitwiseExpression) node).right());
+                if(((BitwiseExpression) node).left() != null) this.interval(((BitwiseExpression) node).left());
+                return BITS;
+            }
+            case IndexExpression -> {
+                this.interval(((IndexExpression) node).array());
+                this.interval(((IndexExpression) node).index());
+                return TOP;
+            }
+            case AssignmentExpression -> {
+                return this.checkAssignment((AssignmentExpression) node);
+            }
+            case CallExpression -> {
+                this.interval(((CallExpression) node).expression());
+                for(Expression arg : ((CallExpression) node).args()) this.interval(arg);
+                this.facts.clear();
+                return TOP;
+            }
+            case GetFunction -> {
+                this.facts.remove(((GetFunction) node).identifier());
+                return TOP;
+            }
+            case ArrayLiteral -> {
+                for(Expression value : ((ArrayLiteral) node).values()) this.interval(value);
+                return TOP;
+            }
+            case SetLiteral -> {
+                for(Expression value : ((SetLiteral) node).values()) this.interval(value);
+                return TOP;
+            }
+            case RangeLiteral -> {
+                this.interval(((RangeLiteral) node).leftBound());
+                this.interval(((RangeLiteral) node).rightBound());
+                return TOP;
+            }
+            default -> {
+                return TOP;
+            }
+        }
+    }
+
+    /**
+     * Checks an assignment, and clears its mark of a checked assignment if the variable has a range the value has not been proven to belong to.
+     *
+     * @param node The {@link AssignmentExpression}.
+     * @return The {@link Interval} the assigned value lies in, if it is a number.
+     */
+    private Interval checkAssignment(AssignmentExpression node) {
+        final Interval value = this.interval(node.value());
+        if(!(node.expression() instanceof Identifier identifier)) {
+            this.interval(node.expression());
+            return value;
+        }
+
+        final String name = identifier.symbol();
+        final Variable variable = this.lookupVariable(name);
+        if(variable == null) {
+            node.setChecked(false);
+            this.facts.remove(name);
+            return value;
+        }
+
+        if(variable.domain != Domain.NONE) {
+            this.constrained++;
+            if(variable.domain.contains(value)) this.proven++;
+            else node.setChecked(false);
+        }
+
+        final Interval result = variable.domain.narrow(value);
+        if(variable.number) this.facts.put(name, result);
+        else this.facts.remove(name);
+
+        return result;
+    }
+
+    /**
+     * Narrows what is known about the variables compared by a condition, which holds in the body of an if-statement or a while-loop.
+     * Only the comparisons of numbers, and their conjunctions, are taken into account.
+     *
+     * @param node The condition, which has no effects.
+     */
+    private void guard(Expression node) {
+        if(node instanceof LogicalExpression logical && logical.operator() == Operator.And && logical.left() != null) {
+            this.guard(logical.left());
+            this.guard(logical.right());
+        } else if(node instanceof ComparisonExpression comparison) {
+            if(comparison.left().staticType() != ValueType.Number || comparison.right().staticType() != ValueType.Number) return;
+
+            if(comparison.left() instanceof Identifier identifier) this.refine(identifier.symbol(), comparison.operator(), this.interval(comparison.right()));
+            if(comparison.right() instanceof Identifier identifier) this.refine(identifier.symbol(), mirror(comparison.operator()), this.interval(comparison.left()));
+        }
+    }
+
+    /**
+     * Narrows what is known about a variable compared with a value.
+     *
+     * @param name The name of the variable.
+     * @param operator The comparison {@link Operator}, with the variable on its left.
+     * @param bound The {@link Interval} the compared value lies in.
+     */
+    private void refine(String name, Operator operator, Interval bound) {
+        final Variable variable = this.lookupVariable(name);
+        if(variable == null || !variable.number) return;
+
+        final Interval current = this.lookup(name);
+        final boolean integral = current.integral && bound.integral;
+        double lo = current.lo;
+        double hi = current.hi;
+
+        switch(operator) {
+            case Less -> hi = Math.min(hi, integral && Math.abs(bound.hi) <= EXACT ? bound.hi - 1 : bound.hi);
+            case LessOrEqual -> hi = Math.min(hi, bound.hi);
+            case Greater -> lo = Math.max(lo, integral && Math.abs(bound.lo) <= EXACT ? bound.lo + 1 : bound.lo);
+            case GreaterOrEqual -> lo = Math.max(lo, bound.lo);
+            case Equal -> {
+                lo = Math.max(lo, bound.lo);
+                hi = Math.min(hi, bound.hi);
+            }
+            default -> {
+                return;
+            }
+        }
+
+        this.facts.put(name, Interval.of(lo, hi, current.integral));
+    }
+
+    /**
+     * Determines the domain of a variable from the range it is declared with.
+     *
+     * @param range The range of the variable, or {@code null} if it is declared without one.
+     * @return The {@link Domain} of the variable.
+     */
+    private Domain domain(Expression range) {
+        if(range == null) return Domain.NONE;
+
+        if(range instanceof RangeLiteral literal && literal.leftBound() instanceof NumericLiteral left && literal.rightBound() instanceof NumericLiteral right)
+            return new Domain(left.value(), right.value(), literal.leftIncluded(), literal.rightIncluded(), false);
+
+        if(range instanceof Identifier identifier && this.find(identifier.symbol()) == null) {
+            for(Scope scope : this.scopes) if(scope.pending.contains(identifier.symbol())) return Domain.UNKNOWN;
+            return builtins.getOrDefault(identifier.symbol(), Domain.UNKNOWN);
+        }
+
+        return Domain.UNKNOWN;
+    }
+
+    /**
+     * Declares a name in the current scope, forgetting what was known about the name.
+     *
+     * @param name The declared name.
+     * @param variable The declared {@link Variable}.
+     */
+    private void declare(String name, Variable variable) {
+        final Scope scope = this.scopes.get(this.scopes.size() - 1);
+        scope.pending.remove(name);
+        scope.variables.put(name, variable);
+        this.facts.remove(name);
+    }
+
+    /**
+     * Finds the scope declaring a name.
+     *
+     * @param name The name.
+     * @return The innermost {@link Scope} declaring the name, or {@code null} if it is not declared yet in any scope.
+     */
+    private Scope find(String name) {
+        for(int i = this.scopes.size() - 1; i >= 0; i--) {
+            final Scope scope = this.scopes.get(i);
+            if(scope.variables.containsKey(name)) return scope;
+            if(scope.pending.contains(name)) return null;
+        }
+
+        return null;
+    }
+
+    /**
+     * Looks up a variable of the program.
+     *
+     * @param name The name of the variable.
+     * @return The {@link Variable}, or {@code null} if the name is not declared yet in any scope.
+     */
+    private Variable lookupVariable(String name) {
+        final Scope scope = this.find(name);
+        return scope == null ? null : scope.variables.get(name);
+    }
+
+    /**
+     * Looks up the interval the value of a variable lies in.
+     *
+     * @param name The name of the variable.
+     * @return What is known about the variable, or else the {@link Interval} of its range.
+     */
+    private Interval lookup(String name) {
+        final Interval fact = this.facts.get(name);
+        if(fact != null) return fact;
+
+        final Variable variable = this.lookupVariable(name);
+        return variable != null && variable.number ? variable.domain.interval() : TOP;
+    }
+
+    /**
+     * Bounds the control variable of a for-loop counting up from an integer literal to another one.
+     *
+     * @param first The first value of the control variable.
+     * @param second The second value of the control variable.
+     * @param max The bound of the control variable.
+     * @return The {@link Interval} of the control variable, or {@code null} if it is unknown.
+     */
+    private static Interval counted(Expression first, Expression second, Expression max) {
+        if(!(first instanceof NumericLiteral start && second instanceof NumericLiteral next && max instanceof NumericLiteral limit)) return null;
+        if(!integer(start.value()) || !integer(next.value()) || !integer(limit.value())) return null;
+        if(next.value() <= start.value() || limit.value() < start.value()) return null;
+
+        return Interval.of(start.value(), limit.value(), true);
+    }
+
+    /**
+     * Checks if a number is an integer an {@code int} can hold.
+     *
+     * @param value The number.
+     * @return {@code true} if the number is such an integer.
+     */
+    private static boolean integer(double value) {
+        return value == (int) value;
+    }
+
+    /**
+     * Checks if an expression has no effects, i.e. contains no assignments, calls or reads of the input.
+     *
+     * @param node The expression.
+     * @return {@code true} if evaluating the expression changes no variables.
+     */
+    private static boolean pure(Expression node) {
+        final Set<String> assigned = new HashSet<>();
+        return !scan(node, assigned) && assigned.isEmpty();
+    }
+
+    /**
+     * Collects the names of the variables assigned by a statement and the statements and expressions nested in it.
+     * The bodies of the functions declared in the statement are skipped, since they run only when they are called.
+     *
+     * @param node The statement.
+     * @param assigned The set the names of the assigned variables are added to.
+     * @return {@code true} if the statement contains a call or an import.
+     */
+    private static boolean scan(Statement node, Set<String> assigned) {
+        if(node == null) return false;
+
+        boolean effects = false;
+        switch(node.kind()) {
+            case DataDeclaration -> {
+                for(Statement statement : ((DataDeclaration) node).body()) {
+                    effects |= scan(((VariableDeclaration) statement).value(), assigned);
+                    effects |= scan(((VariableDeclaration) statement).range(), assigned);
+                }
+            }
+            case IfStatement -> {
+                effects = scan(((IfStatement) node).expression(), assigned);
+                for(Statement statement : ((IfStatement) node).body()) effects |= scan(statement, assigned);
+                effects |= scan(((IfStatement) node).elseStatement(), assigned);
+            }
+            case ElseStatement -> {
+                for(Statement statement : ((ElseStatement) node).body()) effects |= scan(statement, assigned);
+            }
+            case ForStatement -> {
+                for(Expression value : ((ForStatement) node).values()) effects |= scan(value, assigned);
+                for(Statement statement : ((ForStatement) node).body()) effects |= scan(statement, assigned);
+            }
+            case WhileStatement -> {
+                effects = scan(((WhileStatement) node).expression(), assigned);
+                for(Statement statement : ((WhileStatement) node).body()) effects |= scan(statement, assigned);
+            }
+            case ReturnStatement -> effects = scan(((ReturnStatement) node).value(), assigned);
+            case PrintFunction -> {
+                for(Expression arg : ((PrintFunction) node).args()) effects |= scan(arg, assigned);
+            }
+            case ImportStatement, CallExpression -> effects = true;
+            case BinaryExpression -> effects = scan(((BinaryExpression) node).left(), assigned) | scan(((BinaryExpression) node).right(), assigned);
+            case ComparisonExpression -> effects = scan(((ComparisonExpression) node).left(), assigned) | scan(((ComparisonExpression) node).right(), assigned);
+            case LogicalExpression -> effects = scan(((LogicalExpression) node).left(), assigned) | scan(((LogicalExpression) node).right(), assigned);
+            case BitwiseExpression -> effects = scan(((BitwiseExpression) node).left(), assigned) | scan(((BitwiseExpression) node).right(), assigned);
+            case IndexExpression -> effects = scan(((IndexExpression) node).array(), assigned) | scan(((IndexExpression) node).index(), assigned);
+            case AssignmentExpression -> {
+                final AssignmentExpression assignment = (AssignmentExpression) node;
+                if(assignment.expression() instanceof Identifier identifier) assigned.add(identifier.symbol());
+                else if(assignment.expression() instanceof IndexExpression index && index.array() instanceof Identifier identifier) assigned.add(identifier.symbol());
+                effects = scan(assignment.expression(), assigned) | scan(assignment.value(), assigned);
+            }
+            case GetFunction -> assigned.add(((GetFunction) node).identifier());
+            case ArrayLiteral -> {
+                for(Expression value : ((ArrayLiteral) node).values()) effects |= scan(value, assigned);
+            }
+            case SetLiteral -> {
+                for(Expression value : ((SetLiteral) node).values()) effects |= scan(value, assigned);
+            }
+            case RangeLiteral -> effects = scan(((RangeLiteral) node).leftBound(), assigned) | scan(((RangeLiteral) node).rightBound(), assigned);
+            default -> {}
+        }
+
+        return effects;
+    }
+
+    /**
+     * Mirrors a comparison operator, so it compares the same operands in the reverse order.
+     *
+     * @param operator The comparison {@link Operator}.
+     * @return The mirrored {@link Operator}.
+     */
+    private static Operator mirror(Operator operator) {
+        return switch(operator) {
+            case Less -> Operator.Greater;
+            case LessOrEqual -> Operator.GreaterOrEqual;
+            case Greater -> Operator.Less;
+            case GreaterOrEqual -> Operator.LessOrEqual;
+            default -> operator;
+        };
+    }
+
+    /**
+     * A closed interval of numbers, which may be unbounded.
+     *
+     * @param lo The lower bound.
+     * @param hi The upper bound.
+     * @param integral {@code true} if every number in the interval is an integer.
+     */
+    private record Interval(double lo, double hi, boolean integral) {
+        /**
+         * Creates an interval, or the unbounded one if either of the bounds is not a number.
+         *
+         * @param lo The lower bound.
+         * @param hi The upper bound.
+         * @param integral {@code true} if every number in the interval is an integer.
+         * @return The {@link Interval}.
+         */
+        private static Interval of(double lo, double hi, boolean integral) {
+            if(Double.isNaN(lo) || Double.isNaN(hi)) return TOP;
+            return new Interval(lo, hi, integral);
+        }
+
+        /**
+         * Bounds the result of an arithmetic operation on a number of this interval and a number of another one.
+         * The results of sums, differences and products of integers are integers, even if they are rounded.
+         *
+         * @param operator The arithmetic {@link Operator}.
+         * @param other The {@link Interval} of the right operand.
+         * @return The {@link Interval} of the result.
+         */
+        private Interval apply(Operator operator, Interval other) {
+            final boolean integral = this.integral && other.integral;
+
+            switch(operator) {
+                case Add -> {
+                    return of(this.lo + other.lo, this.hi + other.hi, integral);
+                }
+                case Subtract -> {
+                    return of(this.lo - other.hi, this.hi - other.lo, integral);
+                }
+                case Multiply -> {
+                    final double a = this.lo * other.lo, b = this.lo * other.hi, c = this.hi * other.lo, d = this.hi * other.hi;
+                    if(Double.isNaN(a) || Double.isNaN(b) || Double.isNaN(c) || Double.isNaN(d)) return TOP;
+                    return of(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(a, b), Math.max(c, d)), integral);
+                }
+                case Divide -> {
+                    if(other.lo != other.hi || !(other.lo > 0)) return TOP;
+                    return of(this.lo / other.lo, this.hi / other.lo, false);
+                }
+                case IntegerDivide -> {
+                    if(other.lo != other.hi || !(other.lo > 0)) return TOP;
+                    return of(Math.floor(this.lo / other.lo), Math.floor(this.hi / other.lo), true);
+                }
+                case Modulus -> {
+                    if(other.lo != other.hi || !(other.lo > 0) || !(this.lo >= 0)) return TOP;
+                    return of(0, Math.min(this.hi, integral ? other.lo - 1 : other.lo), integral);
+                }
+                default -> {
+                    return TOP;
+                }
+            }
+        }
+
+        /**
+         * Creates the smallest interval containing this interval and another one.
+         *
+         * @param other The other {@link Interval}.
+         * @return The {@link Interval} containing both of them.
+         */
+        private Interval hull(Interval other) {
+            return new Interval(Math.min(this.lo, other.lo), Math.max(this.hi, other.hi), this.integral && other.integral);
+        }
+    }
+
+    /**
+     * The range a variable is declared with.
+     *
+     * @param lo The left bound.
+     * @param hi The right bound.
+     * @param lo_inclusive {@code true} if the left bound belongs to the range.
+     * @param hi_inclusive {@code true} if the right bound belongs to the range.
+     * @param integral {@code true} if the range contains only integers.
+     */
+    private record Domain(double lo, double hi, boolean lo_inclusive, boolean hi_inclusive, boolean integral) {
+        private static final Domain NONE = new Domain(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, true, true, false);
+        private static final Domain UNKNOWN = new Domain(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, false, false, false);
+
+        /**
+         * Checks if every number of an interval belongs to the range. An unknown range contains no interval.
+         * A range of integers contains only the integers a {@code long} can hold, up to the rounding of its bounds.
+         *
+         * @param value The {@link Interval}.
+         * @return {@code true} if the interval is contained in the range.
+         */
+        private boolean contains(Interval value) {
+            if(this == UNKNOWN || this == NONE) return this == NONE;
+            if(!Double.isFinite(value.lo) || !Double.isFinite(value.hi) || value.lo > value.hi) return false;
+            if(this.integral && (!value.integral || Math.abs(value.lo) > LIMIT || Math.abs(value.hi) > LIMIT)) return false;
+
+            return (this.lo_inclusive ? this.lo <= value.lo : this.lo < value.lo) && (this.hi_inclusive ? value.hi <= this.hi : value.hi < this.hi);
+        }
+
+        /**
+         * Narrows an interval to the numbers belonging to the range, which is what is known about a variable after a value is assigned to it.
+         *
+         * @param value The {@link Interval} of the assigned value.
+         * @return The narrowed {@link Interval}.
+         */
+        private Interval narrow(Interval value) {
+            final Interval range = this.interval();
+            return new Interval(Math.max(value.lo, range.lo), Math.min(value.hi, range.hi), value.integral || range.integral);
+        }
+
+        /**
+         * @return The smallest closed {@link Interval} containing the range, the unbounded one if the range is unknown.
+         */
+        private Interval interval() {
+            if(this == UNKNOWN || this == NONE) return TOP;
+
+            if(!this.integral) return new Interval(this.lo, this.hi, false);
+
+            final double lo = !this.lo_inclusive && Math.abs(this.lo) < EXACT ? this.lo + 1 : Math.max(this.lo, -LIMIT);
+            final double hi = !this.hi_inclusive && Math.abs(this.hi) < EXACT ? this.hi - 1 : Math.min(this.hi, LIMIT);
+            return new Interval(lo, hi, true);
+        }
+    }
+
+    /**
+     * A variable declared in the program.
+     *
+     * @param number {@code true} if the variable is declared as a number.
+     * @param domain The {@link Domain} of the variable, {@link Domain#NONE} if it is declared without a range.
+     */
+    private record Variable(boolean number, Domain domain) {}
+
+    /**
+     * The names declared in a block.
+     */
+    private static class Scope {
+        private final Map<String, Variable> variables = new HashMap<>();
+        private final Set<String> pending = new HashSet<>();
+    }
+}
@@ -0,0 +1,472 @@
+package indy.pseudokod.optimizer;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.exceptions.DataTypeMismatchException;
+import indy.pseudokod.runtime.values.ValueType;
+
+import java.util.*;
+
+/**
+ * The {@link TypeChecker} proves the types of the expressions of a program from the declared types of the variables,
+ * and annotates the expressions with them, see {@link Expression#staticType()}.<br><br>
+ *
+ * A variable always holds a value of its declared type or null, since every write to it is checked, so reading it is an expression of its type.
+ * The types of literals and operations follow from the rules of the {@link indy.pseudokod.runtime.Interpreter},
+ * e.g. a sum of numbers is a number (or null, if either of them is null), and a sum with a string is a string.
+ * A call of a function declared in the program has the type of the value of its body, i.e. of its last statement,
+ * which is not necessarily the declared {@code result:} type, since the result of a function is not checked.<br><br>
+ *
+ * An assignment to a variable of a value of its type is marked as checked, see {@link AssignmentExpression#checked()},
+ * unless the variable has a range the {@link RangeChecker} cannot prove the value to belong to.
+ * A declaration, an assignment or a call whose value or argument has been proven to be of a wrong type, and a function whose body
+ * has been proven not to return its {@code result:} type, are reported as type errors. They are not thrown, since the code may never run,
+ * and the engines still check their types when they run. The checker only reads the program and annotates its nodes in place.<br><br>
+ *
+ * Variables are looked up in the scopes of the blocks, like the {@link indy.pseudokod.runtime.Resolver} does. A variable declared
+ * later in the block or in an enclosing one, or in another module, has an unknown type.
+ */
+final class TypeChecker {
+    private static final Map<String, ValueType> builtins = Map.ofEntries(
+            Map.entry("true", ValueType.Boolean),
+            Map.entry("false", ValueType.Boolean),
+            Map.entry("prawda", ValueType.Boolean),
+            Map.entry("falsz", ValueType.Boolean),
+            Map.entry("null", ValueType.NULL),
+            Map.entry("infinity", ValueType.Number),
+            Map.entry("nieskonczonosc", ValueType.Number),
+            Map.entry("∞", ValueType.Number),
+            Map.entry("pi", ValueType.Number),
+            Map.entry("π", ValueType.Number),
+            Map.entry("endl", ValueType.String)
+    );
+
+    private final List<Scope> scopes;
+    private final Map<FunctionDeclaration, ValueType> results;
+    private final List<String> errors;
+    private int assignments;
+    private int checked;
+
+    /**
+     * Constructs a new instance of {@link TypeChecker}.
+     */
+    TypeChecker() {
+        this.scopes = new ArrayList<>();
+        this.results = new IdentityHashMap<>();
+        this.errors = new ArrayList<>();
+    }
+
+    /**
+     * @return The number of assignments to variables checked.
+     */
+    int assignments() {
+        return this.assignments;
+    }
+
+    /**
+     * @return The number of assignments to variables proven to assign values of their types.
+     */
+    int checked() {
+        return this.checked;
+    }
+
+    /**
+     * @return The messages of the type errors found.
+     */
+    List<String> errors() {
+        return this.errors;
+    }
+
+    /**
+     * Checks the types of a program and annotates its expressions.
+     *
+     * @param program The {@link Program} to check.
+     */
+    void check(Program program) {
+        this.checkBlock(program.body());
+    }
+
+    /**
+     * Checks the statements of a block, in a new scope.
+     *
+     * @param statements The statements of the block.
+     * @return The type of the value of the block, i.e. of its last statement, or {@code null} if it is unknown.
+     */
+    private ValueType checkBlock(List<Statement> statements) {
+        final Scope scope = new Scope();
+        for(Statement statement : statements) {
+            if(statement instanceof DataDeclaration declaration) {
+                for(Statement variable : declaration.body()) scope.pending.add(((VariableDeclaration) variable).symbol());
+            } else if(statement instanceof FunctionDeclaration function) scope.pending.add(function.symbol());
+        }
+
+        this.scopes.add(scope);
+
+        ValueType value = ValueType.NULL;
+        for(Statement statement : statements) value = this.checkStatement(statement);
+
+        this.scopes.remove(this.scopes.size() - 1);
+        return value;
+    }
+
+    /**
+     * Checks the types of a statement and of the blocks nested in it.
+     *
+     * @param node The statement.
+     * @return The type of the value of the statement, or {@code null} if it is unknown.
+     */
+    private ValueType checkStatement(Statement node) {
+        switch(node.kind()) {
+            case DataDeclaration -> {
+                for(Statement statement : ((DataDeclaration) node).body()) {
+                    final VariableDeclaration variable = (VariableDeclaration) statement;
+                    final ValueType type = variable.value() != null ? this.type(variable.value()) : null;
+                    if(variable.range() != null) this.type(variable.range());
+
+                    this.mismatch(variable.type(), type, "variable '" + variable.symbol() + "'");
+                    this.declare(variable.symbol(), variable.type(), null);
+                    if(variable.constant()) this.scopes.get(this.scopes.size() - 1).constants.add(variable.symbol());
+                }
+
+                return ValueType.NULL;
+            }
+            case FunctionDeclaration -> {
+                this.checkFunction((FunctionDeclaration) node);
+                return ValueType.NULL;
+            }
+            case IfStatement -> {
+                return this.checkIfStatement((IfStatement) node);
+            }
+            case ElseStatement -> {
+                this.checkBlock(((ElseStatement) node).body());
+                return ValueType.NULL;
+            }
+            case ForStatement -> {
+                final ForStatement loop = (ForStatement) node;
+                for(Expression value : loop.values()) this.type(value);
+
+                final Scope scope = new Scope();
+                scope.types.put(loop.control_variable(), ValueType.Number);
+                this.scopes.add(scope);
+                this.checkBlock(loop.body());
+                this.scopes.remove(this.scopes.size() - 1);
+
+                return null;
+            }
+            case WhileStatement -> {
+                this.type(((WhileStatement) node).expression());
+                this.checkBlock(((WhileStatement) node).body());
+                return null;
+            }
+            case ReturnStatement -> {
+                return this.type(((ReturnStatement) node).value());
+            }
+            case PrintFunction -> {
+                for(Expression arg : ((PrintFunction) node).args()) this.type(arg);
+                return ValueType.NULL;
+            }
+            case ImportStatement -> {
+                return ValueType.NULL;
+            }
+            default -> {
+                return node instanceof Expression expression ? this.type(expression) : null;
+            }
+        }
+    }
+
+    /**
+     * Checks the types of a function declaration and its body, and records the type of the value of its body.
+     * The body of a function deferred by the {@link Optimizer} is left alone, so the type of its value is unknown.
+     *
+     * @param node The {@link FunctionDeclaration}.
+     */
+    private void checkFunction(FunctionDeclaration node) {
+        this.declare(node.symbol(), ValueType.Function, node);
+        if(node.body() instanceof DeferredBody) return;
+
+        final Scope scope = new Scope();
+        for(Statement statement : node.data()) {
+            final VariableDeclaration variable = (VariableDeclaration) statement;
+            scope.types.put(variable.symbol().replace("*", ""), variable.type());
+        }
+
+        this.scopes.add(scope);
+        final ValueType result = this.checkBlock(node.body());
+        this.scopes.remove(this.scopes.size() - 1);
+
+        this.results.put(node, result);
+        if(node.result() != null) this.mismatch(node.result(), result, "the result of function '" + node.symbol() + "'");
+    }
+
+    /**
+     * Checks the types of an if-statement, its body and the else-if or else statement following it.
+     *
+     * @param node The {@link IfStatement}.
+     * @return The type of the value of the statement, or {@code null} if it is unknown.
+     */
+    private ValueType checkIfStatement(IfStatement node) {
+        this.type(node.expression());
+        final ValueType body = this.checkBlock(node.body());
+
+        final ValueType otherwise;
+        if(node.elseStatement() instanceof IfStatement statement) otherwise = this.checkIfStatement(statement);
+        else if(node.elseStatement() instanceof ElseStatement statement) otherwise = this.checkBlock(statement.body());
+        else otherwise = ValueType.NULL;
+
+        return join(body, otherwise);
+    }
+
+    /**
+     * Proves the type of an expression and annotates it and the expressions nested in it.
+     *
+     * @param node The expression, may be {@code null}.
+     * @return The proven type, or {@code null} if it is unknown.
+     */
+    private ValueType type(Expression node) {
+        if(node == null) return null;
+
+        final ValueType type = this.infer(node);
+        node.setStaticType(type);
+        return type;
+    }
+
+    /**
+     * Proves the type of an expression from the types of the expressions nested in it.
+     *
+     * @param node The expression.
+     * @return The proven type, or {@code null} if it is unknown.
+     */
+    private ValueType infer(Expression node) {
+        switch(node.kind()) {
+            case NumericLiteral -> {
+                return ValueType.Number;
+            }
+            case StringLiteral -> {
+                return ValueType.String;
+            }
+            case CharacterLiteral -> {
+                return ValueType.Char;
+            }
+            case BooleanLiteral -> {
+                return ValueType.Boolean;
+            }
+            case NullLiteral -> {
+                return ValueType.NULL;
+            }
+            case Identifier -> {
+                return this.lookup(((Identifier) node).symbol());
+            }
+            case BinaryExpression -> {
+                final BinaryExpression expression = (BinaryExpression) node;
+                final ValueType left = this.type(expression.left());
+                final ValueType right = this.type(expression.right());
+
+                if(left == ValueType.Number && right == ValueType.Number) return ValueType.Number;
+                if((left == ValueType.String || right == ValueType.String) && expression.operator() == Operator.Add) return ValueType.String;
+                return left != null && right != null ? ValueType.NULL : null;
+            }
+            case ComparisonExpression -> {
+                this.type(((ComparisonExpression) node).left());
+                this.type(((ComparisonExpression) node).right());
+                return ValueType.Boolean;
+            }
+            case LogicalExpression -> {
+                this.type(((LogicalExpression) node).left());
+                this.type(((LogicalExpression) node).right());
+                return ValueType.Boolean;
+            }
+            case BitwiseExpression -> {
+                this.type(((BitwiseExpression) node).left());
+                this.type(((BitwiseExpression) node).right());
+                return ValueType.Number;
+            }
+            case IndexExpression -> {
+                this.type(((IndexExpression) node).array());
+                this.type(((IndexExpression) node).index());
+                return null;
+            }
+            case AssignmentExpression -> {
+                return this.checkAssignment((AssignmentExpression) node);
+            }
+            case CallExpression -> {
+                return this.checkCall((CallExpression) node);
+            }
+            case GetFunction -> {
+                return this.lookup(((GetFunction) node).identifier());
+            }
+            case ArrayLiteral -> {
+                for(Expression value : ((ArrayLiteral) node).values()) this.type(value);
+                return ValueType.List;
+            }
+            case SetLiteral -> {
+                for(Expression value : ((SetLiteral) node).values()) this.type(value);
+                return null;
+            }
+            case RangeLiteral -> {
+                this.type(((RangeLiteral) node).leftBound());
+                this.type(((RangeLiteral) node).rightBound());
+                return null;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Checks the type of the value assigned by an assignment, and marks the assignment as checked if it is the type of the variable.
+     *
+     * @param node The {@link AssignmentExpression}.
+     * @return The type of the assigned value, or {@code null} if it is unknown.
+     */
+    private ValueType checkAssignment(AssignmentExpression node) {
+        this.type(node.expression());
+        final ValueType value = this.type(node.value());
+        node.setChecked(false);
+
+        if(!(node.expression() instanceof Identifier identifier)) return null;
+
+        final ValueType type = this.lookupVariable(identifier.symbol());
+        if(type == null) return value;
+
+        this.assignments++;
+        if(value == type || value == ValueType.NULL) {
+            node.setChecked(true);
+            this.checked++;
+        } else this.mismatch(type, value, "variable '" + identifier.symbol() + "'");
+
+        return value;
+    }
+
+    /**
+     * Checks the types of the arguments of a call of a function declared in the program.
+     *
+     * @param node The {@link CallExpression}.
+     * @return The type of the value of the body of the called function, or {@code null} if it is unknown.
+     */
+    private ValueType checkCall(CallExpression node) {
+        this.type(node.expression());
+        final List<ValueType> args = new ArrayList<>(node.args().size());
+        for(Expression arg : node.args()) args.add(this.type(arg));
+
+        if(!(node.expression() instanceof Identifier identifier)) return null;
+
+        final FunctionDeclaration function = this.lookupFunction(identifier.symbol());
+        if(function == null) return null;
+
+        int index = 0;
+        for(Statement statement : function.data()) {
+            final VariableDeclaration variable = (VariableDeclaration) statement;
+            if(!variable.symbol().endsWith("*")) continue;
+
+            if(index < args.size()) this.mismatch(variable.type(), args.get(index), "parameter '" + variable.symbol().replace("*", "") + "' of function '" + function.symbol() + "'");
+            index++;
+        }
+
+        return this.results.get(function);
+    }
+
+    /**
+     * Reports a type error if a value has been proven to have a type other than the expected one.
+     *
+     * @param expected The expected {@link ValueType}.
+     * @param received The proven {@link ValueType} of the value, or {@code null} if it is unknown.
+     * @param target The description of what the value is assigned to.
+     */
+    private void mismatch(ValueType expected, ValueType received, String target) {
+        if(received == null || received == ValueType.NULL || received == expected) return;
+        this.errors.add(new DataTypeMismatchException(expected, received).getMessage() + " (" + target + ")");
+    }
+
+    /**
+     * Declares a name in the current scope.
+     *
+     * @param name The declared name.
+     * @param type The declared {@link ValueType}.
+     * @param function The {@link FunctionDeclaration}, if the name is a function, {@code null} otherwise.
+     */
+    private void declare(String name, ValueType type, FunctionDeclaration function) {
+        final Scope scope = this.scopes.get(this.scopes.size() - 1);
+        scope.pending.remove(name);
+        scope.types.put(name, type);
+        scope.constants.remove(name);
+        if(function != null) scope.functions.put(name, function);
+        else scope.functions.remove(name);
+    }
+
+    /**
+     * Finds the scope declaring a name.
+     *
+     * @param name The name.
+     * @return The innermost {@link Scope} declaring the name, or {@code null} if it is not declared yet in any scope.
+     */
+    private Scope find(String name) {
+        for(int i = this.scopes.size() - 1; i >= 0; i--) {
+            final Scope scope = this.scopes.get(i);
+            if(scope.types.containsKey(name)) return scope;
+            if(scope.pending.contains(name)) return null;
+        }
+
+        return null;
+    }
+
+    /**
+     * Looks up the type of a name.
+     *
+     * @param name The name.
+     * @return The declared type of the variable or function, or of the built-in constant, or {@code null} if it is unknown.
+     */
+    private ValueType lookup(String name) {
+        final Scope scope = this.find(name);
+        if(scope != null) return scope.types.get(name);
+
+        for(Scope outer : this.scopes) if(outer.pending.contains(name)) return null;
+        return builtins.get(name);
+    }
+
+    /**
+     * Looks up the declared type of a variable of the program.
+     *
+     * @param name The name of the variable.
+     * @return The declared type of the variable, or {@code null} if the name is not a variable declared in the program, or it is constant.
+     */
+    private ValueType lookupVariable(String name) {
+        final Scope scope = this.find(name);
+        return scope == null || scope.functions.containsKey(name) || scope.constants.contains(name) ? null : scope.types.get(name);
+    }
+
+    /**
+     * Looks up a function of the program.
+     *
+     * @param name The name of the function.
+     * @return The {@link FunctionDeclaration}, or {@code null} if the name is not a function declared in the program.
+     */
+    private FunctionDeclaration lookupFunction(String name) {
+        final Scope scope = this.find(name);
+        return scope == null ? null : scope.functions.get(name);
+    }
+
+    /**
+     * Joins the types of the values of two branches.
+     *
+     * @param left The type of the value of the first branch.
+     * @param right The type of the value of the second branch.
+     * @return The type of both values, or {@code null} if it is unknown.
+     */
+    private static ValueType join(ValueType left, ValueType right) {
+        if(left == null || right == null) return null;
+        if(left == ValueType.NULL) return right;
+        if(right == ValueType.NULL || left == right) return left;
+
+        return null;
+    }
+
+    /**
+     * The names declared in a block.
+     */
+    private static class Scope {
+        private final Map<String, ValueType> types = new HashMap<>();
+        private final Map<String, FunctionDeclaration> functions = new HashMap<>();
+        private final Set<String> constants = new HashSet<>();
+        private final Set<String> pending = new HashSet<>();
+    }
+}
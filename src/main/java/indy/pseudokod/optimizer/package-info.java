@@ -0,0 +1,22 @@
+/**
+ * The {@link indy.pseudokod.optimizer} package provides the optimization passes applied to the abstract syntax tree (AST)
+ * of a program between parsing and execution.
+ *
+ * <p>The {@link indy.pseudokod.optimizer.Optimizer} runs the passes on every program and module as it is loaded.
+ * The {@link indy.pseudokod.optimizer.ConstantFolder} runs first and copies every node of the tree it folds, even the ones it does not change.
+ * The passes after it and the {@link indy.pseudokod.runtime.Resolver} annotate only the nodes of that copy, so the trees
+ * kept by the parser, reused by {@link indy.pseudokod.parser.Parser#reparse} and read by the {@link indy.pseudokod.cache.AstCache}
+ * are never annotated. The body of a function the optimizer defers is copied the same way when it is optimized, on the first call.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * Program program = Optimizer.optimize(parser.produceAST(source));
+ * Resolver.resolve(program);
+ * Interpreter.evaluate(program, env);
+ * }</pre>
+ *
+ * @see indy.pseudokod.optimizer.Optimizer
+ * @see indy.pseudokod.runtime.Resolver
+ * @see indy.pseudokod.runtime.ModuleRegistry
+ */
+package indy.pseudokod.optimizer;
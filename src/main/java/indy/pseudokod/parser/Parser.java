@@ -3,23 +3,36 @@ package indy.pseudokod.parser;
 import indy.pseudokod.ast.*;
 import indy.pseudokod.exceptions.*;
 import indy.pseudokod.lexer.Token;
+import indy.pseudokod.lexer.TokenStream;
 import indy.pseudokod.lexer.TokenType;
 import indy.pseudokod.runtime.values.ValueType;
 
+import java.io.IOException;
 import java.util.*;
 
 import indy.pseudokod.lexer.Lexer;
 
 /**
- * The {@link Parser} is responsible for analyzing a list of tokens produced by the {@link Lexer}
+ * The {@link Parser} is responsible for analyzing a stream of tokens produced by the {@link Lexer}
  * and constructing an Abstract Syntax Tree (AST). It processes the tokens generated
  * by the lexer and applies the rules of the language grammar to produce
- * a structured representation of the source code.
+ * a structured representation of the source code.<br><br>
+ *
+ * The parser reads the tokens through a cursor over a {@link TokenStream}, looking ahead only a few tokens at a time,
+ * so parsing takes time proportional to the number of tokens. All of its mutable state belongs to the instance,
+ * so separate instances can parse different sources concurrently.
  */
 public class Parser {
-    private List<Token> tokens;
     private static final Map<String, ValueType> var_types = new HashMap<>();
-    private static int indent = 0;
+    private static final int LOGICAL = 1;
+    private static final int BITWISE = 2;
+    private static final int COMPARISON = 3;
+    private static final int SHIFT = 4;
+    private static final int ADDITIVE = 5;
+    private static final int MULTIPLICATIVE = 6;
+    private static final int[] precedences = new int[Operator.values().length];
+    private TokenStream tokens;
+    private int indent;
 
     static {
         var_types.put("number", ValueType.Number);
@@ -40,6 +53,17 @@ public class Parser {
         var_types.put("talerz", ValueType.Stack);
         var_types.put("queue", ValueType.Queue);
         var_types.put("kolejka", ValueType.Queue);
+
+        for(Operator operator : Operator.values()) {
+            precedences[operator.ordinal()] = switch(operator) {
+                case And, Or, Not, Xor -> LOGICAL;
+                case BitwiseNot, BitwiseAnd, BitwiseOr, BitwiseXor -> BITWISE;
+                case Equal, NotEqual, Less, LessOrEqual, Greater, GreaterOrEqual -> COMPARISON;
+                case ShiftLeft, ShiftRight -> SHIFT;
+                case Add, Subtract -> ADDITIVE;
+                case Multiply, Divide, IntegerDivide, Modulus -> MULTIPLICATIVE;
+            };
+        }
     }
 
     /**
@@ -47,55 +71,122 @@ public class Parser {
      *
      * @return {@code true} if the current token is not of type {@link TokenType#EndOfFile},
      *         otherwise {@code false}.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    private boolean isNotEOF() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        return this.type() != TokenType.EndOfFile;
+    }
+
+    /**
+     * Retrieves the type of the current token without removing it from the stream.
+     *
+     * @return The {@link TokenType} of the current token.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    private TokenType type() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        return this.tokens.type(0);
+    }
+
+    /**
+     * Retrieves the textual value of the current token without removing it from the stream.
+     *
+     * @return The value of the current token.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    private String value() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        return this.tokens.value(0);
+    }
+
+    /**
+     * Retrieves the current {@link Token} without removing it from the stream.
+     *
+     * @return The current {@link Token} at the front of the stream.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    private Token at() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        return this.tokens.peek(0);
+    }
+
+    /**
+     * Removes the current token from the stream.
+     *
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
      */
-    private boolean isNotEOF() {
-        return this.tokens.get(0).type() != TokenType.EndOfFile;
+    private void eat() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        this.tokens.advance();
     }
 
     /**
-     * Retrieves the current {@link Token} without removing it from the list.
+     * Removes the current token from the stream and returns its textual value.
      *
-     * @return The current {@link Token} at the front of the list.
+     * @return The value of the token that was removed from the front of the stream.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
      */
-    private Token at() {
-        return this.tokens.get(0);
+    private String eatValue() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        final String value = this.value();
+        this.eat();
+        return value;
     }
 
     /**
-     * Removes and returns the current {@link Token} from the list.
+     * Checks if the token at the given distance from the current position is followed by
+     * indentation tokens matching the current indentation level.
      *
-     * @return The {@link Token} that was removed from the front of the list.
+     * @param offset The distance from the current position at which the indentation starts.
+     * @return {@code true} if there are enough {@link TokenType#Indent} tokens, {@code false} otherwise.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
      */
-    private Token eat() {
-        return this.tokens.remove(0);
+    private boolean isIndented(int offset) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        for(int i = 0; i < this.indent; i++) if(this.tokens.type(offset + i) != TokenType.Indent) return false;
+        return true;
     }
 
     /**
      * Skips over tokens that are considered skippable, such as newlines and indentations.
+     *
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
      */
-    private void removeSkippable() {
-        while(!tokens.isEmpty() && (this.at().type() == TokenType.NewLine || this.at().type() == TokenType.Indent)) {
+    private void removeSkippable() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        while(this.type() == TokenType.NewLine || this.type() == TokenType.Indent) {
             this.eat();
         }
     }
 
     /**
-     * Consumes and returns the current {@link Token} if it matches the specified {@link TokenType}.
+     * Consumes the current token if it matches the specified {@link TokenType} and returns its value.
      *
      * @param type The expected type of the current token.
-     * @return The {@link Token} that matches the expected type.
+     * @return The value of the token that matches the expected type.
      * @throws MissingTokenException If the {@link Token} is missing or
      * does not match the expected {@link TokenType}.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
      */
-    private Token expect(TokenType type) throws MissingTokenException {
-        if(tokens.isEmpty()) throw new MissingTokenException(type);
-        final Token prev = this.eat();
-
-        if(prev != null && prev.type() == type) return prev;
-        else {
-            assert prev != null;
-            throw new MissingTokenException(type, prev.type());
+    private String expect(TokenType type) throws MissingTokenException, UnrecognizedCharacterException, StringTerminationException, IOException {
+        final TokenType prev = this.type();
+        if(prev != type) {
+            this.eat();
+            throw new MissingTokenException(type, prev);
         }
+
+        return this.eatValue();
     }
 
     /**
@@ -104,9 +195,12 @@ public class Parser {
      * @param type The expected type of the tokens.
      * @param n The number of tokens to consume.
      * @return {@code true} if all tokens match the expected type, {@code false} otherwise.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
      */
-    private boolean expect(TokenType type, int n) {
-        for(int i = 0; i < n; i++) if(!this.tokens.get(i).type().equals(type)) return false;
+    private boolean expect(TokenType type, int n) throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        for(int i = 0; i < n; i++) if(!this.tokens.type(i).equals(type)) return false;
         for(int i = 0; i < n; i++) this.eat();
         return true;
     }
@@ -115,12 +209,19 @@ public class Parser {
      * Consumes the current {@link Token} if it matches any of the specified types.
      *
      * @param types The expected types of the next token.
-     * @return The {@link Token} that matches one of the expected types.
+     * @return The {@link TokenType} of the consumed token.
      * @throws MissingTokenException If the token does not match any of the expected types.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
      */
-    private Token expect(TokenType... types) throws MissingTokenException {
-        if(Arrays.stream(types).anyMatch(t -> this.at().type().equals(t))) return this.eat();
-        else throw new MissingTokenException(this.at().type(), types);
+    private TokenType expect(TokenType... types) throws MissingTokenException, UnrecognizedCharacterException, StringTerminationException, IOException {
+        final TokenType current = this.type();
+        if(Arrays.stream(types).anyMatch(current::equals)) {
+            this.eat();
+            return current;
+        }
+        else throw new MissingTokenException(current, types);
     }
 
     /**
@@ -132,7 +233,7 @@ public class Parser {
      * @throws Throwable If an error occurs during parsing, such as unexpected tokens or syntax issues.
      */
     private Statement parseStatement() throws Throwable {
-        final TokenType type = this.at().type();
+        final TokenType type = this.type();
 
         switch(type) {
             case DataToken:
@@ -159,7 +260,7 @@ public class Parser {
             case ImportToken:
                 this.eat();
                 this.expect(TokenType.Apostrophe);
-                String path = this.expect(TokenType.Character).value();
+                String path = this.expect(TokenType.Character);
                 this.expect(TokenType.Apostrophe);
 
                 return new ImportStatement(path);
@@ -168,6 +269,24 @@ public class Parser {
         }
     }
 
+    /**
+     * Parses the name of the range a variable is declared in, e.g. {@code Z} or {@code N+}.
+     * The name is not parsed as an expression, so the assignment of the value of the variable does not become a part of it.
+     * The sign of the built-in ranges {@code Z+}, {@code Z-} and {@code N+} is lexed as an operator following the name.
+     *
+     * @return The {@link Identifier} of the range.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    private Identifier parseRangeIdentifier() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        String name = this.eatValue();
+        if(this.type() == TokenType.BinaryOperator && (name.equals("Z") && (this.value().equals("+") || this.value().equals("-")) || name.equals("N") && this.value().equals("+")))
+            name += this.eatValue();
+
+        return new Identifier(name);
+    }
+
     /**
      * Parses a data declaration statement from the token stream and returns a {@link DataDeclaration} object.<br><br>
      *
@@ -192,11 +311,11 @@ public class Parser {
         this.removeSkippable();
 
         List<Statement> statements = new ArrayList<>();
-        Token data_type;
-        Token identifier;
+        String data_type;
+        String identifier;
 
         do {
-            if(this.at().type() == TokenType.Comma) this.expect(TokenType.Comma);
+            if(this.type() == TokenType.Comma) this.expect(TokenType.Comma);
             this.removeSkippable();
 
             data_type = this.expect(TokenType.DataType);
@@ -204,36 +323,36 @@ public class Parser {
             Expression range = null;
             Expression value = null;
 
-            if(!tokens.isEmpty() && this.at().type() == TokenType.InRange) {
-                if(!(data_type.value().equals("number") || data_type.value().equals("liczba")))
-                    throw new IllegalDataTypeException(data_type.value());
+            if(this.type() == TokenType.InRange) {
+                if(!(data_type.equals("number") || data_type.equals("liczba")))
+                    throw new IllegalDataTypeException(data_type);
 
                 this.eat();
 
-                if(this.at().type().equals(TokenType.Identifier)) range = parseExpression();
-                else if(this.at().type().equals(TokenType.OpenBrace)) range = parsePrimaryExpression();
+                if(this.type().equals(TokenType.Identifier)) range = parseRangeIdentifier();
+                else if(this.type().equals(TokenType.OpenBrace)) range = parsePrimaryExpression();
                 else {
-                    boolean left_included = this.expect(TokenType.OpenParenthesis, TokenType.OpenBracket).type().equals(TokenType.OpenBracket);
+                    boolean left_included = this.expect(TokenType.OpenParenthesis, TokenType.OpenBracket).equals(TokenType.OpenBracket);
                     Expression left = parseExpression();
                     this.expect(TokenType.Comma);
                     Expression right = parseExpression();
-                    boolean right_included = this.expect(TokenType.CloseParenthesis, TokenType.CloseBracket).type().equals(TokenType.CloseBracket);
+                    boolean right_included = this.expect(TokenType.CloseParenthesis, TokenType.CloseBracket).equals(TokenType.CloseBracket);
 
                     range = new RangeLiteral(left, right, left_included, right_included);
                 }
             }
 
-            if(!tokens.isEmpty() && this.at().type() == TokenType.Assignment) {
+            if(this.type() == TokenType.Assignment) {
                 this.eat();
                 value = this.parseExpression();
             }
 
-            if(range == null) statements.add(new VariableDeclaration(var_types.get(data_type.value()), identifier.value(), false, value));
-            else statements.add(new VariableDeclaration(var_types.get(data_type.value()), identifier.value(), false, range, value));
+            if(range == null) statements.add(new VariableDeclaration(var_types.get(data_type), identifier, false, value));
+            else statements.add(new VariableDeclaration(var_types.get(data_type), identifier, false, range, value));
 
-        } while(this.at().type() == TokenType.Comma);
+        } while(this.type() == TokenType.Comma);
 
-        if(this.at().type().equals(TokenType.Semicolon)) this.eat();
+        if(this.type().equals(TokenType.Semicolon)) this.eat();
         return new DataDeclaration(statements);
     }
 
@@ -261,38 +380,38 @@ public class Parser {
      */
     private FunctionDeclaration parseFunctionDeclaration() throws Throwable {
         this.eat();
-        Token identifier = this.expect(TokenType.Identifier);
+        String identifier = this.expect(TokenType.Identifier);
         List<Statement> data;
         this.expect(TokenType.NewLine);
 
-        indent++;
-        if(!this.expect(TokenType.Indent, indent)) throw new IncorrectFunctionDeclarationSyntaxException(this.at().type());
+        this.indent++;
+        if(!this.expect(TokenType.Indent, this.indent)) throw new IncorrectFunctionDeclarationSyntaxException(this.type());
 
-        if(this.at().type().equals(TokenType.DataToken)) data = parseDataDeclarationStatement().body();
-        else throw new MissingTokenException(TokenType.DataToken, this.at().type());
+        if(this.type().equals(TokenType.DataToken)) data = parseDataDeclarationStatement().body();
+        else throw new MissingTokenException(TokenType.DataToken, this.type());
 
         this.expect(TokenType.NewLine);
-        while(this.at().type().equals(TokenType.NewLine)) this.eat();
-        if(!this.expect(TokenType.Indent, indent)) throw new IncorrectFunctionDeclarationSyntaxException(this.at().type());
+        while(this.type().equals(TokenType.NewLine)) this.eat();
+        if(!this.expect(TokenType.Indent, this.indent)) throw new IncorrectFunctionDeclarationSyntaxException(this.type());
         this.expect(TokenType.ResultToken);
         this.expect(TokenType.Colon);
         this.removeSkippable();
-        Token data_type = this.expect(TokenType.DataType);
-        if(this.at().type().equals(TokenType.Semicolon)) this.eat();
+        String data_type = this.expect(TokenType.DataType);
+        if(this.type().equals(TokenType.Semicolon)) this.eat();
 
         List<Statement> body = new ArrayList<>();
 
-        while(this.at().type().equals(TokenType.NewLine)) {
-            Token token = this.eat();
-            if(this.expect(TokenType.Indent, indent)) body.add(this.parseStatement());
-            else if(!this.at().type().equals(TokenType.NewLine)) {
-                this.tokens.add(0, token);
-                break;
-            }
+        while(this.type().equals(TokenType.NewLine)) {
+            if(this.isIndented(1)) {
+                this.eat();
+                this.expect(TokenType.Indent, this.indent);
+                body.add(this.parseStatement());
+            } else if(this.tokens.type(1).equals(TokenType.NewLine)) this.eat();
+            else break;
         }
-        indent--;
+        this.indent--;
 
-        return new FunctionDeclaration(identifier.value(), data, var_types.get(data_type.value()), body);
+        return new FunctionDeclaration(identifier, data, var_types.get(data_type), body);
     }
 
     /**
@@ -311,12 +430,12 @@ public class Parser {
      */
     private PrintFunction parsePrintFunction() throws Throwable {
         this.eat();
-        if (this.at().type().equals(TokenType.Semicolon)) throw new UnexpectedTokenException(this.at());
+        if (this.type().equals(TokenType.Semicolon)) throw new UnexpectedTokenException(this.at());
 
         List<Expression> args = new ArrayList<>();
         args.add(parseExpression());
 
-        while(this.isNotEOF() && this.at().type().equals(TokenType.Comma)) {
+        while(this.isNotEOF() && this.type().equals(TokenType.Comma)) {
             this.expect(TokenType.Comma);
             args.add(parseExpression());
         }
@@ -342,23 +461,23 @@ public class Parser {
      * @throws Throwable If any unexpected tokens or indentation issues occur.
      */
     private IfStatement parseIfStatement() throws Throwable {
-        indent++;
+        this.indent++;
         this.eat();
 
         Expression expression = parseExpression();
         List<Statement> body = new ArrayList<>();
 
-        while(this.isNotEOF() && this.at().type().equals(TokenType.NewLine)) {
+        while(this.isNotEOF() && this.type().equals(TokenType.NewLine)) {
             this.expect(TokenType.NewLine);
-            if (!this.expect(TokenType.Indent, indent)) break;
+            if (!this.expect(TokenType.Indent, this.indent)) break;
             body.add(parseStatement());
         }
-        indent--;
+        this.indent--;
 
-        if(this.at().type().equals(TokenType.Semicolon)) this.eat();
+        if(this.type().equals(TokenType.Semicolon)) this.eat();
         this.removeSkippable();
 
-        if(this.isNotEOF() && this.at().type().equals(TokenType.ElseStatement))
+        if(this.isNotEOF() && this.type().equals(TokenType.ElseStatement))
             return new IfStatement(expression, body, parseStatement());
 
         return new IfStatement(expression, body);
@@ -387,20 +506,20 @@ public class Parser {
 
         Expression expression = null;
         List<Statement> body = new ArrayList<>();
-        boolean elseif = this.at().type().equals(TokenType.IfStatement);
+        boolean elseif = this.type().equals(TokenType.IfStatement);
 
-        indent++;
+        this.indent++;
         if(elseif) {
             this.eat();
             expression = parseExpression();
         }
 
-        while (this.isNotEOF() && this.at().type().equals(TokenType.NewLine)) {
+        while (this.isNotEOF() && this.type().equals(TokenType.NewLine)) {
             this.expect(TokenType.NewLine);
-            if (!this.expect(TokenType.Indent, indent)) break;
+            if (!this.expect(TokenType.Indent, this.indent)) break;
             body.add(parseStatement());
         }
-        indent--;
+        this.indent--;
 
         if (elseif) return new IfStatement(expression, body);
         else return new ElseStatement(body);
@@ -427,16 +546,16 @@ public class Parser {
     private ForStatement parseForStatement() throws Throwable {
         this.eat();
 
-        Identifier identifier = new Identifier(this.expect(TokenType.Identifier).value());
+        Identifier identifier = new Identifier(this.expect(TokenType.Identifier));
         ArrayList<Expression> values = new ArrayList<>();
         this.expect(TokenType.Equals);
 
-        if (!this.at().type().equals(TokenType.NewLine)) values.add(parseExpression());
+        if (!this.type().equals(TokenType.NewLine)) values.add(parseExpression());
 
-        while (this.isNotEOF() && !this.at().type().equals(TokenType.NewLine)) {
+        while (this.isNotEOF() && !this.type().equals(TokenType.NewLine)) {
             this.expect(TokenType.Comma);
 
-            if (isNotEOF() && this.at().type().equals(TokenType.Dot)) {
+            if (isNotEOF() && this.type().equals(TokenType.Dot)) {
                 this.eat();
                 this.expect(TokenType.Dot);
                 this.expect(TokenType.Dot);
@@ -447,18 +566,15 @@ public class Parser {
             }
         }
 
-        indent++;
+        this.indent++;
         List<Statement> body = new ArrayList<>();
 
-        while(this.isNotEOF() && this.at().type().equals(TokenType.NewLine)) {
-            Token token = this.expect(TokenType.NewLine);
-            if(this.expect(TokenType.Indent, indent)) body.add(this.parseStatement());
-            else {
-                this.tokens.add(0, token);
-                break;
-            }
+        while(this.isNotEOF() && this.type().equals(TokenType.NewLine) && this.isIndented(1)) {
+            this.expect(TokenType.NewLine);
+            this.expect(TokenType.Indent, this.indent);
+            body.add(this.parseStatement());
         }
-        indent--;
+        this.indent--;
 
         return new ForStatement(identifier.symbol(), values, body);
     }
@@ -483,16 +599,13 @@ public class Parser {
         Expression expression = this.parseExpression();
         List<Statement> body = new ArrayList<>();
 
-        indent++;
-        while (this.isNotEOF() && this.at().type().equals(TokenType.NewLine)) {
-            Token token = this.expect(TokenType.NewLine);
-            if (this.expect(TokenType.Indent, indent)) body.add(this.parseStatement());
-            else {
-                this.tokens.add(0, token);
-                break;
-            }
+        this.indent++;
+        while (this.isNotEOF() && this.type().equals(TokenType.NewLine) && this.isIndented(1)) {
+            this.expect(TokenType.NewLine);
+            this.expect(TokenType.Indent, this.indent);
+            body.add(this.parseStatement());
         }
-        indent--;
+        this.indent--;
 
         return new WhileStatement(expression, body, false);
     }
@@ -518,16 +631,15 @@ public class Parser {
         this.eat();
         List<Statement> body = new ArrayList<>();
 
-        indent++;
-        while(this.isNotEOF() && !this.at().type().equals(TokenType.WhileStatement)) {
-            Token token = this.expect(TokenType.NewLine);
-            if(this.expect(TokenType.Indent, indent)) body.add(this.parseStatement());
-            else {
-                this.tokens.add(0, token);
-                break;
-            }
+        this.indent++;
+        while(this.isNotEOF() && !this.type().equals(TokenType.WhileStatement)) {
+            if(this.type().equals(TokenType.NewLine) && !this.isIndented(1)) break;
+
+            this.expect(TokenType.NewLine);
+            this.expect(TokenType.Indent, this.indent);
+            body.add(this.parseStatement());
         }
-        indent--;
+        this.indent--;
 
         this.expect(TokenType.NewLine);
         this.expect(TokenType.WhileStatement);
@@ -550,17 +662,17 @@ public class Parser {
 
     /**
      * Parses an assignment expression, which can assign a value to a variable.
-     * This method first parses a {@link LogicalExpression} using the {@link #parseLogicalExpression()} method,
-     * then checks if the current token is anassignment operator. If so, it recursively parses the right-hand side expression and creates
+     * This method first parses an operator expression using the {@link #parseOperatorExpression(int)} method,
+     * then checks if the current token is an assignment operator. If so, it recursively parses the right-hand side expression and creates
      * an {@link AssignmentExpression} node, otherwise returns the parsed {@link LogicalExpression}.
      *
      * @return The parsed {@link Expression}, which could be an {@link AssignmentExpression} or a {@link LogicalExpression}.
      * @throws Throwable If an error occurs during parsing.
      */
     private Expression parseAssignmentExpression() throws Throwable {
-        Expression left = parseLogicalExpression();
+        Expression left = parseOperatorExpression(LOGICAL);
 
-        if(this.at().type() == TokenType.Assignment) {
+        if(this.type() == TokenType.Assignment) {
             this.eat();
 
             final Expression value = this.parseAssignmentExpression();
@@ -572,132 +684,49 @@ public class Parser {
     }
 
     /**
-     * Parses a logical expression, which can include logical operators like AND, OR, NOT or XOR.
-     * This method first parses a {@link BitwiseExpression} using the {@link #parseBitwiseExpression()} method,
-     * then checks for logical operators in the token stream. If any are found, it parses additional
-     * bitwise expressions and combines them using logical operations.
-     *
-     * @return The parsed {@link Expression}, which may be a chain of {@link LogicalExpression} objects.
-     * @throws Throwable If an error occurs during parsing.
-     */
-    private Expression parseLogicalExpression() throws Throwable {
-        Expression left = parseBitwiseExpression();
-
-        while(this.at().type().equals(TokenType.LogicalOperator)) {
-            String operator = this.eat().value();
-            Expression right = parseBitwiseExpression();
-            left = new LogicalExpression(left, right, operator);
-        }
-
-        return left;
-    }
-
-    /**
-     * Parses a bitwise expression, which can include bitwise operators like AND, OR, XOR or NOT.
-     * This method first parses a {@link ComparisonExpression} using the {@link #parseComparisonExpression()} method,
-     * then checks for bitwise operators in the token stream. If any are found, it recursively parses additional comparison
-     * expressions and combines them using bitwise operations.
-     *
-     * @return The parsed {@link Expression}, which may be a chain of {@link BitwiseExpression} objects.
-     * @throws Throwable If an error occurs during parsing.
-     */
-    private Expression parseBitwiseExpression() throws Throwable {
-        Expression left = parseComparisonExpression();
-
-        while(this.at().type().equals(TokenType.BitwiseOperator)) {
-            String operator = this.eat().value();
-            Expression right = parseComparisonExpression();
-            left = new BitwiseExpression(left, right, operator);
-        }
-
-        return left;
-    }
-
-    /**
-     * Parses a comparison expression, which can include comparison operators like ">", "<", "==", "!=", ">=" or "<=".
-     * This method first parses a shift expression using the {@link #parseShiftExpression()} method,
-     * then checks for comparison operators or equality operators in the token stream.
-     * If any are found, it recursively parses additional shift expressions and combines them using comparison operations.
-     *
-     * @return The parsed {@link Expression}, which may be a chain of {@link ComparisonExpression} objects.
-     * @throws Throwable If an error occurs during parsing.
-     */
-    private Expression parseComparisonExpression() throws Throwable {
-        Expression left = parseShiftExpression();
-
-        while(this.at().type().equals(TokenType.ComparisonOperator) || this.at().type().equals(TokenType.Equals)) {
-            String operator = this.eat().value();
-            Expression right = parseShiftExpression();
-            left = new ComparisonExpression(left, right, operator);
-        }
-
-        return left;
-    }
-
-    /**
-     * Parses a shift expression, which can include left or right shift operators.
-     * This method first parses an additive expression, represented by {@link BinaryExpression}, using the {@link #parseAdditiveExpression()} method,
-     * then checks for shift operators (<< or >>) in the token stream. If a shift operator is found, it recursively parses additional additive
-     * expressions and combines them using bitwise shift operations.
+     * Parses a chain of binary, comparison, logical, bitwise and shift operations using precedence climbing.
+     * Operands are parsed with the {@link #parseCallIndexExpression()} method, and each operator is bound according
+     * to its precedence in the {@link #precedences} table, from the logical operators with the lowest precedence
+     * to the multiplicative operators with the highest one. Operators of equal precedence are left-associative.
      *
-     * @return The parsed {@link Expression}, which may be a chain of {@link BitwiseExpression} objects representing the shift operations.
+     * @param precedence The lowest precedence of the operators consumed by this call.
+     * @return The parsed {@link Expression}, which may be a tree of {@link BinaryExpression}, {@link ComparisonExpression},
+     *         {@link LogicalExpression} and {@link BitwiseExpression} objects.
      * @throws Throwable If an error occurs during parsing.
      */
-    private Expression parseShiftExpression() throws Throwable {
-        Expression left = parseAdditiveExpression();
-
-        while(this.at().type().equals(TokenType.ShiftOperator)) {
-            String operator = this.eat().value();
-            Expression right = parseAdditiveExpression();
-            left = new BitwiseExpression(left, right, operator);
-        }
-
-        return left;
-    }
+    private Expression parseOperatorExpression(int precedence) throws Throwable {
+        Expression left = parseCallIndexExpression();
 
-    /**
-     * Parses an additive expression, which can include addition (+) and subtraction (-) operators.
-     * This method first parses a multiplicative expression, represented by {@link BinaryExpression}, using the {@link #parseMultiplicativeExpression()} method,
-     * then checks for addition or subtraction operators in the token stream. If such operators are found, it recursively parses additional multiplicative expressions
-     * and combines them using binary operations.
-     *
-     * @return The parsed {@link Expression}, which may be a chain of {@link BinaryExpression} objects representing
-     *         addition or subtraction operations.
-     * @throws Throwable If an error occurs during parsing.
-     */
-    private Expression parseAdditiveExpression() throws Throwable {
-        Expression left = parseMultiplicativeExpression();
+        while(true) {
+            final Operator operator = this.infixOperator();
+            if(operator == null || precedences[operator.ordinal()] < precedence) return left;
 
-        while(this.at().value().equals("+") || this.at().value().equals("-")) {
-            String operator = this.eat().value();
-            Expression right = parseMultiplicativeExpression();
-            left = new BinaryExpression(left, right, operator);
+            this.eat();
+            final Expression right = parseOperatorExpression(precedences[operator.ordinal()] + 1);
+
+            left = switch(precedences[operator.ordinal()]) {
+                case LOGICAL -> new LogicalExpression(left, right, operator);
+                case BITWISE, SHIFT -> new BitwiseExpression(left, right, operator);
+                case COMPARISON -> new ComparisonExpression(left, right, operator);
+                default -> new BinaryExpression(left, right, operator);
+            };
         }
-
-        return left;
     }
 
     /**
-     * Parses a multiplicative expression, which can include multiplication (*), division (/),
-     * modulus (mod), and integer division (div) operators.
-     * This method first parses a {@link CallExpression} or a {@link IndexExpression} using the {@link #parseCallIndexExpression()},
-     * then checks for any multiplicative operators in the token stream. If one is found, it recursively parses the next operand and constructs a
-     * {@link BinaryExpression} representing the multiplication, division, modulus, or integer division operation.
+     * Resolves the current token to an infix {@link Operator}, without consuming it.
      *
-     * @return The parsed {@link Expression}, which may be a chain of {@link BinaryExpression} objects representing
-     *         multiplicative operations such as multiplication, division, modulus, and integer division.
-     * @throws Throwable If an error occurs during parsing.
+     * @return The {@link Operator} denoted by the current token, or {@code null} if the token is not an infix operator.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
      */
-    private Expression parseMultiplicativeExpression() throws Throwable {
-        Expression left = parseCallIndexExpression();
-
-        while(this.at().value().equals("*") || this.at().value().equals("/") || this.at().value().equals("mod") || this.at().value().equals("div")) {
-            String operator = this.eat().value();
-            Expression right = parseCallIndexExpression();
-            left = new BinaryExpression(left, right, operator);
-        }
-
-        return left;
+    private Operator infixOperator() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        return switch(this.type()) {
+            case LogicalOperator, BitwiseOperator, ComparisonOperator, Equals, ShiftOperator,
+                 BinaryOperator, ModulusOperator, DivOperator -> Operator.of(this.value());
+            default -> null;
+        };
     }
 
     /**
@@ -713,7 +742,7 @@ public class Parser {
     private Expression parseCallIndexExpression() throws Throwable {
         Expression expression = parseIndexExpression();
 
-        if(this.at().type().equals(TokenType.OpenParenthesis))
+        if(this.type().equals(TokenType.OpenParenthesis))
             return parseCallExpression(expression);
 
         return expression;
@@ -731,7 +760,7 @@ public class Parser {
     private Expression parseIndexExpression() throws Throwable {
         Expression array = parsePrimaryExpression();
 
-        while(this.at().type().equals(TokenType.OpenBracket)) {
+        while(this.type().equals(TokenType.OpenBracket)) {
             this.eat();
 
             final Expression index = parseExpression();
@@ -767,7 +796,7 @@ public class Parser {
      */
     private List<Expression> parseArguments() throws Throwable {
         this.expect(TokenType.OpenParenthesis);
-        final List<Expression> args = this.at().type().equals(TokenType.CloseParenthesis) ? new ArrayList<>() : this.parseArgumentsList();
+        final List<Expression> args = this.type().equals(TokenType.CloseParenthesis) ? new ArrayList<>() : this.parseArgumentsList();
         this.expect(TokenType.CloseParenthesis);
 
         return args;
@@ -784,7 +813,7 @@ public class Parser {
         final List<Expression> args = new ArrayList<>();
         args.add(parseExpression());
 
-        while(this.isNotEOF() && this.at().type().equals(TokenType.Comma)) {
+        while(this.isNotEOF() && this.type().equals(TokenType.Comma)) {
             this.eat();
             args.add(parseExpression());
         }
@@ -819,22 +848,22 @@ public class Parser {
      *                                  for a primary expression.
      */
     private Expression parsePrimaryExpression() throws Throwable {
-        final TokenType token = this.at().type();
+        final TokenType token = this.type();
 
         switch(token) {
             case Identifier:
-                return new Identifier(this.eat().value());
+                return new Identifier(this.eatValue());
             case Number:
-                return new NumericLiteral(this.eat().value());
+                return new NumericLiteral(this.eatValue());
             case Quote:
                 this.eat();
-                final String text = this.expect(TokenType.Text).value();
+                final String text = this.expect(TokenType.Text);
                 this.expect(TokenType.Quote);
 
                 return new StringLiteral(text);
             case Apostrophe:
                 this.eat();
-                final String character = this.expect(TokenType.Character).value();
+                final String character = this.expect(TokenType.Character);
                 this.expect(TokenType.Apostrophe);
 
                 if(character.length() > 1) throw new CharactersAmountException(character.length());
@@ -844,9 +873,9 @@ public class Parser {
                 this.eat();
 
                 ArrayList<Expression> values = new ArrayList<>();
-                if(!this.at().type().equals(TokenType.CloseBracket)) values.add(parseExpression());
+                if(!this.type().equals(TokenType.CloseBracket)) values.add(parseExpression());
 
-                while(isNotEOF() && !this.at().type().equals(TokenType.CloseBracket)) {
+                while(isNotEOF() && !this.type().equals(TokenType.CloseBracket)) {
                     this.expect(TokenType.Comma);
                     values.add(parseExpression());
                 }
@@ -857,12 +886,12 @@ public class Parser {
                 this.eat();
 
                 ArrayList<Expression> values = new ArrayList<>();
-                if(!this.at().type().equals(TokenType.CloseBrace)) values.add(parseExpression());
+                if(!this.type().equals(TokenType.CloseBrace)) values.add(parseExpression());
 
-                while(isNotEOF() && !this.at().type().equals(TokenType.CloseBrace)) {
+                while(isNotEOF() && !this.type().equals(TokenType.CloseBrace)) {
                     this.expect(TokenType.Comma);
 
-                    if(isNotEOF() && this.at().type().equals(TokenType.Dot)) {
+                    if(isNotEOF() && this.type().equals(TokenType.Dot)) {
                         this.eat();
                         this.expect(TokenType.Dot);
                         this.expect(TokenType.Dot);
@@ -882,25 +911,25 @@ public class Parser {
 
                 return value;
             } case BinaryOperator: {
-                String operator = this.eat().value();
+                final Operator operator = Operator.of(this.eatValue());
 
                 return new BinaryExpression(new NumericLiteral("0"), parseExpression(), operator);
             } case LogicalOperator: {
-                String operator = this.eat().value();
+                final Operator operator = Operator.of(this.eatValue());
 
-                if (!(operator.equals("NOT") || operator.equals("NIE") || operator.equals("¬")))
-                    throw new IllegalExpressionStartException(ValueType.Boolean);
+                if(operator != Operator.Not) throw new IllegalExpressionStartException(ValueType.Boolean);
 
                 return new LogicalExpression(parseExpression(), operator);
-            } case BitwiseOperator:
-                String operator = this.eat().value();
+            } case BitwiseOperator: {
+                final Operator operator = Operator.of(this.eatValue());
 
-                if(!operator.equals("~")) throw new IllegalExpressionStartException(ValueType.Boolean);
+                if(operator != Operator.BitwiseNot) throw new IllegalExpressionStartException(ValueType.Boolean);
 
                 return new BitwiseExpression(parseExpression(), operator);
+            }
             case GetFunction:
                 this.eat();
-                String identifier = this.expect(TokenType.Identifier).value();
+                String identifier = this.expect(TokenType.Identifier);
 
                 return new GetFunction(identifier);
             default:
@@ -910,7 +939,7 @@ public class Parser {
 
     /**
      * Produces the Abstract Syntax Tree (AST) for the given source code.
-     * This method tokenizes the input source code using the {@link Lexer#tokenize(String)} method, parses the tokens into a series
+     * This method tokenizes the input source code using a {@link TokenStream}, parses the tokens into a series
      * of statements, and organizes them into a program structure. The resulting
      * AST represents the hierarchical structure of the program.
      *
@@ -921,15 +950,138 @@ public class Parser {
      *                   such as syntax errors or unexpected tokens.
      */
     public Program produceAST(String source) throws Throwable {
-        this.tokens = Lexer.tokenize(source);
+        return this.produceAST(new TokenStream(source));
+    }
+
+    /**
+     * Produces the Abstract Syntax Tree (AST) from the given stream of tokens.
+     * Tokens are consumed as they are produced by the lexer, so neither the source code
+     * nor the full list of tokens has to be kept in memory.
+     *
+     * @param tokens The stream of tokens to be parsed into an AST.
+     * @return A {@link Program} object containing the parsed statements
+     *         that represent the program's body.
+     * @throws Throwable If any error occurs during tokenization or parsing,
+     *                   such as syntax errors or unexpected tokens.
+     */
+    public Program produceAST(TokenStream tokens) throws Throwable {
+        this.tokens = tokens;
+        this.indent = 0;
         final List<Statement> program_body = new ArrayList<>();
+        final List<SourceSpan> spans = tokens.isBuffered() ? new ArrayList<>() : null;
 
         while(isNotEOF()) {
             this.removeSkippable();
+            if(!this.isNotEOF()) break;
+            this.parseProgramStatement(program_body, spans);
+        }
+
+        return new Program(program_body, spans);
+    }
+
+    /**
+     * Re-parses a program after an edit of its source code, parsing again only the top-level statements affected by the edit.
+     * Indented blocks belong to the statement that opens them, so an edit inside a block re-parses the whole statement.<br><br>
+     *
+     * The statements before the edit are kept as long as the parser did not look at the edited text while parsing them.
+     * Parsing restarts after them and continues past the edit until a statement starts at the same text as a statement
+     * of the previous program did, from which point the rest of the previous program is kept and only its positions are shifted.
+     * If the positions of the statements of the previous program are unknown, the whole source code is parsed again.
+     *
+     * @param program The program parsed from the source code before the edit.
+     * @param source The source code before the edit.
+     * @param offset The offset in the source code at which the edit starts.
+     * @param removed The number of characters removed by the edit.
+     * @param inserted The text inserted by the edit.
+     * @return A {@link ReparseResult} containing the new program and the statements of the previous program that were replaced.
+     * @throws Throwable If any error occurs during tokenization or parsing,
+     *                   such as syntax errors or unexpected tokens.
+     */
+    public ReparseResult reparse(Program program, String source, int offset, int removed, String inserted) throws Throwable {
+        final String edited = source.substring(0, offset) + inserted + source.substring(offset + removed);
+        final List<Statement> body = program.body();
+        final List<SourceSpan> spans = program.spans();
+
+        if(spans == null) return new ReparseResult(this.produceAST(edited), body);
+
+        int first = 0;
+        for(int high = spans.size(); first < high; ) {
+            final int middle = (first + high) >>> 1;
+            if(spans.get(middle).reach() < offset) first = middle + 1;
+            else high = middle;
+        }
+
+        final int shift = inserted.length() - removed;
+        final int edit_end = offset + inserted.length();
+        final List<Statement> program_body = new ArrayList<>(body.subList(0, first));
+        final List<SourceSpan> program_spans = new ArrayList<>(spans.subList(0, first));
+
+        this.tokens = first > 0
+                ? new TokenStream(edited, spans.get(first - 1).end(), spans.get(first - 1).end_line())
+                : new TokenStream(edited);
+        this.indent = 0;
+
+        int next = first;
+        while(isNotEOF()) {
+            this.removeSkippable();
+            if(!this.isNotEOF()) break;
+
+            final int start = this.tokens.start(0);
+            if(start >= edit_end && this.isLexemeStart()) {
+                while(next < spans.size() && spans.get(next).start() < start - shift) next++;
+
+                if(next < spans.size() && spans.get(next).start() == start - shift) {
+                    final int line_shift = this.tokens.line(0) - spans.get(next).line();
+                    program_body.addAll(body.subList(next, body.size()));
+                    for(SourceSpan span : spans.subList(next, spans.size())) program_spans.add(span.shift(shift, line_shift));
+
+                    return new ReparseResult(new Program(program_body, program_spans), List.copyOf(body.subList(first, next)));
+                }
+            }
+
+            this.parseProgramStatement(program_body, program_spans);
+        }
+
+        return new ReparseResult(new Program(program_body, program_spans), List.copyOf(body.subList(first, body.size())));
+    }
+
+    /**
+     * Parses a top-level statement of the program along with the semicolons following it.
+     *
+     * @param program_body The list the parsed statement is added to.
+     * @param spans The list the {@link SourceSpan} of the statement is added to, or {@code null} if the positions are not recorded.
+     * @throws Throwable If any error occurs during tokenization or parsing,
+     *                   such as syntax errors or unexpected tokens.
+     */
+    private void parseProgramStatement(List<Statement> program_body, List<SourceSpan> spans) throws Throwable {
+        if(spans == null) {
             program_body.add(this.parseStatement());
-            while(this.at().type().equals(TokenType.Semicolon)) this.eat();
+            while(this.type().equals(TokenType.Semicolon)) this.eat();
+            return;
         }
 
-        return new Program(program_body);
+        final int start = this.tokens.start(0);
+        final int line = this.tokens.line(0);
+
+        program_body.add(this.parseStatement());
+        while(this.type().equals(TokenType.Semicolon)) this.eat();
+
+        spans.add(new SourceSpan(start, this.tokens.end(-1), this.tokens.reach(), line, this.tokens.line(0)));
+    }
+
+    /**
+     * Checks if the current token is scanned independently of the tokens before it,
+     * so the lexer produces the same tokens from it onwards regardless of the text preceding it.
+     *
+     * @return {@code false} if the current token is a part of a string or character literal, otherwise {@code true}.
+     * @throws StringTerminationException If a string literal is not properly terminated.
+     * @throws UnrecognizedCharacterException If an unrecognizable character is encountered in the source.
+     * @throws IOException If an I/O error occurs while reading the source.
+     */
+    private boolean isLexemeStart() throws UnrecognizedCharacterException, StringTerminationException, IOException {
+        return switch(this.type()) {
+            case Text, Character, Quote, Apostrophe -> false;
+            default -> true;
+        };
     }
 }
@@ -0,0 +1,18 @@
+package indy.pseudokod.parser;
+
+import indy.pseudokod.ast.Program;
+import indy.pseudokod.ast.Statement;
+
+import java.util.List;
+
+/**
+ * Represents the result of re-parsing a program after an edit with {@link Parser#reparse(Program, String, int, int, String)}.<br><br>
+ *
+ * The statements of the new program that were not affected by the edit are the same objects as in the previous program.
+ * The statements of the previous program that were replaced by re-parsed ones are listed as invalidated,
+ * so anything computed from them has to be computed again.
+ *
+ * @param program The program parsed from the edited source code.
+ * @param invalidated The statements of the previous program that are not part of the new program.
+ */
+public record ReparseResult(Program program, List<Statement> invalidated) {}
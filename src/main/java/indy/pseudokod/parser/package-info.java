@@ -14,6 +14,8 @@
  *   <li>Providing error feedback on invalid or unexpected syntax.</li>
  *   <li>Handling complex language constructs, such as expressions, statements,
  *       control flow, and function definitions.</li>
+ *   <li>Re-parsing only the top-level statements affected by an edit of the source code,
+ *       reusing the unchanged statements of the previous AST.</li>
  * </ul>
  *
  * <p>Key Components:</p>
@@ -42,5 +44,6 @@
  * <p>For more details, refer to the individual class documentation in this package.</p>
  *
  * @see indy.pseudokod.parser.Parser
+ * @see indy.pseudokod.parser.ReparseResult
  */
 package indy.pseudokod.parser;
\ No newline at end of file
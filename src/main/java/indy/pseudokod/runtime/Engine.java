@@ -0,0 +1,65 @@
+package indy.pseudokod.runtime;
+
+import indy.pseudokod.ast.Program;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.UnknownEngineException;
+import indy.pseudokod.jit.JitCompiler;
+import indy.pseudokod.jit.TieredCompiler;
+import indy.pseudokod.runtime.exec.NodeCompiler;
+
+/**
+ * Enum representing the engines that can execute a resolved program, selected with the {@code --engine} option.<br><br>
+ *
+ * The {@link #Tree} engine walks the abstract syntax tree (AST) with the {@link Interpreter} and is the reference
+ * for the semantics of the language. The {@link #Exec} engine compiles the tree into executable nodes with the {@link NodeCompiler}
+ * and runs them, with the same results and errors. The {@link #JVM} engine compiles the numeric kernels of the program into JVM classes
+ * with the {@link JitCompiler} and evaluates the rest with the {@link Interpreter}. The {@link #Tiered} engine starts with the {@link Interpreter}
+ * and lets the {@link TieredCompiler} promote the functions and loops that turn out to be hot.
+ */
+public enum Engine {
+    Tree {
+        @Override
+        public void execute(Program program, Environment env) throws Throwable {
+            Interpreter.evaluate(program, env);
+        }
+    },
+    Exec {
+        @Override
+        public void execute(Program program, Environment env) throws Throwable {
+            NodeCompiler.compile(program).execute(env);
+        }
+    },
+    JVM {
+        @Override
+        public void execute(Program program, Environment env) throws Throwable {
+            JitCompiler.execute(program, env);
+        }
+    },
+    Tiered {
+        @Override
+        public void execute(Program program, Environment env) throws Throwable {
+            TieredCompiler.execute(program, env);
+        }
+    };
+
+    /**
+     * Executes a program resolved by the {@link Resolver}.
+     *
+     * @param program The {@link Program} to execute.
+     * @param env The {@link Environment} in which the program is executed.
+     * @throws Throwable If any error occurs during the execution.
+     */
+    public abstract void execute(Program program, Environment env) throws Throwable;
+
+    /**
+     * Finds the engine with the given name, ignoring the case.
+     *
+     * @param name The name of the engine, e.g. {@code tree}, {@code exec}, {@code jvm} or {@code tiered}.
+     * @return The {@link Engine} with the given name.
+     * @throws UnknownEngineException If there is no engine with the given name.
+     */
+    public static Engine of(String name) throws UnknownEngineException {
+        for(Engine engine : values()) if(engine.name().equalsIgnoreCase(name)) return engine;
+        throw new UnknownEngineException(name);
+    }
+}
@@ -2,9 +2,14 @@ package indy.pseudokod.runtime;
 
 import indy.pseudokod.ast.*;
 import indy.pseudokod.environment.Environment;
+import indy.pseudokod.environment.FrameLayout;
 import indy.pseudokod.exceptions.*;
+import indy.pseudokod.jit.CompiledFunction;
+import indy.pseudokod.jit.TieredCompiler;
 import indy.pseudokod.main.Main;
 import indy.pseudokod.parser.Parser;
+import indy.pseudokod.runtime.exec.ExecNode;
+import indy.pseudokod.runtime.exec.NodeCompiler;
 import indy.pseudokod.runtime.values.*;
 
 import java.util.*;
@@ -14,6 +19,16 @@ import java.util.*;
  * Abstract Syntax Tree (AST) produced by the {@link Parser} and manages program execution within a given environment.
  */
 public class Interpreter {
+    /**
+     * The bits of {@link #NULL_NUMBER}, a NaN with a payload no arithmetic operation produces.
+     */
+    private static final long NULL_BITS = 0x7ff8_0000_0000_0badL;
+
+    /**
+     * Stands for null among the unboxed results of {@link #evaluateNumber(Expression, Environment)}.
+     * It is never used as an operand, so it cannot be confused with the NaN an operation may produce.
+     */
+    private static final double NULL_NUMBER = Double.longBitsToDouble(NULL_BITS);
 
     /**
      * Updates the value of an element in a nested list structure at a given index.
@@ -55,6 +70,7 @@ public class Interpreter {
     /**
      * Evaluates a binary expression, which can be either numeric binary
      * expression (addition, subtracton, division, multiplication, modulus or integer division) or string concatenation.
+     * An expression proven numeric by the {@link indy.pseudokod.optimizer.Optimizer} is evaluated with its nested binary expressions unboxed.
      *
      * @param node The {@link BinaryExpression} node representing the expression to evaluate.
      * @param env The execution environment, represented by an {@link Environment}.
@@ -63,16 +79,22 @@ public class Interpreter {
      * @throws Throwable If the operands have incompatible types or an invalid operator is used.
      */
     private static RuntimeValue evaluateBinaryExpression(BinaryExpression node, Environment env) throws Throwable {
+        if(node.staticType() == ValueType.Number) {
+            final double value = evaluateNumber(node, env);
+            return isNullNumber(value) ? new NullValue() : NumberValue.of(value);
+        }
+
         final RuntimeValue left = evaluate(node.left(), env);
         final RuntimeValue right = evaluate(node.right(), env);
 
         if(left.type() == ValueType.Number && right.type() == ValueType.Number) return evaluateNumericBinaryExpression((NumberValue) left, (NumberValue) right, node.operator());
-        else if((left.type() == ValueType.String || right.type() == ValueType.String) && node.operator().equals("+")) return evaluateConcatenationExpression(left, right);
+        else if((left.type() == ValueType.String || right.type() == ValueType.String) && node.operator() == Operator.Add) return evaluateConcatenationExpression(left, right);
         else return new NullValue();
     }
 
     /**
      * Evaluates a comparison expression (equality, inequality, greater-than, less-than, greater-or-equal or less-or-equal).
+     * Operands proven numeric by the {@link indy.pseudokod.optimizer.Optimizer} are compared unboxed.
      *
      * @param node The {@link ComparisonExpression} node representing the expression to evaluate.
      * @param env The execution environment, represented by an {@link Environment}.
@@ -80,36 +102,63 @@ public class Interpreter {
      * @throws Throwable If the operands have incompatible types or null values are improperly handled.
      */
     private static RuntimeValue evaluateComparisonExpression(ComparisonExpression node, Environment env) throws Throwable {
-        final RuntimeValue lhs = evaluate(node.left(), env);
-        final RuntimeValue rhs = evaluate(node.right(), env);
+        if(node.left().staticType() == ValueType.Number && node.right().staticType() == ValueType.Number) {
+            final double left = evaluateNumber(node.left(), env);
+            final double right = evaluateNumber(node.right(), env);
+
+            if(!isNullNumber(left) && !isNullNumber(right)) return new BooleanValue(compareNumbers(left, right, node.operator()));
+            return compareValues(isNullNumber(left) ? new NullValue() : NumberValue.of(left), isNullNumber(right) ? new NullValue() : NumberValue.of(right), node.operator());
+        }
 
+        return compareValues(evaluate(node.left(), env), evaluate(node.right(), env), node.operator());
+    }
+
+    /**
+     * Compares two values with a comparison operator.
+     *
+     * @param lhs The left operand.
+     * @param rhs The right operand.
+     * @param operator The comparison {@link Operator}.
+     * @return A {@link BooleanValue} representing the result of the comparison.
+     * @throws IncompatibleDataTypesException If the operands have different types and neither of them is null.
+     */
+    private static RuntimeValue compareValues(RuntimeValue lhs, RuntimeValue rhs, Operator operator) throws Throwable {
         if(lhs.type() != rhs.type() && !(lhs.type() == ValueType.NULL || rhs.type() == ValueType.NULL)) throw new IncompatibleDataTypesException(lhs.type(), rhs.type());
 
         if(lhs.type() == ValueType.Number && rhs.type() == ValueType.Number) {
-            final NumberValue left = (NumberValue) lhs;
-            final NumberValue right = (NumberValue) rhs;
-
-            return switch (node.operator()) {
-                case "=" -> new BooleanValue(left.value() == right.value());
-                case "≠", "!=" -> new BooleanValue(left.value() != right.value());
-                case "<" -> new BooleanValue(left.value() < right.value());
-                case "≤", "<=" -> new BooleanValue(left.value() <= right.value());
-                case ">" -> new BooleanValue(left.value() > right.value());
-                case "≥", ">=" -> new BooleanValue(left.value() >= right.value());
-                default -> new BooleanValue(false);
-            };
+            return new BooleanValue(compareNumbers(((NumberValue) lhs).value(), ((NumberValue) rhs).value(), operator));
         } else {
             final StringValue left = StringValue.valueOf(lhs);
             final StringValue right = StringValue.valueOf(rhs);
 
-            return switch (node.operator()) {
-                case "=" -> new BooleanValue(Objects.equals(left.value(), right.value()));
-                case "≠", "!=" -> new BooleanValue(!Objects.equals(left.value(), right.value()));
+            return switch (operator) {
+                case Equal -> new BooleanValue(Objects.equals(left.value(), right.value()));
+                case NotEqual -> new BooleanValue(!Objects.equals(left.value(), right.value()));
                 default -> new BooleanValue(false);
             };
         }
     }
 
+    /**
+     * Compares two numbers with a comparison operator.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @param operator The comparison {@link Operator}.
+     * @return The result of the comparison, {@code false} if the operator is not a comparison operator.
+     */
+    private static boolean compareNumbers(double left, double right, Operator operator) {
+        return switch (operator) {
+            case Equal -> left == right;
+            case NotEqual -> left != right;
+            case Less -> left < right;
+            case LessOrEqual -> left <= right;
+            case Greater -> left > right;
+            case GreaterOrEqual -> left >= right;
+            default -> false;
+        };
+    }
+
     /**
      * Evaluates a logical expression (AND, OR, NOT, XOR).
      *
@@ -135,10 +184,10 @@ public class Interpreter {
         final boolean right = ((BooleanValue) rhs).value();
 
         return switch(node.operator()) {
-            case "AND", "I", "∧" -> new BooleanValue(left && right);
-            case "OR", "LUB", "∨" -> new BooleanValue(left || right);
-            case "NOT", "NIE", "¬" -> new BooleanValue(!right);
-            case "XOR", "⊕" -> new BooleanValue(left ^ right);
+            case And -> new BooleanValue(left && right);
+            case Or -> new BooleanValue(left || right);
+            case Not -> new BooleanValue(!right);
+            case Xor -> new BooleanValue(left ^ right);
             default -> new BooleanValue(false);
         };
     }
@@ -148,7 +197,7 @@ public class Interpreter {
      *
      * @param node The {@link BitwiseExpression} node representing the expression to evaluate.
      * @param env The execution environment, represented by an {@link Environment}.
-     * @return A {@link NumberValue} representing the result of the bitwise operation.
+     * @return An {@link IntegerValue} representing the result of the bitwise operation.
      * @throws DataTypeMismatchException If either operand is not a number when a number is expected.
      */
     private static RuntimeValue evaluateBitwiseExpression(BitwiseExpression node, Environment env) throws Throwable {
@@ -159,20 +208,20 @@ public class Interpreter {
         if(node.left() != null) {
             lhs = evaluate(node.left(), env);
             if(!lhs.type().equals(ValueType.Number)) throw new DataTypeMismatchException(ValueType.Boolean, lhs.type());
-            left = (int) ((NumberValue) lhs).value();
+            left = ((NumberValue) lhs).intValue();
         }
 
         if(!rhs.type().equals(ValueType.Number)) throw new DataTypeMismatchException(ValueType.Boolean, rhs.type());
-        final int right = (int) ((NumberValue) rhs).value();
+        final int right = ((NumberValue) rhs).intValue();
 
         return switch(node.operator()) {
-            case "~" -> new NumberValue(~right);
-            case "&" -> new NumberValue(left & right);
-            case "|" -> new NumberValue(left | right);
-            case "^" -> new NumberValue(left ^ right);
-            case "<<" -> new NumberValue(left << right);
-            case ">>" -> new NumberValue(left >> right);
-            default -> new NumberValue(0);
+            case BitwiseNot -> IntegerValue.of(~right);
+            case BitwiseAnd -> IntegerValue.of(left & right);
+            case BitwiseOr -> IntegerValue.of(left | right);
+            case BitwiseXor -> IntegerValue.of(left ^ right);
+            case ShiftLeft -> IntegerValue.of(left << right);
+            case ShiftRight -> IntegerValue.of(left >> right);
+            default -> IntegerValue.of(0);
         };
     }
 
@@ -194,12 +243,12 @@ public class Interpreter {
         if(!left.type().equals(ValueType.List)) throw new DataTypeMismatchException(ValueType.List, left.type());
 
         final ListValue array = (ListValue) left;
-        final RuntimeValue index = evaluate(node.index(), env);
+        final int index = ((NumberValue) evaluate(node.index(), env)).intValue();
 
-        if(((int) ((NumberValue) index).value()) < 1 || ((int) ((NumberValue) index).value()) > array.value().size())
-            throw new IndexOutOfRangeException((int) ((NumberValue) index).value(), array.value().size());
+        if(index < 1 || index > array.value().size())
+            throw new IndexOutOfRangeException(index, array.value().size());
 
-        return array.value().get(((int) ((NumberValue) index).value()) - 1);
+        return array.value().get(index - 1);
     }
 
     /**
@@ -217,20 +266,24 @@ public class Interpreter {
         if(!(node.expression().kind() == NodeType.Identifier || node.expression().kind() == NodeType.IndexExpression))
             throw new MissingIdentifierException(NodeType.AssignmentExpression, node.expression());
 
-        if(node.expression().kind().equals(NodeType.Identifier)) return env.assignVariable(((Identifier) node.expression()).symbol(), evaluate(node.value(), env));
+        if(node.expression().kind().equals(NodeType.Identifier)) {
+            final Identifier identifier = (Identifier) node.expression();
+            if(node.checked()) return env.storeVariable(identifier.symbol(), identifier.depth(), identifier.slot(), evaluate(node.value(), env));
+            return env.assignVariable(identifier.symbol(), identifier.depth(), identifier.slot(), evaluate(node.value(), env));
+        }
         else {
             Expression expression = node.expression();
             List<Integer> indexes = new ArrayList<>();
             while(expression.kind().equals(NodeType.IndexExpression)) {
-                indexes.add((int) ((NumberValue) evaluate(((IndexExpression) expression).index(), env)).value() - 1);
+                indexes.add(((NumberValue) evaluate(((IndexExpression) expression).index(), env)).intValue() - 1);
                 expression = ((IndexExpression) expression).array();
             }
-            String identifier = ((Identifier) expression).symbol();
+            final Identifier identifier = (Identifier) expression;
 
-            List<RuntimeValue> value = ((ListValue) env.getVariable(identifier)).value();
+            List<RuntimeValue> value = ((ListValue) env.getVariable(identifier.symbol(), identifier.depth(), identifier.slot())).value();
             updateList(value, evaluate(node.value(), env), indexes, indexes.size() - 1);
 
-            return env.assignVariable(identifier, new ListValue(value));
+            return env.assignVariable(identifier.symbol(), identifier.depth(), identifier.slot(), new ListValue(value));
         }
     }
 
@@ -238,6 +291,9 @@ public class Interpreter {
     /**
      * Evaluates a call expression for either a native function or a user-defined function.
      * Processes the arguments, creates a new execution scope for the function, and invokes it within the appropriate environment.
+     * The body of a function is resolved by the {@link Resolver} when the function is called for the first time, if it has not been resolved yet.
+     * A function compiled to JVM code by the {@link indy.pseudokod.jit.KernelCompiler} is called directly, unless its {@link CompiledFunction} declines the arguments,
+     * and the body of a function compiled into executable nodes is executed as such. Otherwise the call is counted by the {@link TieredCompiler}.
      *
      * @param node The {@link CallExpression} representing the function call to be evaluated.
      * @param env The {@link Environment} within which the call will be evaluated.
@@ -259,7 +315,17 @@ public class Interpreter {
             return ((NativeFunction) function).call(args, env);
         } else if(function.type().equals(ValueType.Function)) {
             Function fn = (Function) function;
-            Environment scope = new Environment(fn.env());
+
+            final CompiledFunction compiled = CompiledFunction.of(fn.declaration());
+            if(compiled != null) {
+                final RuntimeValue result = compiled.invoke(fn, args);
+                if(result != null) return result;
+            }
+
+            final FrameLayout layout = Resolver.resolveFunction(fn.declaration(), fn.env());
+            TieredCompiler.countCall(fn.declaration());
+
+            Environment scope = fn.env().call(layout);
             List<String> parameters = fn.parameters();
             Map<String, ValueType> parameter_types = fn.parameter_types();
             List<String> variables = fn.variables();
@@ -273,6 +339,9 @@ public class Interpreter {
             for(String variable : variables)
                 scope.declareVariable(variable, variable_types.get(variable), false, new NullValue());
 
+            final ExecNode executable = NodeCompiler.compiled(fn.declaration());
+            if(executable != null) return executable.execute(scope);
+
             RuntimeValue result = new NullValue();
 
             for(Statement statement : fn.body())
@@ -300,6 +369,7 @@ public class Interpreter {
      * Evaluates an import statement by executing the specified import path.
      * This method processes the import statement and invokes the {@link Main#run(String)} method
      * with the provided path, ensuring that the referenced module or file is appropriately handled.
+     * The module is executed only the first time it is imported, see {@link ModuleRegistry}.
      *
      * @param statement The {@link ImportStatement} containing the path to be imported.
      * @param env The {@link Environment} in which the import statement is executed (not utilized in this method).
@@ -325,30 +395,116 @@ public class Interpreter {
      *     <li>{@code div} - Integer division (result rounded down to the nearest whole number)</li>
      *     <li>{@code mod} - Modulus (remainder of division)</li>
      * </ul>
+     * Two {@link IntegerValue}s are operated on as {@code long}s, unless the result is not an integer, see {@link #calculateIntegers(long, long, Operator)}.
      *
      * @param left The {@link NumberValue} representing the left operand.
      * @param right The {@link NumberValue} representing the right operand.
-     * @param operator A {@link String} representing the binary operator ("+", "-", "*", "/", "div", "mod").
+     * @param operator The {@link Operator} of the binary operation.
      * @return A {@link NumberValue} representing the result of the applied binary operation.
      * @throws DivisionByZeroException If a division by zero is attempted.
      * @throws Throwable For any other unexpected errors during expression evaluation.
      */
-    private static NumberValue evaluateNumericBinaryExpression(NumberValue left, NumberValue right, String operator) throws Throwable {
-        return new NumberValue(switch (operator) {
-            case "+" -> left.value() + right.value();
-            case "-" -> left.value() - right.value();
-            case "*" -> left.value() * right.value();
-            case "/" -> {
-                if(right.value() == 0) throw new DivisionByZeroException();
-                yield left.value() / right.value();
+    private static NumberValue evaluateNumericBinaryExpression(NumberValue left, NumberValue right, Operator operator) throws Throwable {
+        if(left instanceof IntegerValue l && right instanceof IntegerValue r) {
+            final NumberValue result = calculateIntegers(l.longValue(), r.longValue(), operator);
+            if(result != null) return result;
+        }
+
+        return new NumberValue(calculate(left.value(), right.value(), operator));
+    }
+
+    /**
+     * Applies an arithmetic operator to two integers kept as {@link IntegerValue}s, detecting the overflows exactly.
+     * The result is the same number the operator gives for the {@code double} values of the integers.
+     * An operation whose result is not an integer, i.e. an inexact division, a division by zero, an overflow or a negative zero, is left to {@link #calculate(double, double, Operator)}.
+     * An inexact integer division is computed on {@code long}s only if both operands are {@code int}s, so rounding the {@code double} quotient cannot make a difference.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @param operator The arithmetic {@link Operator}.
+     * @return The result of the operation, or {@code null} if it has to be computed on {@code double}s.
+     */
+    private static NumberValue calculateIntegers(long left, long right, Operator operator) {
+        return switch (operator) {
+            case Add -> IntegerValue.of(left + right);
+            case Subtract -> IntegerValue.of(left - right);
+            case Multiply -> {
+                final long product = left * right;
+                if(Math.multiplyHigh(left, right) != product >> 63 || (product == 0 && (left < 0 || right < 0))) yield null;
+                yield IntegerValue.of(product);
+            }
+            case Divide, IntegerDivide -> {
+                if(right == 0 || (left == 0 && right < 0)) yield null;
+                if(left % right == 0) yield IntegerValue.of(left / right);
+                yield operator == Operator.IntegerDivide && left == (int) left && right == (int) right ? IntegerValue.of(Math.floorDiv(left, right)) : null;
+            }
+            case Modulus -> {
+                if(right == 0) yield null;
+                final long remainder = left % right;
+                yield remainder == 0 && left < 0 ? null : IntegerValue.of(remainder);
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Applies an arithmetic operator to two numbers.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @param operator The arithmetic {@link Operator}.
+     * @return The result of the operation, {@code 0} if the operator is not an arithmetic operator.
+     * @throws DivisionByZeroException If the right operand of a division is zero.
+     */
+    private static double calculate(double left, double right, Operator operator) throws DivisionByZeroException {
+        return switch (operator) {
+            case Add -> left + right;
+            case Subtract -> left - right;
+            case Multiply -> left * right;
+            case Divide -> {
+                if(right == 0) throw new DivisionByZeroException();
+                yield left / right;
             }
-            case "div" -> {
-                if(right.value() == 0) throw new DivisionByZeroException();
-                yield Math.floor(left.value() / right.value());
+            case IntegerDivide -> {
+                if(right == 0) throw new DivisionByZeroException();
+                yield Math.floor(left / right);
             }
-            case "mod" -> left.value() % right.value();
+            case Modulus -> left % right;
             default -> 0;
-        });
+        };
+    }
+
+    /**
+     * Evaluates an expression proven to evaluate to a number or null, keeping the results of the binary expressions nested in it unboxed.
+     * Only the operands that are not binary expressions proven numeric are evaluated into {@link RuntimeValue}s.
+     * A null operand makes every binary expression containing it null, like {@link #evaluateBinaryExpression(BinaryExpression, Environment)} does,
+     * but the other operands are still evaluated, so they throw the same errors.
+     *
+     * @param node The expression, whose {@link Expression#staticType()} is {@link ValueType#Number}.
+     * @param env The execution environment, represented by an {@link Environment}.
+     * @return The value of the expression, or {@link #NULL_NUMBER} if it is null.
+     * @throws Throwable If the evaluation of any operand fails, or a number is divided by zero.
+     */
+    private static double evaluateNumber(Expression node, Environment env) throws Throwable {
+        if(node instanceof BinaryExpression binary && binary.staticType() == ValueType.Number) {
+            final double left = evaluateNumber(binary.left(), env);
+            final double right = evaluateNumber(binary.right(), env);
+
+            if(isNullNumber(left) || isNullNumber(right)) return NULL_NUMBER;
+            return calculate(left, right, binary.operator());
+        }
+
+        return evaluate(node, env) instanceof NumberValue number ? number.value() : NULL_NUMBER;
+    }
+
+    /**
+     * Checks if an unboxed number stands for null.
+     *
+     * @param value The unboxed number.
+     * @return {@code true} if the value is {@link #NULL_NUMBER}.
+     */
+    private static boolean isNullNumber(double value) {
+        return Double.doubleToRawLongBits(value) == NULL_BITS;
     }
 
     /**
@@ -368,7 +524,7 @@ public class Interpreter {
     /**
      * Evaluates an identifier by retrieving its corresponding value from the environment.
      * This method resolves the identifier's symbol name and fetches its associated runtime value
-     * from the provided {@link Environment}.
+     * from the provided {@link Environment}, using the lexical address annotated by the {@link Resolver} if there is one.
      *
      * @param node The {@link Identifier} representing the identifier to be evaluated.
      * @param env The {@link Environment} from which the identifier's value is retrieved.
@@ -376,13 +532,15 @@ public class Interpreter {
      * @throws Throwable If an error occurs while resolving or retrieving the identifier's value.
      */
     private static RuntimeValue evaluateIdentifier(Identifier node, Environment env) throws Throwable {
-        return env.getVariable(node.symbol());
+        return env.getVariable(node.symbol(), node.depth(), node.slot());
     }
 
     /**
      * Evaluates a data declaration statement and processes the variables defined within its body.
      * This method handles initializing variables, assigning default values, verifying types,
      * and ensuring that values adhere to specified ranges or constraints.
+     * The range or set becomes the domain of the variable, which every later assignment has to respect as well.
+     * The value of a variable declared in a range of integers, like {@code Z} or {@code N}, is kept as an {@link IntegerValue}.
      *
      * @param node The {@link DataDeclaration} containing the variable declarations and their specifications.
      * @param env The {@link Environment} in which the variables are declared and evaluated.
@@ -400,34 +558,24 @@ public class Interpreter {
                 throw new DataTypeMismatchException(variable.type(), value.type());
             if(variable.type().equals(ValueType.Stack) && variable.value() == null) value = new StackValue();
             if(variable.type().equals(ValueType.Queue) && variable.value() == null) value = new QueueValue();
+
+            RuntimeValue domain = null;
             if(variable.range() != null) {
                 switch(variable.range().kind()) {
-                    case RangeLiteral: {
-                        RangeValue range = evaluateRange((RangeLiteral) variable.range(), env);
-
-                        assert value != null;
-                        if (!range.include(((NumberValue) value).value()))
-                            throw new NumberOutOfRangeException((NumberValue) value, range);
+                    case RangeLiteral:
+                        domain = evaluateRange((RangeLiteral) variable.range(), env);
                         break;
-                    } case SetLiteral:
-                        SetValue set = (SetValue) evaluate(variable.range(), env);
-
-                        assert value != null;
-                        if(!set.includes(value))
-                            throw new NumberOutOfRangeException((NumberValue) value, set);
+                    case SetLiteral:
+                        domain = evaluate(variable.range(), env);
                         break;
                     case Identifier:
-                        RuntimeValue var = env.getVariable(((Identifier) variable.range()).symbol());
-                        if(var instanceof RangeValue range) {
-                            assert value != null;
-                            if (!range.include(((NumberValue) value).value()))
-                                throw new NumberOutOfRangeException((NumberValue) value, range);
-                        } else throw new DataTypeMismatchException(ValueType.Range, var.type());
+                        domain = env.getVariable(((Identifier) variable.range()).symbol());
+                        if(!(domain instanceof RangeValue)) throw new DataTypeMismatchException(ValueType.Range, domain.type());
                         break;
                 }
             }
 
-            env.declareVariable(variable.symbol(), variable.type(), false, Objects.requireNonNullElseGet(value, NullValue::new));
+            env.declareVariable(variable.symbol(), variable.type(), false, Objects.requireNonNullElseGet(value, NullValue::new), domain);
         }
 
         return new NullValue();
@@ -463,7 +611,7 @@ public class Interpreter {
             parameter_types.put(var_dec.symbol().replace("*", ""), var_dec.type());
         }
 
-        env.declareVariable(node.symbol(), ValueType.Function, true, new Function(parameters, parameter_types, variables, variable_types, node.body(), env));
+        env.declareVariable(node.symbol(), ValueType.Function, true, new Function(node, parameters, parameter_types, variables, variable_types, node.body(), env));
         return new NullValue();
     }
 
@@ -491,7 +639,7 @@ public class Interpreter {
      * @throws InvalidExpressionException If the condition expression is invalid.
      */
     private static RuntimeValue evaluateIfStatement(IfStatement node, Environment env) throws Throwable {
-        if(!(node.expression().kind().equals(NodeType.LogicalExpression) || node.expression().kind().equals(NodeType.ComparisonExpression) ||
+        if(!(node.expression().kind().equals(NodeType.BooleanLiteral) || node.expression().kind().equals(NodeType.LogicalExpression) || node.expression().kind().equals(NodeType.ComparisonExpression) ||
            node.expression().kind().equals(NodeType.Identifier) || node.expression().kind().equals(NodeType.CallExpression)))
             throw new InvalidExpressionException(NodeType.LogicalExpression, node.expression().kind());
 
@@ -500,7 +648,7 @@ public class Interpreter {
 
         RuntimeValue result = new NullValue();
         if(expression.value()) {
-            Environment scope = new Environment(env);
+            Environment scope = env.enter(node.layout());
             for(Statement stmt : node.body()) {
                 result = evaluate(stmt, scope);
             }
@@ -524,7 +672,7 @@ public class Interpreter {
      * @throws Throwable If an error occurs while evaluating the statements within the else-statement.
      */
     private static RuntimeValue evaluateElseStatement(ElseStatement node, Environment env) throws Throwable {
-        Environment scope = new Environment(env);
+        Environment scope = env.enter(node.layout());
         RuntimeValue result = new NullValue();
         for(Statement stmt : node.body()) {
             result = evaluate(stmt, scope);
@@ -549,7 +697,8 @@ public class Interpreter {
      *                  invalid states, or unchecked exceptions from the internal implementation.
      */
     private static RuntimeValue evaluateForStatement(ForStatement node, Environment env) throws Throwable {
-        Environment scope = new Environment(env);
+        if(TieredCompiler.enter(node, env)) return new NullValue();
+        Environment scope = env.enter(node.layout());
 
         if(node.values().stream().anyMatch(e -> e.kind().equals(NodeType.EllipsisStatement))) {
             // TODO: Extract the ellipsis statement evaluation
@@ -562,6 +711,11 @@ public class Interpreter {
             if(!(first.type().equals(ValueType.Number) && second.type().equals(ValueType.Number) &&
                     node.values().get(2).kind().equals(NodeType.EllipsisStatement) && max.type().equals(ValueType.Number))) throw new InvalidSetSyntaxException();
 
+            if(first instanceof IntegerValue start && second instanceof IntegerValue next && max instanceof IntegerValue limit) {
+                evaluateCountedLoop(node, env, scope, start, next.longValue() - start.longValue(), limit.longValue());
+                return new NullValue();
+            }
+
             int step = (int) (((NumberValue) second).value() - ((NumberValue) first).value());
 
             scope.declareVariable(node.control_variable(), ValueType.Number, false, first);
@@ -570,7 +724,9 @@ public class Interpreter {
                 for(Statement statement : node.body()) {
                     evaluate(statement, scope);
                 }
-                scope.assignVariable(node.control_variable(), new NumberValue((int) ((NumberValue) scope.getVariable(node.control_variable())).value() + step));
+                final int next = (int) ((NumberValue) scope.getVariable(node.control_variable())).value() + step;
+                scope.assignVariable(node.control_variable(), new NumberValue(next));
+                if(TieredCompiler.backedge(node) && TieredCompiler.resume(node, env, new double[] { next, step, ((NumberValue) max).value() })) break;
             }
         } else {
             List<RuntimeValue> values = node.values().stream().map(v -> {
@@ -588,12 +744,39 @@ public class Interpreter {
                 for(Statement statement : node.body()) {
                     evaluate(statement, scope);
                 }
+                TieredCompiler.backedge(node);
             }
         }
 
         return new NullValue();
     }
 
+    /**
+     * Evaluates a for-statement counting over integers, whose first value, second value and bound are all {@link IntegerValue}s.
+     * The control variable is counted as a {@code long}, instead of a {@code double} truncated to an {@code int} on every iteration,
+     * and holds {@link IntegerValue}s, unless the body of the loop assigns another number to it.
+     *
+     * @param node The {@link ForStatement} representing the for-statement to evaluate.
+     * @param env The {@link Environment} in which the for-statement is evaluated.
+     * @param scope The {@link Environment} of the loop, in which the control variable is declared.
+     * @param first The first value of the control variable.
+     * @param step The difference between the consecutive values of the control variable.
+     * @param max The greatest value of the control variable.
+     * @throws Throwable If any error occurs while executing the body of the loop.
+     */
+    private static void evaluateCountedLoop(ForStatement node, Environment env, Environment scope, IntegerValue first, long step, long max) throws Throwable {
+        scope.declareVariable(node.control_variable(), ValueType.Number, false, first);
+
+        while(((NumberValue) scope.getVariable(node.control_variable())).longValue() <= max) {
+            for(Statement statement : node.body()) {
+                evaluate(statement, scope);
+            }
+            final long next = ((NumberValue) scope.getVariable(node.control_variable())).longValue() + step;
+            scope.assignVariable(node.control_variable(), IntegerValue.of(next));
+            if(TieredCompiler.backedge(node) && TieredCompiler.resume(node, env, new double[] { next, step, max })) break;
+        }
+    }
+
     /**
      * Evaluates a while or do-while loop by repeatedly executing its body until the loop's condition evaluates to false.
      * The condition is evaluated before each iteration for a while-loop or after each iteration for a do-while loop.
@@ -611,7 +794,8 @@ public class Interpreter {
      *          This serves as a safeguard for unhandled errors from internal implementation.
      */
     private static RuntimeValue evaluateWhileStatement(WhileStatement node, Environment env) throws Throwable {
-        Environment scope = new Environment(env);
+        if(TieredCompiler.enter(node, env)) return new NullValue();
+        Environment scope = env.enter(node.layout());
 
         if(node.expression().kind() == NodeType.Identifier && (((Identifier) node.expression()).symbol().equals("true") || ((Identifier) node.expression()).symbol().equals("prawda")))
             throw new IllegalConditionException();
@@ -626,6 +810,7 @@ public class Interpreter {
                     for(Statement statement : node.body()) {
                         evaluate(statement, scope);
                     }
+                    TieredCompiler.backedge(node);
                     expr_val = (BooleanValue) evaluate(node.expression(), env);
                 } while(expr_val.value());
             } else {
@@ -635,6 +820,7 @@ public class Interpreter {
                     for(Statement statement : node.body()) {
                         evaluate(statement, scope);
                     }
+                    if(TieredCompiler.backedge(node) && TieredCompiler.resume(node, env, null)) break;
                     expr_val = (BooleanValue) evaluate(node.expression(), env);
                 }
             }
@@ -669,11 +855,15 @@ public class Interpreter {
     public static RuntimeValue evaluate(Statement node, Environment env) throws Throwable {
         switch(node.kind()) {
             case NumericLiteral:
-                return new NumberValue(((NumericLiteral) node).value());
+                return NumberValue.of(((NumericLiteral) node).value());
             case StringLiteral:
                 return new StringValue(((StringLiteral) node).value());
             case CharacterLiteral:
                 return new CharValue(((CharacterLiteral) node).value());
+            case BooleanLiteral:
+                return new BooleanValue(((BooleanLiteral) node).value());
+            case NullLiteral:
+                return new NullValue();
             case ArrayLiteral: {
                 ArrayList<RuntimeValue> values = new ArrayList<>();
                 for (Expression expression : ((ArrayLiteral) node).values())
@@ -698,7 +888,7 @@ public class Interpreter {
                     int step = (int) (((NumberValue) second).value() - ((NumberValue) first).value());
 
                     for(int i = ((int) ((NumberValue) first).value()); i <= (int) ((NumberValue) max).value(); i += step) {
-                        values.add(new NumberValue(i));
+                        values.add(IntegerValue.of(i));
                     }
                     return new SetValue(values);
                 }
@@ -0,0 +1,346 @@
+package indy.pseudokod.runtime;
+
+import indy.pseudokod.aot.ProgramBundle;
+import indy.pseudokod.ast.*;
+import indy.pseudokod.cache.AstCache;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.ModuleParseException;
+import indy.pseudokod.main.Main;
+import indy.pseudokod.optimizer.Optimizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Keeps track of the modules (source files) that have been loaded into an {@link Environment},
+ * so every module is loaded, parsed and executed only once, no matter how many times it is imported.<br><br>
+ *
+ * Modules are keyed by their canonical path, so different paths to the same file refer to the same module.
+ * Importing a module that is already loaded only compares the modification time and the size of the file
+ * with the ones recorded when it was loaded. If they differ, e.g. because the file was edited during a REPL session,
+ * the content hash decides whether the module has actually changed. A changed module is executed again,
+ * after the variables it declared the previous time are removed from the environment.<br><br>
+ *
+ * A module that imports itself, directly or through other modules, is not executed again while it is being loaded.<br><br>
+ *
+ * Before a module is executed from outside of any other module (e.g. the program run from the command line),
+ * the files it imports, the files they import and so on are found by scanning the import statements, and they are all
+ * parsed in parallel on the common {@link ForkJoinPool}. The syntax errors of all of them are reported together
+ * before anything is executed, and the imports executed later use the trees parsed up front. The bodies of the global functions
+ * read from a {@code .pkc} file are not scanned, so they are decoded only when the functions are called, and the modules
+ * only they import are parsed when the import statements are executed.
+ * Every tree is optimized by the {@link Optimizer} before it is resolved and executed. If the modules make up the whole program,
+ * the global functions and variables none of the trees parsed up front use are removed from them.<br><br>
+ *
+ * A program compiled into a jar imports the modules bundled with it, see {@link ProgramBundle}.
+ * Every bundled module is executed once, and never reloaded, since the bundle cannot change.
+ */
+public class ModuleRegistry {
+    private final Environment env;
+    private final Engine engine;
+    private final Map<Path, Module> modules;
+    private final Map<Path, Program> parsed;
+    private final Map<Path, byte[]> hashes;
+    private final Set<String> bundled;
+    private ProgramBundle bundle;
+    private boolean closed;
+    private Set<String> unused;
+    private int depth;
+
+    /**
+     * Constructs a new instance of {@link ModuleRegistry} loading modules into the given environment.
+     *
+     * @param env The {@link Environment} in which the modules are executed.
+     * @param engine The {@link Engine} executing the modules.
+     */
+    public ModuleRegistry(Environment env, Engine engine) {
+        this.env = env;
+        this.engine = engine;
+        this.modules = new HashMap<>();
+        this.parsed = new ConcurrentHashMap<>();
+        this.hashes = new ConcurrentHashMap<>();
+        this.bundled = new HashSet<>();
+        this.unused = Set.of();
+        this.depth = 0;
+    }
+
+    /**
+     * Loads the module in the given file, unless it is already loaded and has not changed since.
+     *
+     * @param path The path to the source file of the module.
+     * @return {@code true} if the module was executed, {@code false} if it was already loaded.
+     * @throws Throwable If the file cannot be read, or if any error occurs while parsing or executing the module.
+     */
+    public boolean load(Path path) throws Throwable {
+        final Path canonical = path.toRealPath();
+        final BasicFileAttributes attributes = Files.readAttributes(canonical, BasicFileAttributes.class);
+        Module module = this.modules.get(canonical);
+        if(module != null && (module.loading || module.isCurrent(attributes))) return false;
+
+        final byte[] hash = this.hash(canonical);
+
+        if(module != null) {
+            if(module.hash != null && Arrays.equals(module.hash, hash)) {
+                module.update(attributes, hash);
+                return false;
+            }
+
+            for(String name : module.declared) this.env.removeVariable(name);
+        } else {
+            module = new Module();
+            this.modules.put(canonical, module);
+        }
+
+        module.update(attributes, hash);
+        module.loading = true;
+
+        final Set<String> declared = Collections.newSetFromMap(new IdentityHashMap<>());
+        declared.addAll(this.env.variableNames());
+
+        try {
+            if(this.depth++ == 0) {
+                this.hashes.put(canonical, hash);
+                this.preload(canonical);
+                if(this.closed) this.unused = Optimizer.unusedGlobals(this.parsed.values(), new HashSet<>(this.env.variableNames()));
+            }
+
+            final Program program = this.parsed.remove(canonical);
+            final Program tree = program != null ? Optimizer.optimize(program, this.unused) : Optimizer.optimize(AstCache.load(canonical, hash));
+            Resolver.resolve(tree, this.env);
+            this.engine.execute(tree, this.env);
+        } catch(Throwable e) {
+            module.hash = null;
+            throw e;
+        } finally {
+            if(--this.depth == 0) {
+                this.parsed.clear();
+                this.hashes.clear();
+                this.unused = Set.of();
+            }
+
+            module.declared = new ArrayList<>();
+            for(String name : this.env.variableNames()) if(!declared.contains(name)) module.declared.add(name);
+            module.loading = false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the content hash of the given file, computed only once while the modules imported by a program are loaded,
+     * so the hash computed when a module is parsed up front is reused when it is executed.
+     *
+     * @param path The canonical path to the source file of a module.
+     * @return The hash of the content of the file.
+     * @throws IOException If an I/O error occurs while reading the file.
+     * @throws NoSuchAlgorithmException If the SHA-256 algorithm is not available.
+     */
+    private byte[] hash(Path path) throws IOException, NoSuchAlgorithmException {
+        byte[] hash = this.hashes.get(path);
+        if(hash == null) {
+            hash = AstCache.hash(path);
+            if(this.depth > 0) this.hashes.put(path, hash);
+        }
+
+        return hash;
+    }
+
+    /**
+     * Sets whether the modules loaded make up the whole program, i.e. no code other than theirs runs in the environment,
+     * as when a program is run from the command line, unlike in the REPL.
+     *
+     * @param closed {@code true} if the global functions and variables the modules never use can be removed.
+     */
+    public void setClosed(boolean closed) {
+        this.closed = closed;
+    }
+
+    /**
+     * Sets the program bundled into the jar the interpreter is running from, whose modules are imported instead of the files.
+     *
+     * @param bundle The {@link ProgramBundle}.
+     */
+    public void setBundle(ProgramBundle bundle) {
+        this.bundle = bundle;
+    }
+
+    /**
+     * Checks if a module is bundled into the jar the interpreter is running from.
+     *
+     * @param path The path used to import the module.
+     * @return {@code true} if the module is bundled, {@code false} if it has to be loaded from its file.
+     */
+    public boolean isBundled(String path) {
+        return this.bundle != null && this.bundle.resource(path) != null;
+    }
+
+    /**
+     * Loads a module bundled into the jar the interpreter is running from, unless it is already loaded.
+     *
+     * @param path The path used to import the module.
+     * @return {@code true} if the module was executed, {@code false} if it was already loaded.
+     * @throws Throwable If the module cannot be read, or if any error occurs while executing it.
+     */
+    public boolean loadBundled(String path) throws Throwable {
+        final String resource = this.bundle.resource(path);
+        if(!this.bundled.add(resource)) return false;
+
+        final Program program = Optimizer.optimize(this.bundle.load(resource));
+        Resolver.resolve(program, this.env);
+        this.engine.execute(program, this.env);
+
+        return true;
+    }
+
+    /**
+     * Parses the given module and all the modules reachable from it through import statements in parallel.
+     * Modules that are already loaded and have not been modified since are skipped, and so are imported files that do not exist,
+     * since an import statement fails only when it is executed. The import statements in the bodies of the global functions
+     * that have not been decoded from a {@code .pkc} file yet are skipped as well.
+     *
+     * @param entry The canonical path to the source file of the module.
+     * @throws ModuleParseException If several modules cannot be parsed.
+     * @throws Throwable If a single module cannot be parsed, the error thrown while parsing it.
+     */
+    private void preload(Path entry) throws Throwable {
+        final Map<Path, Throwable> errors = new ConcurrentSkipListMap<>();
+        final Set<Path> visited = ConcurrentHashMap.newKeySet();
+        visited.add(entry);
+
+        ForkJoinPool.commonPool().invoke(new ParseTask(entry, visited, errors));
+
+        if(errors.size() == 1) throw errors.values().iterator().next();
+        if(!errors.isEmpty()) throw new ModuleParseException(errors);
+    }
+
+    /**
+     * Collects the paths of the import statements among the given statements and in the blocks nested in them.
+     *
+     * @param statements The statements to be scanned.
+     * @param paths The list the paths are added to.
+     */
+    public static void collectImports(List<Statement> statements, List<String> paths) {
+        for(Statement statement : statements) {
+            switch(statement.kind()) {
+                case ImportStatement -> paths.add(((ImportStatement) statement).path());
+                case FunctionDeclaration -> collectImports(((FunctionDeclaration) statement).body(), paths);
+                case IfStatement -> {
+                    final IfStatement conditional = (IfStatement) statement;
+                    collectImports(conditional.body(), paths);
+                    if(conditional.elseStatement() != null) collectImports(List.of(conditional.elseStatement()), paths);
+                }
+                case ElseStatement -> collectImports(((ElseStatement) statement).body(), paths);
+                case ForStatement -> collectImports(((ForStatement) statement).body(), paths);
+                case WhileStatement -> collectImports(((WhileStatement) statement).body(), paths);
+                default -> {}
+            }
+        }
+    }
+
+    /**
+     * Checks if the module in the given file is loaded.
+     *
+     * @param path The path to the source file of the module.
+     * @return {@code true} if the module has been loaded, {@code false} otherwise.
+     * @throws IOException If the canonical path of the file cannot be determined.
+     */
+    public boolean isLoaded(Path path) throws IOException {
+        return this.modules.containsKey(path.toRealPath());
+    }
+
+    /**
+     * A task parsing a single module and forking the tasks parsing the modules it imports.
+     */
+    private class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path path;
+        private final Set<Path> visited;
+        private final Map<Path, Throwable> errors;
+
+        /**
+         * Constructs a new instance of {@link ParseTask} for the given module.
+         *
+         * @param path The canonical path to the source file of the module.
+         * @param visited The canonical paths of the modules that have already been scheduled for parsing.
+         * @param errors The map the errors thrown while parsing are added to.
+         */
+        private ParseTask(Path path, Set<Path> visited, Map<Path, Throwable> errors) {
+            this.path = path;
+            this.visited = visited;
+            this.errors = errors;
+        }
+
+        @Override
+        protected void compute() {
+            final List<String> imports = new ArrayList<>();
+
+            try {
+                final Program program = AstCache.load(this.path, ModuleRegistry.this.hash(this.path));
+                ModuleRegistry.this.parsed.put(this.path, program);
+                for(Statement statement : program.body())
+                    if(!(statement instanceof FunctionDeclaration function) || AstCache.isDecoded(function.body())) collectImports(List.of(statement), imports);
+            } catch(Throwable e) {
+                this.errors.put(this.path, e);
+                return;
+            }
+
+            final List<ParseTask> tasks = new ArrayList<>();
+            for(String name : imports) {
+                try {
+                    final Path path = Main.resolvePath(name).toRealPath();
+                    final Module module = ModuleRegistry.this.modules.get(path);
+                    if(module != null && module.isCurrent(Files.readAttributes(path, BasicFileAttributes.class))) continue;
+
+                    if(this.visited.add(path)) tasks.add(new ParseTask(path, this.visited, this.errors));
+                } catch(Exception ignored) {
+                    // The import fails with a proper error once it is executed.
+                }
+            }
+
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * The state of a loaded module.
+     */
+    private static class Module {
+        private FileTime modified;
+        private long size;
+        private byte[] hash;
+        private List<String> declared = List.of();
+        private boolean loading;
+
+        /**
+         * Records the attributes and the content hash of the file of the module.
+         *
+         * @param attributes The attributes of the file.
+         * @param hash The hash of the content of the file.
+         */
+        private void update(BasicFileAttributes attributes, byte[] hash) {
+            this.modified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.hash = hash;
+        }
+
+        /**
+         * Checks if the file of the module has the same attributes as when the module was loaded.
+         *
+         * @param attributes The current attributes of the file.
+         * @return {@code true} if the module was loaded successfully and its file has not been modified since, {@code false} otherwise.
+         */
+        private boolean isCurrent(BasicFileAttributes attributes) {
+            return this.hash != null && this.modified.equals(attributes.lastModifiedTime()) && this.size == attributes.size();
+        }
+    }
+}
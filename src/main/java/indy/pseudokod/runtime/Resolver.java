@@ -0,0 +1,332 @@
+package indy.pseudokod.runtime;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.environment.FrameLayout;
+import indy.pseudokod.utils.SymbolTable;
+
+import java.util.*;
+
+/**
+ * The {@link Resolver} annotates the identifiers of a program with the lexical addresses of the variables they refer to,
+ * so the {@link Interpreter} can find the variables without looking their names up in every enclosing {@link Environment}.<br><br>
+ *
+ * The resolver mirrors the environments created by the interpreter: the scope of a function call, of the body of an if or else statement,
+ * and of a for or while loop. It declares the variables in the same order as the interpreter does, building the {@link FrameLayout}
+ * shared by the {@link indy.pseudokod.environment.Frame}s of every block. An identifier is annotated with the number of scopes
+ * between its own scope and the one declaring the variable, and with the slot of the variable in the layout of that scope.<br><br>
+ *
+ * Global variables get their slots in the layout of the global environment the program is executed in, which the resolver extends
+ * with the names of the globals the program declares or refers to. Since globals can be declared and removed at any time
+ * (e.g. by imports or in the REPL), the environment checks that the slot holds a variable with the name of the identifier,
+ * and looks the variable up by name otherwise, see {@link Environment#getVariable(String, int, int)}.<br><br>
+ *
+ * Identifiers whose variable cannot be determined statically are left for the lookup by name:
+ * <ul>
+ *   <li>identifiers referring to a variable declared later in the body of a loop, which is visible only from the next iteration on,</li>
+ *   <li>identifiers in a function body referring to a variable declared later in an enclosing scope, which may or may not be declared when the function is called.</li>
+ * </ul>
+ *
+ * The bodies of global functions are resolved when the functions are called for the first time,
+ * so the bodies of functions that are never called are not decoded from a {@code .pkc} file at all.
+ * The layout of the scope of the calls of a function is stored on its {@link FunctionDeclaration}.
+ */
+public final class Resolver {
+    private final FrameLayout globals;
+    private final List<Scope> scopes;
+    private int functions;
+
+    /**
+     * Constructs a new instance of {@link Resolver} starting in the global scope.
+     *
+     * @param globals The {@link FrameLayout} of the global environment.
+     */
+    private Resolver(FrameLayout globals) {
+        this.globals = globals;
+        this.scopes = new ArrayList<>();
+        this.functions = 0;
+    }
+
+    /**
+     * Annotates the identifiers of a program executed in the global scope.
+     * The bodies of the functions declared directly in the global scope are left to {@link #resolveFunction(FunctionDeclaration, Environment)}.
+     *
+     * @param program The {@link Program} to resolve.
+     * @param env The global {@link Environment} in which the program is executed.
+     */
+    public static void resolve(Program program, Environment env) {
+        new Resolver(env.layout()).resolveStatements(program.body());
+    }
+
+    /**
+     * Annotates the identifiers in the body of a function declared in the global scope, unless it has already been resolved.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     * @param env The global {@link Environment} in which the function has been declared.
+     * @return The {@link FrameLayout} of the scope in which the body of the function is executed.
+     */
+    public static FrameLayout resolveFunction(FunctionDeclaration declaration, Environment env) {
+        final FrameLayout layout = declaration.layout();
+        return layout != null ? layout : new Resolver(env.layout()).resolveFunctionBody(declaration);
+    }
+
+    /**
+     * Resolves the statements of a block, in the current scope.
+     *
+     * @param statements The statements to resolve.
+     */
+    private void resolveStatements(List<Statement> statements) {
+        for(Statement statement : statements) this.resolveStatement(statement);
+    }
+
+    /**
+     * Resolves the statements of a block in a new scope.
+     * A block that declares no variables is flattened: its statements are resolved in the current scope,
+     * and the empty layout returned for it tells the {@link Interpreter} to execute it in the enclosing environment.
+     *
+     * @param statements The statements to resolve.
+     * @param loop {@code true} if the statements are the body of a loop, executed repeatedly in the same scope.
+     * @return The {@link FrameLayout} of the scope.
+     */
+    private FrameLayout resolveBlock(List<Statement> statements, boolean loop) {
+        final Scope scope = new Scope(statements, loop, false);
+
+        if(scope.all.isEmpty()) {
+            this.resolveStatements(statements);
+            return scope.layout;
+        }
+
+        this.enter(scope);
+        this.resolveStatements(statements);
+        this.exit(scope);
+
+        return scope.layout;
+    }
+
+    /**
+     * Enters the scope of a block.
+     *
+     * @param scope The {@link Scope} of the block.
+     */
+    private void enter(Scope scope) {
+        this.scopes.add(scope);
+        scope.functions = this.functions;
+    }
+
+    /**
+     * Exits the scope of a block, marking its layout as reusable if no function has been declared in the block.
+     *
+     * @param scope The {@link Scope} of the block.
+     */
+    private void exit(Scope scope) {
+        this.scopes.remove(this.scopes.size() - 1);
+        scope.layout.setReusable(!scope.function && scope.functions == this.functions);
+    }
+
+    /**
+     * Resolves a single statement or expression.
+     *
+     * @param node The statement to resolve, may be {@code null}.
+     */
+    private void resolveStatement(Statement node) {
+        if(node == null) return;
+
+        switch(node.kind()) {
+            case Identifier -> this.resolveIdentifier((Identifier) node);
+            case BinaryExpression -> {
+                this.resolveStatement(((BinaryExpression) node).left());
+                this.resolveStatement(((BinaryExpression) node).right());
+            }
+            case ComparisonExpression -> {
+                this.resolveStatement(((ComparisonExpression) node).left());
+                this.resolveStatement(((ComparisonExpression) node).right());
+            }
+            case LogicalExpression -> {
+                this.resolveStatement(((LogicalExpression) node).left());
+                this.resolveStatement(((LogicalExpression) node).right());
+            }
+            case BitwiseExpression -> {
+                this.resolveStatement(((BitwiseExpression) node).left());
+                this.resolveStatement(((BitwiseExpression) node).right());
+            }
+            case IndexExpression -> {
+                this.resolveStatement(((IndexExpression) node).array());
+                this.resolveStatement(((IndexExpression) node).index());
+            }
+            case AssignmentExpression -> {
+                this.resolveStatement(((AssignmentExpression) node).expression());
+                this.resolveStatement(((AssignmentExpression) node).value());
+            }
+            case CallExpression -> {
+                this.resolveStatements(new ArrayList<>(((CallExpression) node).args()));
+                this.resolveStatement(((CallExpression) node).expression());
+            }
+            case ArrayLiteral -> this.resolveStatements(new ArrayList<>(((ArrayLiteral) node).values()));
+            case SetLiteral -> this.resolveStatements(new ArrayList<>(((SetLiteral) node).values()));
+            case RangeLiteral -> {
+                this.resolveStatement(((RangeLiteral) node).leftBound());
+                this.resolveStatement(((RangeLiteral) node).rightBound());
+            }
+            case PrintFunction -> this.resolveStatements(new ArrayList<>(((PrintFunction) node).args()));
+            case ReturnStatement -> this.resolveStatement(((ReturnStatement) node).value());
+            case DataDeclaration -> {
+                for(Statement statement : ((DataDeclaration) node).body()) {
+                    final VariableDeclaration variable = (VariableDeclaration) statement;
+
+                    this.resolveStatement(variable.value());
+                    if(variable.range() != null && variable.range().kind() != NodeType.Identifier) this.resolveStatement(variable.range());
+                    this.declare(variable.symbol());
+                }
+            }
+            case FunctionDeclaration -> {
+                final FunctionDeclaration function = (FunctionDeclaration) node;
+
+                this.functions++;
+                this.declare(function.symbol());
+                if(!this.scopes.isEmpty()) this.resolveFunctionBody(function);
+            }
+            case IfStatement -> this.resolveIfStatement((IfStatement) node);
+            case ElseStatement -> ((ElseStatement) node).setLayout(this.resolveBlock(((ElseStatement) node).body(), false));
+            case ForStatement -> this.resolveForStatement((ForStatement) node);
+            case WhileStatement -> {
+                this.resolveStatement(((WhileStatement) node).expression());
+                ((WhileStatement) node).setLayout(this.resolveBlock(((WhileStatement) node).body(), true));
+            }
+            default -> {}
+        }
+    }
+
+    /**
+     * Resolves an if-statement: its condition in the current scope, its body in a new scope,
+     * and the else-if statement following it in the current scope.
+     *
+     * @param node The {@link IfStatement} to resolve.
+     */
+    private void resolveIfStatement(IfStatement node) {
+        this.resolveStatement(node.expression());
+        node.setLayout(this.resolveBlock(node.body(), false));
+        this.resolveStatement(node.elseStatement());
+    }
+
+    /**
+     * Resolves a for-statement. The control variable is the first variable declared in the scope of the loop.
+     * The values of a loop written with an ellipsis are evaluated outside of that scope, the other ones are evaluated inside of it.
+     *
+     * @param node The {@link ForStatement} to resolve.
+     */
+    private void resolveForStatement(ForStatement node) {
+        final boolean ellipsis = node.values().stream().anyMatch(e -> e.kind() == NodeType.EllipsisStatement);
+        if(ellipsis) this.resolveStatements(new ArrayList<>(node.values()));
+
+        final Scope scope = new Scope(node.body(), true, false);
+        scope.all.add(SymbolTable.intern(node.control_variable()));
+        this.enter(scope);
+
+        if(!ellipsis) this.resolveStatements(new ArrayList<>(node.values()));
+        this.declare(node.control_variable());
+        this.resolveStatements(node.body());
+
+        this.exit(scope);
+        node.setLayout(scope.layout);
+    }
+
+    /**
+     * Resolves the body of a function in a new scope, in which its parameters are declared first and its variables next,
+     * and records the layout of the scope.
+     *
+     * @param function The {@link FunctionDeclaration} of the function.
+     * @return The {@link FrameLayout} of the scope.
+     */
+    private FrameLayout resolveFunctionBody(FunctionDeclaration function) {
+        final Scope scope = new Scope(function.body(), false, true);
+        this.enter(scope);
+
+        for(Statement statement : function.data()) {
+            final String symbol = ((VariableDeclaration) statement).symbol();
+            if(symbol.endsWith("*")) this.declare(symbol.replace("*", ""));
+        }
+
+        for(Statement statement : function.data()) {
+            final String symbol = ((VariableDeclaration) statement).symbol();
+            if(!symbol.endsWith("*")) this.declare(symbol);
+        }
+
+        this.resolveStatements(function.body());
+        this.exit(scope);
+
+        function.setLayout(scope.layout);
+        return scope.layout;
+    }
+
+    /**
+     * Declares a variable in the current scope, giving it the next free slot of its layout,
+     * or the slot it already has in the layout of the global environment if it is declared in the global scope.
+     *
+     * @param name The name of the variable.
+     */
+    private void declare(String name) {
+        if(!this.scopes.isEmpty()) this.scopes.get(this.scopes.size() - 1).layout.add(name);
+        else this.globals.add(name);
+    }
+
+    /**
+     * Annotates an identifier with the lexical address of the variable it refers to, if the address can be determined statically.
+     * An identifier not declared in any enclosing scope refers to a global variable, whose slot is added to the layout of the global environment if needed.
+     *
+     * @param identifier The {@link Identifier} to resolve.
+     */
+    private void resolveIdentifier(Identifier identifier) {
+        final String name = SymbolTable.intern(identifier.symbol());
+        boolean escaped = false;
+
+        for(int i = this.scopes.size() - 1; i >= 0; i--) {
+            final Scope scope = this.scopes.get(i);
+            final int slot = scope.layout.slot(name);
+
+            if(slot >= 0) {
+                identifier.resolve(this.scopes.size() - 1 - i, slot);
+                return;
+            }
+
+            if(scope.all.contains(name) && (scope.loop || escaped)) {
+                identifier.resolve(-1, -1);
+                return;
+            }
+            if(scope.function) escaped = true;
+        }
+
+        identifier.resolve(this.scopes.size(), this.globals.add(name));
+    }
+
+    /**
+     * A scope of the program being resolved, corresponding to an environment created by the {@link Interpreter}.
+     * Its layout holds the variables declared so far, in the order in which they are declared.
+     */
+    private static final class Scope {
+        private final FrameLayout layout;
+        private final Set<String> all;
+        private final boolean loop;
+        private final boolean function;
+        private int functions;
+
+        /**
+         * Constructs a new instance of {@link Scope} for the given block of statements.
+         *
+         * @param body The statements executed in the scope, used to find all the variables declared in it.
+         * @param loop {@code true} if the statements are executed repeatedly in the same scope.
+         * @param function {@code true} if the scope is the scope of a function call.
+         */
+        private Scope(List<Statement> body, boolean loop, boolean function) {
+            this.layout = new FrameLayout();
+            this.all = new HashSet<>();
+            this.loop = loop;
+            this.function = function;
+
+            for(Statement statement : body) {
+                if(statement.kind() == NodeType.FunctionDeclaration) this.all.add(SymbolTable.intern(((FunctionDeclaration) statement).symbol()));
+                else if(statement.kind() == NodeType.DataDeclaration)
+                    for(Statement variable : ((DataDeclaration) statement).body()) this.all.add(SymbolTable.intern(((VariableDeclaration) variable).symbol()));
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.DivisionByZeroException;
+import indy.pseudokod.runtime.values.*;
+
+/**
+ * The executable nodes of the binary expressions. Every operator has a node of its own,
+ * so the operator is chosen once, when the expression is compiled, instead of every time it is evaluated.
+ * The nodes specialize themselves on the types of their operands, see {@link SpecializingNode}.<br><br>
+ *
+ * Like in the {@link indy.pseudokod.runtime.Interpreter}, an operation on two numbers gives a number,
+ * an addition with a string operand concatenates the operands, and any other combination of operands gives a {@link NullValue}.
+ */
+public abstract class ArithmeticNode extends SpecializingNode {
+
+    /**
+     * Constructs a new instance of {@link ArithmeticNode}.
+     *
+     * @param left The node of the left operand.
+     * @param right The node of the right operand.
+     */
+    protected ArithmeticNode(ExecNode left, ExecNode right) {
+        super(left, right);
+    }
+
+    /**
+     * The node of an addition, or of a concatenation if any of the operands is a string.
+     */
+    public static final class Add extends ArithmeticNode {
+        /**
+         * Constructs a new instance of {@link Add}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Add(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new NumberValue(l.value() + r.value());
+            if(this.state == State.String && lhs instanceof StringValue l && rhs instanceof StringValue r) return new StringValue(l.value() + r.value());
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new NumberValue(l.value() + r.value());
+            if(lhs.type() == ValueType.String || rhs.type() == ValueType.String)
+                return new StringValue(StringValue.valueOf(lhs).value() + StringValue.valueOf(rhs).value());
+            return new NullValue();
+        }
+
+        @Override
+        protected State select(RuntimeValue lhs, RuntimeValue rhs) {
+            return strings(lhs, rhs) ? State.String : super.select(lhs, rhs);
+        }
+    }
+
+    /**
+     * The node of a subtraction.
+     */
+    public static final class Subtract extends ArithmeticNode {
+        /**
+         * Constructs a new instance of {@link Subtract}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Subtract(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new NumberValue(l.value() - r.value());
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new NumberValue(l.value() - r.value());
+            return new NullValue();
+        }
+    }
+
+    /**
+     * The node of a multiplication.
+     */
+    public static final class Multiply extends ArithmeticNode {
+        /**
+         * Constructs a new instance of {@link Multiply}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Multiply(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new NumberValue(l.value() * r.value());
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new NumberValue(l.value() * r.value());
+            return new NullValue();
+        }
+    }
+
+    /**
+     * The node of a division.
+     */
+    public static final class Divide extends ArithmeticNode {
+        /**
+         * Constructs a new instance of {@link Divide}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Divide(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) {
+            if(r.value() == 0) throw new DivisionByZeroException();
+            return new NumberValue(l.value() / r.value());
+            }
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) {
+            if(r.value() == 0) throw new DivisionByZeroException();
+            return new NumberValue(l.value() / r.value());
+            }
+            return new NullValue();
+        }
+    }
+
+    /**
+     * The node of an integer division, rounding the quotient down.
+     */
+    public static final class IntegerDivide extends ArithmeticNode {
+        /**
+         * Constructs a new instance of {@link IntegerDivide}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public IntegerDivide(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) {
+            if(r.value() == 0) throw new DivisionByZeroException();
+            return new NumberValue(Math.floor(l.value() / r.value()));
+            }
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) {
+            if(r.value() == 0) throw new DivisionByZeroException();
+            return new NumberValue(Math.floor(l.value() / r.value()));
+            }
+            return new NullValue();
+        }
+    }
+
+    /**
+     * The node of a modulus.
+     */
+    public static final class Modulus extends ArithmeticNode {
+        /**
+         * Constructs a new instance of {@link Modulus}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Modulus(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new NumberValue(l.value() % r.value());
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new NumberValue(l.value() % r.value());
+            return new NullValue();
+        }
+    }
+}
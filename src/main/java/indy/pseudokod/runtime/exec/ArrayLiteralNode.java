@@ -0,0 +1,31 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.values.ListValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+import java.util.ArrayList;
+
+/**
+ * An executable node of an array literal, creating a new list every time it is executed, since lists can be modified.
+ */
+public final class ArrayLiteralNode extends ExecNode {
+    private final ExecNode[] values;
+
+    /**
+     * Constructs a new instance of {@link ArrayLiteralNode}.
+     *
+     * @param values The nodes of the elements of the array.
+     */
+    public ArrayLiteralNode(ExecNode[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final ArrayList<RuntimeValue> values = new ArrayList<>(this.values.length);
+        for(ExecNode value : this.values) values.add(value.execute(frame));
+
+        return new ListValue(values);
+    }
+}
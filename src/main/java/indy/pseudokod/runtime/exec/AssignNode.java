@@ -0,0 +1,39 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * An executable node assigning a value to a variable, found by its lexical address if it has one, or by its name otherwise.
+ * The type of the value is not checked again if the {@link indy.pseudokod.optimizer.Optimizer} proved it.
+ */
+public final class AssignNode extends ExecNode {
+    private final String name;
+    private final int depth;
+    private final int slot;
+    private final ExecNode value;
+    private final boolean checked;
+
+    /**
+     * Constructs a new instance of {@link AssignNode}.
+     *
+     * @param name The name of the variable.
+     * @param depth The number of parent environments to skip, or {@code -1} if the variable has to be looked up by name.
+     * @param slot The slot of the variable in the environment declaring it.
+     * @param value The node of the assigned value.
+     * @param checked {@code true} if the value has been proven to have the type of the variable.
+     */
+    public AssignNode(String name, int depth, int slot, ExecNode value, boolean checked) {
+        this.name = name;
+        this.depth = depth;
+        this.slot = slot;
+        this.value = value;
+        this.checked = checked;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        if(this.checked) return frame.storeVariable(this.name, this.depth, this.slot, this.value.execute(frame));
+        return frame.assignVariable(this.name, this.depth, this.slot, this.value.execute(frame));
+    }
+}
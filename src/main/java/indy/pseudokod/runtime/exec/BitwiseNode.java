@@ -0,0 +1,170 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.DataTypeMismatchException;
+import indy.pseudokod.runtime.values.*;
+
+/**
+ * The executable nodes of the bitwise expressions, one for every operator.<br><br>
+ *
+ * Like in the {@link indy.pseudokod.runtime.Interpreter}, the right operand is evaluated first, both operands are truncated to integers, and an operand that is not a number is reported as a mismatch of a boolean.
+ */
+public abstract class BitwiseNode extends ExecNode {
+    protected final ExecNode left;
+    protected final ExecNode right;
+
+    /**
+     * Constructs a new instance of {@link BitwiseNode}.
+     *
+     * @param left The node of the left operand, or {@code null} if the operator is unary.
+     * @param right The node of the right operand.
+     */
+    protected BitwiseNode(ExecNode left, ExecNode right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public final RuntimeValue execute(Environment frame) throws Throwable {
+        int left = 0;
+        final RuntimeValue rhs = this.right.execute(frame);
+
+        if(this.left != null) {
+            final RuntimeValue lhs = this.left.execute(frame);
+            if(lhs.type() != ValueType.Number) throw new DataTypeMismatchException(ValueType.Boolean, lhs.type());
+            left = ((NumberValue) lhs).intValue();
+        }
+
+        if(rhs.type() != ValueType.Number) throw new DataTypeMismatchException(ValueType.Boolean, rhs.type());
+        return IntegerValue.of(this.apply(left, ((NumberValue) rhs).intValue()));
+    }
+
+    /**
+     * Applies the operator to the values of the operands.
+     *
+     * @param left The value of the left operand, or {@code 0} if the operator is unary.
+     * @param right The value of the right operand.
+     * @return The result of the operation.
+     */
+    protected abstract int apply(int left, int right);
+
+    /**
+     * The node of a bitwise negation.
+     */
+    public static final class BitwiseNot extends BitwiseNode {
+        /**
+         * Constructs a new instance of {@link BitwiseNot}.
+         *
+         * @param left The node of the left operand, or {@code null}.
+         * @param right The node of the right operand.
+         */
+        public BitwiseNot(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected int apply(int left, int right) {
+            return ~right;
+        }
+    }
+
+    /**
+     * The node of a bitwise conjunction.
+     */
+    public static final class BitwiseAnd extends BitwiseNode {
+        /**
+         * Constructs a new instance of {@link BitwiseAnd}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public BitwiseAnd(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected int apply(int left, int right) {
+            return left & right;
+        }
+    }
+
+    /**
+     * The node of a bitwise disjunction.
+     */
+    public static final class BitwiseOr extends BitwiseNode {
+        /**
+         * Constructs a new instance of {@link BitwiseOr}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public BitwiseOr(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected int apply(int left, int right) {
+            return left | right;
+        }
+    }
+
+    /**
+     * The node of a bitwise exclusive disjunction.
+     */
+    public static final class BitwiseXor extends BitwiseNode {
+        /**
+         * Constructs a new instance of {@link BitwiseXor}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public BitwiseXor(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected int apply(int left, int right) {
+            return left ^ right;
+        }
+    }
+
+    /**
+     * The node of a left shift.
+     */
+    public static final class ShiftLeft extends BitwiseNode {
+        /**
+         * Constructs a new instance of {@link ShiftLeft}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public ShiftLeft(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected int apply(int left, int right) {
+            return left << right;
+        }
+    }
+
+    /**
+     * The node of an arithmetic right shift.
+     */
+    public static final class ShiftRight extends BitwiseNode {
+        /**
+         * Constructs a new instance of {@link ShiftRight}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public ShiftRight(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected int apply(int left, int right) {
+            return left >> right;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.environment.FrameLayout;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * An executable node of a block of statements, such as the body of a program, a function or an else-statement.
+ * A block with a layout is executed in the scope entered with {@link Environment#enter(FrameLayout)},
+ * a block without one is executed directly in the given environment.
+ */
+public final class BlockNode extends ExecNode {
+    private final FrameLayout layout;
+    private final boolean scoped;
+    private final ExecNode[] statements;
+
+    /**
+     * Constructs a new instance of {@link BlockNode} executed directly in the given environment.
+     *
+     * @param statements The nodes of the statements of the block.
+     */
+    public BlockNode(ExecNode[] statements) {
+        this.layout = null;
+        this.scoped = false;
+        this.statements = statements;
+    }
+
+    /**
+     * Constructs a new instance of {@link BlockNode} executed in a scope of its own.
+     *
+     * @param layout The {@link FrameLayout} of the block, or {@code null} if the block has not been resolved.
+     * @param statements The nodes of the statements of the block.
+     */
+    public BlockNode(FrameLayout layout, ExecNode[] statements) {
+        this.layout = layout;
+        this.scoped = true;
+        this.statements = statements;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final Environment scope = this.scoped ? frame.enter(this.layout) : frame;
+        RuntimeValue result = new NullValue();
+
+        for(ExecNode statement : this.statements) result = statement.execute(scope);
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.environment.FrameLayout;
+import indy.pseudokod.exceptions.InvalidCallableException;
+import indy.pseudokod.jit.CompiledFunction;
+import indy.pseudokod.runtime.Resolver;
+import indy.pseudokod.runtime.values.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An executable node of a call of a native or user-defined function.<br><br>
+ *
+ * Like in the {@link indy.pseudokod.runtime.Interpreter}, the arguments are evaluated before the function,
+ * and any error thrown while evaluating them is wrapped in a {@link RuntimeException}.
+ * The body of a user-defined function is resolved and compiled when the function is called for the first time,
+ * unless it has been compiled to JVM code by the {@link indy.pseudokod.jit.KernelCompiler}.
+ */
+public final class CallNode extends ExecNode {
+    private final ExecNode function;
+    private final ExecNode[] args;
+
+    /**
+     * Constructs a new instance of {@link CallNode}.
+     *
+     * @param function The node of the called function.
+     * @param args The nodes of the arguments.
+     */
+    public CallNode(ExecNode function, ExecNode[] args) {
+        this.function = function;
+        this.args = args;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final RuntimeValue[] args = new RuntimeValue[this.args.length];
+
+        for(int i = 0; i < args.length; i++) {
+            try {
+                args[i] = this.args[i].execute(frame);
+            } catch(Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        final List<RuntimeValue> arguments = Arrays.asList(args);
+        final RuntimeValue function = this.function.execute(frame);
+
+        if(function instanceof NativeFunction fn) return fn.call(arguments, frame);
+        if(!(function instanceof Function fn)) throw new InvalidCallableException(function.type());
+
+        final CompiledFunction compiled = CompiledFunction.of(fn.declaration());
+        if(compiled != null) {
+            final RuntimeValue result = compiled.invoke(fn, arguments);
+            if(result != null) return result;
+        }
+
+        final FrameLayout layout = Resolver.resolveFunction(fn.declaration(), fn.env());
+        final ExecNode body = NodeCompiler.compileFunction(fn.declaration());
+
+        final Environment scope = fn.env().call(layout);
+        final List<String> parameters = fn.parameters();
+        final Map<String, ValueType> parameter_types = fn.parameter_types();
+
+        for(int i = 0; i < parameters.size(); i++) {
+            final String parameter = parameters.get(i);
+            scope.declareVariable(parameter, parameter_types.get(parameter), false, arguments.get(i));
+        }
+
+        final Map<String, ValueType> variable_types = fn.variable_types();
+        for(String variable : fn.variables()) scope.declareVariable(variable, variable_types.get(variable), false, new NullValue());
+
+        return body.execute(scope);
+    }
+}
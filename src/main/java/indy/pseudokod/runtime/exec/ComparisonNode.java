@@ -0,0 +1,236 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.IncompatibleDataTypesException;
+import indy.pseudokod.runtime.values.*;
+
+import java.util.Objects;
+
+/**
+ * The executable nodes of the comparison expressions, one for every operator.
+ * The nodes specialize themselves on the types of their operands, see {@link SpecializingNode}.<br><br>
+ *
+ * Like in the {@link indy.pseudokod.runtime.Interpreter}, the operands have to be of the same type, unless any of them is null.
+ * Numbers are compared by their values, any other values are compared by their string representations,
+ * and only for (in)equality.
+ */
+public abstract class ComparisonNode extends SpecializingNode {
+
+    /**
+     * Constructs a new instance of {@link ComparisonNode}.
+     *
+     * @param left The node of the left operand.
+     * @param right The node of the right operand.
+     */
+    protected ComparisonNode(ExecNode left, ExecNode right) {
+        super(left, right);
+    }
+
+    @Override
+    protected State select(RuntimeValue lhs, RuntimeValue rhs) {
+        return strings(lhs, rhs) ? State.String : super.select(lhs, rhs);
+    }
+
+    /**
+     * Checks that the operands of a comparison can be compared.
+     *
+     * @param lhs The value of the left operand.
+     * @param rhs The value of the right operand.
+     * @throws IncompatibleDataTypesException If the operands are of different types and none of them is null.
+     */
+    protected static void check(RuntimeValue lhs, RuntimeValue rhs) throws IncompatibleDataTypesException {
+        if(lhs.type() != rhs.type() && !(lhs.type() == ValueType.NULL || rhs.type() == ValueType.NULL)) throw new IncompatibleDataTypesException(lhs.type(), rhs.type());
+    }
+
+    /**
+     * The node of an equality.
+     */
+    public static final class Equal extends ComparisonNode {
+        /**
+         * Constructs a new instance of {@link Equal}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Equal(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() == r.value());
+            if(this.state == State.String && lhs instanceof StringValue sl && rhs instanceof StringValue sr) return new BooleanValue(Objects.equals(sl.value(), sr.value()));
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            check(lhs, rhs);
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() == r.value());
+
+            final String l = StringValue.valueOf(lhs).value();
+            final String r = StringValue.valueOf(rhs).value();
+            return new BooleanValue(Objects.equals(l, r));
+        }
+    }
+
+    /**
+     * The node of an inequality.
+     */
+    public static final class NotEqual extends ComparisonNode {
+        /**
+         * Constructs a new instance of {@link NotEqual}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public NotEqual(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() != r.value());
+            if(this.state == State.String && lhs instanceof StringValue sl && rhs instanceof StringValue sr) return new BooleanValue(!Objects.equals(sl.value(), sr.value()));
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            check(lhs, rhs);
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() != r.value());
+
+            final String l = StringValue.valueOf(lhs).value();
+            final String r = StringValue.valueOf(rhs).value();
+            return new BooleanValue(!Objects.equals(l, r));
+        }
+    }
+
+    /**
+     * The node of a less-than comparison.
+     */
+    public static final class Less extends ComparisonNode {
+        /**
+         * Constructs a new instance of {@link Less}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Less(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() < r.value());
+            if(this.state == State.String && strings(lhs, rhs)) return new BooleanValue(false);
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            check(lhs, rhs);
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() < r.value());
+
+            StringValue.valueOf(lhs);
+            StringValue.valueOf(rhs);
+            return new BooleanValue(false);
+        }
+    }
+
+    /**
+     * The node of a less-or-equal comparison.
+     */
+    public static final class LessOrEqual extends ComparisonNode {
+        /**
+         * Constructs a new instance of {@link LessOrEqual}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public LessOrEqual(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() <= r.value());
+            if(this.state == State.String && strings(lhs, rhs)) return new BooleanValue(false);
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            check(lhs, rhs);
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() <= r.value());
+
+            StringValue.valueOf(lhs);
+            StringValue.valueOf(rhs);
+            return new BooleanValue(false);
+        }
+    }
+
+    /**
+     * The node of a greater-than comparison.
+     */
+    public static final class Greater extends ComparisonNode {
+        /**
+         * Constructs a new instance of {@link Greater}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Greater(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() > r.value());
+            if(this.state == State.String && strings(lhs, rhs)) return new BooleanValue(false);
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            check(lhs, rhs);
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() > r.value());
+
+            StringValue.valueOf(lhs);
+            StringValue.valueOf(rhs);
+            return new BooleanValue(false);
+        }
+    }
+
+    /**
+     * The node of a greater-or-equal comparison.
+     */
+    public static final class GreaterOrEqual extends ComparisonNode {
+        /**
+         * Constructs a new instance of {@link GreaterOrEqual}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public GreaterOrEqual(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        public RuntimeValue execute(Environment frame) throws Throwable {
+            final RuntimeValue lhs = this.left.execute(frame);
+            final RuntimeValue rhs = this.right.execute(frame);
+
+            if(this.state == State.Number && lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() >= r.value());
+            if(this.state == State.String && strings(lhs, rhs)) return new BooleanValue(false);
+            if(this.state != State.Generic) this.respecialize(lhs, rhs);
+
+            check(lhs, rhs);
+            if(lhs instanceof NumberValue l && rhs instanceof NumberValue r) return new BooleanValue(l.value() >= r.value());
+
+            StringValue.valueOf(lhs);
+            StringValue.valueOf(rhs);
+            return new BooleanValue(false);
+        }
+    }
+}
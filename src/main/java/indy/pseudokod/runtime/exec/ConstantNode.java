@@ -0,0 +1,25 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * An executable node of a numeric, string or character literal, evaluating to the same immutable value every time.
+ */
+public final class ConstantNode extends ExecNode {
+    private final RuntimeValue value;
+
+    /**
+     * Constructs a new instance of {@link ConstantNode}.
+     *
+     * @param value The value of the literal.
+     */
+    public ConstantNode(RuntimeValue value) {
+        this.value = value;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) {
+        return this.value;
+    }
+}
@@ -0,0 +1,70 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.environment.FrameLayout;
+import indy.pseudokod.exceptions.InvalidSetSyntaxException;
+import indy.pseudokod.runtime.values.IntegerValue;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.NumberValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+import indy.pseudokod.runtime.values.ValueType;
+
+/**
+ * An executable node of a for loop over the values written with an ellipsis, e.g. {@code 1, 2, ..., n}.
+ * The first two values give the step, the last one the limit; they are all evaluated once, in the enclosing environment.
+ * The control variable is the first variable declared in the scope of the loop, so it is always found in its first slot.
+ */
+public final class CountedForNode extends ExecNode {
+    private final FrameLayout layout;
+    private final String name;
+    private final ExecNode first;
+    private final ExecNode second;
+    private final ExecNode max;
+    private final boolean ellipsis;
+    private final ExecNode[] body;
+
+    /**
+     * Constructs a new instance of {@link CountedForNode}.
+     *
+     * @param layout The {@link FrameLayout} of the scope of the loop.
+     * @param name The name of the control variable.
+     * @param first The node of the first value.
+     * @param second The node of the second value.
+     * @param max The node of the limit.
+     * @param ellipsis {@code true} if the ellipsis is the third of the values, as it should be.
+     * @param body The nodes of the statements of the body.
+     */
+    public CountedForNode(FrameLayout layout, String name, ExecNode first, ExecNode second, ExecNode max, boolean ellipsis, ExecNode[] body) {
+        this.layout = layout;
+        this.name = name;
+        this.first = first;
+        this.second = second;
+        this.max = max;
+        this.ellipsis = ellipsis;
+        this.body = body;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final Environment scope = frame.enter(this.layout);
+
+        final RuntimeValue first = this.first.execute(frame);
+        final RuntimeValue second = this.second.execute(frame);
+        final RuntimeValue max = this.max.execute(frame);
+
+        if(!(first.type() == ValueType.Number && second.type() == ValueType.Number && this.ellipsis && max.type() == ValueType.Number))
+            throw new InvalidSetSyntaxException();
+
+        final int step = (int) (((NumberValue) second).value() - ((NumberValue) first).value());
+        final int limit = (int) ((NumberValue) max).value();
+
+        scope.declareVariable(this.name, ValueType.Number, false, first);
+
+        while(((NumberValue) scope.getVariable(this.name, 0, 0)).intValue() <= limit) {
+            for(ExecNode statement : this.body) statement.execute(scope);
+            scope.assignVariable(this.name, 0, 0, IntegerValue.of(((NumberValue) scope.getVariable(this.name, 0, 0)).intValue() + step));
+        }
+
+        return new NullValue();
+    }
+}
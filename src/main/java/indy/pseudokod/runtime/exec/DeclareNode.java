@@ -0,0 +1,54 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.ast.NodeType;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.DataTypeMismatchException;
+import indy.pseudokod.runtime.values.*;
+
+/**
+ * An executable node declaring a single variable of a data declaration.<br><br>
+ *
+ * Like in the {@link indy.pseudokod.runtime.Interpreter}, the initial value has to be of the type of the variable,
+ * a stack or a queue declared without a value is initialized with an empty one,
+ * and a value declared with a range or a set has to belong to it, as every value assigned to the variable later.
+ */
+public final class DeclareNode extends ExecNode {
+    private final String name;
+    private final ValueType type;
+    private final ExecNode value;
+    private final NodeType range_kind;
+    private final ExecNode range;
+
+    /**
+     * Constructs a new instance of {@link DeclareNode}.
+     *
+     * @param name The name of the variable.
+     * @param type The type of the variable.
+     * @param value The node of the initial value, or {@code null} if the variable is declared without one.
+     * @param range_kind The kind of the range of the variable ({@link NodeType#RangeLiteral}, {@link NodeType#SetLiteral}
+     *                   or {@link NodeType#Identifier}), or {@code null} if the variable has no range.
+     * @param range The node of the range of the variable, or {@code null} if the variable has no range.
+     */
+    public DeclareNode(String name, ValueType type, ExecNode value, NodeType range_kind, ExecNode range) {
+        this.name = name;
+        this.type = type;
+        this.value = value;
+        this.range_kind = range_kind;
+        this.range = range;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        RuntimeValue value = this.value != null ? this.value.execute(frame) : null;
+
+        if(value != null && this.type != value.type()) throw new DataTypeMismatchException(this.type, value.type());
+        if(this.type == ValueType.Stack && this.value == null) value = new StackValue();
+        if(this.type == ValueType.Queue && this.value == null) value = new QueueValue();
+
+        final RuntimeValue domain = this.range_kind != null ? this.range.execute(frame) : null;
+        if(this.range_kind == NodeType.Identifier && !(domain instanceof RangeValue)) throw new DataTypeMismatchException(ValueType.Range, domain.type());
+
+        frame.declareVariable(this.name, this.type, false, value != null ? value : new NullValue(), domain);
+        return new NullValue();
+    }
+}
@@ -0,0 +1,51 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.environment.FrameLayout;
+import indy.pseudokod.exceptions.InvalidWhileLoopExpressionException;
+import indy.pseudokod.runtime.values.BooleanValue;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * An executable node of a do-while loop. Like in the {@link indy.pseudokod.runtime.Interpreter},
+ * the condition is evaluated once before the first iteration too, and its type is the one reported
+ * if a {@link ClassCastException} is thrown anywhere in the loop.
+ */
+public final class DoWhileNode extends ExecNode {
+    private final FrameLayout layout;
+    private final ExecNode condition;
+    private final ExecNode[] body;
+
+    /**
+     * Constructs a new instance of {@link DoWhileNode}.
+     *
+     * @param layout The {@link FrameLayout} of the scope of the loop.
+     * @param condition The node of the condition.
+     * @param body The nodes of the statements of the body.
+     */
+    public DoWhileNode(FrameLayout layout, ExecNode condition, ExecNode[] body) {
+        this.layout = layout;
+        this.condition = condition;
+        this.body = body;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final Environment scope = frame.enter(this.layout);
+        final RuntimeValue expr = this.condition.execute(frame);
+
+        try {
+            BooleanValue condition;
+
+            do {
+                for(ExecNode statement : this.body) statement.execute(scope);
+                condition = (BooleanValue) this.condition.execute(frame);
+            } while(condition.value());
+        } catch(ClassCastException e) {
+            throw new InvalidWhileLoopExpressionException(expr.type());
+        }
+
+        return new NullValue();
+    }
+}
@@ -0,0 +1,24 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.ast.CompiledCode;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * The base class of the executable nodes, into which the {@link NodeCompiler} compiles the abstract syntax tree (AST).<br><br>
+ *
+ * Every kind of node, and every operator, has a class of its own, and all the decisions that depend only on the tree
+ * (such as which operator to apply, or whether a variable is read by its lexical address or by its name) are made once, when the node is compiled.
+ * Executing a node only does the work that depends on the values computed at runtime.
+ */
+public abstract class ExecNode implements CompiledCode {
+
+    /**
+     * Executes the node.
+     *
+     * @param frame The {@link Environment} in which the node is executed.
+     * @return The {@link RuntimeValue} the node evaluates to, like {@link indy.pseudokod.runtime.Interpreter#evaluate} would return it.
+     * @throws Throwable If any error occurs during the execution.
+     */
+    public abstract RuntimeValue execute(Environment frame) throws Throwable;
+}
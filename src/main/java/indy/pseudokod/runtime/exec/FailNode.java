@@ -0,0 +1,28 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+import java.util.function.Supplier;
+
+/**
+ * An executable node of a statement that is known to fail as soon as it is executed, e.g. an if-statement whose condition cannot be boolean.
+ * The error is created and thrown only when the node is executed, so a statement that is never reached does not fail.
+ */
+public final class FailNode extends ExecNode {
+    private final Supplier<Throwable> error;
+
+    /**
+     * Constructs a new instance of {@link FailNode}.
+     *
+     * @param error Creates the error thrown when the node is executed.
+     */
+    public FailNode(Supplier<Throwable> error) {
+        this.error = error;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        throw this.error.get();
+    }
+}
@@ -0,0 +1,56 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.environment.FrameLayout;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+import indy.pseudokod.runtime.values.ValueType;
+
+/**
+ * An executable node of a for loop over a list of values. The values are all evaluated in the scope of the loop
+ * before the first iteration, and any error thrown while evaluating them is wrapped in a {@link RuntimeException}.
+ */
+public final class ForEachNode extends ExecNode {
+    private final FrameLayout layout;
+    private final String name;
+    private final ExecNode[] values;
+    private final ExecNode[] body;
+
+    /**
+     * Constructs a new instance of {@link ForEachNode}.
+     *
+     * @param layout The {@link FrameLayout} of the scope of the loop.
+     * @param name The name of the control variable.
+     * @param values The nodes of the values.
+     * @param body The nodes of the statements of the body.
+     */
+    public ForEachNode(FrameLayout layout, String name, ExecNode[] values, ExecNode[] body) {
+        this.layout = layout;
+        this.name = name;
+        this.values = values;
+        this.body = body;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final Environment scope = frame.enter(this.layout);
+        final RuntimeValue[] values = new RuntimeValue[this.values.length];
+
+        for(int i = 0; i < values.length; i++) {
+            try {
+                values[i] = this.values[i].execute(scope);
+            } catch(Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        scope.declareVariable(this.name, ValueType.Number, false, new NullValue());
+
+        for(RuntimeValue value : values) {
+            scope.assignVariable(this.name, 0, 0, value);
+            for(ExecNode statement : this.body) statement.execute(scope);
+        }
+
+        return new NullValue();
+    }
+}
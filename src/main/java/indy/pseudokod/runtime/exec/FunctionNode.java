@@ -0,0 +1,58 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.ast.FunctionDeclaration;
+import indy.pseudokod.ast.Statement;
+import indy.pseudokod.ast.VariableDeclaration;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.values.Function;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+import indy.pseudokod.runtime.values.ValueType;
+
+import java.util.*;
+
+/**
+ * An executable node of a function declaration, declaring a {@link Function} closing over the environment it is executed in.
+ * The parameters and the variables of the function are sorted out once, when the declaration is compiled,
+ * and shared by all the functions the node declares.
+ */
+public final class FunctionNode extends ExecNode {
+    private final FunctionDeclaration declaration;
+    private final List<String> parameters;
+    private final Map<String, ValueType> parameter_types;
+    private final List<String> variables;
+    private final Map<String, ValueType> variable_types;
+
+    /**
+     * Constructs a new instance of {@link FunctionNode}.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     */
+    public FunctionNode(FunctionDeclaration declaration) {
+        this.declaration = declaration;
+        this.parameters = new ArrayList<>();
+        this.parameter_types = new HashMap<>();
+        this.variables = new ArrayList<>();
+        this.variable_types = new HashMap<>();
+
+        for(Statement statement : declaration.data()) {
+            final VariableDeclaration var_dec = (VariableDeclaration) statement;
+
+            if(!var_dec.symbol().endsWith("*")) {
+                this.variables.add(var_dec.symbol());
+                this.variable_types.put(var_dec.symbol(), var_dec.type());
+                continue;
+            }
+
+            this.parameters.add(var_dec.symbol().replace("*", ""));
+            this.parameter_types.put(var_dec.symbol().replace("*", ""), var_dec.type());
+        }
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        frame.declareVariable(this.declaration.symbol(), ValueType.Function, true,
+                new Function(this.declaration, this.parameters, this.parameter_types, this.variables, this.variable_types, this.declaration.body(), frame));
+        return new NullValue();
+    }
+}
@@ -0,0 +1,26 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.VariableNotDeclaredException;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * An executable node reading a variable by its name, used for the identifiers the {@link indy.pseudokod.runtime.Resolver} left for the lookup by name.
+ */
+public final class GlobalReadNode extends ExecNode {
+    private final String name;
+
+    /**
+     * Constructs a new instance of {@link GlobalReadNode}.
+     *
+     * @param name The name of the variable.
+     */
+    public GlobalReadNode(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws VariableNotDeclaredException {
+        return frame.getVariable(this.name);
+    }
+}
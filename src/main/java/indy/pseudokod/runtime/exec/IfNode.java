@@ -0,0 +1,36 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.values.BooleanValue;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * An executable node of an if-statement, with the node of its else or else-if statement, if it has one.
+ */
+public final class IfNode extends ExecNode {
+    private final ExecNode condition;
+    private final ExecNode body;
+    private final ExecNode otherwise;
+
+    /**
+     * Constructs a new instance of {@link IfNode}.
+     *
+     * @param condition The node of the condition.
+     * @param body The node of the body, executed in a scope of its own.
+     * @param otherwise The node of the else or else-if statement, or {@code null} if there is none.
+     */
+    public IfNode(ExecNode condition, ExecNode body, ExecNode otherwise) {
+        this.condition = condition;
+        this.body = body;
+        this.otherwise = otherwise;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final BooleanValue condition = (BooleanValue) this.condition.execute(frame);
+
+        if(condition.value()) return this.body.execute(frame);
+        return this.otherwise != null ? this.otherwise.execute(frame) : new NullValue();
+    }
+}
@@ -0,0 +1,67 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.IndexOutOfRangeException;
+import indy.pseudokod.runtime.values.ListValue;
+import indy.pseudokod.runtime.values.NumberValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+import java.util.List;
+
+/**
+ * An executable node assigning a value to an element of a list stored in a variable, possibly nested in other lists.
+ */
+public final class IndexAssignNode extends ExecNode {
+    private final String name;
+    private final int depth;
+    private final int slot;
+    private final ExecNode[] indexes;
+    private final ExecNode value;
+
+    /**
+     * Constructs a new instance of {@link IndexAssignNode}.
+     *
+     * @param name The name of the variable holding the outermost list.
+     * @param depth The number of parent environments to skip, or {@code -1} if the variable has to be looked up by name.
+     * @param slot The slot of the variable in the environment declaring it.
+     * @param indexes The nodes of the indexes, from the innermost list to the outermost one.
+     * @param value The node of the assigned value.
+     */
+    public IndexAssignNode(String name, int depth, int slot, ExecNode[] indexes, ExecNode value) {
+        this.name = name;
+        this.depth = depth;
+        this.slot = slot;
+        this.indexes = indexes;
+        this.value = value;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final int[] indexes = new int[this.indexes.length];
+        for(int i = 0; i < indexes.length; i++) indexes[i] = ((NumberValue) this.indexes[i].execute(frame)).intValue() - 1;
+
+        final List<RuntimeValue> list = ((ListValue) frame.getVariable(this.name, this.depth, this.slot)).value();
+        update(list, this.value.execute(frame), indexes, indexes.length - 1);
+
+        return frame.assignVariable(this.name, this.depth, this.slot, new ListValue(list));
+    }
+
+    /**
+     * Updates the value of an element in a nested list structure at a given index.
+     *
+     * @param list The list to update.
+     * @param value The new value of the element.
+     * @param indexes The indexes of the element, from the innermost list to the outermost one, starting from {@code 0}.
+     * @param index The index of the current level in {@code indexes}.
+     * @throws IndexOutOfRangeException If any index is out of the valid range.
+     */
+    private static void update(List<RuntimeValue> list, RuntimeValue value, int[] indexes, int index) throws IndexOutOfRangeException {
+        if(indexes[index] < 0 || indexes[index] > list.size() - 1) throw new IndexOutOfRangeException(indexes[index] + 1, list.size());
+        if(index == 0) list.set(indexes[index], value);
+        else {
+            final List<RuntimeValue> sublist = ((ListValue) list.get(indexes[index])).value();
+            update(sublist, value, indexes, index - 1);
+            list.set(indexes[index], new ListValue(sublist));
+        }
+    }
+}
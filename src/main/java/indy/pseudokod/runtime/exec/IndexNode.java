@@ -0,0 +1,37 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.DataTypeMismatchException;
+import indy.pseudokod.exceptions.IndexOutOfRangeException;
+import indy.pseudokod.runtime.values.*;
+
+/**
+ * An executable node of an index expression, reading an element of a list. The indexes start from {@code 1}.
+ */
+public final class IndexNode extends ExecNode {
+    private final ExecNode array;
+    private final ExecNode index;
+
+    /**
+     * Constructs a new instance of {@link IndexNode}.
+     *
+     * @param array The node of the list.
+     * @param index The node of the index.
+     */
+    public IndexNode(ExecNode array, ExecNode index) {
+        this.array = array;
+        this.index = index;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final RuntimeValue left = this.array.execute(frame);
+        if(left.type() != ValueType.List) throw new DataTypeMismatchException(ValueType.List, left.type());
+
+        final ListValue array = (ListValue) left;
+        final int index = ((NumberValue) this.index.execute(frame)).intValue();
+
+        if(index < 1 || index > array.value().size()) throw new IndexOutOfRangeException(index, array.value().size());
+        return array.value().get(index - 1);
+    }
+}
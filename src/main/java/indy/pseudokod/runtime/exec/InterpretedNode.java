@@ -0,0 +1,29 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.ast.Statement;
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.Interpreter;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * An executable node evaluating a statement with the {@link Interpreter}.
+ * It is used for the statements the {@link NodeCompiler} has no specialized node for, such as imports or reading the input,
+ * and for the unusual shapes of statements that fail at runtime, so they fail in exactly the same way as with the {@link Interpreter}.
+ */
+public final class InterpretedNode extends ExecNode {
+    private final Statement statement;
+
+    /**
+     * Constructs a new instance of {@link InterpretedNode}.
+     *
+     * @param statement The statement to evaluate.
+     */
+    public InterpretedNode(Statement statement) {
+        this.statement = statement;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        return Interpreter.evaluate(this.statement, frame);
+    }
+}
@@ -0,0 +1,32 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.VariableNotDeclaredException;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * An executable node reading a variable by the lexical address annotated by the {@link indy.pseudokod.runtime.Resolver}.
+ */
+public final class LocalReadNode extends ExecNode {
+    private final String name;
+    private final int depth;
+    private final int slot;
+
+    /**
+     * Constructs a new instance of {@link LocalReadNode}.
+     *
+     * @param name The name of the variable, used if the address does not match.
+     * @param depth The number of parent environments to skip.
+     * @param slot The slot of the variable in the environment declaring it.
+     */
+    public LocalReadNode(String name, int depth, int slot) {
+        this.name = name;
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws VariableNotDeclaredException {
+        return frame.getVariable(this.name, this.depth, this.slot);
+    }
+}
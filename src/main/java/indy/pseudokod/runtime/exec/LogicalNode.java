@@ -0,0 +1,130 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.exceptions.DataTypeMismatchException;
+import indy.pseudokod.runtime.values.*;
+
+/**
+ * The executable nodes of the logical expressions, one for every operator.<br><br>
+ *
+ * Like in the {@link indy.pseudokod.runtime.Interpreter}, both operands are evaluated, the right one first, and both have to be booleans.
+ */
+public abstract class LogicalNode extends ExecNode {
+    protected final ExecNode left;
+    protected final ExecNode right;
+
+    /**
+     * Constructs a new instance of {@link LogicalNode}.
+     *
+     * @param left The node of the left operand, or {@code null} if the operator is unary.
+     * @param right The node of the right operand.
+     */
+    protected LogicalNode(ExecNode left, ExecNode right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public final RuntimeValue execute(Environment frame) throws Throwable {
+        boolean left = false;
+        final RuntimeValue rhs = this.right.execute(frame);
+
+        if(this.left != null) {
+            final RuntimeValue lhs = this.left.execute(frame);
+            if(lhs.type() != ValueType.Boolean) throw new DataTypeMismatchException(ValueType.Boolean, lhs.type());
+            left = ((BooleanValue) lhs).value();
+        }
+
+        if(rhs.type() != ValueType.Boolean) throw new DataTypeMismatchException(ValueType.Boolean, rhs.type());
+        return new BooleanValue(this.apply(left, ((BooleanValue) rhs).value()));
+    }
+
+    /**
+     * Applies the operator to the values of the operands.
+     *
+     * @param left The value of the left operand, or {@code false} if the operator is unary.
+     * @param right The value of the right operand.
+     * @return The result of the operation.
+     */
+    protected abstract boolean apply(boolean left, boolean right);
+
+    /**
+     * The node of a conjunction.
+     */
+    public static final class And extends LogicalNode {
+        /**
+         * Constructs a new instance of {@link And}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public And(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected boolean apply(boolean left, boolean right) {
+            return left && right;
+        }
+    }
+
+    /**
+     * The node of a disjunction.
+     */
+    public static final class Or extends LogicalNode {
+        /**
+         * Constructs a new instance of {@link Or}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Or(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected boolean apply(boolean left, boolean right) {
+            return left || right;
+        }
+    }
+
+    /**
+     * The node of a negation.
+     */
+    public static final class Not extends LogicalNode {
+        /**
+         * Constructs a new instance of {@link Not}.
+         *
+         * @param left The node of the left operand, or {@code null}.
+         * @param right The node of the right operand.
+         */
+        public Not(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected boolean apply(boolean left, boolean right) {
+            return !right;
+        }
+    }
+
+    /**
+     * The node of an exclusive disjunction.
+     */
+    public static final class Xor extends LogicalNode {
+        /**
+         * Constructs a new instance of {@link Xor}.
+         *
+         * @param left The node of the left operand.
+         * @param right The node of the right operand.
+         */
+        public Xor(ExecNode left, ExecNode right) {
+            super(left, right);
+        }
+
+        @Override
+        protected boolean apply(boolean left, boolean right) {
+            return left ^ right;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.ast.*;
+import indy.pseudokod.exceptions.IllegalConditionException;
+import indy.pseudokod.exceptions.InvalidExpressionException;
+import indy.pseudokod.exceptions.InvalidSetSyntaxException;
+import indy.pseudokod.exceptions.MissingIdentifierException;
+import indy.pseudokod.runtime.values.BooleanValue;
+import indy.pseudokod.runtime.values.CharValue;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.NumberValue;
+import indy.pseudokod.runtime.values.StringValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link NodeCompiler} compiles a resolved abstract syntax tree (AST) into a tree of {@link ExecNode}s,
+ * which executes the program with the same semantics as the {@link indy.pseudokod.runtime.Interpreter},
+ * without dispatching on the kind of every node and on every operator each time the node is evaluated.<br><br>
+ *
+ * The tree has to be annotated by the {@link indy.pseudokod.runtime.Resolver} before it is compiled.
+ * The bodies of the functions are compiled when the functions are called for the first time,
+ * and the compiled body is stored on the {@link FunctionDeclaration}, so it is shared by every call.<br><br>
+ *
+ * Statements that are executed rarely (imports, reading the input, set literals) and statements of unusual shapes,
+ * which fail as soon as they are executed, are left to the {@link indy.pseudokod.runtime.Interpreter} through an {@link InterpretedNode}.
+ */
+public final class NodeCompiler {
+    /**
+     * The {@link NodeCompiler} is not meant to be instantiated.
+     */
+    private NodeCompiler() {}
+
+    /**
+     * Compiles a program executed directly in the given environment.
+     *
+     * @param program The resolved {@link Program} to compile.
+     * @return The {@link ExecNode} of the program.
+     */
+    public static ExecNode compile(Program program) {
+        return new BlockNode(compileAll(program.body()));
+    }
+
+    /**
+     * Compiles the body of a function, unless it has already been compiled.
+     * The function has to be resolved first, see {@link indy.pseudokod.runtime.Resolver#resolveFunction(FunctionDeclaration, indy.pseudokod.environment.Environment)}.
+     *
+     * @param declaration The {@link FunctionDeclaration} of the function.
+     * @return The {@link ExecNode} of the body of the function, executed in the scope of the call.
+     */
+    public static ExecNode compileFunction(FunctionDeclaration declaration) {
+        ExecNode executable = (ExecNode) declaration.executable();
+
+        if(executable == null) {
+            executable = new BlockNode(compileAll(declaration.body()));
+            declaration.setExecutable(executable);
+        }
+
+        return executable;
+    }
+
+    /**
+     * @param declaration The {@link FunctionDeclaration} of a function.
+     * @return The {@link ExecNode} of the body of the function, or {@code null} if the body has not been compiled yet.
+     */
+    public static ExecNode compiled(FunctionDeclaration declaration) {
+        return (ExecNode) declaration.executable();
+    }
+
+    /**
+     * Compiles a list of statements or expressions.
+     *
+     * @param statements The statements to compile.
+     * @return The nodes of the statements, in the same order.
+     */
+    private static ExecNode[] compileAll(List<? extends Statement> statements) {
+        final ExecNode[] nodes = new ExecNode[statements.size()];
+        for(int i = 0; i < nodes.length; i++) nodes[i] = compile(statements.get(i));
+
+        return nodes;
+    }
+
+    /**
+     * Compiles a single statement or expression.
+     *
+     * @param node The statement to compile.
+     * @return The {@link ExecNode} of the statement.
+     */
+    private static ExecNode compile(Statement node) {
+        return switch(node.kind()) {
+            case NumericLiteral -> new ConstantNode(NumberValue.of(((NumericLiteral) node).value()));
+            case StringLiteral -> new ConstantNode(new StringValue(((StringLiteral) node).value()));
+            case CharacterLiteral -> new ConstantNode(new CharValue(((CharacterLiteral) node).value()));
+            case BooleanLiteral -> new ConstantNode(new BooleanValue(((BooleanLiteral) node).value()));
+            case NullLiteral -> new ConstantNode(new NullValue());
+            case ArrayLiteral -> new ArrayLiteralNode(compileAll(((ArrayLiteral) node).values()));
+            case Identifier -> {
+                final Identifier identifier = (Identifier) node;
+                yield identifier.depth() >= 0 ? new LocalReadNode(identifier.symbol(), identifier.depth(), identifier.slot()) : new GlobalReadNode(identifier.symbol());
+            }
+            case BinaryExpression -> compileBinaryExpression((BinaryExpression) node);
+            case ComparisonExpression -> compileComparisonExpression((ComparisonExpression) node);
+            case LogicalExpression -> compileLogicalExpression((LogicalExpression) node);
+            case BitwiseExpression -> compileBitwiseExpression((BitwiseExpression) node);
+            case IndexExpression -> compileIndexExpression((IndexExpression) node);
+            case AssignmentExpression -> compileAssignment((AssignmentExpression) node);
+            case CallExpression -> new CallNode(compile(((CallExpression) node).expression()), compileAll(((CallExpression) node).args()));
+            case DataDeclaration -> compileDataDeclaration((DataDeclaration) node);
+            case FunctionDeclaration -> new FunctionNode((FunctionDeclaration) node);
+            case PrintFunction -> new PrintNode(compileAll(((PrintFunction) node).args()));
+            case IfStatement -> compileIfStatement((IfStatement) node);
+            case ElseStatement -> new ConstantNode(new NullValue());
+            case ForStatement -> compileForStatement((ForStatement) node);
+            case WhileStatement -> compileWhileStatement((WhileStatement) node);
+            case ReturnStatement -> ((ReturnStatement) node).value() != null ? compile(((ReturnStatement) node).value()) : new InterpretedNode(node);
+            default -> new InterpretedNode(node);
+        };
+    }
+
+    /**
+     * Compiles a binary expression into the node of its operator.
+     *
+     * @param node The {@link BinaryExpression} to compile.
+     * @return The {@link ExecNode} of the expression.
+     */
+    private static ExecNode compileBinaryExpression(BinaryExpression node) {
+        final ExecNode left = compile(node.left());
+        final ExecNode right = compile(node.right());
+
+        return switch(node.operator()) {
+            case Add -> new ArithmeticNode.Add(left, right);
+            case Subtract -> new ArithmeticNode.Subtract(left, right);
+            case Multiply -> new ArithmeticNode.Multiply(left, right);
+            case Divide -> new ArithmeticNode.Divide(left, right);
+            case IntegerDivide -> new ArithmeticNode.IntegerDivide(left, right);
+            case Modulus -> new ArithmeticNode.Modulus(left, right);
+            default -> new InterpretedNode(node);
+        };
+    }
+
+    /**
+     * Compiles a comparison expression into the node of its operator.
+     *
+     * @param node The {@link ComparisonExpression} to compile.
+     * @return The {@link ExecNode} of the expression.
+     */
+    private static ExecNode compileComparisonExpression(ComparisonExpression node) {
+        final ExecNode left = compile(node.left());
+        final ExecNode right = compile(node.right());
+
+        return switch(node.operator()) {
+            case Equal -> new ComparisonNode.Equal(left, right);
+            case NotEqual -> new ComparisonNode.NotEqual(left, right);
+            case Less -> new ComparisonNode.Less(left, right);
+            case LessOrEqual -> new ComparisonNode.LessOrEqual(left, right);
+            case Greater -> new ComparisonNode.Greater(left, right);
+            case GreaterOrEqual -> new ComparisonNode.GreaterOrEqual(left, right);
+            default -> new InterpretedNode(node);
+        };
+    }
+
+    /**
+     * Compiles a logical expression into the node of its operator.
+     *
+     * @param node The {@link LogicalExpression} to compile.
+     * @return The {@link ExecNode} of the expression.
+     */
+    private static ExecNode compileLogicalExpression(LogicalExpression node) {
+        final ExecNode left = node.left() != null ? compile(node.left()) : null;
+        final ExecNode right = compile(node.right());
+
+        return switch(node.operator()) {
+            case And -> new LogicalNode.And(left, right);
+            case Or -> new LogicalNode.Or(left, right);
+            case Not -> new LogicalNode.Not(left, right);
+            case Xor -> new LogicalNode.Xor(left, right);
+            default -> new InterpretedNode(node);
+        };
+    }
+
+    /**
+     * Compiles a bitwise expression into the node of its operator.
+     *
+     * @param node The {@link BitwiseExpression} to compile.
+     * @return The {@link ExecNode} of the expression.
+     */
+    private static ExecNode compileBitwiseExpression(BitwiseExpression node) {
+        final ExecNode left = node.left() != null ? compile(node.left()) : null;
+        final ExecNode right = compile(node.right());
+
+        return switch(node.operator()) {
+            case BitwiseNot -> new BitwiseNode.BitwiseNot(left, right);
+            case BitwiseAnd -> new BitwiseNode.BitwiseAnd(left, right);
+            case BitwiseOr -> new BitwiseNode.BitwiseOr(left, right);
+            case BitwiseXor -> new BitwiseNode.BitwiseXor(left, right);
+            case ShiftLeft -> new BitwiseNode.ShiftLeft(left, right);
+            case ShiftRight -> new BitwiseNode.ShiftRight(left, right);
+            default -> new InterpretedNode(node);
+        };
+    }
+
+    /**
+     * Compiles an index expression. Only variables and other index expressions can be indexed.
+     *
+     * @param node The {@link IndexExpression} to compile.
+     * @return The {@link ExecNode} of the expression.
+     */
+    private static ExecNode compileIndexExpression(IndexExpression node) {
+        if(!(node.array().kind() == NodeType.Identifier || node.array().kind() == NodeType.IndexExpression))
+            return new FailNode(() -> new MissingIdentifierException(NodeType.IndexExpression, node.array()));
+
+        return new IndexNode(compile(node.array()), compile(node.index()));
+    }
+
+    /**
+     * Compiles an assignment to a variable or to an element of a list stored in a variable.
+     *
+     * @param node The {@link AssignmentExpression} to compile.
+     * @return The {@link ExecNode} of the assignment.
+     */
+    private static ExecNode compileAssignment(AssignmentExpression node) {
+        if(node.expression().kind() == NodeType.Identifier) {
+            final Identifier identifier = (Identifier) node.expression();
+            return new AssignNode(identifier.symbol(), identifier.depth(), identifier.slot(), compile(node.value()), node.checked());
+        }
+
+        if(node.expression().kind() != NodeType.IndexExpression) return new InterpretedNode(node);
+
+        final List<Expression> indexes = new ArrayList<>();
+        Expression expression = node.expression();
+
+        while(expression.kind() == NodeType.IndexExpression) {
+            indexes.add(((IndexExpression) expression).index());
+            expression = ((IndexExpression) expression).array();
+        }
+
+        if(expression.kind() != NodeType.Identifier) return new InterpretedNode(node);
+
+        final Identifier identifier = (Identifier) expression;
+        return new IndexAssignNode(identifier.symbol(), identifier.depth(), identifier.slot(), compileAll(indexes), compile(node.value()));
+    }
+
+    /**
+     * Compiles a data declaration into the nodes declaring its variables.
+     *
+     * @param node The {@link DataDeclaration} to compile.
+     * @return The {@link ExecNode} of the declaration.
+     */
+    private static ExecNode compileDataDeclaration(DataDeclaration node) {
+        final ExecNode[] variables = new ExecNode[node.body().size()];
+
+        for(int i = 0; i < variables.length; i++) {
+            final VariableDeclaration variable = (VariableDeclaration) node.body().get(i);
+            final ExecNode value = variable.value() != null ? compile(variable.value()) : null;
+            final Expression range = variable.range();
+
+            variables[i] = range == null ? new DeclareNode(variable.symbol(), variable.type(), value, null, null) : switch(range.kind()) {
+                case RangeLiteral -> {
+                    final RangeLiteral literal = (RangeLiteral) range;
+                    yield new DeclareNode(variable.symbol(), variable.type(), value, NodeType.RangeLiteral,
+                            new RangeNode(compile(literal.leftBound()), compile(literal.rightBound()), literal.leftIncluded(), literal.rightIncluded()));
+                }
+                case SetLiteral -> new DeclareNode(variable.symbol(), variable.type(), value, NodeType.SetLiteral, new InterpretedNode(range));
+                case Identifier -> new DeclareNode(variable.symbol(), variable.type(), value, NodeType.Identifier, new GlobalReadNode(((Identifier) range).symbol()));
+                default -> new DeclareNode(variable.symbol(), variable.type(), value, null, null);
+            };
+        }
+
+        return variables.length == 1 ? variables[0] : new BlockNode(variables);
+    }
+
+    /**
+     * Compiles an if-statement, with its else or else-if statement.
+     * Only logical and comparison expressions, variables and calls can be conditions.
+     *
+     * @param node The {@link IfStatement} to compile.
+     * @return The {@link ExecNode} of the statement.
+     */
+    private static ExecNode compileIfStatement(IfStatement node) {
+        final NodeType kind = node.expression().kind();
+
+        if(!(kind == NodeType.BooleanLiteral || kind == NodeType.LogicalExpression || kind == NodeType.ComparisonExpression || kind == NodeType.Identifier || kind == NodeType.CallExpression))
+            return new FailNode(() -> new InvalidExpressionException(NodeType.LogicalExpression, kind));
+
+        ExecNode otherwise = null;
+        if(node.elseStatement() instanceof IfStatement statement) otherwise = compileIfStatement(statement);
+        else if(node.elseStatement() instanceof ElseStatement statement) otherwise = new BlockNode(statement.layout(), compileAll(statement.body()));
+
+        return new IfNode(compile(node.expression()), new BlockNode(node.layout(), compileAll(node.body())), otherwise);
+    }
+
+    /**
+     * Compiles a for-statement, either over the values written with an ellipsis or over a list of values.
+     *
+     * @param node The {@link ForStatement} to compile.
+     * @return The {@link ExecNode} of the statement.
+     */
+    private static ExecNode compileForStatement(ForStatement node) {
+        final List<Expression> values = node.values();
+        final ExecNode[] body = compileAll(node.body());
+
+        if(values.stream().noneMatch(e -> e.kind() == NodeType.EllipsisStatement))
+            return new ForEachNode(node.layout(), node.control_variable(), compileAll(values), body);
+
+        if(values.size() < 4) return new FailNode(InvalidSetSyntaxException::new);
+
+        return new CountedForNode(node.layout(), node.control_variable(), compile(values.get(0)), compile(values.get(1)), compile(values.get(3)),
+                values.get(2).kind() == NodeType.EllipsisStatement, body);
+    }
+
+    /**
+     * Compiles a while or do-while loop. The literal {@code true} cannot be the condition of a loop.
+     *
+     * @param node The {@link WhileStatement} to compile.
+     * @return The {@link ExecNode} of the loop.
+     */
+    private static ExecNode compileWhileStatement(WhileStatement node) {
+        if(node.expression() instanceof Identifier identifier && (identifier.symbol().equals("true") || identifier.symbol().equals("prawda")))
+            return new FailNode(IllegalConditionException::new);
+
+        if(node.isDoWhile()) return new DoWhileNode(node.layout(), compile(node.expression()), compileAll(node.body()));
+        return new WhileNode(node.layout(), compile(node.expression()), compileAll(node.body()));
+    }
+}
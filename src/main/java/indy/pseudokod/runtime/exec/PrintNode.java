@@ -0,0 +1,41 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+import indy.pseudokod.runtime.values.StringValue;
+
+/**
+ * An executable node of a print statement. The arguments are converted to strings and printed together,
+ * once all of them have been evaluated; any error thrown while evaluating them is wrapped in a {@link RuntimeException}.
+ */
+public final class PrintNode extends ExecNode {
+    private final ExecNode[] args;
+
+    /**
+     * Constructs a new instance of {@link PrintNode}.
+     *
+     * @param args The nodes of the printed values.
+     */
+    public PrintNode(ExecNode[] args) {
+        this.args = args;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) {
+        final StringBuilder output = new StringBuilder();
+
+        for(ExecNode arg : this.args) {
+            try {
+                output.append(StringValue.valueOf(arg.execute(frame)).value()
+                        .replace("\\n", "\n")
+                        .replace("\\\"", "\""));
+            } catch(Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        System.out.print(output);
+        return new NullValue();
+    }
+}
@@ -0,0 +1,35 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.runtime.values.NumberValue;
+import indy.pseudokod.runtime.values.RangeValue;
+
+/**
+ * An executable node of a range literal, used as the range of the values of a declared variable.
+ */
+public final class RangeNode extends ExecNode {
+    private final ExecNode left_bound;
+    private final ExecNode right_bound;
+    private final boolean left_included;
+    private final boolean right_included;
+
+    /**
+     * Constructs a new instance of {@link RangeNode}.
+     *
+     * @param left_bound The node of the left bound of the range.
+     * @param right_bound The node of the right bound of the range.
+     * @param left_included {@code true} if the left bound belongs to the range.
+     * @param right_included {@code true} if the right bound belongs to the range.
+     */
+    public RangeNode(ExecNode left_bound, ExecNode right_bound, boolean left_included, boolean right_included) {
+        this.left_bound = left_bound;
+        this.right_bound = right_bound;
+        this.left_included = left_included;
+        this.right_included = right_included;
+    }
+
+    @Override
+    public RangeValue execute(Environment frame) throws Throwable {
+        return new RangeValue(((NumberValue) this.left_bound.execute(frame)).value(), ((NumberValue) this.right_bound.execute(frame)).value(), this.left_included, this.right_included);
+    }
+}
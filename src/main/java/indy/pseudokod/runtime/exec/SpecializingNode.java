@@ -0,0 +1,126 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.runtime.values.NumberValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+import indy.pseudokod.runtime.values.StringValue;
+import indy.pseudokod.utils.Debug;
+
+/**
+ * The base class of the executable nodes of binary operators that specialize themselves on the types of their operands.<br><br>
+ *
+ * A node starts {@link State#Uninitialized}. The first time it is executed, it records the types of the operands
+ * it has seen and switches to the state of the matching specialization, e.g. {@link State#Number} for two numbers.
+ * A specialized node takes its fast path as long as the operands pass its guard, i.e. they are of the types it was specialized for.
+ * When other operands show up, the node is deoptimized: it executes the generic path, which handles all the operands
+ * like the {@link indy.pseudokod.runtime.Interpreter}, and is respecialized for the new operands, e.g. when a loop
+ * switches from strings to numbers, or keeps its specialization if the new operands have none, e.g. a null operand.
+ * Operands that have no specialization do not make an uninitialized node generic either.
+ * After {@link #MAX_TRANSITIONS} such transitions, the node switches to the {@link State#Generic} state for good,
+ * so a node whose operands keep changing does not keep paying for the transitions.<br><br>
+ *
+ * With the {@code -debug} flag, the nodes count how many of them are specialized, how many are generic and how many times
+ * they have been deoptimized, which is reported by {@link #statistics()}.
+ */
+public abstract class SpecializingNode extends ExecNode {
+    /**
+     * The number of times a node may change its state before it becomes generic for good.
+     */
+    public static final int MAX_TRANSITIONS = 4;
+
+    private static long specialized = 0;
+    private static long generic = 0;
+    private static long deoptimized = 0;
+
+    protected final ExecNode left;
+    protected final ExecNode right;
+    protected State state;
+    private int transitions;
+
+    /**
+     * Constructs a new, uninitialized instance of {@link SpecializingNode}.
+     *
+     * @param left The node of the left operand.
+     * @param right The node of the right operand.
+     */
+    protected SpecializingNode(ExecNode left, ExecNode right) {
+        this.left = left;
+        this.right = right;
+        this.state = State.Uninitialized;
+    }
+
+    /**
+     * Chooses the specialization for the given operands.
+     * Nodes that have a string specialization override it to return {@link State#String} for two strings.
+     *
+     * @param lhs The value of the left operand.
+     * @param rhs The value of the right operand.
+     * @return {@link State#Number} for two numbers, {@link State#Generic} otherwise.
+     */
+    protected State select(RuntimeValue lhs, RuntimeValue rhs) {
+        return lhs instanceof NumberValue && rhs instanceof NumberValue ? State.Number : State.Generic;
+    }
+
+    /**
+     * Updates the state of the node after the operands failed the guard of its current state.
+     * The node is specialized for the operands, or keeps its state if they have no specialization,
+     * unless it has run out of transitions, in which case it becomes generic.
+     *
+     * @param lhs The value of the left operand.
+     * @param rhs The value of the right operand.
+     */
+    protected final void respecialize(RuntimeValue lhs, RuntimeValue rhs) {
+        final State previous = this.state;
+        State next = State.Generic;
+
+        if(this.transitions++ < MAX_TRANSITIONS) {
+            next = this.select(lhs, rhs);
+            if(next == State.Generic) next = previous;
+        }
+
+        this.state = next;
+        if(Debug.ENABLED) count(previous, next);
+    }
+
+    /**
+     * Counts a change of the state of a node.
+     *
+     * @param previous The state the node was in.
+     * @param next The state the node is in now.
+     */
+    private static void count(State previous, State next) {
+        if(previous != State.Uninitialized) deoptimized++;
+        if(previous == next) return;
+
+        if(previous == State.Generic) generic--;
+        else if(previous != State.Uninitialized) specialized--;
+
+        if(next == State.Generic) generic++;
+        else if(next != State.Uninitialized) specialized++;
+    }
+
+    /**
+     * @param lhs The value of the left operand.
+     * @param rhs The value of the right operand.
+     * @return {@code true} if both operands are strings.
+     */
+    protected static boolean strings(RuntimeValue lhs, RuntimeValue rhs) {
+        return lhs instanceof StringValue && rhs instanceof StringValue;
+    }
+
+    /**
+     * @return A summary of the number of nodes specialized and generic, and of the deoptimizations so far.
+     */
+    public static String statistics() {
+        return String.format("Specialized %d nodes, %d generic, %d deoptimizations.", specialized, generic, deoptimized);
+    }
+
+    /**
+     * Enum representing the states of a {@link SpecializingNode}.
+     */
+    public enum State {
+        Uninitialized,
+        Number,
+        String,
+        Generic
+    }
+}
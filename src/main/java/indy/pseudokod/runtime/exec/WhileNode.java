@@ -0,0 +1,53 @@
+package indy.pseudokod.runtime.exec;
+
+import indy.pseudokod.environment.Environment;
+import indy.pseudokod.environment.FrameLayout;
+import indy.pseudokod.exceptions.InvalidWhileLoopExpressionException;
+import indy.pseudokod.runtime.values.BooleanValue;
+import indy.pseudokod.runtime.values.NullValue;
+import indy.pseudokod.runtime.values.RuntimeValue;
+
+/**
+ * An executable node of a while loop. The condition is evaluated in the enclosing environment
+ * and the body in the scope of the loop, entered once for all the iterations.<br><br>
+ *
+ * Like in the {@link indy.pseudokod.runtime.Interpreter}, a {@link ClassCastException} thrown anywhere in the loop,
+ * e.g. because the condition is not a boolean, is reported as an {@link InvalidWhileLoopExpressionException}.
+ */
+public final class WhileNode extends ExecNode {
+    private final FrameLayout layout;
+    private final ExecNode condition;
+    private final ExecNode[] body;
+
+    /**
+     * Constructs a new instance of {@link WhileNode}.
+     *
+     * @param layout The {@link FrameLayout} of the scope of the loop.
+     * @param condition The node of the condition.
+     * @param body The nodes of the statements of the body.
+     */
+    public WhileNode(FrameLayout layout, ExecNode condition, ExecNode[] body) {
+        this.layout = layout;
+        this.condition = condition;
+        this.body = body;
+    }
+
+    @Override
+    public RuntimeValue execute(Environment frame) throws Throwable {
+        final Environment scope = frame.enter(this.layout);
+        final RuntimeValue expr = this.condition.execute(frame);
+
+        try {
+            BooleanValue condition = (BooleanValue) expr;
+
+            while(condition.value()) {
+                for(ExecNode statement : this.body) statement.execute(scope);
+                condition = (BooleanValue) this.condition.execute(frame);
+            }
+        } catch(ClassCastException e) {
+            throw new InvalidWhileLoopExpressionException(expr.type());
+        }
+
+        return new NullValue();
+    }
+}
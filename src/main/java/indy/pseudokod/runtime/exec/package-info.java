@@ -0,0 +1,30 @@
+/**
+ * The {@link indy.pseudokod.runtime.exec} package provides the executable node tree,
+ * an alternative to walking the abstract syntax tree (AST) with the {@link indy.pseudokod.runtime.Interpreter}.
+ *
+ * <p>The {@link indy.pseudokod.runtime.exec.NodeCompiler} compiles a resolved program into a tree of
+ * {@link indy.pseudokod.runtime.exec.ExecNode}s. Every node knows how to execute itself: there is a node for every operator
+ * (e.g. {@link indy.pseudokod.runtime.exec.ArithmeticNode.Add}), for a variable read by its lexical address
+ * ({@link indy.pseudokod.runtime.exec.LocalReadNode}) or by its name ({@link indy.pseudokod.runtime.exec.GlobalReadNode}),
+ * and for every kind of statement, so executing the program never dispatches on the kind of a node.</p>
+ *
+ * <p>The nodes of the arithmetic and comparison operators are {@link indy.pseudokod.runtime.exec.SpecializingNode}s,
+ * which specialize themselves on the types of the operands they see, respecialize when other types show up,
+ * and fall back to a generic path for good when the types keep changing.</p>
+ *
+ * <p>The nodes execute the program with exactly the same semantics as the interpreter, including the errors they throw,
+ * which stays the reference implementation of the language.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * Resolver.resolve(program);
+ * NodeCompiler.compile(program).execute(env);
+ * }</pre>
+ *
+ * @see indy.pseudokod.runtime.exec.NodeCompiler
+ * @see indy.pseudokod.runtime.exec.ExecNode
+ * @see indy.pseudokod.runtime.exec.SpecializingNode
+ * @see indy.pseudokod.runtime.Engine
+ * @see indy.pseudokod.runtime.Interpreter
+ */
+package indy.pseudokod.runtime.exec;
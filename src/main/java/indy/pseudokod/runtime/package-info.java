@@ -18,6 +18,12 @@
  * <p>Key Components:</p>
  * <ul>
  *   <li><strong>Runtime Environment:</strong> Manages program state, variable scopes and variables</li>
+ *   <li><strong>Resolver:</strong> Annotates the identifiers with the lexical addresses of the variables
+ *       they refer to, before the program is executed.</li>
+ *   <li><strong>Engines:</strong> Execute the resolved program, either by walking the AST with the {@link indy.pseudokod.runtime.Interpreter}
+ *       by running the executable nodes it is compiled into, see {@link indy.pseudokod.runtime.exec},
+ *       by interpreting it with its numeric kernels compiled into JVM classes, see {@link indy.pseudokod.jit},
+ *       or by interpreting it while promoting its hot functions and loops to faster tiers, see {@link indy.pseudokod.jit.TieredCompiler}.</li>
  *   <li><strong>Expression Evaluator:</strong> Executes expressions and resolves values
  *       dynamically at runtime.</li>
  *   <li><strong>Control Flow Executor:</strong> Interprets and executes control statements
@@ -38,7 +44,13 @@
  *
  * <p>For more details, refer to the individual class documentation in this package.</p>
  *
+ * @see indy.pseudokod.runtime.Engine
  * @see indy.pseudokod.runtime.Interpreter
+ * @see indy.pseudokod.runtime.ModuleRegistry
+ * @see indy.pseudokod.runtime.Resolver
+ * @see indy.pseudokod.runtime.exec.NodeCompiler
+ * @see indy.pseudokod.jit.JitCompiler
+ * @see indy.pseudokod.jit.TieredCompiler
  * @see indy.pseudokod.runtime.values.RuntimeValue
  * @see indy.pseudokod.runtime.values.ValueType
  */
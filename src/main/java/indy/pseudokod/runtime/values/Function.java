@@ -1,5 +1,6 @@
 package indy.pseudokod.runtime.values;
 
+import indy.pseudokod.ast.FunctionDeclaration;
 import indy.pseudokod.ast.Statement;
 import indy.pseudokod.environment.Environment;
 
@@ -10,6 +11,7 @@ import java.util.Map;
  * Represents a function in the runtime environment as a {@link RuntimeValue} with type {@link ValueType#Function}.
  */
 public class Function extends RuntimeValue {
+    private final FunctionDeclaration declaration;
     private final List<String> parameters;
     private final Map<String, ValueType> parameter_types;
     private final List<String> variables;
@@ -19,6 +21,7 @@ public class Function extends RuntimeValue {
 
     /**
      * Constructs a new instance of {@link Function} with the specified name, parameters, variables, body and environment.
+     * @param declaration The {@link FunctionDeclaration} the function was declared with.
      * @param parameters The list of parameter names.
      * @param parameter_types A map of parameter names to their corresponding types.
      * @param variables The list of variable names used inside the function.
@@ -26,8 +29,9 @@ public class Function extends RuntimeValue {
      * @param body The list of statements representing the body of the function.
      * @param env The {@link Environment} in which the function is defined.
      */
-    public Function(List<String> parameters, Map<String, ValueType> parameter_types, List<String> variables, Map<String, ValueType> variables_types, List<Statement> body, Environment env) {
+    public Function(FunctionDeclaration declaration, List<String> parameters, Map<String, ValueType> parameter_types, List<String> variables, Map<String, ValueType> variables_types, List<Statement> body, Environment env) {
         super(ValueType.Function);
+        this.declaration = declaration;
         this.parameters = parameters;
         this.body = body;
         this.env = env;
@@ -36,6 +40,13 @@ public class Function extends RuntimeValue {
         this.variable_types = variables_types;
     }
 
+    /**
+     * @return The {@link FunctionDeclaration} this {@link Function} was declared with.
+     */
+    public FunctionDeclaration declaration() {
+        return this.declaration;
+    }
+
     /**
      * @return The list of parameter names of this {@link Function}.
      */
@@ -0,0 +1,64 @@
+package indy.pseudokod.runtime.values;
+
+/**
+ * Represents an integer number as a {@link NumberValue}, keeping it as a {@code long} next to its {@code double} value,
+ * so loop counters, bitwise operators and list indexes use it without converting it, and integer arithmetic stays in {@code long}s.<br><br>
+ *
+ * Only the integers within {@link #MAX_EXACT} of zero, which are exactly representable as {@code double}s, are kept as {@link IntegerValue}s,
+ * so an integer operation on them gives the same number as the operation on their {@code double} values.
+ * An integer outside of the range widens to a plain {@link NumberValue}. The integers near zero are cached, see {@link #of(long)}.
+ */
+public final class IntegerValue extends NumberValue {
+    /**
+     * The greatest magnitude of an integer kept as {@link IntegerValue}, {@code 2^53}.
+     */
+    public static final long MAX_EXACT = 1L << 53;
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final IntegerValue[] cache = new IntegerValue[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for(int i = 0; i < cache.length; i++) cache[i] = new IntegerValue(i + CACHE_LOW);
+    }
+
+    private final long value;
+
+    /**
+     * Constructs a new instance of {@link IntegerValue} with the specified integer.
+     *
+     * @param value The integer to be wrapped in this object.
+     */
+    private IntegerValue(long value) {
+        super(value);
+        this.value = value;
+    }
+
+    /**
+     * Returns a number value of an integer, cached if the integer is near zero.
+     *
+     * @param value The integer.
+     * @return An {@link IntegerValue}, or a {@link NumberValue} if the integer is further than {@link #MAX_EXACT} from zero.
+     */
+    public static NumberValue of(long value) {
+        if(value >= CACHE_LOW && value <= CACHE_HIGH) return cache[(int) value - CACHE_LOW];
+        if(value > MAX_EXACT || value < -MAX_EXACT) return new NumberValue(value);
+
+        return new IntegerValue(value);
+    }
+
+    /**
+     * @return The integer truncated to an {@code int}, like a cast of its {@code double} value does.
+     */
+    @Override
+    public int intValue() {
+        return this.value == (int) this.value ? (int) this.value : super.intValue();
+    }
+
+    /**
+     * @return The integer value encapsulated by this {@link IntegerValue}.
+     */
+    @Override
+    public long longValue() {
+        return this.value;
+    }
+}
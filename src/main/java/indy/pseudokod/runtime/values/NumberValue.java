@@ -2,6 +2,7 @@ package indy.pseudokod.runtime.values;
 
 /**
  * Represents a number value as a {@link RuntimeValue} with type {@link ValueType#Number}.
+ * Integers may be represented by its subclass {@link IntegerValue}, see {@link #of(double)}.
  */
 public class NumberValue extends RuntimeValue {
     private final double value;
@@ -16,10 +17,38 @@ public class NumberValue extends RuntimeValue {
         this.value = value;
     }
 
+    /**
+     * Returns a number value of a number, which is an {@link IntegerValue} if the number is an integer kept as such.
+     * Negative zero is not an integer, since it has to stay negative.
+     *
+     * @param value The number.
+     * @return The {@link NumberValue}.
+     */
+    public static NumberValue of(double value) {
+        if(value == (long) value && value <= IntegerValue.MAX_EXACT && value >= -IntegerValue.MAX_EXACT && (value != 0 || Double.doubleToRawLongBits(value) == 0))
+            return IntegerValue.of((long) value);
+
+        return new NumberValue(value);
+    }
+
     /**
      * @return The number value encapsulated by this {@link NumberValue}.
      */
     public double value() {
         return this.value;
     }
+
+    /**
+     * @return The number truncated to an {@code int}, like a cast of its value does.
+     */
+    public int intValue() {
+        return (int) this.value;
+    }
+
+    /**
+     * @return The number truncated to a {@code long}, like a cast of its value does.
+     */
+    public long longValue() {
+        return (long) this.value;
+    }
 }
@@ -13,6 +13,7 @@ public class RangeValue extends RuntimeValue{
     private final double right_bound;
     private final boolean right_inclusive;
     private final Function<Double, Boolean> test;
+    private final boolean integral;
 
     /**
      * Constructs a new instance of {@link RangeValue} with the specified bounds and inclusivity.
@@ -39,12 +40,50 @@ public class RangeValue extends RuntimeValue{
      *             if the value satisfies additional conditions for inclusion in the range.
      */
     public RangeValue(double left_bound, double right_bound, boolean left_inclusive, boolean right_inclusive, Function<Double, Boolean> test) {
+        this(left_bound, right_bound, left_inclusive, right_inclusive, test, false);
+    }
+
+    /**
+     * Constructs a new instance of {@link RangeValue} with the specified bounds, inclusivity, test function, and whether it includes only integers.
+     *
+     * @param left_bound the lower bound of the range.
+     * @param right_bound the upper bound of the range.
+     * @param left_inclusive {@code true} if the lower bound is inclusive, {@code false} otherwise.
+     * @param right_inclusive {@code true} if the upper bound is inclusive, {@code false} otherwise.
+     * @param test a {@link Function} that accepts a {@link Double} and returns {@code true}
+     *             if the value satisfies additional conditions for inclusion in the range.
+     * @param integral {@code true} if the test accepts only integers, {@code false} otherwise.
+     */
+    private RangeValue(double left_bound, double right_bound, boolean left_inclusive, boolean right_inclusive, Function<Double, Boolean> test, boolean integral) {
         super(ValueType.Range);
         this.left_inclusive = left_inclusive;
         this.left_bound = left_bound;
         this.right_bound = right_bound;
         this.right_inclusive = right_inclusive;
         this.test = test;
+        this.integral = integral;
+    }
+
+    /**
+     * Creates a range of integers, like {@code Z} or {@code N}, whose numbers are kept as {@link IntegerValue}s.
+     *
+     * @param left_bound the lower bound of the range.
+     * @param right_bound the upper bound of the range.
+     * @param left_inclusive {@code true} if the lower bound is inclusive, {@code false} otherwise.
+     * @param right_inclusive {@code true} if the upper bound is inclusive, {@code false} otherwise.
+     * @return The {@link RangeValue} including only the integers within the bounds.
+     */
+    public static RangeValue integers(double left_bound, double right_bound, boolean left_inclusive, boolean right_inclusive) {
+        return new RangeValue(left_bound, right_bound, left_inclusive, right_inclusive, (n) -> n == n.longValue(), true);
+    }
+
+    /**
+     * Returns whether the range includes only integers, see {@link #integers(double, double, boolean, boolean)}.
+     *
+     * @return {@code true} if the range includes only integers, {@code false} otherwise.
+     */
+    public boolean integral() {
+        return this.integral;
     }
 
     /**
@@ -0,0 +1,26 @@
+package indy.pseudokod.utils;
+
+/**
+ * Tells whether the interpreter runs with the {@code -debug} flag, in which case the environments, the optimizer
+ * and the compilers count the work they do, so it can be reported once the program has been executed.<br><br>
+ *
+ * The flag is read from the {@value #PROPERTY} system property into a constant when this class is initialized,
+ * so the JIT compiler of the virtual machine removes the counting entirely when the flag is off.
+ * The {@link indy.pseudokod.main.Main} class sets the property from the command-line arguments before anything is counted.
+ */
+public final class Debug {
+    /**
+     * The name of the system property holding the flag.
+     */
+    public static final String PROPERTY = "pseudokod.debug";
+
+    /**
+     * {@code true} if the work done by the interpreter is counted.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    /**
+     * The {@link Debug} class is not meant to be instantiated.
+     */
+    private Debug() {}
+}
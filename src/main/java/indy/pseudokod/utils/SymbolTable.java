@@ -0,0 +1,118 @@
+package indy.pseudokod.utils;
+
+/**
+ * A global table of interned identifier names, shared by the {@link indy.pseudokod.parser.Parser}
+ * and the {@link indy.pseudokod.environment.Environment}.<br><br>
+ *
+ * Every name is represented by a single canonical {@link String} instance, which is also the instance
+ * returned by {@link String#intern()}, so names written as string literals in the interpreter are canonical as well.
+ * Canonical names can be compared by identity, and their hash codes are computed only once.
+ * Names can be looked up directly in a character array, so an identifier seen before
+ * is resolved to its canonical instance without allocating anything.<br><br>
+ *
+ * Lookups do not lock. New names are inserted under a lock into an open-addressing table,
+ * which is replaced by a larger copy when it becomes half full.
+ */
+public final class SymbolTable {
+    private static volatile String[] table = new String[1024];
+    private static int size = 0;
+
+    private SymbolTable() {}
+
+    /**
+     * Returns the canonical instance of the name spelled by the characters in the given range.
+     *
+     * @param characters The characters containing the name.
+     * @param start The offset of the first character of the name.
+     * @param end The offset after the last character of the name.
+     * @return The canonical {@link String} instance of the name.
+     */
+    public static String intern(char[] characters, int start, int end) {
+        int hash = 0;
+        for(int i = start; i < end; i++) hash = 31 * hash + characters[i];
+
+        final String[] table = SymbolTable.table;
+        for(int i = mix(hash) & (table.length - 1); table[i] != null; i = (i + 1) & (table.length - 1))
+            if(table[i].hashCode() == hash && matches(table[i], characters, start, end)) return table[i];
+
+        return insert(new String(characters, start, end - start));
+    }
+
+    /**
+     * Returns the canonical instance of the given name.
+     *
+     * @param name The name.
+     * @return The canonical {@link String} instance equal to the given name.
+     */
+    public static String intern(String name) {
+        final int hash = name.hashCode();
+
+        final String[] table = SymbolTable.table;
+        for(int i = mix(hash) & (table.length - 1); table[i] != null; i = (i + 1) & (table.length - 1))
+            if(table[i] == name || table[i].hashCode() == hash && table[i].equals(name)) return table[i];
+
+        return insert(name);
+    }
+
+    /**
+     * Inserts a name into the table, unless another thread has inserted it in the meantime.
+     *
+     * @param name The name to insert.
+     * @return The canonical {@link String} instance of the name.
+     */
+    private static synchronized String insert(String name) {
+        String[] table = SymbolTable.table;
+        int i = mix(name.hashCode()) & (table.length - 1);
+
+        for(; table[i] != null; i = (i + 1) & (table.length - 1))
+            if(table[i].equals(name)) return table[i];
+
+        final String symbol = name.intern();
+
+        if(2 * (size + 1) > table.length) {
+            table = new String[table.length * 2];
+            for(String entry : SymbolTable.table) {
+                if(entry == null) continue;
+
+                int j = mix(entry.hashCode()) & (table.length - 1);
+                while(table[j] != null) j = (j + 1) & (table.length - 1);
+                table[j] = entry;
+            }
+
+            i = mix(symbol.hashCode()) & (table.length - 1);
+            while(table[i] != null) i = (i + 1) & (table.length - 1);
+        }
+
+        table[i] = symbol;
+        size++;
+        SymbolTable.table = table;
+
+        return symbol;
+    }
+
+    /**
+     * Checks if the given name is spelled by the characters in the given range.
+     *
+     * @param name The name.
+     * @param characters The characters to compare the name with.
+     * @param start The offset of the first character.
+     * @param end The offset after the last character.
+     * @return {@code true} if the characters spell the name, {@code false} otherwise.
+     */
+    private static boolean matches(String name, char[] characters, int start, int end) {
+        if(name.length() != end - start) return false;
+
+        for(int i = 0; i < name.length(); i++) if(name.charAt(i) != characters[start + i]) return false;
+        return true;
+    }
+
+    /**
+     * Spreads the bits of a hash code, so that names with similar hash codes do not cluster in the table.
+     *
+     * @param hash The hash code.
+     * @return The mixed hash code.
+     */
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -43,6 +43,8 @@ public class Utils {
             case NumericLiteral -> stringifyNumber((NumericLiteral) statement);
             case CharacterLiteral -> stringifyCharacter((CharacterLiteral) statement);
             case StringLiteral -> stringifyString((StringLiteral) statement);
+            case BooleanLiteral -> stringifyBoolean((BooleanLiteral) statement);
+            case NullLiteral -> "{kind: " + statement.kind() + "},\n";
             case ArrayLiteral -> stringifyArray((ArrayLiteral) statement);
             case SetLiteral -> stringifySet((SetLiteral) statement);
             case Identifier -> stringifyIdentifier((Identifier) statement);
@@ -121,6 +123,10 @@ public class Utils {
         return "{kind: " + string.kind() + ", value: \"" + string.value() + "\"}";
     }
 
+    public static String stringifyBoolean(BooleanLiteral bool) {
+        return "{kind: " + bool.kind() + ", value: \"" + bool.value() + "\"},\n";
+    }
+
     public static String stringifyCharacter(CharacterLiteral character) {
         return "{kind: " + character.kind() + ", value: \"" + character.value() + "\"},\n";
     }
@@ -176,7 +182,7 @@ public class Utils {
         return "\tkind: \"" + expression.kind() + "\",\n" +
             "\tleft: " + stringifyStatement(expression.left()) +
             "\tright: " + stringifyStatement(expression.right()) +
-            "\toperator: \"" + expression.operator() + "\"";
+            "\toperator: \"" + expression.operator().symbol() + "\"";
     }
 
     public static String stringifyDataDeclaration(DataDeclaration expression) throws Throwable {